@@ -0,0 +1,50 @@
+package com.m2i.BiblioRestApi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.m2i.BiblioRestApi.mapper.CatalogueProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Négociation de contenu binaire : les réponses et les corps de requête de l'API peuvent
+ * être encodés en CBOR (application/cbor) ou en Smile (application/x-jackson-smile) au lieu
+ * de JSON, selon les en-têtes Accept et Content-Type.
+ *
+ * Les mappers sont construits à partir du builder configuré par Spring Boot : les options
+ * Jackson de l'application (champs null omis, dates ISO...) s'appliquent aux trois formats.
+ *
+ * Les lectures du catalogue sont aussi disponibles en protobuf (application/x-protobuf),
+ * selon le schéma proto/catalogue.proto.
+ */
+@Configuration
+public class FormatsBinairesConfig implements WebMvcConfigurer {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new SmileFactory()).build();
+        return new MappingJackson2SmileHttpMessageConverter(mapper);
+    }
+
+    /**
+     * Le convertisseur protobuf est ajouté après JSON : sans en-tête Accept, la réponse reste en JSON
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CatalogueProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,53 @@
+package com.m2i.BiblioRestApi.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.webmvc.GraphQlHttpHandler;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Configuration de l'API GraphQL : limites appliquées aux requêtes avant leur exécution
+ * et sérialisation des réponses
+ */
+@Configuration
+public class GraphQLConfig {
+
+    /**
+     * Profondeur maximale d'imbrication (livres { auteur { livres { ... } } })
+     */
+    @Bean
+    public MaxQueryDepthInstrumentation profondeurMaxInstrumentation(
+            @Value("${bibliotheque.graphql.profondeur-max:5}") int profondeurMax) {
+        return new MaxQueryDepthInstrumentation(profondeurMax);
+    }
+
+    /**
+     * Complexité maximale : chaque champ compte 1, et un champ paginé compte sa taille
+     * de page multipliée par la complexité de ses sous-champs
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation complexiteMaxInstrumentation(
+            @Value("${bibliotheque.graphql.complexite-max:1000}") int complexiteMax) {
+        return new MaxQueryComplexityInstrumentation(complexiteMax, (environnement, complexiteEnfants) ->
+                environnement.getArguments().get("taille") instanceof Integer taille
+                        ? 1 + taille * complexiteEnfants
+                        : 1 + complexiteEnfants);
+    }
+
+    /**
+     * Les réponses GraphQL gardent leurs valeurs null (imposées par la spécification),
+     * que la configuration Jackson de l'API REST omet
+     */
+    @Bean
+    public GraphQlHttpHandler graphQlHttpHandler(WebGraphQlHandler webGraphQlHandler, ObjectMapper objectMapper) {
+        ObjectMapper mapper = objectMapper.copy()
+                .setDefaultPropertyInclusion(JsonInclude.Include.ALWAYS);
+        return new GraphQlHttpHandler(webGraphQlHandler, new MappingJackson2HttpMessageConverter(mapper));
+    }
+}
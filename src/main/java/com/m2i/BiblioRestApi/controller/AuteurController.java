@@ -1,17 +1,28 @@
 package com.m2i.BiblioRestApi.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.ImportResultatDTO;
+import com.m2i.BiblioRestApi.dto.LectureLotDTO;
 import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.mapper.CatalogueProtobuf;
 import com.m2i.BiblioRestApi.service.AuteurService;
+import com.m2i.BiblioRestApi.service.MergePatch;
+import com.m2i.BiblioRestApi.service.ModeleLectureService;
+import com.m2i.BiblioRestApi.service.ResultatUpsert;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Contrôleur REST pour la gestion des auteurs
@@ -23,27 +34,75 @@ public class AuteurController {
     @Autowired
     private AuteurService auteurService;
 
+    @Autowired
+    private ModeleLectureService modeleLectureService;
+
     /**
-     * GET /api/auteurs - Récupérer tous les auteurs
+     * GET /api/auteurs - Récupérer tous les auteurs (depuis le modèle de lecture s'il est chargé)
      *
      * @return Liste de tous les auteurs
      */
     @GetMapping
     public ResponseEntity<List<AuteurDTO>> getAllAuteurs() {
-        List<AuteurDTO> auteurs = auteurService.getAllAuteurs();
+        List<AuteurDTO> auteurs = modeleLectureService.getAuteurs()
+                .orElseGet(auteurService::getAllAuteurs);
         return ResponseEntity.ok(auteurs);
     }
 
+    /**
+     * GET /api/auteurs (Accept: application/x-protobuf) - Récupérer tous les auteurs en protobuf
+     *
+     * @return Message ListeAuteurs écrit en flux, ligne par ligne
+     */
+    @GetMapping(produces = CatalogueProtobuf.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> getAllAuteursProtobuf() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CatalogueProtobuf.MEDIA_TYPE))
+                .body(auteurService::ecrireAuteursProtobuf);
+    }
+
+    /**
+     * GET /api/auteurs?fields=id,... - Liste tous les auteurs réduits aux champs demandés
+     *
+     * @param fields Les champs à renvoyer, dans l'ordre voulu
+     * @return Une ligne par auteur, triées par ID
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> getAllAuteursProjection(@RequestParam List<String> fields) {
+        return ResponseEntity.ok(auteurService.getAuteursProjection(fields));
+    }
+
+    /**
+     * GET /api/auteurs?ids=1,2,3 - Récupère plusieurs auteurs par ID en une requête
+     *
+     * @param ids Les identifiants des auteurs
+     * @return Les auteurs trouvés dans l'ordre demandé et les identifiants sans auteur
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<LectureLotDTO<AuteurDTO, Long>> getAuteursByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(auteurService.getAuteursByIds(ids));
+    }
+
     /**
      * GET /api/auteurs/{id} - Récupérer un auteur par son ID
      *
      * @param id L'identifiant de l'auteur
+     * @param expand "livres" pour inclure les livres de l'auteur (optionnel)
      * @return L'auteur trouvé
      */
     @GetMapping("/{id}")
-    public ResponseEntity<AuteurDTO> getAuteurById(@PathVariable Long id) {
-        AuteurDTO auteur = auteurService.getAuteurById(id);
-        return ResponseEntity.ok(auteur);
+    public ResponseEntity<AuteurDTO> getAuteurById(
+            @PathVariable Long id,
+            @RequestParam(required = false) List<String> expand) {
+        if (expand == null || expand.isEmpty()) {
+            return ResponseEntity.ok(modeleLectureService.getAuteur(id)
+                    .orElseGet(() -> auteurService.getAuteurById(id)));
+        }
+        if (!expand.stream().allMatch("livres"::equals)) {
+            throw new BusinessException("Expansion non supportée : " + expand + " (valeur acceptée : livres)");
+        }
+        return ResponseEntity.ok(modeleLectureService.getAuteurAvecLivres(id)
+                .orElseGet(() -> auteurService.getAuteurAvecLivres(id)));
     }
 
     /**
@@ -81,6 +140,56 @@ public class AuteurController {
         return ResponseEntity.ok(updatedAuteur);
     }
 
+    /**
+     * PATCH /api/auteurs/{id} - Modifier une partie des champs d'un auteur (JSON Merge Patch)
+     *
+     * @param id L'identifiant de l'auteur à modifier
+     * @param patch Les seuls champs à modifier (null efface le champ)
+     * @return L'auteur mis à jour
+     */
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    public ResponseEntity<AuteurDTO> patchAuteur(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        AuteurDTO updatedAuteur = auteurService.patchAuteur(id, patch);
+        return ResponseEntity.ok(updatedAuteur);
+    }
+
+    /**
+     * PUT /api/auteurs/email/{email} - Créer ou mettre à jour l'auteur portant cet email
+     *
+     * @param email L'email de l'auteur (clé naturelle)
+     * @param auteurDTO Les données de l'auteur
+     * @return L'auteur avec le statut 201 Created s'il a été créé, 200 OK sinon
+     */
+    @PutMapping("/email/{email}")
+    public ResponseEntity<AuteurDTO> upsertAuteur(
+            @PathVariable String email,
+            @RequestBody AuteurDTO auteurDTO) {
+        ResultatUpsert<AuteurDTO> resultat = auteurService.upsertAuteur(email, auteurDTO);
+        if (!resultat.cree()) {
+            return ResponseEntity.ok(resultat.donnees());
+        }
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/api/auteurs/{id}")
+                .buildAndExpand(resultat.donnees().getId())
+                .toUri();
+        return ResponseEntity.created(location).body(resultat.donnees());
+    }
+
+    /**
+     * POST /api/auteurs/upsert - Créer ou mettre à jour des auteurs par email, par lots
+     *
+     * @param auteurs Les auteurs à créer ou mettre à jour
+     * @return Le compte rendu élément par élément (créé, modifié, inchangé ou rejeté)
+     */
+    @PostMapping("/upsert")
+    public ResponseEntity<ImportResultatDTO> upsertAuteurs(@RequestBody List<AuteurDTO> auteurs) {
+        return ResponseEntity.ok(auteurService.upsertAuteurs(auteurs));
+    }
+
     /**
      * DELETE /api/auteurs/{id} - Supprimer un auteur
      *
@@ -101,7 +210,8 @@ public class AuteurController {
      */
     @GetMapping("/{id}/livres")
     public ResponseEntity<List<LivreDTO>> getLivresByAuteur(@PathVariable Long id) {
-        List<LivreDTO> livres = auteurService.getLivresByAuteur(id);
+        List<LivreDTO> livres = modeleLectureService.getLivresParAuteur(id)
+                .orElseGet(() -> auteurService.getLivresByAuteur(id));
         return ResponseEntity.ok(livres);
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.m2i.BiblioRestApi.dto.OperationBatchDTO;
+import com.m2i.BiblioRestApi.dto.ResultatOperationDTO;
+import com.m2i.BiblioRestApi.service.BatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST pour l'exécution de lots d'opérations sur les livres et les auteurs
+ */
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    @Autowired
+    private BatchService batchService;
+
+    /**
+     * POST /api/batch - Exécuter une liste ordonnée d'opérations dans une seule transaction
+     *
+     * @param operations Les opérations (méthode, chemin, corps, référence optionnelle)
+     * @return Le résultat de chaque opération, ou l'erreur de la première opération en échec
+     */
+    @PostMapping
+    public ResponseEntity<List<ResultatOperationDTO>> executer(
+            @RequestBody List<OperationBatchDTO> operations) {
+        return ResponseEntity.ok(batchService.executer(operations));
+    }
+}
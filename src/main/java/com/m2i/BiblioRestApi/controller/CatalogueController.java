@@ -0,0 +1,53 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.m2i.BiblioRestApi.dto.FiltreBloomDTO;
+import com.m2i.BiblioRestApi.service.CatalogueFeedService;
+import com.m2i.BiblioRestApi.service.FiltresBloomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST pour la diffusion des modifications du catalogue
+ */
+@RestController
+@RequestMapping("/api/catalogue")
+public class CatalogueController {
+
+    @Autowired
+    private CatalogueFeedService catalogueFeedService;
+
+    @Autowired
+    private FiltresBloomService filtresBloomService;
+
+    /**
+     * GET /api/catalogue/flux - Flux SSE des créations, modifications et suppressions
+     * de livres et d'auteurs
+     *
+     * @param lastEventId Dernier identifiant reçu par le client, "époque-séquence" (reprise après reconnexion)
+     * @return Le flux d'événements
+     */
+    @GetMapping(path = "/flux", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter fluxCatalogue(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return catalogueFeedService.abonner(lastEventId);
+    }
+
+    /**
+     * GET /api/catalogue/filtres - Taille, taux de faux positifs et requêtes évitées des
+     * filtres de Bloom sur les ISBN et les emails (vide s'ils sont désactivés)
+     *
+     * @return Une statistique par filtre
+     */
+    @GetMapping("/filtres")
+    public ResponseEntity<List<FiltreBloomDTO>> getFiltres() {
+        return ResponseEntity.ok(filtresBloomService.statistiques());
+    }
+}
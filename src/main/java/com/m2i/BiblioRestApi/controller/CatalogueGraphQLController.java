@@ -0,0 +1,67 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.service.CatalogueLectureService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+
+/**
+ * Contrôleur GraphQL (POST /api/graphql) pour la lecture des livres et des auteurs.
+ * Schéma : resources/graphql/catalogue.graphqls
+ */
+@Controller
+public class CatalogueGraphQLController {
+
+    @Autowired
+    private CatalogueLectureService catalogueLectureService;
+
+    @QueryMapping
+    public List<LivreDTO> livres(@Argument int page, @Argument int taille) {
+        return catalogueLectureService.getLivres(page, taille);
+    }
+
+    @QueryMapping
+    public LivreDTO livre(@Argument Long id) {
+        return catalogueLectureService.getLivre(id).orElse(null);
+    }
+
+    @QueryMapping
+    public List<AuteurDTO> auteurs(@Argument int page, @Argument int taille) {
+        return catalogueLectureService.getAuteurs(page, taille);
+    }
+
+    @QueryMapping
+    public AuteurDTO auteur(@Argument Long id) {
+        return catalogueLectureService.getAuteur(id).orElse(null);
+    }
+
+    /**
+     * Livre.auteur : les auteurs de tous les livres de la réponse en une requête
+     */
+    @BatchMapping(typeName = "Livre", field = "auteur")
+    public List<AuteurDTO> auteurDesLivres(List<LivreDTO> livres) {
+        return catalogueLectureService.getAuteursDesLivres(livres);
+    }
+
+    /**
+     * Auteur.nombreLivres : un seul comptage groupé pour tous les auteurs de la réponse
+     */
+    @BatchMapping(typeName = "Auteur", field = "nombreLivres")
+    public List<Integer> nombreLivres(List<AuteurDTO> auteurs) {
+        return catalogueLectureService.getNombresLivres(auteurs);
+    }
+
+    /**
+     * Auteur.livres : les livres de tous les auteurs de la réponse en une requête
+     */
+    @BatchMapping(typeName = "Auteur", field = "livres")
+    public List<List<LivreDTO>> livresDesAuteurs(List<AuteurDTO> auteurs) {
+        return catalogueLectureService.getLivresDesAuteurs(auteurs);
+    }
+}
@@ -0,0 +1,146 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.m2i.BiblioRestApi.dto.ExportCatalogueDTO;
+import com.m2i.BiblioRestApi.exception.ResourceNotFoundException;
+import com.m2i.BiblioRestApi.service.CatalogueExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Téléchargement de l'export périodique du catalogue.
+ *
+ * Le fichier est envoyé tel qu'il est sur le disque : avec Tomcat, par sendfile (le noyau
+ * copie le fichier vers la socket sans passer par la JVM) ; sinon par FileChannel.transferTo.
+ * Un client peut reprendre un téléchargement interrompu (Range) et ne rien retélécharger
+ * si son ETag est toujours celui du dernier export (If-None-Match).
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    // Attributs de requête de Tomcat pour déléguer l'envoi d'un fichier au connecteur
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FICHIER = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_DEBUT = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private CatalogueExportService catalogueExportService;
+
+    /**
+     * GET /api/export/catalogue - Télécharge le dernier export du catalogue (NDJSON gzip)
+     *
+     * Range (une seule plage) et If-Range sont pris en charge ; If-None-Match renvoie 304
+     * si l'export n'a pas changé.
+     */
+    @GetMapping("/catalogue")
+    public void telechargerCatalogue(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportCatalogueDTO export = catalogueExportService.getDernierExport()
+                .orElseThrow(() -> new ResourceNotFoundException("Aucun export du catalogue n'est disponible"));
+        Path fichier = catalogueExportService.getFichier(export);
+        String etag = "\"" + export.getEmpreinte() + "\"";
+        long taille = export.getTaille();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED,
+                export.getDateCreation().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(etag))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(export.getNomFichier()).build().toString());
+
+        long debut = 0;
+        long longueur = taille;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // Une plage demandée sur un ancien export (If-Range périmé) renvoie le fichier entier
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> plages;
+            try {
+                plages = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                plages = List.of();
+            }
+            // Plusieurs plages : le fichier entier est envoyé, ce que la RFC 9110 autorise
+            if (plages.size() == 1) {
+                HttpRange plage = plages.get(0);
+                try {
+                    debut = plage.getRangeStart(taille);
+                    longueur = plage.getRangeEnd(taille) - debut + 1;
+                } catch (IllegalArgumentException e) {
+                    longueur = 0;
+                }
+                // Une plage qui commence au-delà de la fin du fichier n'est pas satisfiable
+                if (debut >= taille || longueur <= 0) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + taille);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + debut + "-" + (debut + longueur - 1) + "/" + taille);
+            }
+        }
+
+        response.setContentLengthLong(longueur);
+        envoyer(request, response, fichier, debut, longueur);
+    }
+
+    /**
+     * POST /api/export/catalogue - Lance un export sans attendre la planification (ADMIN)
+     *
+     * @return L'export le plus récent, nouveau ou inchangé si le catalogue n'a pas bougé
+     */
+    @PostMapping("/catalogue")
+    public ResponseEntity<ExportCatalogueDTO> exporterCatalogue() throws IOException {
+        return ResponseEntity.ok(catalogueExportService.exporter());
+    }
+
+    private static void envoyer(HttpServletRequest request, HttpServletResponse response,
+                                Path fichier, long debut, long longueur) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Le connecteur envoie le fichier une fois la méthode terminée
+            request.setAttribute(SENDFILE_FICHIER, fichier.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_DEBUT, debut);
+            request.setAttribute(SENDFILE_FIN, debut + longueur);
+            return;
+        }
+
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            WritableByteChannel sortie = Channels.newChannel(response.getOutputStream());
+            long position = debut;
+            long reste = longueur;
+            while (reste > 0) {
+                long envoyes = canal.transferTo(position, reste, sortie);
+                position += envoyes;
+                reste -= envoyes;
+            }
+        }
+        response.flushBuffer();
+    }
+}
@@ -1,16 +1,44 @@
 package com.m2i.BiblioRestApi.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.m2i.BiblioRestApi.dto.ChangementsLivresDTO;
+import com.m2i.BiblioRestApi.dto.ExemplaireAjustementDTO;
 import com.m2i.BiblioRestApi.dto.ExemplaireUpdateDTO;
+import com.m2i.BiblioRestApi.dto.ImportFluxResultatDTO;
+import com.m2i.BiblioRestApi.dto.ImportNoticesResultatDTO;
+import com.m2i.BiblioRestApi.dto.ImportResultatDTO;
+import com.m2i.BiblioRestApi.dto.IsbnLookupDTO;
+import com.m2i.BiblioRestApi.dto.LectureLotDTO;
 import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.mapper.CatalogueProtobuf;
+import com.m2i.BiblioRestApi.model.FormatImport;
+import com.m2i.BiblioRestApi.service.CatalogueInstantaneService;
+import com.m2i.BiblioRestApi.service.CatalogueMappeService;
+import com.m2i.BiblioRestApi.service.ChangementLivreService;
+import com.m2i.BiblioRestApi.service.LivreImportFluxService;
+import com.m2i.BiblioRestApi.service.LivreImportService;
 import com.m2i.BiblioRestApi.service.LivreService;
+import com.m2i.BiblioRestApi.service.MergePatch;
+import com.m2i.BiblioRestApi.service.ModeleLectureService;
+import com.m2i.BiblioRestApi.service.LivreWatchService;
+import com.m2i.BiblioRestApi.service.NoticeImportService;
+import com.m2i.BiblioRestApi.service.ResultatUpsert;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Contrôleur REST pour la gestion des livres
@@ -22,44 +50,180 @@ public class LivreController {
     @Autowired
     private LivreService livreService;
 
+    @Autowired
+    private LivreWatchService livreWatchService;
+
+    @Autowired
+    private ChangementLivreService changementLivreService;
+
+    @Autowired
+    private LivreImportService livreImportService;
+
+    @Autowired
+    private LivreImportFluxService livreImportFluxService;
+
+    @Autowired
+    private NoticeImportService noticeImportService;
+
+    @Autowired
+    private CatalogueInstantaneService catalogueInstantaneService;
+
+    @Autowired
+    private CatalogueMappeService catalogueMappeService;
+
+    @Autowired
+    private ModeleLectureService modeleLectureService;
+
     /**
-     * GET /api/livres - Liste tous les livres
+     * GET /api/livres - Liste tous les livres (depuis le modèle de lecture s'il est chargé)
      *
      * @return Liste de tous les livres
      */
     @GetMapping
     public ResponseEntity<List<LivreDTO>> getAllLivres() {
-        List<LivreDTO> livres = livreService.getAllLivres();
+        List<LivreDTO> livres = modeleLectureService.getLivres()
+                .orElseGet(livreService::getAllLivres);
         return ResponseEntity.ok(livres);
     }
 
+    /**
+     * GET /api/livres (Accept: application/json) - Liste tous les livres depuis l'instantané
+     * du catalogue, envoyé déjà compressé si le client accepte gzip
+     *
+     * @param acceptEncoding Codages acceptés par le client
+     * @return Le catalogue en JSON, ou 304 si l'ETag envoyé (If-None-Match) est toujours valide
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllLivresInstantane(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        CatalogueInstantaneService.Instantane instantane = catalogueInstantaneService.getInstantane();
+        boolean gzip = CatalogueInstantaneService.accepteGzip(acceptEncoding);
+
+        // Les deux représentations ont chacune leur ETag
+        if (request.checkNotModified(gzip ? instantane.etagGzip() : instantane.etag())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return reponse.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(instantane.gzip());
+        }
+        return reponse.body(instantane.json());
+    }
+
+    /**
+     * GET /api/livres (Accept: application/x-protobuf) - Liste tous les livres en protobuf
+     *
+     * @return Message ListeLivres écrit en flux, ligne par ligne
+     */
+    @GetMapping(produces = CatalogueProtobuf.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> getAllLivresProtobuf() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CatalogueProtobuf.MEDIA_TYPE))
+                .body(livreService::ecrireLivresProtobuf);
+    }
+
+    /**
+     * GET /api/livres?fields=id,... - Liste tous les livres réduits aux champs demandés
+     *
+     * @param fields Les champs à renvoyer, dans l'ordre voulu
+     * @return Une ligne par livre, triées par ID
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> getAllLivresProjection(@RequestParam List<String> fields) {
+        return ResponseEntity.ok(livreService.getLivresProjection(fields));
+    }
+
+    /**
+     * GET /api/livres?ids=1,2,3 - Récupère plusieurs livres par ID en une requête
+     *
+     * @param ids Les identifiants des livres
+     * @return Les livres trouvés dans l'ordre demandé et les identifiants sans livre
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<LectureLotDTO<LivreDTO, Long>> getLivresByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(livreService.getLivresByIds(ids));
+    }
+
+    /**
+     * GET /api/livres/changes - Synchronisation incrémentale du catalogue
+     *
+     * @param since Dernière séquence connue du client (absent = synchronisation complète)
+     * @param limite Nombre maximal de changements lus (optionnel)
+     * @return Les livres créés ou modifiés, les suppressions et la nouvelle séquence
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangementsLivresDTO> getChangements(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(changementLivreService.getChangementsDepuis(since, limite));
+    }
+
     /**
      * GET /api/livres/{id} - Récupère un livre par ID
+     * (lu dans le modèle de lecture ou le magasin mappé s'ils sont activés, sinon en base)
      *
      * @param id L'identifiant du livre
      * @return Le livre trouvé
      */
     @GetMapping("/{id}")
     public ResponseEntity<LivreDTO> getLivreById(@PathVariable Long id) {
-        LivreDTO livre = livreService.getLivreById(id);
+        LivreDTO livre = modeleLectureService.getLivre(id)
+                .or(() -> catalogueMappeService.getLivre(id))
+                .orElseGet(() -> livreService.getLivreById(id));
         return ResponseEntity.ok(livre);
     }
 
     /**
      * GET /api/livres/isbn/{isbn} - Recherche par ISBN
+     * (lu dans le modèle de lecture ou le magasin mappé s'ils sont activés, sinon en base)
      *
      * @param isbn L'ISBN du livre
      * @return Le livre trouvé
      */
     @GetMapping("/isbn/{isbn}")
     public ResponseEntity<LivreDTO> getLivreByIsbn(@PathVariable String isbn) {
-        LivreDTO livre = livreService.getLivreByIsbn(isbn);
+        LivreDTO livre = modeleLectureService.getLivreParIsbn(isbn)
+                .or(() -> catalogueMappeService.getLivreParIsbn(isbn))
+                .orElseGet(() -> livreService.getLivreByIsbn(isbn));
         return ResponseEntity.ok(livre);
     }
 
+    /**
+     * POST /api/livres/isbn/lookup - Récupère plusieurs livres par ISBN en une requête
+     *
+     * @param lookup Les ISBN recherchés
+     * @return Les livres trouvés dans l'ordre demandé et les ISBN sans livre
+     */
+    @PostMapping("/isbn/lookup")
+    public ResponseEntity<LectureLotDTO<LivreDTO, String>> getLivresByIsbns(
+            @Valid @RequestBody IsbnLookupDTO lookup) {
+        return ResponseEntity.ok(livreService.getLivresByIsbns(lookup.getIsbns()));
+    }
+
+    /**
+     * GET /api/livres/{id}/watch - Attend une modification du livre (long polling)
+     *
+     * @param id L'identifiant du livre
+     * @param sinceVersion Dernière version connue du client (réponse immédiate si absente ou périmée)
+     * @param timeout Durée maximale d'attente en millisecondes (optionnel)
+     * @return Le livre modifié, 304 Not Modified à l'expiration du délai, 410 Gone s'il est supprimé
+     */
+    @GetMapping("/{id}/watch")
+    public DeferredResult<ResponseEntity<LivreDTO>> watchLivre(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long sinceVersion,
+            @RequestParam(required = false) Long timeout) {
+        return livreWatchService.surveiller(id, sinceVersion, timeout);
+    }
+
     @GetMapping("/auteur/{id}")
     public ResponseEntity<List<LivreDTO>> getLivresByAuteur(@PathVariable Long id) {
-        List<LivreDTO> livres = livreService.getLivresByAuteur(id);
+        List<LivreDTO> livres = modeleLectureService.getLivresParAuteur(id)
+                .orElseGet(() -> livreService.getLivresByAuteur(id));
         return ResponseEntity.ok(livres);
     }
 
@@ -109,6 +273,69 @@ public class LivreController {
         return ResponseEntity.created(location).body(createdLivre);
     }
 
+    /**
+     * POST /api/livres/bulk - Crée un grand nombre de livres en une requête
+     *
+     * @param livres Les livres à créer
+     * @return Le compte rendu de l'import, élément par élément
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ImportResultatDTO> importerLivres(@RequestBody List<LivreDTO> livres) {
+        ImportResultatDTO resultat = livreImportService.importerLivres(livres);
+        return ResponseEntity.ok(resultat);
+    }
+
+    /**
+     * POST /api/livres/import - Importe un flux NDJSON, CSV, CBOR ou Smile, lu enregistrement par enregistrement
+     *
+     * @param importId Identifiant d'un import interrompu à reprendre (optionnel)
+     * @param contentType application/x-ndjson, text/csv (avec ligne d'en-tête), application/cbor
+     *                    ou application/x-jackson-smile (objets mis bout à bout)
+     * @param flux Le corps de la requête
+     * @return L'état du point de reprise et les premiers rejets
+     */
+    @PostMapping(value = "/import",
+            consumes = {"application/x-ndjson", "text/csv", "application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<ImportFluxResultatDTO> importerFlux(
+            @RequestParam(required = false) String importId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream flux) throws IOException {
+        FormatImport format;
+        if (contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            format = FormatImport.CSV;
+        } else if (contentType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+            format = FormatImport.CBOR;
+        } else if (contentType.isCompatibleWith(MediaType.parseMediaType("application/x-jackson-smile"))) {
+            format = FormatImport.SMILE;
+        } else {
+            format = FormatImport.NDJSON;
+        }
+        return ResponseEntity.ok(livreImportFluxService.importer(flux, format, importId));
+    }
+
+    /**
+     * POST /api/livres/import/notices - Importe un fichier de notices MARCXML ou ONIX
+     *
+     * @param flux Le fichier XML (format détecté d'après l'élément racine)
+     * @return Le nombre de livres et d'auteurs créés et les premiers rejets
+     */
+    @PostMapping(value = "/import/notices",
+            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE, "application/marcxml+xml"})
+    public ResponseEntity<ImportNoticesResultatDTO> importerNotices(InputStream flux) {
+        return ResponseEntity.ok(noticeImportService.importer(flux));
+    }
+
+    /**
+     * GET /api/livres/import/{importId} - État d'un import en flux
+     *
+     * @param importId L'identifiant de l'import
+     * @return Le point de reprise de l'import
+     */
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ImportFluxResultatDTO> getImport(@PathVariable String importId) {
+        return ResponseEntity.ok(livreImportFluxService.getImport(importId));
+    }
+
     /**
      * PUT /api/livres/{id} - Met à jour un livre
      *
@@ -124,6 +351,56 @@ public class LivreController {
         return ResponseEntity.ok(updatedLivre);
     }
 
+    /**
+     * PATCH /api/livres/{id} - Modifier une partie des champs d'un livre (JSON Merge Patch)
+     *
+     * @param id L'identifiant de le livre à modifier
+     * @param patch Les seuls champs à modifier (null efface le champ)
+     * @return Le livre mis à jour
+     */
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    public ResponseEntity<LivreDTO> patchLivre(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        LivreDTO updatedLivre = livreService.patchLivre(id, patch);
+        return ResponseEntity.ok(updatedLivre);
+    }
+
+    /**
+     * PUT /api/livres/isbn/{isbn} - Crée ou met à jour le livre portant cet ISBN
+     *
+     * @param isbn L'ISBN du livre (clé naturelle)
+     * @param livreDTO Les données du livre
+     * @return Le livre avec le statut 201 Created s'il a été créé, 200 OK sinon
+     */
+    @PutMapping("/isbn/{isbn}")
+    public ResponseEntity<LivreDTO> upsertLivre(
+            @PathVariable String isbn,
+            @RequestBody LivreDTO livreDTO) {
+        ResultatUpsert<LivreDTO> resultat = livreService.upsertLivre(isbn, livreDTO);
+        if (!resultat.cree()) {
+            return ResponseEntity.ok(resultat.donnees());
+        }
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/api/livres/{id}")
+                .buildAndExpand(resultat.donnees().getId())
+                .toUri();
+        return ResponseEntity.created(location).body(resultat.donnees());
+    }
+
+    /**
+     * POST /api/livres/upsert - Crée ou met à jour des livres par ISBN, par lots
+     *
+     * @param livres Les livres à créer ou mettre à jour
+     * @return Le compte rendu élément par élément (créé, modifié, inchangé ou rejeté)
+     */
+    @PostMapping("/upsert")
+    public ResponseEntity<ImportResultatDTO> upsertLivres(@RequestBody List<LivreDTO> livres) {
+        return ResponseEntity.ok(livreService.upsertLivres(livres));
+    }
+
     /**
      * PATCH /api/livres/{id}/exemplaires - Met à jour le nombre d'exemplaires
      *
@@ -140,6 +417,21 @@ public class LivreController {
         return ResponseEntity.ok(updatedLivre);
     }
 
+    /**
+     * POST /api/livres/{id}/exemplaires/ajustement - Ajoute ou retire des exemplaires du stock
+     *
+     * @param id L'identifiant du livre
+     * @param ajustementDTO La variation du stock (positive pour une réception, négative pour un retrait)
+     * @return Le livre mis à jour
+     */
+    @PostMapping("/{id}/exemplaires/ajustement")
+    public ResponseEntity<LivreDTO> ajusterExemplaires(
+            @PathVariable Long id,
+            @Valid @RequestBody ExemplaireAjustementDTO ajustementDTO) {
+        LivreDTO updatedLivre = livreService.ajusterExemplaires(id, ajustementDTO.getVariation());
+        return ResponseEntity.ok(updatedLivre);
+    }
+
     /**
      * DELETE /api/livres/{id} - Supprime un livre
      *
@@ -0,0 +1,76 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.m2i.BiblioRestApi.dto.ReservationDTO;
+import com.m2i.BiblioRestApi.service.ReservationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * Contrôleur REST pour les listes d'attente des livres épuisés
+ */
+@RestController
+@RequestMapping("/api/reservations")
+public class ReservationController {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    /**
+     * POST /api/reservations - Inscrit l'utilisateur courant sur la liste d'attente d'un livre
+     *
+     * @param reservationDTO La réservation (seul livreId est pris en compte)
+     * @return La réservation créée avec sa position dans la file
+     */
+    @PostMapping
+    public ResponseEntity<ReservationDTO> creerReservation(
+            @Valid @RequestBody ReservationDTO reservationDTO,
+            Authentication authentication) {
+        ReservationDTO reservation = reservationService.creerReservation(
+                reservationDTO.getLivreId(), authentication.getName(), estAdmin(authentication));
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(reservation.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(reservation);
+    }
+
+    /**
+     * GET /api/reservations/{id} - Statut d'une réservation
+     *
+     * @param id L'identifiant de la réservation
+     * @return La réservation avec sa position si elle est encore en attente
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationDTO> getReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.getReservation(id));
+    }
+
+    /**
+     * DELETE /api/reservations/{id} - Annule une réservation en attente
+     *
+     * @param id L'identifiant de la réservation
+     * @return La réservation annulée
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReservationDTO> annulerReservation(
+            @PathVariable Long id,
+            Authentication authentication) {
+        ReservationDTO reservation = reservationService.annulerReservation(
+                id, authentication.getName(), estAdmin(authentication));
+        return ResponseEntity.ok(reservation);
+    }
+
+    private boolean estAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -7,6 +7,8 @@ import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.hibernate.validator.constraints.*;
 
+import java.util.List;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,4 +32,12 @@ public class AuteurDTO {
 
     // Pour la lecture seulement
     private Integer nombreLivres;
+
+    // Concurrence optimiste : renvoyée à chaque lecture ; si elle est fournie à une mise à jour
+    // (PUT, ou "version" d'un PATCH), elle doit être la version de l'auteur en base, sinon 409.
+    // Ignorée à la création.
+    private Long version;
+
+    // Pour la lecture seulement, avec ?expand=livres
+    private List<LivreDTO> livres;
 }
\ No newline at end of file
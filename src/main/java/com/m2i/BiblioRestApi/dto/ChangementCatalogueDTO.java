@@ -0,0 +1,26 @@
+package com.m2i.BiblioRestApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangementCatalogueDTO {
+
+    // Numéro de séquence strictement croissant, utilisé comme identifiant d'événement SSE
+    private Long sequence;
+
+    private CatalogueEvent.Ressource ressource;
+
+    private CatalogueEvent.Operation operation;
+
+    private Long id;
+
+    // LivreDTO ou AuteurDTO
+    private Object donnees;
+}
@@ -0,0 +1,28 @@
+package com.m2i.BiblioRestApi.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangementsLivresDTO {
+
+    // Séquence fournie par le client
+    private Long depuis;
+
+    // Nouvelle marque haute à utiliser comme "since" lors du prochain appel
+    private Long sequence;
+
+    // Vrai si la page est pleine : rappeler immédiatement avec la nouvelle séquence
+    private boolean incomplet;
+
+    // Livres créés ou modifiés, dans leur état courant
+    private List<LivreDTO> livres;
+
+    // Pierres tombales des livres supprimés
+    private List<LivreSupprimeDTO> suppressions;
+}
@@ -0,0 +1,15 @@
+package com.m2i.BiblioRestApi.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExemplaireAjustementDTO {
+
+    @NotNull(message = "La variation du nombre d'exemplaires est obligatoire")
+    private Integer variation;
+}
@@ -0,0 +1,24 @@
+package com.m2i.BiblioRestApi.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportCatalogueDTO {
+
+    // Fichier NDJSON compressé en gzip, dans le répertoire d'export
+    private String nomFichier;
+
+    // Empreinte MD5 du contenu non compressé : identique tant que le catalogue ne change pas
+    private String empreinte;
+
+    // Taille du fichier compressé, en octets
+    private long taille;
+
+    private LocalDateTime dateCreation;
+}
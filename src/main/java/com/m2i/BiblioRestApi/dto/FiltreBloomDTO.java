@@ -0,0 +1,33 @@
+package com.m2i.BiblioRestApi.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FiltreBloomDTO {
+
+    // Valeurs filtrées : "isbns" ou "emails"
+    private String nom;
+
+    // Filtres chaînés : un nouveau, deux fois plus grand, à chaque saturation
+    private int couches;
+
+    private long elements;
+
+    private long bits;
+
+    private long octets;
+
+    // Taux de faux positifs visé par la configuration, et estimé sur l'ensemble des couches
+    private double tauxCible;
+
+    private double tauxEstime;
+
+    // Vérifications répondues « absent » sans requête, et renvoyées à la base
+    private long requetesEvitees;
+
+    private long verificationsEnBase;
+}
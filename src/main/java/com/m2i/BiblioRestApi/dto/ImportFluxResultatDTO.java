@@ -0,0 +1,36 @@
+package com.m2i.BiblioRestApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.m2i.BiblioRestApi.model.FormatImport;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportFluxResultatDTO {
+
+    // Identifiant à renvoyer pour reprendre l'import
+    private String importId;
+
+    private FormatImport format;
+
+    // Enregistrements du flux traités, toutes tentatives confondues
+    private long lignesTraitees;
+
+    // Enregistrements sautés lors de cette requête car déjà traités
+    private Long lignesReprises;
+
+    private long crees;
+
+    private long rejetes;
+
+    private boolean termine;
+
+    // Premiers rejets de cette requête (liste bornée)
+    private List<ImportLigneDTO> rejets;
+}
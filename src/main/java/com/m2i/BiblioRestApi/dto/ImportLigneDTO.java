@@ -0,0 +1,36 @@
+package com.m2i.BiblioRestApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportLigneDTO {
+
+    public enum Statut {
+        CREE,
+        MODIFIE,
+        INCHANGE,
+        REJETE
+    }
+
+    // Position de l'élément dans la requête (à partir de 0) ; un import en flux peut dépasser 2^31
+    private long index;
+
+    private String isbn;
+
+    // Clé naturelle des auteurs
+    private String email;
+
+    private Statut statut;
+
+    // ID de la ressource créée ou modifiée
+    private Long id;
+
+    // Motif du rejet
+    private String message;
+}
@@ -0,0 +1,32 @@
+package com.m2i.BiblioRestApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.m2i.BiblioRestApi.model.FormatImport;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportNoticesResultatDTO {
+
+    private FormatImport format;
+
+    // Notices lues dans le fichier
+    private long total;
+
+    private long livresCrees;
+
+    private long auteursCrees;
+
+    private long rejetes;
+
+    // Premiers rejets (liste bornée)
+    @Builder.Default
+    private List<ImportLigneDTO> rejets = new ArrayList<>();
+}
@@ -0,0 +1,43 @@
+package com.m2i.BiblioRestApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportResultatDTO {
+
+    private int total;
+
+    private int crees;
+
+    private int modifies;
+
+    private int inchanges;
+
+    private int rejetes;
+
+    @Builder.Default
+    private List<ImportLigneDTO> lignes = new ArrayList<>();
+
+    /**
+     * Ajoute le compte rendu d'un élément et met à jour les compteurs
+     */
+    public void ajouter(ImportLigneDTO ligne) {
+        total++;
+        switch (ligne.getStatut()) {
+            case CREE -> crees++;
+            case MODIFIE -> modifies++;
+            case INCHANGE -> inchanges++;
+            case REJETE -> rejetes++;
+        }
+        lignes.add(ligne);
+    }
+}
@@ -0,0 +1,17 @@
+package com.m2i.BiblioRestApi.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IsbnLookupDTO {
+
+    @NotEmpty(message = "La liste des ISBN est obligatoire")
+    private List<String> isbns;
+}
@@ -0,0 +1,46 @@
+package com.m2i.BiblioRestApi.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat d'une lecture de plusieurs ressources par clé (ID ou ISBN)
+ *
+ * @param <T> Le type des ressources
+ * @param <K> Le type des clés demandées
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LectureLotDTO<T, K> {
+
+    // Ressources trouvées, dans l'ordre des clés demandées
+    @Builder.Default
+    private List<T> resultats = new ArrayList<>();
+
+    // Clés demandées sans ressource correspondante, dans l'ordre de la requête
+    @Builder.Default
+    private List<K> manquants = new ArrayList<>();
+
+    /**
+     * Range les ressources trouvées dans l'ordre des clés demandées
+     */
+    public static <T, K> LectureLotDTO<T, K> ordonner(Collection<K> cles, Map<K, T> trouves) {
+        LectureLotDTO<T, K> lecture = new LectureLotDTO<>();
+        for (K cle : cles) {
+            T ressource = trouves.get(cle);
+            if (ressource != null) {
+                lecture.resultats.add(ressource);
+            } else {
+                lecture.manquants.add(cle);
+            }
+        }
+        return lecture;
+    }
+}
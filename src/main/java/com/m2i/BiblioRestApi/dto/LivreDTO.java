@@ -35,4 +35,9 @@ public class LivreDTO {
 
     // Pour la lecture seulement (ignoré lors de la création/mise à jour)
     private String nomCompletAuteur;
+
+    // Concurrence optimiste : renvoyée à chaque lecture ; si elle est fournie à une mise à jour
+    // (PUT, ou "version" d'un PATCH), elle doit être la version du livre en base, sinon 409.
+    // Ignorée à la création.
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.m2i.BiblioRestApi.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LivreSupprimeDTO {
+
+    private Long id;
+
+    private String isbn;
+
+    private Long sequence;
+}
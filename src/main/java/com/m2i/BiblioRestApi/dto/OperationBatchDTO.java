@@ -0,0 +1,23 @@
+package com.m2i.BiblioRestApi.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OperationBatchDTO {
+
+    private String methode;
+
+    // Chemin de la ressource, par exemple /api/livres/12 ou /api/auteurs/${auteur}
+    private String chemin;
+
+    // Corps de la requête (DTO pour POST et PUT, merge patch pour PATCH)
+    private JsonNode corps;
+
+    // Nom (lettres, chiffres, - et _) sous lequel l'ID créé est référencé par les opérations suivantes : ${ref}
+    private String ref;
+}
@@ -0,0 +1,34 @@
+package com.m2i.BiblioRestApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.m2i.BiblioRestApi.model.StatutReservation;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReservationDTO {
+
+    private Long id;
+
+    @NotNull(message = "L'ID du livre est obligatoire")
+    private Long livreId;
+
+    // Pour la lecture seulement
+    private String username;
+
+    private StatutReservation statut;
+
+    private LocalDateTime dateDemande;
+
+    private LocalDateTime datePromotion;
+
+    // Rang dans la file d'attente (1 = prochain servi), uniquement pour les réservations en attente
+    private Integer position;
+}
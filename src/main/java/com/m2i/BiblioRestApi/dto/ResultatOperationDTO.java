@@ -0,0 +1,27 @@
+package com.m2i.BiblioRestApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultatOperationDTO {
+
+    // Position de l'opération dans le lot (à partir de 0)
+    private Integer index;
+
+    // Statut HTTP qu'aurait renvoyé l'appel unitaire
+    private Integer statut;
+
+    private String ref;
+
+    // ID de la ressource créée ou modifiée
+    private Long id;
+
+    // Représentation de la ressource après l'opération (absente pour une suppression)
+    private Object corps;
+}
@@ -0,0 +1,43 @@
+package com.m2i.BiblioRestApi.event;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Événement publié par les services à chaque écriture sur le catalogue.
+ * Les abonnés qui diffusent l'information à l'extérieur l'écoutent après le commit.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogueEvent {
+
+    public enum Ressource {
+        LIVRE,
+        AUTEUR
+    }
+
+    public enum Operation {
+        CREATION,
+        MODIFICATION,
+        SUPPRESSION
+    }
+
+    private final Ressource ressource;
+
+    private final Operation operation;
+
+    private final Long id;
+
+    // État de la ressource après l'opération (avant la suppression pour une SUPPRESSION)
+    private final Object donnees;
+
+    public static CatalogueEvent livre(Operation operation, LivreDTO livre) {
+        return new CatalogueEvent(Ressource.LIVRE, operation, livre.getId(), livre);
+    }
+
+    public static CatalogueEvent auteur(Operation operation, AuteurDTO auteur) {
+        return new CatalogueEvent(Ressource.AUTEUR, operation, auteur.getId(), auteur);
+    }
+}
@@ -0,0 +1,12 @@
+package com.m2i.BiblioRestApi.exception;
+
+/**
+ * Exception levée lorsqu'une ressource a été modifiée depuis la version lue par le client
+ */
+public class ConflitVersionException extends RuntimeException {
+
+    public ConflitVersionException(String resourceName, Object id, Long versionAttendue, Long versionActuelle) {
+        super(String.format("%s avec id '%s' a été modifié(e) entre-temps : version %d attendue, version actuelle %d",
+                resourceName, id, versionAttendue, versionActuelle));
+    }
+}
@@ -0,0 +1,28 @@
+package com.m2i.BiblioRestApi.exception;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Noms des contraintes d'intégrité déclarées sur les entités, pour reconnaître celle qui a
+ * provoqué une DataIntegrityViolationException
+ */
+public final class Contraintes {
+
+    public static final String LIVRES_ISBN = "uk_livres_isbn";
+    public static final String LIVRES_AUTEUR = "fk_livres_auteur";
+    public static final String AUTEURS_EMAIL = "uk_auteurs_email";
+    public static final String RESERVATIONS_ATTENTE = "uk_reservations_attente";
+
+    private Contraintes() {
+    }
+
+    /**
+     * Indique si la violation porte sur la contrainte nommée
+     */
+    public static boolean concerne(DataIntegrityViolationException e, String contrainte) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(contrainte);
+    }
+}
@@ -1,5 +1,8 @@
 package com.m2i.BiblioRestApi.exception;
 
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -67,6 +70,30 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Gestion des erreurs de validation d'un DTO modifié par patch (400)
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolation(
+            ConstraintViolationException ex,
+            WebRequest request) {
+
+        Map<String, String> validationErrors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation ->
+                validationErrors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Validation Failed")
+                .message("Les données fournies sont invalides")
+                .path(getPath(request))
+                .validationErrors(validationErrors)
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Gestion des ressources dupliquées (409)
      */
@@ -86,6 +113,54 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Gestion des conflits de version (409) : la version envoyée par le client est périmée
+     */
+    @ExceptionHandler(ConflitVersionException.class)
+    public ResponseEntity<ErrorResponse> handleConflitVersion(
+            ConflitVersionException ex,
+            WebRequest request) {
+
+        return conflitVersion(ex.getMessage(), request);
+    }
+
+    /**
+     * Gestion des modifications concurrentes détectées à l'écriture (409)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex,
+            WebRequest request) {
+
+        return conflitVersion(
+                "La ressource a été modifiée par une autre requête : relisez-la avant de réessayer", request);
+    }
+
+    /**
+     * Gestion des violations de contraintes non traduites par les services (409 ou 404),
+     * par exemple une écriture concurrente détectée à la validation de la transaction
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex,
+            WebRequest request) {
+
+        if (Contraintes.concerne(ex, Contraintes.LIVRES_AUTEUR)) {
+            return handleResourceNotFound(
+                    new ResourceNotFoundException("L'auteur référencé n'existe pas"), request);
+        }
+
+        String message;
+        if (Contraintes.concerne(ex, Contraintes.LIVRES_ISBN)) {
+            message = "Un livre existe déjà avec cet isbn";
+        } else if (Contraintes.concerne(ex, Contraintes.AUTEURS_EMAIL)) {
+            message = "Un auteur existe déjà avec cet email";
+        } else {
+            message = "La modification viole une contrainte d'intégrité";
+        }
+        return handleDuplicateResource(new DuplicateResourceException(message), request);
+    }
+
     /**
      * Gestion des erreurs métier (400)
      */
@@ -105,6 +180,32 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Gestion de l'échec d'une opération d'un lot : même réponse que l'appel unitaire,
+     * le message indiquant la position de l'opération en échec
+     */
+    @ExceptionHandler(OperationBatchException.class)
+    public ResponseEntity<ErrorResponse> handleOperationBatch(
+            OperationBatchException ex,
+            WebRequest request) {
+
+        ResponseEntity<ErrorResponse> response = switch (ex.getCause()) {
+            case ResourceNotFoundException e -> handleResourceNotFound(e, request);
+            case ConstraintViolationException e -> handleConstraintViolation(e, request);
+            case DuplicateResourceException e -> handleDuplicateResource(e, request);
+            case ConflitVersionException e -> handleConflitVersion(e, request);
+            case OptimisticLockingFailureException e -> handleOptimisticLockingFailure(e, request);
+            case DataIntegrityViolationException e -> handleDataIntegrityViolation(e, request);
+            case BusinessException e -> handleBusinessException(e, request);
+            case Exception e -> handleGlobalException(e, request);
+            default -> handleGlobalException(ex, request);
+        };
+
+        ErrorResponse errorResponse = response.getBody();
+        errorResponse.setMessage(String.format("Opération %d : %s", ex.getIndex(), errorResponse.getMessage()));
+        return response;
+    }
+
     /**
      * Gestion des erreurs de type de paramètre (400)
      */
@@ -149,6 +250,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    private ResponseEntity<ErrorResponse> conflitVersion(String message, WebRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Version Conflict")
+                .message(message)
+                .path(getPath(request))
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Extrait le chemin de la requête
      */
@@ -0,0 +1,31 @@
+package com.m2i.BiblioRestApi.exception;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Traduction des exceptions métier en erreurs GraphQL (les autres restent INTERNAL_ERROR)
+ */
+@Component
+public class GraphQLExceptionResolver extends DataFetcherExceptionResolverAdapter {
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        ErrorType type;
+        if (ex instanceof ResourceNotFoundException) {
+            type = ErrorType.NOT_FOUND;
+        } else if (ex instanceof BusinessException) {
+            type = ErrorType.BAD_REQUEST;
+        } else {
+            return null;
+        }
+        return GraphqlErrorBuilder.newError(env)
+                .errorType(type)
+                .message(ex.getMessage())
+                .build();
+    }
+}
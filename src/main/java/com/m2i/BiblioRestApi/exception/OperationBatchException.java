@@ -0,0 +1,18 @@
+package com.m2i.BiblioRestApi.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception levée lorsqu'une opération d'un lot échoue : le lot entier est annulé
+ */
+@Getter
+public class OperationBatchException extends RuntimeException {
+
+    // Position de l'opération en échec dans le lot
+    private final int index;
+
+    public OperationBatchException(int index, RuntimeException cause) {
+        super(String.format("Opération %d : %s", index, cause.getMessage()), cause);
+        this.index = index;
+    }
+}
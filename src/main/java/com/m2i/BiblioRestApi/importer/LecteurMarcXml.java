@@ -0,0 +1,100 @@
+package com.m2i.BiblioRestApi.importer;
+
+import com.m2i.BiblioRestApi.model.FormatImport;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Notices MARC 21 au format MARCXML (&lt;collection&gt; de &lt;record&gt;).
+ *
+ * Zones lues : 020 $a (ISBN), 245 $a (titre), 100 $a (auteur principal, forme inversée),
+ * 264 $c ou 260 $c (date de publication), à défaut les positions 07-10 de la zone 008.
+ */
+class LecteurMarcXml extends LecteurNotices {
+
+    // La racine est elle-même une notice (fichier à une seule notice)
+    private boolean racineEstNotice;
+
+    LecteurMarcXml(XMLStreamReader xml) {
+        super(xml);
+        this.racineEstNotice = "record".equals(xml.getLocalName());
+    }
+
+    @Override
+    public FormatImport getFormat() {
+        return FormatImport.MARCXML;
+    }
+
+    @Override
+    protected NoticeBrute lireNotice() throws XMLStreamException {
+        if (racineEstNotice) {
+            racineEstNotice = false;
+            return lireRecord();
+        }
+        while (xml.hasNext()) {
+            if (xml.next() == XMLStreamConstants.START_ELEMENT && "record".equals(xml.getLocalName())) {
+                return lireRecord();
+            }
+        }
+        return null;
+    }
+
+    private NoticeBrute lireRecord() throws XMLStreamException {
+        NoticeBrute notice = new NoticeBrute();
+        String zone = null;
+        String annee008 = null;
+
+        while (xml.hasNext()) {
+            int evenement = xml.next();
+            if (evenement == XMLStreamConstants.END_ELEMENT && "record".equals(xml.getLocalName())) {
+                break;
+            }
+            if (evenement != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            switch (xml.getLocalName()) {
+                case "controlfield" -> {
+                    boolean zone008 = "008".equals(xml.getAttributeValue(null, "tag"));
+                    String valeur = texte();
+                    if (zone008 && valeur.length() >= 11) {
+                        annee008 = valeur.substring(7, 11);
+                    }
+                }
+                case "datafield" -> zone = xml.getAttributeValue(null, "tag");
+                case "subfield" -> affecter(notice, zone, xml.getAttributeValue(null, "code"), texte());
+                default -> {
+                }
+            }
+        }
+
+        if (notice.getAnnee() == null) {
+            notice.setAnnee(annee008);
+        }
+        return notice;
+    }
+
+    private void affecter(NoticeBrute notice, String zone, String code, String valeur) {
+        if (zone == null || !"a".equals(code) && !"c".equals(code)) {
+            return;
+        }
+        switch (zone + "$" + code) {
+            case "020$a" -> {
+                if (notice.getIsbn() == null) {
+                    notice.setIsbn(valeur);
+                }
+            }
+            case "245$a" -> notice.setTitre(valeur);
+            case "100$a" -> notice.setAuteur(valeur);
+            case "264$c", "260$c" -> {
+                if (notice.getAnnee() == null) {
+                    notice.setAnnee(valeur);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.m2i.BiblioRestApi.importer;
+
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.model.FormatImport;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lecture en flux (StAX) des notices d'un fichier MARCXML ou ONIX, sans construire de DOM.
+ *
+ * Le format est reconnu d'après l'élément racine ; chaque appel à next() lit une notice
+ * de plus dans le fichier.
+ */
+public abstract class LecteurNotices implements Iterator<NoticeBrute>, AutoCloseable {
+
+    private static final XMLInputFactory FABRIQUE = creerFabrique();
+
+    protected final XMLStreamReader xml;
+
+    private NoticeBrute suivante;
+    private boolean termine;
+    private int position;
+
+    protected LecteurNotices(XMLStreamReader xml) {
+        this.xml = xml;
+    }
+
+    /**
+     * Ouvre un fichier de notices et détecte son format
+     */
+    public static LecteurNotices ouvrir(InputStream flux) {
+        try {
+            XMLStreamReader xml = FABRIQUE.createXMLStreamReader(flux);
+            while (xml.hasNext() && xml.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                xml.next();
+            }
+            if (xml.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                throw new BusinessException("Le fichier XML ne contient aucun élément.");
+            }
+
+            String racine = xml.getLocalName();
+            return switch (racine) {
+                case "collection", "record" -> new LecteurMarcXml(xml);
+                case "ONIXMessage", "ONIXmessage" -> new LecteurOnix(xml);
+                default -> throw new BusinessException(
+                        "Format XML non reconnu (élément racine <" + racine + ">) : MARCXML ou ONIX attendu.");
+            };
+        } catch (XMLStreamException e) {
+            throw new BusinessException("Fichier XML illisible : " + e.getMessage());
+        }
+    }
+
+    public abstract FormatImport getFormat();
+
+    /**
+     * Lit la notice suivante, ou renvoie null à la fin du fichier
+     */
+    protected abstract NoticeBrute lireNotice() throws XMLStreamException;
+
+    @Override
+    public boolean hasNext() {
+        if (suivante == null && !termine) {
+            try {
+                suivante = lireNotice();
+            } catch (XMLStreamException e) {
+                throw new BusinessException(String.format(
+                        "Fichier XML illisible après la notice %d : %s", position, e.getMessage()));
+            }
+            if (suivante == null) {
+                termine = true;
+            } else {
+                suivante.setPosition(position++);
+            }
+        }
+        return suivante != null;
+    }
+
+    @Override
+    public NoticeBrute next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        NoticeBrute notice = suivante;
+        suivante = null;
+        return notice;
+    }
+
+    @Override
+    public void close() {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            // Rien à libérer de plus : le flux appartient à l'appelant
+        }
+    }
+
+    /**
+     * Texte d'un élément feuille, sans espaces autour
+     */
+    protected String texte() throws XMLStreamException {
+        return xml.getElementText().trim();
+    }
+
+    private static XMLInputFactory creerFabrique() {
+        XMLInputFactory fabrique = XMLInputFactory.newFactory();
+        // Pas de DTD ni d'entités externes dans des fichiers reçus de l'extérieur (XXE)
+        fabrique.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        fabrique.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        fabrique.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return fabrique;
+    }
+}
@@ -0,0 +1,196 @@
+package com.m2i.BiblioRestApi.importer;
+
+import com.m2i.BiblioRestApi.model.FormatImport;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+/**
+ * Notices ONIX for Books (3.0, et 2.1 pour les éléments communs) avec les noms de balises
+ * de référence (&lt;Product&gt;, &lt;ProductIdentifier&gt;...). Les balises courtes ne sont pas lues.
+ *
+ * Chaque valeur n'est lue qu'à sa place dans le produit : titre distinctif (TitleType 01) de
+ * DescriptiveDetail, pas celui d'une collection ; date de publication (PublishingDateRole 01, ou
+ * PublicationDate en 2.1), pas les dates d'un contributeur ; identifiants du produit, pas ceux des
+ * produits liés. Le premier contributeur de rôle A01 (auteur) est retenu, à défaut le premier
+ * contributeur.
+ */
+class LecteurOnix extends LecteurNotices {
+
+    // ISBN-13, GTIN-13 et ISBN-10
+    private static final Set<String> TYPES_ISBN = Set.of("15", "03", "02");
+
+    // Éléments feuilles lus
+    private static final Set<String> TEXTES = Set.of("ProductIDType", "IDValue", "TitleType", "TitleText",
+            "PublishingDateRole", "Date", "PublicationDate", "ContributorRole", "PersonNameInverted",
+            "PersonName", "KeyNames", "NamesBeforeKey", "EmailAddress");
+
+    LecteurOnix(XMLStreamReader xml) {
+        super(xml);
+    }
+
+    @Override
+    public FormatImport getFormat() {
+        return FormatImport.ONIX;
+    }
+
+    @Override
+    protected NoticeBrute lireNotice() throws XMLStreamException {
+        while (xml.hasNext()) {
+            if (xml.next() == XMLStreamConstants.START_ELEMENT && "Product".equals(xml.getLocalName())) {
+                return lireProduit();
+            }
+        }
+        return null;
+    }
+
+    private NoticeBrute lireProduit() throws XMLStreamException {
+        NoticeBrute notice = new NoticeBrute();
+        // Éléments ouverts sous <Product>, le plus proche en tête
+        Deque<String> chemin = new ArrayDeque<>();
+        String typeIdentifiant = null;
+        String identifiant = null;
+        String typeTitre = null;
+        String titre = null;
+        String roleDate = null;
+        String date = null;
+        Contributeur contributeur = null;
+        boolean auteurPrincipal = false;
+
+        while (xml.hasNext()) {
+            int evenement = xml.next();
+            if (evenement == XMLStreamConstants.END_ELEMENT) {
+                String balise = xml.getLocalName();
+                if ("Product".equals(balise)) {
+                    return notice;
+                }
+                chemin.pop();
+                String parent = chemin.isEmpty() ? "Product" : chemin.peek();
+                switch (balise) {
+                    case "ProductIdentifier" -> {
+                        // Pas les identifiants des produits liés (RelatedProduct)
+                        if ("Product".equals(parent) && notice.getIsbn() == null
+                                && TYPES_ISBN.contains(typeIdentifiant)) {
+                            notice.setIsbn(identifiant);
+                        }
+                        typeIdentifiant = null;
+                        identifiant = null;
+                    }
+                    case "TitleDetail", "Title" -> {
+                        // Titre distinctif (01) du produit : pas celui d'une collection (Collection, Series)
+                        boolean titreProduit = "TitleDetail".equals(balise)
+                                ? "DescriptiveDetail".equals(parent) : "Product".equals(parent);
+                        if (titreProduit && notice.getTitre() == null && "01".equals(typeTitre)) {
+                            notice.setTitre(titre);
+                        }
+                        typeTitre = null;
+                        titre = null;
+                    }
+                    case "PublishingDate" -> {
+                        // Date de publication (01), pas celles d'embargo, de réimpression...
+                        if (notice.getAnnee() == null && "01".equals(roleDate)) {
+                            notice.setAnnee(date);
+                        }
+                        roleDate = null;
+                        date = null;
+                    }
+                    case "Contributor" -> {
+                        if (contributeur != null) {
+                            boolean auteur = "A01".equals(contributeur.role);
+                            if (!auteurPrincipal && (auteur || notice.getAuteur() == null && notice.getAuteurNom() == null)) {
+                                contributeur.affecter(notice);
+                                auteurPrincipal = auteur;
+                            }
+                        }
+                        contributeur = null;
+                    }
+                    default -> {
+                    }
+                }
+                continue;
+            }
+            if (evenement != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            String balise = xml.getLocalName();
+            String parent = chemin.isEmpty() ? "Product" : chemin.peek();
+            if (!TEXTES.contains(balise)) {
+                // Les contributeurs d'une collection ne sont pas ceux du produit
+                if ("Contributor".equals(balise) && ("DescriptiveDetail".equals(parent) || "Product".equals(parent))) {
+                    contributeur = new Contributeur();
+                }
+                chemin.push(balise);
+                continue;
+            }
+            // Élément lu jusqu'à sa fin : il n'entre pas dans le chemin
+            String valeur = texte();
+            switch (balise) {
+                case "ProductIDType" -> typeIdentifiant = valeur;
+                case "IDValue" -> {
+                    if ("ProductIdentifier".equals(parent)) {
+                        identifiant = valeur;
+                    }
+                }
+                case "TitleType" -> typeTitre = valeur;
+                case "TitleText" -> {
+                    if (titre == null) {
+                        titre = valeur;
+                    }
+                }
+                case "PublishingDateRole" -> roleDate = valeur;
+                case "Date" -> {
+                    // Pas les dates d'un contributeur (ContributorDate)
+                    if ("PublishingDate".equals(parent)) {
+                        date = valeur;
+                    }
+                }
+                case "PublicationDate" -> {
+                    // ONIX 2.1
+                    if ("Product".equals(parent) && notice.getAnnee() == null) {
+                        notice.setAnnee(valeur);
+                    }
+                }
+                default -> {
+                    if (contributeur != null && "Contributor".equals(parent)) {
+                        contributeur.lire(balise, valeur);
+                    }
+                }
+            }
+        }
+        return notice;
+    }
+
+    private static class Contributeur {
+        private String role;
+        private String nomInverse;
+        private String nomDirect;
+        private String nom;
+        private String prenom;
+        private String email;
+
+        private void lire(String balise, String valeur) {
+            switch (balise) {
+                case "ContributorRole" -> role = valeur;
+                case "PersonNameInverted" -> nomInverse = valeur;
+                case "PersonName" -> nomDirect = valeur;
+                case "KeyNames" -> nom = valeur;
+                case "NamesBeforeKey" -> prenom = valeur;
+                case "EmailAddress" -> email = valeur;
+                default -> {
+                }
+            }
+        }
+
+        private void affecter(NoticeBrute notice) {
+            notice.setAuteurNom(nom);
+            notice.setAuteurPrenom(prenom);
+            notice.setAuteur(nomInverse != null ? nomInverse : nomDirect);
+            notice.setAuteurEmail(email);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.m2i.BiblioRestApi.importer;
+
+import lombok.*;
+
+/**
+ * Champs d'une notice bibliographique tels que lus dans le fichier XML, avant normalisation
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoticeBrute {
+
+    // Position de la notice dans le fichier (à partir de 0)
+    private int position;
+
+    private String isbn;
+
+    private String titre;
+
+    // Texte contenant l'année de publication ("c1862.", "20240115"...)
+    private String annee;
+
+    // Nom sous forme inversée ("Hugo, Victor, 1802-1885.") ou directe ("Victor Hugo")
+    private String auteur;
+
+    private String auteurNom;
+
+    private String auteurPrenom;
+
+    private String auteurEmail;
+}
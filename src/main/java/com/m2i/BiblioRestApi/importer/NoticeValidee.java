@@ -0,0 +1,28 @@
+package com.m2i.BiblioRestApi.importer;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import lombok.*;
+
+/**
+ * Notice normalisée et validée, prête à être persistée (ou rejetée avec son motif)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoticeValidee {
+
+    private int position;
+
+    private LivreDTO livre;
+
+    private AuteurDTO auteur;
+
+    // Clé de dédoublonnage de l'auteur : email, sinon nom et prénom
+    private String cleAuteur;
+
+    // Motif du rejet
+    private String erreur;
+}
@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Classe d'initialisation des données de test
  */
@@ -37,35 +39,33 @@ public class DataInitializer implements CommandLineRunner {
                 .prenom("Victor")
                 .email("victor.hugo@example.com")
                 .build();
-        auteurRepository.save(hugo);
 
         Auteur camus = Auteur.builder()
                 .nom("Camus")
                 .prenom("Albert")
                 .email("albert.camus@example.com")
                 .build();
-        auteurRepository.save(camus);
 
         Auteur austen = Auteur.builder()
                 .nom("Austen")
                 .prenom("Jane")
                 .email("jane.austen@example.com")
                 .build();
-        auteurRepository.save(austen);
 
         Auteur orwell = Auteur.builder()
                 .nom("Orwell")
                 .prenom("George")
                 .email("george.orwell@example.com")
                 .build();
-        auteurRepository.save(orwell);
 
         Auteur tolkien = Auteur.builder()
                 .nom("Tolkien")
                 .prenom("J.R.R.")
                 .email("jrr.tolkien@example.com")
                 .build();
-        auteurRepository.save(tolkien);
+
+        // Un seul saveAll par entité : les INSERT partent en lots JDBC
+        auteurRepository.saveAll(List.of(hugo, camus, austen, orwell, tolkien));
 
         // Créer des livres pour Victor Hugo
         Livre miserables = Livre.builder()
@@ -75,7 +75,6 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(5)
                 .auteur(hugo)
                 .build();
-        livreRepository.save(miserables);
 
         Livre notredame = Livre.builder()
                 .titre("Notre-Dame de Paris")
@@ -84,7 +83,6 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(3)
                 .auteur(hugo)
                 .build();
-        livreRepository.save(notredame);
 
         // Créer des livres pour Albert Camus
         Livre etranger = Livre.builder()
@@ -94,7 +92,6 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(8)
                 .auteur(camus)
                 .build();
-        livreRepository.save(etranger);
 
         Livre peste = Livre.builder()
                 .titre("La Peste")
@@ -103,7 +100,6 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(4)
                 .auteur(camus)
                 .build();
-        livreRepository.save(peste);
 
         // Créer des livres pour Jane Austen
         Livre prejudice = Livre.builder()
@@ -113,7 +109,6 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(6)
                 .auteur(austen)
                 .build();
-        livreRepository.save(prejudice);
 
         // Créer des livres pour George Orwell
         Livre orwell1984 = Livre.builder()
@@ -123,7 +118,6 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(10)
                 .auteur(orwell)
                 .build();
-        livreRepository.save(orwell1984);
 
         Livre animalFarm = Livre.builder()
                 .titre("La Ferme des Animaux")
@@ -132,7 +126,6 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(7)
                 .auteur(orwell)
                 .build();
-        livreRepository.save(animalFarm);
 
         // Créer des livres pour J.R.R. Tolkien
         Livre hobbit = Livre.builder()
@@ -142,7 +135,6 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(5)
                 .auteur(tolkien)
                 .build();
-        livreRepository.save(hobbit);
 
         Livre seigneur = Livre.builder()
                 .titre("Le Seigneur des Anneaux")
@@ -151,7 +143,9 @@ public class DataInitializer implements CommandLineRunner {
                 .nombreExemplaires(3)
                 .auteur(tolkien)
                 .build();
-        livreRepository.save(seigneur);
+
+        livreRepository.saveAll(List.of(miserables, notredame, etranger, peste, prejudice,
+                orwell1984, animalFarm, hobbit, seigneur));
 
         System.out.println("Données de test initialisées avec succès !");
         System.out.println("- " + auteurRepository.count() + " auteurs créés");
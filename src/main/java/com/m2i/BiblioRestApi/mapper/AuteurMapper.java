@@ -18,12 +18,21 @@ public class AuteurMapper {
             return null;
         }
 
+        return toDTO(auteur, auteur.getLivres() != null ? auteur.getLivres().size() : 0);
+    }
+
+    /**
+     * Convertit une entité Auteur en AuteurDTO avec un nombre de livres déjà compté
+     * (null s'il n'est pas demandé), sans charger la collection des livres
+     */
+    public AuteurDTO toDTO(Auteur auteur, Integer nombreLivres) {
         return AuteurDTO.builder()
                 .id(auteur.getId())
                 .nom(auteur.getNom())
                 .prenom(auteur.getPrenom())
                 .email(auteur.getEmail())
-                .nombreLivres(auteur.getLivres() != null ? auteur.getLivres().size() : 0)
+                .nombreLivres(nombreLivres)
+                .version(auteur.getVersion())
                 .build();
     }
 
@@ -0,0 +1,173 @@
+package com.m2i.BiblioRestApi.mapper;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.ChangementsLivresDTO;
+import com.m2i.BiblioRestApi.dto.LectureLotDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.dto.LivreSupprimeDTO;
+
+import java.io.IOException;
+
+/**
+ * Encodage protobuf des lectures du catalogue, selon le schéma proto/catalogue.proto.
+ *
+ * Les messages sont écrits champ par champ avec CodedOutputStream, sans classes générées :
+ * un livre peut être encodé directement depuis les colonnes d'une ligne SQL. Un message
+ * imbriqué est précédé de sa taille, calculée avant l'écriture de ses champs. Une liste
+ * (ListeLivres, ListeAuteurs) n'est qu'une suite de messages imbriqués sous le même
+ * numéro de champ : elle peut donc être écrite ligne par ligne.
+ */
+public final class CatalogueProtobuf {
+
+    public static final String MEDIA_TYPE = "application/x-protobuf";
+
+    // Numéro de champ des éléments de ListeLivres et ListeAuteurs
+    public static final int CHAMP_LISTE = 1;
+
+    private CatalogueProtobuf() {
+    }
+
+    /**
+     * Écrit un message Livre imbriqué sous le numéro de champ donné ; les valeurs null ne sont pas écrites
+     */
+    public static void ecrireLivre(CodedOutputStream out, int champ, Long id, String titre, String isbn,
+                                   Integer anneePublication, Integer nombreExemplaires, Long auteurId,
+                                   String nomCompletAuteur, Long version) throws IOException {
+        out.writeTag(champ, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(tailleInt64(1, id) + tailleString(2, titre) + tailleString(3, isbn)
+                + tailleInt32(4, anneePublication) + tailleInt32(5, nombreExemplaires)
+                + tailleInt64(6, auteurId) + tailleString(7, nomCompletAuteur) + tailleInt64(8, version));
+        ecrireInt64(out, 1, id);
+        ecrireString(out, 2, titre);
+        ecrireString(out, 3, isbn);
+        ecrireInt32(out, 4, anneePublication);
+        ecrireInt32(out, 5, nombreExemplaires);
+        ecrireInt64(out, 6, auteurId);
+        ecrireString(out, 7, nomCompletAuteur);
+        ecrireInt64(out, 8, version);
+    }
+
+    public static void ecrireLivre(CodedOutputStream out, int champ, LivreDTO livre) throws IOException {
+        ecrireLivre(out, champ, livre.getId(), livre.getTitre(), livre.getIsbn(), livre.getAnneePublication(),
+                livre.getNombreExemplaires(), livre.getAuteurId(), livre.getNomCompletAuteur(), livre.getVersion());
+    }
+
+    /**
+     * Écrit un message Auteur imbriqué sous le numéro de champ donné (ses livres ne sont pas repris)
+     */
+    public static void ecrireAuteur(CodedOutputStream out, int champ, Long id, String nom, String prenom,
+                                    String email, Integer nombreLivres, Long version) throws IOException {
+        out.writeTag(champ, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(tailleInt64(1, id) + tailleString(2, nom) + tailleString(3, prenom)
+                + tailleString(4, email) + tailleInt32(5, nombreLivres) + tailleInt64(6, version));
+        ecrireInt64(out, 1, id);
+        ecrireString(out, 2, nom);
+        ecrireString(out, 3, prenom);
+        ecrireString(out, 4, email);
+        ecrireInt32(out, 5, nombreLivres);
+        ecrireInt64(out, 6, version);
+    }
+
+    public static void ecrireAuteur(CodedOutputStream out, int champ, AuteurDTO auteur) throws IOException {
+        ecrireAuteur(out, champ, auteur.getId(), auteur.getNom(), auteur.getPrenom(), auteur.getEmail(),
+                auteur.getNombreLivres(), auteur.getVersion());
+    }
+
+    /**
+     * Écrit un message LectureLotLivres ou LectureLotAuteurs selon le type des ressources
+     */
+    public static void ecrireLectureLot(CodedOutputStream out, LectureLotDTO<?, ?> lecture) throws IOException {
+        for (Object ressource : lecture.getResultats()) {
+            ecrireElement(out, 1, ressource);
+        }
+        for (Object cle : lecture.getManquants()) {
+            if (cle instanceof String isbn) {
+                out.writeString(3, isbn);
+            } else {
+                out.writeInt64(2, ((Number) cle).longValue());
+            }
+        }
+    }
+
+    /**
+     * Écrit un message ChangementsLivres
+     */
+    public static void ecrireChangements(CodedOutputStream out, ChangementsLivresDTO changements) throws IOException {
+        ecrireInt64(out, 1, changements.getDepuis());
+        ecrireInt64(out, 2, changements.getSequence());
+        if (changements.isIncomplet()) {
+            out.writeBool(3, true);
+        }
+        for (LivreDTO livre : changements.getLivres()) {
+            ecrireLivre(out, 4, livre);
+        }
+        for (LivreSupprimeDTO suppression : changements.getSuppressions()) {
+            out.writeTag(5, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(tailleInt64(1, suppression.getId()) + tailleString(2, suppression.getIsbn())
+                    + tailleInt64(3, suppression.getSequence()));
+            ecrireInt64(out, 1, suppression.getId());
+            ecrireString(out, 2, suppression.getIsbn());
+            ecrireInt64(out, 3, suppression.getSequence());
+        }
+    }
+
+    /**
+     * Vrai si la ressource a une représentation protobuf (lectures par lot et changements)
+     */
+    public static boolean supporte(Class<?> type) {
+        return LectureLotDTO.class.isAssignableFrom(type) || ChangementsLivresDTO.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Écrit une ressource comme message de premier niveau (sans tag ni taille)
+     */
+    public static void ecrire(CodedOutputStream out, Object ressource) throws IOException {
+        switch (ressource) {
+            case LectureLotDTO<?, ?> lecture -> ecrireLectureLot(out, lecture);
+            case ChangementsLivresDTO changements -> ecrireChangements(out, changements);
+            default -> throw new IllegalArgumentException(
+                    "Pas de représentation protobuf pour " + ressource.getClass().getSimpleName());
+        }
+    }
+
+    private static void ecrireElement(CodedOutputStream out, int champ, Object ressource) throws IOException {
+        switch (ressource) {
+            case LivreDTO livre -> ecrireLivre(out, champ, livre);
+            case AuteurDTO auteur -> ecrireAuteur(out, champ, auteur);
+            default -> throw new IllegalArgumentException(
+                    "Pas de représentation protobuf pour " + ressource.getClass().getSimpleName());
+        }
+    }
+
+    private static void ecrireInt64(CodedOutputStream out, int champ, Long valeur) throws IOException {
+        if (valeur != null) {
+            out.writeInt64(champ, valeur);
+        }
+    }
+
+    private static void ecrireInt32(CodedOutputStream out, int champ, Integer valeur) throws IOException {
+        if (valeur != null) {
+            out.writeInt32(champ, valeur);
+        }
+    }
+
+    private static void ecrireString(CodedOutputStream out, int champ, String valeur) throws IOException {
+        if (valeur != null) {
+            out.writeString(champ, valeur);
+        }
+    }
+
+    private static int tailleInt64(int champ, Long valeur) {
+        return valeur != null ? CodedOutputStream.computeInt64Size(champ, valeur) : 0;
+    }
+
+    private static int tailleInt32(int champ, Integer valeur) {
+        return valeur != null ? CodedOutputStream.computeInt32Size(champ, valeur) : 0;
+    }
+
+    private static int tailleString(int champ, String valeur) {
+        return valeur != null ? CodedOutputStream.computeStringSize(champ, valeur) : 0;
+    }
+}
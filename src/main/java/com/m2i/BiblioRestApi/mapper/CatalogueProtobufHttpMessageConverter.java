@@ -0,0 +1,44 @@
+package com.m2i.BiblioRestApi.mapper;
+
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Écriture en application/x-protobuf des lectures par lot et des changements du catalogue.
+ * Les listes complètes sont écrites en flux par les services, sans passer par ce convertisseur.
+ */
+public class CatalogueProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public CatalogueProtobufHttpMessageConverter() {
+        super(MediaType.parseMediaType(CatalogueProtobuf.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CatalogueProtobuf.supporte(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        // Format de lecture seulement : les écritures restent en JSON, CBOR ou Smile
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Lecture protobuf non supportée", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object ressource, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        CatalogueProtobuf.ecrire(out, ressource);
+        out.flush();
+    }
+}
@@ -15,25 +15,33 @@ public class LivreMapper {
      * Convertit une entité Livre en LivreDTO
      */
     public LivreDTO toDTO(Livre livre) {
+        LivreDTO dto = toDTOSansAuteur(livre);
+
+        if (dto != null && livre.getAuteur() != null) {
+            dto.setNomCompletAuteur(livre.getAuteur().getPrenom() + " " +
+                    livre.getAuteur().getNom());
+        }
+
+        return dto;
+    }
+
+    /**
+     * Convertit une entité Livre en LivreDTO sans charger l'auteur : seul son ID est repris
+     */
+    public LivreDTO toDTOSansAuteur(Livre livre) {
         if (livre == null) {
             return null;
         }
 
-        LivreDTO dto = LivreDTO.builder()
+        return LivreDTO.builder()
                 .id(livre.getId())
                 .titre(livre.getTitre())
                 .isbn(livre.getIsbn())
                 .anneePublication(livre.getAnneePublication())
                 .nombreExemplaires(livre.getNombreExemplaires())
+                .version(livre.getVersion())
+                .auteurId(livre.getAuteur() != null ? livre.getAuteur().getId() : null)
                 .build();
-
-        if (livre.getAuteur() != null) {
-            dto.setAuteurId(livre.getAuteur().getId());
-            dto.setNomCompletAuteur(livre.getAuteur().getPrenom() + " " +
-                    livre.getAuteur().getNom());
-        }
-
-        return dto;
     }
 
     /**
@@ -0,0 +1,27 @@
+package com.m2i.BiblioRestApi.mapper;
+
+import com.m2i.BiblioRestApi.dto.ReservationDTO;
+import com.m2i.BiblioRestApi.model.Reservation;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationMapper {
+
+    /**
+     * Convertit une entité Reservation en ReservationDTO
+     */
+    public ReservationDTO toDTO(Reservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+
+        return ReservationDTO.builder()
+                .id(reservation.getId())
+                .livreId(reservation.getLivre() != null ? reservation.getLivre().getId() : null)
+                .username(reservation.getUsername())
+                .statut(reservation.getStatut())
+                .dateDemande(reservation.getDateDemande())
+                .datePromotion(reservation.getDatePromotion())
+                .build();
+    }
+}
@@ -4,12 +4,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "auteurs")
+@DynamicUpdate
+@Table(name = "auteurs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_auteurs_email", columnNames = "email"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +21,8 @@ import java.util.List;
 public class Auteur {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "auteurs_seq")
+    @SequenceGenerator(name = "auteurs_seq", sequenceName = "auteurs_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le nom est obligatoire")
@@ -32,7 +36,7 @@ public class Auteur {
     private String prenom;
 
     @Email(message = "Email invalide")
-    @Column(unique = true, length = 150)
+    @Column(length = 150)
     private String email;
 
     @OneToMany(mappedBy = "auteur", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -40,6 +44,10 @@ public class Auteur {
     @Builder.Default
     private List<Livre> livres = new ArrayList<>();
 
+    // Incrémentée à chaque modification de l'auteur (0 à la création)
+    @Version
+    private Long version;
+
     // Méthode utilitaire
     public void addLivre(Livre livre) {
         livres.add(livre);
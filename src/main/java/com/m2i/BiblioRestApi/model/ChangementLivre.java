@@ -0,0 +1,41 @@
+package com.m2i.BiblioRestApi.model;
+
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Journal des écritures sur les livres : l'ID sert de numéro de séquence pour la synchronisation
+ * incrémentale du catalogue.
+ */
+@Entity
+@Table(name = "livre_changements",
+        indexes = @Index(name = "idx_livre_changements_livre", columnList = "livre_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangementLivre {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livre_changements_seq")
+    @SequenceGenerator(name = "livre_changements_seq", sequenceName = "livre_changements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "livre_id", nullable = false)
+    private Long livreId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CatalogueEvent.Operation operation;
+
+    // Conservé pour les suppressions (le livre n'existe plus)
+    @Column(length = 13)
+    private String isbn;
+
+    @Column(nullable = false)
+    private LocalDateTime dateChangement;
+}
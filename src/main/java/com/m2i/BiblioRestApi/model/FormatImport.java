@@ -0,0 +1,13 @@
+package com.m2i.BiblioRestApi.model;
+
+/**
+ * Formats acceptés par les imports en flux du catalogue
+ */
+public enum FormatImport {
+    NDJSON,
+    CSV,
+    MARCXML,
+    ONIX,
+    CBOR,
+    SMILE
+}
@@ -0,0 +1,50 @@
+package com.m2i.BiblioRestApi.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Point de reprise d'un import en flux : avancé dans la transaction de chaque lot, il indique
+ * combien d'enregistrements du flux sont déjà traités.
+ */
+@Entity
+@Table(name = "import_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private FormatImport format;
+
+    @Column(nullable = false)
+    private long lignesTraitees;
+
+    @Column(nullable = false)
+    private long crees;
+
+    @Column(nullable = false)
+    private long rejetes;
+
+    @Column(nullable = false)
+    private boolean termine;
+
+    @Column(nullable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(nullable = false)
+    private LocalDateTime dateMiseAJour;
+
+    // Incrémentée à chaque lot validé : détecte une reprise concurrente du même import
+    @Version
+    private Long version;
+}
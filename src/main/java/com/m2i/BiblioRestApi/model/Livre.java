@@ -3,10 +3,13 @@ package com.m2i.BiblioRestApi.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 
 @Entity
-@Table(name = "livres")
+@DynamicUpdate
+@Table(name = "livres",
+        uniqueConstraints = @UniqueConstraint(name = "uk_livres_isbn", columnNames = "isbn"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +18,8 @@ import lombok.*;
 public class Livre {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livres_seq")
+    @SequenceGenerator(name = "livres_seq", sequenceName = "livres_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le titre est obligatoire")
@@ -25,7 +29,7 @@ public class Livre {
 
     @NotBlank(message = "L'ISBN est obligatoire")
     @Pattern(regexp = "^(978|979)[0-9]{10}$", message = "Format ISBN-13 invalide (ex: 9782070409228)")
-    @Column(unique = true, nullable = false, length = 13)
+    @Column(nullable = false, length = 13)
     private String isbn;
 
     @NotNull(message = "L'année de publication est obligatoire")
@@ -39,7 +43,11 @@ public class Livre {
     private Integer nombreExemplaires = 0;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "auteur_id", nullable = false)
+    @JoinColumn(name = "auteur_id", nullable = false, foreignKey = @ForeignKey(name = "fk_livres_auteur"))
     @NotNull(message = "L'auteur est obligatoire")
     private Auteur auteur;
+
+    // Incrémentée par Hibernate à chaque modification du livre
+    @Version
+    private Long version;
 }
@@ -0,0 +1,61 @@
+package com.m2i.BiblioRestApi.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reservations",
+        indexes = @Index(name = "idx_reservations_livre_statut", columnList = "livre_id, statut"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_reservations_attente",
+                columnNames = {"livre_id", "username", "en_attente"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "livre_id", nullable = false)
+    @NotNull(message = "Le livre est obligatoire")
+    private Livre livre;
+
+    @NotBlank(message = "L'utilisateur est obligatoire")
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private LocalDateTime dateDemande;
+
+    // Clé d'ordonnancement de la file : plus elle est petite, plus la réservation est prioritaire
+    @Column(nullable = false)
+    private Long priorite;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private StatutReservation statut = StatutReservation.EN_ATTENTE;
+
+    private LocalDateTime datePromotion;
+
+    // TRUE tant que la réservation est en attente, NULL ensuite : les NULL étant distincts,
+    // uk_reservations_attente n'admet qu'une réservation en attente par livre et par lecteur
+    @Column(name = "en_attente")
+    @Setter(AccessLevel.NONE)
+    private Boolean enAttente;
+
+    @PrePersist
+    @PreUpdate
+    void marquerAttente() {
+        enAttente = statut == StatutReservation.EN_ATTENTE ? Boolean.TRUE : null;
+    }
+}
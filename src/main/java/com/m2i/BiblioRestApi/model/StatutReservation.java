@@ -0,0 +1,10 @@
+package com.m2i.BiblioRestApi.model;
+
+/**
+ * Cycle de vie d'une réservation sur liste d'attente
+ */
+public enum StatutReservation {
+    EN_ATTENTE,
+    PROMUE,
+    ANNULEE
+}
@@ -3,14 +3,57 @@ package com.m2i.BiblioRestApi.repository;
 
 import com.m2i.BiblioRestApi.model.Auteur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface AuteurRepository extends JpaRepository<Auteur, Long> {
+public interface AuteurRepository extends JpaRepository<Auteur, Long>, AuteurRepositoryCustom {
+
+    // Lettres accentuées et leur lettre de base, pour comparer des noms en SQL (TRANSLATE)
+    // comme en Java (sansAccents) avec exactement la même transformation
+    String LETTRES_ACCENTUEES = "àáâãäåçèéêëìíîïñòóôõöùúûüýÿ";
+    String LETTRES_DE_BASE = "aaaaaaceeeeiiiinooooouuuuyy";
 
     Optional<Auteur> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    List<Auteur> findByEmailIn(Collection<String> emails);
+
+    // Emails attendus en minuscules
+    @Query("select a from Auteur a where lower(a.email) in :emails")
+    List<Auteur> findByEmailMinusculeIn(@Param("emails") Collection<String> emails);
+
+    @Query("select a from Auteur a left join fetch a.livres where a.id = :id")
+    Optional<Auteur> findWithLivresById(@Param("id") Long id);
+
+    @Query("select a.id from Auteur a where a.id in :ids")
+    Set<Long> findIdsIn(@Param("ids") Collection<Long> ids);
+
+    // Noms attendus en minuscules et sans accents (voir sansAccents)
+    @Query("select a from Auteur a where function('TRANSLATE', lower(a.nom), '"
+            + LETTRES_ACCENTUEES + "', '" + LETTRES_DE_BASE + "') in :noms")
+    List<Auteur> findByNomSansAccentsIn(@Param("noms") Collection<String> noms);
+
+    /**
+     * Texte en minuscules, lettres accentuées ramenées à leur base : la transformation
+     * appliquée au nom en base par findByNomSansAccentsIn
+     */
+    static String sansAccents(String texte) {
+        char[] lettres = texte.toLowerCase(Locale.ROOT).toCharArray();
+        for (int i = 0; i < lettres.length; i++) {
+            int position = LETTRES_ACCENTUEES.indexOf(lettres[i]);
+            if (position >= 0) {
+                lettres[i] = LETTRES_DE_BASE.charAt(position);
+            }
+        }
+        return new String(lettres);
+    }
 }
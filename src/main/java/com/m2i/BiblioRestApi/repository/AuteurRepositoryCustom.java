@@ -0,0 +1,36 @@
+package com.m2i.BiblioRestApi.repository;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.List;
+import java.util.Map;
+
+public interface AuteurRepositoryCustom {
+
+    /**
+     * Champs disponibles pour findProjection
+     */
+    List<String> CHAMPS_PROJECTION = List.of("id", "nom", "prenom", "email", "version", "nombreLivres");
+
+    /**
+     * Crée ou met à jour des auteurs par email en une seule instruction MERGE.
+     * Les auteurs inchangés ne sont pas renvoyés ; un auteur créé a la version 0.
+     */
+    List<AuteurDTO> upsertParEmail(List<AuteurDTO> auteurs);
+
+    /**
+     * Lit seulement les colonnes des champs demandés ; les livres ne sont comptés
+     * (sous-requête corrélée) que si nombreLivres est demandé
+     *
+     * @param champs Champs à lire, parmi CHAMPS_PROJECTION
+     * @return Une ligne par ressource (triées par ID), les champs dans l'ordre demandé
+     */
+    List<Map<String, Object>> findProjection(List<String> champs);
+
+    /**
+     * Parcourt tous les auteurs ligne par ligne (triés par ID), sans construire d'entités :
+     * colonnes id, nom, prenom, email, nombre_livres et version
+     */
+    void parcourirAuteurs(RowCallbackHandler traitement);
+}
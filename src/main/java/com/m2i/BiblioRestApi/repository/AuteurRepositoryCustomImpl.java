@@ -0,0 +1,121 @@
+package com.m2i.BiblioRestApi.repository;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upsert des auteurs par MERGE H2 : l'email (contrainte uk_auteurs_email) sert de clé et le
+ * résultat est relu avec FINAL TABLE dans le même aller-retour.
+ * Les projections (?fields=) sont des requêtes Criteria qui ne sélectionnent que les colonnes demandées.
+ * Le parcours de tous les auteurs passe par JDBC : chaque ligne est traitée dès sa lecture.
+ */
+public class AuteurRepositoryCustomImpl implements AuteurRepositoryCustom {
+
+    private static final String LIGNE = "(cast(? as varchar(150)), cast(? as varchar(100)), cast(? as varchar(100)))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Override
+    public List<AuteurDTO> upsertParEmail(List<AuteurDTO> auteurs) {
+        if (auteurs.isEmpty()) {
+            return List.of();
+        }
+        // Le MERGE passe par JDBC : les écritures JPA en attente doivent être visibles
+        entityManager.flush();
+
+        String sql = "select f.id, f.nom, f.prenom, f.email, f.version "
+                + "from final table ("
+                + "merge into auteurs t "
+                + "using (values " + String.join(", ", Collections.nCopies(auteurs.size(), LIGNE)) + ") "
+                + "s(email, nom, prenom) "
+                + "on t.email = s.email "
+                + "when matched and (t.nom <> s.nom or t.prenom <> s.prenom) "
+                + "then update set nom = s.nom, prenom = s.prenom, version = t.version + 1 "
+                + "when not matched then insert (id, nom, prenom, email, version) "
+                + "values (next value for auteurs_seq, s.nom, s.prenom, s.email, 0)"
+                + ") f";
+
+        List<Object> parametres = new ArrayList<>(auteurs.size() * 3);
+        for (AuteurDTO auteur : auteurs) {
+            parametres.add(auteur.getEmail());
+            parametres.add(auteur.getNom());
+            parametres.add(auteur.getPrenom());
+        }
+
+        List<AuteurDTO> resultat = jdbcTemplate.query(sql, (rs, ligne) -> AuteurDTO.builder()
+                .id(rs.getLong("id"))
+                .nom(rs.getString("nom"))
+                .prenom(rs.getString("prenom"))
+                .email(rs.getString("email"))
+                .version(rs.getLong("version"))
+                .build(), parametres.toArray());
+
+        // Les entités déjà chargées dans cette transaction doivent refléter le MERGE
+        for (AuteurDTO ecrit : resultat) {
+            Auteur reference = entityManager.getReference(Auteur.class, ecrit.getId());
+            if (Hibernate.isInitialized(reference)) {
+                entityManager.refresh(reference);
+            } else {
+                entityManager.detach(reference);
+            }
+        }
+        return resultat;
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjection(List<String> champs) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Auteur> auteur = query.from(Auteur.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String champ : champs) {
+            Expression<?> expression;
+            if (champ.equals("nombreLivres")) {
+                Subquery<Long> nombre = query.subquery(Long.class);
+                Root<Livre> livre = nombre.from(Livre.class);
+                nombre.select(cb.count(livre)).where(cb.equal(livre.get("auteur"), auteur));
+                expression = nombre;
+            } else {
+                expression = auteur.get(champ);
+            }
+            selections.add(expression.alias(champ));
+        }
+        query.multiselect(selections).orderBy(cb.asc(auteur.get("id")));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(ligne -> LivreRepositoryCustomImpl.versMap(ligne, champs))
+                .toList();
+    }
+
+    @Override
+    public void parcourirAuteurs(RowCallbackHandler traitement) {
+        // Les écritures JPA en attente doivent être visibles par la requête JDBC
+        entityManager.flush();
+        jdbcTemplate.query("select a.id, a.nom, a.prenom, a.email, a.version, "
+                + "(select count(*) from livres l where l.auteur_id = a.id) nombre_livres "
+                + "from auteurs a order by a.id", traitement);
+    }
+}
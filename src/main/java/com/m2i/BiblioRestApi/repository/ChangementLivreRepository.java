@@ -0,0 +1,18 @@
+package com.m2i.BiblioRestApi.repository;
+
+import com.m2i.BiblioRestApi.model.ChangementLivre;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangementLivreRepository extends JpaRepository<ChangementLivre, Long> {
+
+    List<ChangementLivre> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long sequence, Long plafond, Limit limite);
+
+    @Query("select coalesce(max(c.id), 0) from ChangementLivre c")
+    Long findDerniereSequence();
+}
@@ -0,0 +1,20 @@
+package com.m2i.BiblioRestApi.repository;
+
+import com.m2i.BiblioRestApi.model.ImportCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+
+    // SELECT ... FOR UPDATE : la ligne reste verrouillée jusqu'à la fin de la transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ImportCheckpoint c where c.id = :id")
+    Optional<ImportCheckpoint> findVerrouilleById(@Param("id") String id);
+}
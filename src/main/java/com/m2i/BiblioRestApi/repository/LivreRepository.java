@@ -1,14 +1,20 @@
 package com.m2i.BiblioRestApi.repository;
 
 import com.m2i.BiblioRestApi.model.Livre;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface LivreRepository extends JpaRepository<Livre, Long> {
+public interface LivreRepository extends JpaRepository<Livre, Long>, LivreRepositoryCustom {
 
     Optional<Livre> findByIsbn(String isbn);
 
@@ -16,7 +22,34 @@ public interface LivreRepository extends JpaRepository<Livre, Long> {
 
     List<Livre> findByAuteurId(Long auteurId);
 
+    long countByAuteurId(Long auteurId);
+
+    List<Livre> findByAuteurIdIn(Collection<Long> auteurIds);
+
     List<Livre> findByTitreContainingIgnoreCase(String titre);
 
     List<Livre> findByAnneePublicationBetween(Integer anneeMin, Integer anneeMax);
+
+    @Query("select l from Livre l join fetch l.auteur where l.id in :ids")
+    List<Livre> findAllWithAuteurByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select l from Livre l join fetch l.auteur where l.isbn in :isbns")
+    List<Livre> findAllWithAuteurByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Query("select l.auteur.id, count(l) from Livre l where l.auteur.id in :auteurIds group by l.auteur.id")
+    List<Object[]> countByAuteurIdIn(@Param("auteurIds") Collection<Long> auteurIds);
+
+    @Query("select l from Livre l join fetch l.auteur")
+    List<Livre> findAllWithAuteur();
+
+    @Query("select l from Livre l join fetch l.auteur where l.id = :id")
+    Optional<Livre> findWithAuteurById(@Param("id") Long id);
+
+    // SELECT ... FOR UPDATE : la ligne reste verrouillée jusqu'à la fin de la transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Livre l where l.id = :id")
+    Optional<Livre> findVerrouilleById(@Param("id") Long id);
+
+    @Query("select l.isbn from Livre l where l.isbn in :isbns")
+    Set<String> findIsbnsIn(@Param("isbns") Collection<String> isbns);
 }
@@ -0,0 +1,52 @@
+package com.m2i.BiblioRestApi.repository;
+
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.model.Livre;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.List;
+import java.util.Map;
+
+public interface LivreRepositoryCustom {
+
+    /**
+     * Champs disponibles pour findProjection
+     */
+    List<String> CHAMPS_PROJECTION = List.of("id", "titre", "isbn", "anneePublication",
+            "nombreExemplaires", "version", "auteurId", "nomCompletAuteur");
+
+    /**
+     * Crée ou met à jour des livres par ISBN en une seule instruction MERGE.
+     * Les livres inchangés ne sont pas renvoyés ; un livre créé a la version 0.
+     */
+    List<LivreDTO> upsertParIsbn(List<LivreDTO> livres);
+
+    /**
+     * Lit seulement les colonnes des champs demandés ; la jointure avec auteurs n'est faite
+     * que si nomCompletAuteur est demandé (auteurId vient de la clé étrangère)
+     *
+     * @param champs Champs à lire, parmi CHAMPS_PROJECTION
+     * @return Une ligne par ressource (triées par ID), les champs dans l'ordre demandé
+     */
+    List<Map<String, Object>> findProjection(List<String> champs);
+
+    /**
+     * Parcourt tout le catalogue ligne par ligne (triées par ID), sans construire d'entités :
+     * colonnes id, titre, isbn, annee_publication, nombre_exemplaires, auteur_id,
+     * nom_complet_auteur et version
+     */
+    void parcourirCatalogue(RowCallbackHandler traitement);
+
+    /**
+     * Empreinte du catalogue en une requête : nombre de livres, somme des (id * 31 + version)
+     * des livres, puis les deux mêmes valeurs pour les auteurs
+     */
+    long[] empreinteCatalogue();
+
+    /**
+     * Verrouille la ligne d'un livre déjà chargé (SELECT ... FOR UPDATE) jusqu'à la fin de la
+     * transaction, sans écrire ses modifications en attente. Échoue (verrouillage optimiste)
+     * si le livre a été modifié en base depuis son chargement.
+     */
+    void verrouiller(Livre livre);
+}
@@ -0,0 +1,162 @@
+package com.m2i.BiblioRestApi.repository;
+
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upsert des livres par MERGE H2 : l'ISBN (contrainte uk_livres_isbn) sert de clé, un nouvel
+ * ID est tiré de livres_seq et le résultat est relu avec FINAL TABLE dans le même aller-retour.
+ * Les projections (?fields=) sont des requêtes Criteria qui ne sélectionnent que les colonnes demandées.
+ * Le parcours du catalogue complet passe par JDBC : chaque ligne est traitée dès sa lecture.
+ */
+public class LivreRepositoryCustomImpl implements LivreRepositoryCustom {
+
+    private static final String LIGNE = "(cast(? as varchar(13)), cast(? as varchar(200)), "
+            + "cast(? as integer), cast(? as integer), cast(? as bigint))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Override
+    public List<LivreDTO> upsertParIsbn(List<LivreDTO> livres) {
+        if (livres.isEmpty()) {
+            return List.of();
+        }
+        // Le MERGE passe par JDBC : les écritures JPA en attente doivent être visibles
+        entityManager.flush();
+
+        String sql = "select f.id, f.titre, f.isbn, f.annee_publication, f.nombre_exemplaires, "
+                + "f.auteur_id, f.version, a.prenom, a.nom "
+                + "from final table ("
+                + "merge into livres t "
+                + "using (values " + String.join(", ", Collections.nCopies(livres.size(), LIGNE)) + ") "
+                + "s(isbn, titre, annee_publication, nombre_exemplaires, auteur_id) "
+                + "on t.isbn = s.isbn "
+                // Un livre identique n'est pas réécrit : ni version, ni journal de changements
+                + "when matched and (t.titre <> s.titre or t.annee_publication <> s.annee_publication "
+                + "or t.nombre_exemplaires <> s.nombre_exemplaires or t.auteur_id <> s.auteur_id) "
+                + "then update set titre = s.titre, annee_publication = s.annee_publication, "
+                + "nombre_exemplaires = s.nombre_exemplaires, auteur_id = s.auteur_id, version = t.version + 1 "
+                + "when not matched then insert "
+                + "(id, isbn, titre, annee_publication, nombre_exemplaires, auteur_id, version) "
+                + "values (next value for livres_seq, s.isbn, s.titre, s.annee_publication, "
+                + "s.nombre_exemplaires, s.auteur_id, 0)"
+                + ") f join auteurs a on a.id = f.auteur_id";
+
+        List<Object> parametres = new ArrayList<>(livres.size() * 5);
+        for (LivreDTO livre : livres) {
+            parametres.add(livre.getIsbn());
+            parametres.add(livre.getTitre());
+            parametres.add(livre.getAnneePublication());
+            parametres.add(livre.getNombreExemplaires() != null ? livre.getNombreExemplaires() : 0);
+            parametres.add(livre.getAuteurId());
+        }
+
+        List<LivreDTO> resultat = jdbcTemplate.query(sql, (rs, ligne) -> LivreDTO.builder()
+                .id(rs.getLong("id"))
+                .titre(rs.getString("titre"))
+                .isbn(rs.getString("isbn"))
+                .anneePublication(rs.getInt("annee_publication"))
+                .nombreExemplaires(rs.getInt("nombre_exemplaires"))
+                .auteurId(rs.getLong("auteur_id"))
+                .nomCompletAuteur(rs.getString("prenom") + " " + rs.getString("nom"))
+                .version(rs.getLong("version"))
+                .build(), parametres.toArray());
+
+        // Les entités déjà chargées dans cette transaction doivent refléter le MERGE
+        for (LivreDTO ecrit : resultat) {
+            Livre reference = entityManager.getReference(Livre.class, ecrit.getId());
+            if (Hibernate.isInitialized(reference)) {
+                entityManager.refresh(reference);
+            } else {
+                entityManager.detach(reference);
+            }
+        }
+        return resultat;
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjection(List<String> champs) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Livre> livre = query.from(Livre.class);
+        Join<Livre, Auteur> auteur = null;
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String champ : champs) {
+            Expression<?> expression;
+            if (champ.equals("auteurId")) {
+                // Lu dans la clé étrangère de livres, sans jointure
+                expression = livre.get("auteur").get("id");
+            } else if (champ.equals("nomCompletAuteur")) {
+                if (auteur == null) {
+                    auteur = livre.join("auteur");
+                }
+                expression = cb.concat(cb.concat(auteur.<String>get("prenom"), " "), auteur.<String>get("nom"));
+            } else {
+                expression = livre.get(champ);
+            }
+            selections.add(expression.alias(champ));
+        }
+        query.multiselect(selections).orderBy(cb.asc(livre.get("id")));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(ligne -> versMap(ligne, champs))
+                .toList();
+    }
+
+    @Override
+    public void parcourirCatalogue(RowCallbackHandler traitement) {
+        // Les écritures JPA en attente doivent être visibles par la requête JDBC
+        entityManager.flush();
+        jdbcTemplate.query("select l.id, l.titre, l.isbn, l.annee_publication, l.nombre_exemplaires, "
+                + "l.auteur_id, a.prenom || ' ' || a.nom nom_complet_auteur, l.version "
+                + "from livres l join auteurs a on a.id = l.auteur_id order by l.id", traitement);
+    }
+
+    @Override
+    public long[] empreinteCatalogue() {
+        entityManager.flush();
+        return jdbcTemplate.queryForObject("select (select count(*) from livres), "
+                + "(select coalesce(sum(id * 31 + version), 0) from livres), "
+                + "(select count(*) from auteurs), "
+                + "(select coalesce(sum(id * 31 + version), 0) from auteurs)",
+                (ligne, numero) -> new long[]{ligne.getLong(1), ligne.getLong(2), ligne.getLong(3), ligne.getLong(4)});
+    }
+
+    @Override
+    public void verrouiller(Livre livre) {
+        entityManager.lock(livre, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    static Map<String, Object> versMap(Tuple ligne, List<String> champs) {
+        Map<String, Object> valeurs = new LinkedHashMap<>();
+        for (String champ : champs) {
+            valeurs.put(champ, ligne.get(champ));
+        }
+        return valeurs;
+    }
+}
@@ -0,0 +1,21 @@
+package com.m2i.BiblioRestApi.repository;
+
+import com.m2i.BiblioRestApi.model.Reservation;
+import com.m2i.BiblioRestApi.model.StatutReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    List<Reservation> findByStatut(StatutReservation statut);
+
+    @Modifying
+    @Query("delete from Reservation r where r.livre.id = :livreId")
+    void deleteByLivreId(@Param("livreId") Long livreId);
+}
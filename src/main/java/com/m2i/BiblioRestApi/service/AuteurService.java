@@ -1,19 +1,45 @@
 package com.m2i.BiblioRestApi.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedOutputStream;
 import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.ImportLigneDTO;
+import com.m2i.BiblioRestApi.dto.ImportResultatDTO;
+import com.m2i.BiblioRestApi.dto.LectureLotDTO;
 import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
 import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.exception.ConflitVersionException;
+import com.m2i.BiblioRestApi.exception.Contraintes;
 import com.m2i.BiblioRestApi.exception.DuplicateResourceException;
 import com.m2i.BiblioRestApi.exception.ResourceNotFoundException;
 import com.m2i.BiblioRestApi.mapper.AuteurMapper;
+import com.m2i.BiblioRestApi.mapper.CatalogueProtobuf;
 import com.m2i.BiblioRestApi.mapper.LivreMapper;
 import com.m2i.BiblioRestApi.model.Auteur;
 import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -22,12 +48,33 @@ public class AuteurService {
     @Autowired
     private AuteurRepository auteurRepository;
 
+    @Autowired
+    private LivreRepository livreRepository;
+
     @Autowired
     private AuteurMapper auteurMapper;
 
     @Autowired
     private LivreMapper livreMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MergePatch mergePatch;
+
+    @Autowired
+    private FiltresBloomService filtresBloomService;
+
+    @Value("${bibliotheque.import.taille-lot:500}")
+    private int tailleLot;
+
+    @Value("${bibliotheque.lecture-lot.max:200}")
+    private int lectureLotMax;
+
     /**
      * Récupère tous les auteurs
      */
@@ -37,6 +84,51 @@ public class AuteurService {
         return auteurMapper.toDTOList(auteurs);
     }
 
+    /**
+     * Écrit tous les auteurs en protobuf (message ListeAuteurs), chaque auteur étant encodé
+     * dès la lecture de sa ligne
+     */
+    @Transactional(readOnly = true)
+    public void ecrireAuteursProtobuf(OutputStream flux) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(flux);
+        try {
+            auteurRepository.parcourirAuteurs(ligne -> {
+                try {
+                    CatalogueProtobuf.ecrireAuteur(out, CatalogueProtobuf.CHAMP_LISTE,
+                            ligne.getLong("id"), ligne.getString("nom"), ligne.getString("prenom"),
+                            ligne.getString("email"), ligne.getInt("nombre_livres"), ligne.getLong("version"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    /**
+     * Récupère les auteurs réduits aux champs demandés (?fields=), en ne lisant que leurs colonnes
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAuteursProjection(List<String> champs) {
+        Set<String> demandes = new LinkedHashSet<>();
+        if (champs != null) {
+            champs.stream().filter(Objects::nonNull).map(String::trim).forEach(demandes::add);
+        }
+        demandes.remove("");
+        if (demandes.isEmpty()) {
+            throw new BusinessException("Au moins un champ doit être demandé.");
+        }
+        for (String champ : demandes) {
+            if (!AuteurRepository.CHAMPS_PROJECTION.contains(champ)) {
+                throw new BusinessException(String.format("Champ inconnu : '%s' (champs disponibles : %s)",
+                        champ, String.join(", ", AuteurRepository.CHAMPS_PROJECTION)));
+            }
+        }
+        return auteurRepository.findProjection(new ArrayList<>(demandes));
+    }
+
     /**
      * Récupère un auteur par son ID
      */
@@ -44,33 +136,83 @@ public class AuteurService {
     public AuteurDTO getAuteurById(Long id) {
         Auteur auteur = auteurRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Auteur", "id", id));
-        return auteurMapper.toDTO(auteur);
+        // Compter les livres sans charger la collection
+        return auteurMapper.toDTO(auteur, (int) livreRepository.countByAuteurId(id));
+    }
+
+    /**
+     * Récupère un auteur et ses livres en une seule requête (jointure)
+     */
+    @Transactional(readOnly = true)
+    public AuteurDTO getAuteurAvecLivres(Long id) {
+        Auteur auteur = auteurRepository.findWithLivresById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Auteur", "id", id));
+        AuteurDTO dto = auteurMapper.toDTO(auteur);
+        dto.setLivres(livreMapper.toDTOList(auteur.getLivres()));
+        return dto;
+    }
+
+    /**
+     * Récupère plusieurs auteurs par ID, dans l'ordre demandé : une requête pour les auteurs
+     * et une pour leurs nombres de livres, sans charger les collections
+     */
+    @Transactional(readOnly = true)
+    public LectureLotDTO<AuteurDTO, Long> getAuteursByIds(List<Long> ids) {
+        Set<Long> cles = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(cles::add);
+        }
+        if (cles.isEmpty()) {
+            throw new BusinessException("Au moins un ID doit être fourni.");
+        }
+        if (cles.size() > lectureLotMax) {
+            throw new BusinessException(String.format(
+                    "%d ID demandés : %d au maximum par requête.", cles.size(), lectureLotMax));
+        }
+
+        Map<Long, Long> nombresLivres = livreRepository.countByAuteurIdIn(cles).stream()
+                .collect(Collectors.toMap(ligne -> (Long) ligne[0], ligne -> (Long) ligne[1]));
+        Map<Long, AuteurDTO> trouves = auteurRepository.findAllById(cles).stream()
+                .collect(Collectors.toMap(Auteur::getId, auteur -> auteurMapper.toDTO(
+                        auteur, nombresLivres.getOrDefault(auteur.getId(), 0L).intValue())));
+        return LectureLotDTO.ordonner(cles, trouves);
     }
 
     /**
      * Crée un nouvel auteur
      */
     public AuteurDTO createAuteur(AuteurDTO auteurDTO) {
-        // Vérifier que l'email n'existe pas déjà
-        if (auteurDTO.getEmail() != null &&
-                auteurRepository.existsByEmail(auteurDTO.getEmail())) {
-            throw new DuplicateResourceException("Auteur", "email", auteurDTO.getEmail());
+        // L'unicité de l'email est garantie par la contrainte, vérifiée par l'INSERT lui-même
+        Auteur auteur = auteurMapper.toEntity(auteurDTO);
+        Auteur savedAuteur;
+        try {
+            savedAuteur = auteurRepository.saveAndFlush(auteur);
+        } catch (DataIntegrityViolationException e) {
+            if (Contraintes.concerne(e, Contraintes.AUTEURS_EMAIL)) {
+                throw new DuplicateResourceException("Auteur", "email", auteurDTO.getEmail());
+            }
+            throw e;
         }
 
-        Auteur auteur = auteurMapper.toEntity(auteurDTO);
-        Auteur savedAuteur = auteurRepository.save(auteur);
-        return auteurMapper.toDTO(savedAuteur);
+        AuteurDTO dto = auteurMapper.toDTO(savedAuteur);
+        eventPublisher.publishEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.CREATION, dto));
+        return dto;
     }
 
     /**
-     * Met à jour un auteur existant
+     * Met à jour un auteur existant.
+     * Si le DTO porte une version, elle doit être celle de l'auteur en base (sinon 409).
      */
     public AuteurDTO updateAuteur(Long id, AuteurDTO auteurDTO) {
         Auteur auteur = auteurRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Auteur", "id", id));
+        if (auteurDTO.getVersion() != null && !auteurDTO.getVersion().equals(auteur.getVersion())) {
+            throw new ConflitVersionException("Auteur", id, auteurDTO.getVersion(), auteur.getVersion());
+        }
 
-        // Vérifier que l'email n'est pas déjà utilisé par un autre auteur
-        if (auteurDTO.getEmail() != null) {
+        // Vérifier que l'email n'est pas déjà utilisé par un autre auteur, sauf s'il est
+        // certainement nouveau d'après le filtre de Bloom
+        if (auteurDTO.getEmail() != null && !filtresBloomService.emailCertainementAbsent(auteurDTO.getEmail())) {
             auteurRepository.findByEmail(auteurDTO.getEmail())
                     .ifPresent(existingAuteur -> {
                         if (!existingAuteur.getId().equals(id)) {
@@ -82,7 +224,136 @@ public class AuteurService {
 
         auteurMapper.updateEntityFromDTO(auteurDTO, auteur);
         Auteur updatedAuteur = auteurRepository.save(auteur);
-        return auteurMapper.toDTO(updatedAuteur);
+        // Flush pour que le DTO porte la version incrémentée
+        auteurRepository.flush();
+
+        AuteurDTO dto = auteurMapper.toDTO(updatedAuteur);
+        eventPublisher.publishEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION, dto));
+        return dto;
+    }
+
+    /**
+     * Modifie les seuls champs présents dans un JSON Merge Patch.
+     * L'unicité de l'email n'est vérifiée, par la contrainte, que s'il change ;
+     * seules les colonnes modifiées sont écrites.
+     */
+    public AuteurDTO patchAuteur(Long id, JsonNode patch) {
+        Auteur auteur = auteurRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Auteur", "id", id));
+        Long versionAttendue = mergePatch.versionAttendue(patch);
+        if (versionAttendue != null && !versionAttendue.equals(auteur.getVersion())) {
+            throw new ConflitVersionException("Auteur", id, versionAttendue, auteur.getVersion());
+        }
+
+        AuteurDTO auteurDTO = mergePatch.appliquer(patch, AuteurDTO.builder()
+                .nom(auteur.getNom())
+                .prenom(auteur.getPrenom())
+                .email(auteur.getEmail())
+                .build(), "nombreLivres", "livres");
+        auteurMapper.updateEntityFromDTO(auteurDTO, auteur);
+
+        Long versionAvant = auteur.getVersion();
+        try {
+            auteurRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (Contraintes.concerne(e, Contraintes.AUTEURS_EMAIL)) {
+                throw new DuplicateResourceException("Auteur", "email", auteurDTO.getEmail());
+            }
+            throw e;
+        }
+
+        AuteurDTO dto = auteurMapper.toDTO(auteur);
+        // Patch sans effet : rien n'a été écrit, aucun événement
+        if (!versionAvant.equals(auteur.getVersion())) {
+            eventPublisher.publishEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION, dto));
+        }
+        return dto;
+    }
+
+    /**
+     * Crée ou met à jour l'auteur portant un email, en une seule instruction MERGE
+     * appuyée sur la contrainte d'unicité de l'email
+     */
+    public ResultatUpsert<AuteurDTO> upsertAuteur(String email, AuteurDTO auteurDTO) {
+        if (auteurDTO.getEmail() != null && !auteurDTO.getEmail().equals(email)) {
+            throw new BusinessException(String.format(
+                    "L'email de l'auteur (%s) ne correspond pas à celui de l'URL (%s).", auteurDTO.getEmail(), email));
+        }
+        auteurDTO.setEmail(email);
+        String erreur = valider(auteurDTO);
+        if (erreur != null) {
+            throw new BusinessException(erreur);
+        }
+
+        List<AuteurDTO> resultat = auteurRepository.upsertParEmail(List.of(auteurDTO));
+
+        // Auteur déjà à jour : rien n'a été écrit
+        if (resultat.isEmpty()) {
+            Auteur auteur = auteurRepository.findByEmail(email)
+                    .orElseThrow(() -> new ResourceNotFoundException("Auteur", "email", email));
+            return new ResultatUpsert<>(ImportLigneDTO.Statut.INCHANGE, auteurMapper.toDTO(auteur));
+        }
+        AuteurDTO dto = apresUpsert(resultat.get(0));
+        return new ResultatUpsert<>(statutUpsert(dto), dto);
+    }
+
+    /**
+     * Crée ou met à jour des auteurs par email, avec une instruction MERGE par lot.
+     * Les auteurs invalides, sans email ou en double dans la requête sont rejetés.
+     */
+    public ImportResultatDTO upsertAuteurs(List<AuteurDTO> auteurs) {
+        ImportResultatDTO resultat = new ImportResultatDTO();
+        Set<String> emailsVus = new HashSet<>();
+
+        for (int debut = 0; debut < auteurs.size(); debut += tailleLot) {
+            List<AuteurDTO> lot = auteurs.subList(debut, Math.min(debut + tailleLot, auteurs.size()));
+            ImportLigneDTO[] lignes = new ImportLigneDTO[lot.size()];
+
+            List<AuteurDTO> aEcrire = new ArrayList<>();
+            for (int i = 0; i < lot.size(); i++) {
+                AuteurDTO dto = lot.get(i);
+                String erreur = dto.getEmail() == null || dto.getEmail().isBlank()
+                        ? "email : L'email est obligatoire pour un upsert"
+                        : valider(dto);
+                if (erreur == null && !emailsVus.add(dto.getEmail())) {
+                    erreur = String.format("Email en double dans la requête : '%s'", dto.getEmail());
+                }
+
+                if (erreur != null) {
+                    lignes[i] = ImportLigneDTO.builder()
+                            .index(debut + i)
+                            .email(dto.getEmail())
+                            .statut(ImportLigneDTO.Statut.REJETE)
+                            .message(erreur)
+                            .build();
+                } else {
+                    aEcrire.add(dto);
+                }
+            }
+
+            Map<String, AuteurDTO> ecrits = auteurRepository.upsertParEmail(aEcrire).stream()
+                    .collect(Collectors.toMap(AuteurDTO::getEmail, Function.identity()));
+            for (int i = 0; i < lot.size(); i++) {
+                if (lignes[i] != null) {
+                    continue;
+                }
+                AuteurDTO ecrit = ecrits.get(lot.get(i).getEmail());
+                ImportLigneDTO.ImportLigneDTOBuilder ligne = ImportLigneDTO.builder()
+                        .index(debut + i)
+                        .email(lot.get(i).getEmail());
+                if (ecrit == null) {
+                    ligne.statut(ImportLigneDTO.Statut.INCHANGE);
+                } else {
+                    AuteurDTO dto = apresUpsert(ecrit);
+                    ligne.statut(statutUpsert(dto)).id(dto.getId());
+                }
+                lignes[i] = ligne.build();
+            }
+            for (ImportLigneDTO ligne : lignes) {
+                resultat.ajouter(ligne);
+            }
+        }
+        return resultat;
     }
 
     /**
@@ -92,15 +363,19 @@ public class AuteurService {
         Auteur auteur = auteurRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Auteur", "id", id));
 
-        // Vérifier que l'auteur n'a pas de livres associés
-        if (!auteur.getLivres().isEmpty()) {
+        // Vérifier que l'auteur n'a pas de livres associés : la requête voit aussi les
+        // suppressions de livres encore en attente dans la transaction (lot d'opérations)
+        long nombreLivres = livreRepository.countByAuteurId(id);
+        if (nombreLivres > 0) {
             throw new BusinessException(
                     "Impossible de supprimer l'auteur car il possède " +
-                            auteur.getLivres().size() + " livre(s). " +
+                            nombreLivres + " livre(s). " +
                             "Veuillez d'abord supprimer ou réassigner ses livres.");
         }
 
         auteurRepository.delete(auteur);
+        eventPublisher.publishEvent(new CatalogueEvent(CatalogueEvent.Ressource.AUTEUR,
+                CatalogueEvent.Operation.SUPPRESSION, id, auteurMapper.toDTO(auteur)));
     }
 
     /**
@@ -108,9 +383,32 @@ public class AuteurService {
      */
     @Transactional(readOnly = true)
     public List<LivreDTO> getLivresByAuteur(Long auteurId) {
-        Auteur auteur = auteurRepository.findById(auteurId)
+        Auteur auteur = auteurRepository.findWithLivresById(auteurId)
                 .orElseThrow(() -> new ResourceNotFoundException("Auteur", "id", auteurId));
 
         return livreMapper.toDTOList(auteur.getLivres());
     }
+
+    private AuteurDTO apresUpsert(AuteurDTO dto) {
+        CatalogueEvent.Operation operation = dto.getVersion() == 0
+                ? CatalogueEvent.Operation.CREATION
+                : CatalogueEvent.Operation.MODIFICATION;
+        eventPublisher.publishEvent(CatalogueEvent.auteur(operation, dto));
+        return dto;
+    }
+
+    private ImportLigneDTO.Statut statutUpsert(AuteurDTO dto) {
+        return dto.getVersion() == 0 ? ImportLigneDTO.Statut.CREE : ImportLigneDTO.Statut.MODIFIE;
+    }
+
+    private String valider(AuteurDTO dto) {
+        Set<ConstraintViolation<AuteurDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
 }
@@ -0,0 +1,245 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.ExemplaireUpdateDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.dto.OperationBatchDTO;
+import com.m2i.BiblioRestApi.dto.ResultatOperationDTO;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.exception.OperationBatchException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Exécution d'un lot d'opérations d'écriture sur les livres et les auteurs.
+ *
+ * Les opérations sont appliquées dans l'ordre, dans une seule transaction, par les mêmes
+ * méthodes de service que les appels unitaires : la première opération en échec annule
+ * tout le lot. Une opération peut nommer la ressource qu'elle crée (ref) ; les suivantes
+ * y font référence par ${ref} dans leur chemin ou dans les valeurs de leur corps.
+ */
+@Service
+@Transactional
+public class BatchService {
+
+    private static final Pattern CHEMIN =
+            Pattern.compile("^/api/(livres|auteurs)(?:/([^/]+)(/exemplaires)?)?/?$");
+
+    private static final Pattern NOM_REFERENCE = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private static final Pattern REFERENCE = Pattern.compile("\\$\\{(" + NOM_REFERENCE + ")}");
+
+    @Autowired
+    private LivreService livreService;
+
+    @Autowired
+    private AuteurService auteurService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${bibliotheque.batch.operations-max:100}")
+    private int operationsMax;
+
+    /**
+     * Exécute les opérations du lot
+     *
+     * @param operations Les opérations, dans leur ordre d'exécution
+     * @return Le résultat de chaque opération
+     * @throws OperationBatchException portant l'erreur de la première opération en échec
+     */
+    public List<ResultatOperationDTO> executer(List<OperationBatchDTO> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new BusinessException("Le lot ne contient aucune opération.");
+        }
+        if (operations.size() > operationsMax) {
+            throw new BusinessException(String.format(
+                    "Le lot contient %d opérations : %d au maximum.", operations.size(), operationsMax));
+        }
+
+        Map<String, Long> references = new HashMap<>();
+        List<ResultatOperationDTO> resultats = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            OperationBatchDTO operation = operations.get(i);
+            try {
+                ResultatOperationDTO resultat = executer(operation, references);
+                resultat.setIndex(i);
+                if (operation.getRef() != null) {
+                    if (!NOM_REFERENCE.matcher(operation.getRef()).matches()) {
+                        throw new BusinessException("La référence '" + operation.getRef()
+                                + "' ne peut contenir que des lettres, des chiffres, - et _.");
+                    }
+                    if (resultat.getId() == null) {
+                        throw new BusinessException("La référence '" + operation.getRef()
+                                + "' ne peut nommer qu'une création ou une modification.");
+                    }
+                    if (references.putIfAbsent(operation.getRef(), resultat.getId()) != null) {
+                        throw new BusinessException("La référence '" + operation.getRef() + "' est déjà définie.");
+                    }
+                    resultat.setRef(operation.getRef());
+                }
+                resultats.add(resultat);
+            } catch (RuntimeException e) {
+                throw new OperationBatchException(i, e);
+            }
+        }
+        return resultats;
+    }
+
+    private ResultatOperationDTO executer(OperationBatchDTO operation, Map<String, Long> references) {
+        if (operation.getMethode() == null || operation.getChemin() == null) {
+            throw new BusinessException("La méthode et le chemin sont obligatoires.");
+        }
+        String chemin = resoudre(operation.getChemin(), references);
+        Matcher matcher = CHEMIN.matcher(chemin);
+        if (!matcher.matches()) {
+            throw new BusinessException("Chemin non supporté : " + chemin);
+        }
+        Long id = matcher.group(2) != null ? parseId(matcher.group(2)) : null;
+        String route = operation.getMethode().toUpperCase(Locale.ROOT) + " " + matcher.group(1)
+                + (id != null ? "/{id}" : "")
+                + (matcher.group(3) != null ? "/exemplaires" : "");
+        JsonNode corps = resoudre(operation.getCorps(), references);
+
+        return switch (route) {
+            case "POST auteurs" -> {
+                AuteurDTO auteur = auteurService.createAuteur(lire(corps, AuteurDTO.class));
+                yield resultat(HttpStatus.CREATED, auteur.getId(), auteur);
+            }
+            case "PUT auteurs/{id}" -> resultat(HttpStatus.OK, id,
+                    auteurService.updateAuteur(id, lire(corps, AuteurDTO.class)));
+            case "PATCH auteurs/{id}" -> resultat(HttpStatus.OK, id, auteurService.patchAuteur(id, corps));
+            case "DELETE auteurs/{id}" -> {
+                auteurService.deleteAuteur(id);
+                yield resultat(HttpStatus.NO_CONTENT, id, null);
+            }
+            case "POST livres" -> {
+                LivreDTO livre = livreService.createLivre(lire(corps, LivreDTO.class));
+                yield resultat(HttpStatus.CREATED, livre.getId(), livre);
+            }
+            case "PUT livres/{id}" -> resultat(HttpStatus.OK, id,
+                    livreService.updateLivre(id, lire(corps, LivreDTO.class)));
+            case "PATCH livres/{id}" -> resultat(HttpStatus.OK, id, livreService.patchLivre(id, corps));
+            case "PATCH livres/{id}/exemplaires" -> resultat(HttpStatus.OK, id,
+                    livreService.updateNombreExemplaires(id,
+                            lire(corps, ExemplaireUpdateDTO.class).getNombreExemplaires()));
+            case "DELETE livres/{id}" -> {
+                livreService.deleteLivre(id);
+                yield resultat(HttpStatus.NO_CONTENT, id, null);
+            }
+            default -> throw new BusinessException(
+                    "Opération non supportée : " + operation.getMethode() + " " + chemin);
+        };
+    }
+
+    private static ResultatOperationDTO resultat(HttpStatus statut, Long id, Object corps) {
+        return ResultatOperationDTO.builder()
+                .statut(statut.value())
+                .id(id)
+                .corps(corps)
+                .build();
+    }
+
+    /**
+     * Désérialise et valide le corps comme le ferait @Valid @RequestBody
+     */
+    private <T> T lire(JsonNode corps, Class<T> type) {
+        if (corps == null || !corps.isObject()) {
+            throw new BusinessException("Le corps de l'opération doit être un objet JSON.");
+        }
+        T dto;
+        try {
+            dto = objectMapper.treeToValue(corps, type);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Corps invalide : " + e.getOriginalMessage());
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return dto;
+    }
+
+    private static Long parseId(String valeur) {
+        try {
+            return Long.valueOf(valeur);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Identifiant invalide dans le chemin : " + valeur);
+        }
+    }
+
+    /**
+     * Remplace les références ${ref} d'une chaîne par les ID créés plus tôt dans le lot
+     */
+    private static String resoudre(String valeur, Map<String, Long> references) {
+        Matcher matcher = REFERENCE.matcher(valeur);
+        StringBuilder resultat = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(resultat, String.valueOf(reference(matcher.group(1), references)));
+        }
+        matcher.appendTail(resultat);
+        return resultat.toString();
+    }
+
+    /**
+     * Remplace les références du corps : une valeur réduite à "${ref}" devient l'ID numérique
+     */
+    private static JsonNode resoudre(JsonNode noeud, Map<String, Long> references) {
+        if (noeud == null) {
+            return null;
+        }
+        if (noeud.isTextual()) {
+            Matcher matcher = REFERENCE.matcher(noeud.textValue());
+            if (matcher.matches()) {
+                return LongNode.valueOf(reference(matcher.group(1), references));
+            }
+            return TextNode.valueOf(resoudre(noeud.textValue(), references));
+        }
+        if (noeud.isObject()) {
+            ObjectNode copie = JsonNodeFactory.instance.objectNode();
+            noeud.properties().forEach(champ -> copie.set(champ.getKey(), resoudre(champ.getValue(), references)));
+            return copie;
+        }
+        if (noeud.isArray()) {
+            ArrayNode copie = JsonNodeFactory.instance.arrayNode();
+            noeud.forEach(element -> copie.add(resoudre(element, references)));
+            return copie;
+        }
+        return noeud;
+    }
+
+    private static long reference(String nom, Map<String, Long> references) {
+        Long id = references.get(nom);
+        if (id == null) {
+            throw new BusinessException("Référence inconnue : ${" + nom + "}");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,213 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m2i.BiblioRestApi.dto.ExportCatalogueDTO;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export périodique du catalogue complet dans un fichier NDJSON compressé en gzip.
+ *
+ * Une ligne par auteur puis une ligne par livre, chacune portant un champ "type". Les lignes
+ * sont écrites dès leur lecture en base, sans entités ni listes en mémoire. Le fichier est
+ * d'abord écrit sous un nom temporaire puis renommé : un téléchargement en cours n'est jamais
+ * servi un fichier incomplet. Son nom porte la date et l'empreinte MD5 du contenu non
+ * compressé ; si le catalogue n'a pas changé depuis le dernier export, aucun nouveau
+ * fichier n'est créé. Seuls les derniers exports sont conservés.
+ */
+@Service
+public class CatalogueExportService {
+
+    private static final Pattern NOM_FICHIER =
+            Pattern.compile("catalogue-(\\d{8}-\\d{9})-([0-9a-f]{32})\\.ndjson\\.gz");
+
+    private static final DateTimeFormatter HORODATAGE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${bibliotheque.export.repertoire:${java.io.tmpdir}/biblio-export}")
+    private Path repertoire;
+
+    // Nombre d'exports conservés dans le répertoire (le plus récent compris)
+    @Value("${bibliotheque.export.conserves:3}")
+    private int conserves;
+
+    /**
+     * Export planifié (bibliotheque.export.cron, désactivé par défaut)
+     */
+    @Scheduled(cron = "${bibliotheque.export.cron:-}")
+    @Transactional(readOnly = true)
+    public void exporterPlanifie() throws IOException {
+        exporter();
+    }
+
+    /**
+     * Écrit un nouvel export si le catalogue a changé depuis le dernier
+     *
+     * @return L'export le plus récent, nouveau ou inchangé
+     */
+    @Transactional(readOnly = true)
+    public synchronized ExportCatalogueDTO exporter() throws IOException {
+        Files.createDirectories(repertoire);
+        Path temporaire = Files.createTempFile(repertoire, "catalogue-", ".tmp");
+        try {
+            String empreinte = ecrire(temporaire);
+
+            Optional<ExportCatalogueDTO> dernier = getDernierExport();
+            if (dernier.isPresent() && dernier.get().getEmpreinte().equals(empreinte)) {
+                return dernier.get();
+            }
+
+            String nomFichier = "catalogue-" + LocalDateTime.now().format(HORODATAGE)
+                    + "-" + empreinte + ".ndjson.gz";
+            Files.move(temporaire, repertoire.resolve(nomFichier), StandardCopyOption.ATOMIC_MOVE);
+            purger();
+            return versDTO(repertoire.resolve(nomFichier));
+        } finally {
+            Files.deleteIfExists(temporaire);
+        }
+    }
+
+    /**
+     * Export le plus récent présent dans le répertoire d'export
+     */
+    public Optional<ExportCatalogueDTO> getDernierExport() throws IOException {
+        List<Path> exports = lister();
+        if (exports.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(versDTO(exports.getLast()));
+    }
+
+    /**
+     * Chemin du fichier d'un export
+     */
+    public Path getFichier(ExportCatalogueDTO export) {
+        return repertoire.resolve(export.getNomFichier());
+    }
+
+    private String ecrire(Path fichier) throws IOException {
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (OutputStream sortie = new DigestOutputStream(new GZIPOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(fichier)), 64 * 1024), md5);
+             JsonGenerator json = objectMapper.getFactory().createGenerator(sortie)) {
+            // Lignes séparées par '\n' seulement (pas d'espace entre deux valeurs racines)
+            json.setRootValueSeparator(null);
+            auteurRepository.parcourirAuteurs(ligne -> ligne(json, "auteur", () -> {
+                json.writeNumberField("id", ligne.getLong("id"));
+                json.writeStringField("nom", ligne.getString("nom"));
+                json.writeStringField("prenom", ligne.getString("prenom"));
+                if (ligne.getString("email") != null) {
+                    json.writeStringField("email", ligne.getString("email"));
+                }
+                json.writeNumberField("nombreLivres", ligne.getInt("nombre_livres"));
+                json.writeNumberField("version", ligne.getLong("version"));
+            }));
+            livreRepository.parcourirCatalogue(ligne -> ligne(json, "livre", () -> {
+                json.writeNumberField("id", ligne.getLong("id"));
+                json.writeStringField("titre", ligne.getString("titre"));
+                json.writeStringField("isbn", ligne.getString("isbn"));
+                json.writeNumberField("anneePublication", ligne.getInt("annee_publication"));
+                json.writeNumberField("nombreExemplaires", ligne.getInt("nombre_exemplaires"));
+                json.writeNumberField("auteurId", ligne.getLong("auteur_id"));
+                json.writeStringField("nomCompletAuteur", ligne.getString("nom_complet_auteur"));
+                json.writeNumberField("version", ligne.getLong("version"));
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return HexFormat.of().formatHex(md5.digest());
+    }
+
+    /**
+     * Écrit une ligne NDJSON : {"type": ..., champs}
+     */
+    private static void ligne(JsonGenerator json, String type, Champs champs) throws SQLException {
+        try {
+            json.writeStartObject();
+            json.writeStringField("type", type);
+            champs.ecrire();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Champs {
+        void ecrire() throws IOException, SQLException;
+    }
+
+    private List<Path> lister() throws IOException {
+        if (!Files.isDirectory(repertoire)) {
+            return List.of();
+        }
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            // L'horodatage en tête du nom : l'ordre alphabétique est l'ordre chronologique
+            return fichiers
+                    .filter(fichier -> NOM_FICHIER.matcher(fichier.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(fichier -> fichier.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    private void purger() throws IOException {
+        List<Path> exports = lister();
+        for (int i = 0; i < exports.size() - Math.max(conserves, 1); i++) {
+            Files.deleteIfExists(exports.get(i));
+        }
+    }
+
+    private static ExportCatalogueDTO versDTO(Path fichier) throws IOException {
+        Matcher nom = NOM_FICHIER.matcher(fichier.getFileName().toString());
+        nom.matches();
+        return ExportCatalogueDTO.builder()
+                .nomFichier(fichier.getFileName().toString())
+                .empreinte(nom.group(2))
+                .taille(Files.size(fichier))
+                .dateCreation(LocalDateTime.parse(nom.group(1), HORODATAGE))
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.ChangementCatalogueDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Flux Server-Sent Events des modifications du catalogue (livres et auteurs).
+ *
+ * Chaque événement commité reçoit un numéro de séquence croissant et est conservé dans
+ * un tampon borné : un client qui se reconnecte avec Last-Event-ID reçoit les événements
+ * manqués au lieu de recharger tout le catalogue. La séquence repart de 0 à chaque démarrage :
+ * l'identifiant SSE la préfixe d'une époque tirée au démarrage ("époque-séquence"), et un
+ * Last-Event-ID d'une autre époque demande toujours un rechargement. Les envois se font sur un thread dédié,
+ * dans l'ordre des séquences, pour qu'un client lent ne bloque pas les écritures.
+ */
+@Service
+public class CatalogueFeedService {
+
+    @Value("${bibliotheque.flux.taille-tampon:1000}")
+    private int tailleTampon;
+
+    @Value("${bibliotheque.flux.timeout-ms:1800000}")
+    private long timeout;
+
+    private final Object verrou = new Object();
+    private final Deque<ChangementCatalogueDTO> tampon = new ArrayDeque<>();
+    private final Set<SseEmitter> abonnes = new CopyOnWriteArraySet<>();
+    private final ExecutorService diffusion = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalogue-flux");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long sequence;
+
+    // Distingue les séquences de cette exécution du serveur de celles d'avant un redémarrage
+    private final String epoque = UUID.randomUUID().toString().substring(0, 8);
+
+    /**
+     * Ouvre un flux pour un client. Si lastEventId est fourni, les événements suivants encore
+     * présents dans le tampon sont rejoués ; s'il est trop ancien, un événement "reset"
+     * indique au client qu'il doit recharger le catalogue complet.
+     */
+    public SseEmitter abonner(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        emitter.onCompletion(() -> abonnes.remove(emitter));
+        emitter.onTimeout(() -> abonnes.remove(emitter));
+        emitter.onError(erreur -> abonnes.remove(emitter));
+
+        Long derniereSequence = sequenceDe(lastEventId);
+        synchronized (verrou) {
+            // Autre époque (redémarrage du serveur), séquence inconnue ou événements déjà sortis du tampon
+            boolean reset = derniereSequence != null && (derniereSequence < 0
+                    || derniereSequence > sequence || derniereSequence < premiereSequenceDisponible() - 1);
+            List<ChangementCatalogueDTO> rejeu = derniereSequence != null && !reset
+                    ? changementsDepuis(derniereSequence)
+                    : List.of();
+            long sequenceCourante = sequence;
+
+            diffusion.execute(() -> {
+                try {
+                    if (reset) {
+                        emitter.send(SseEmitter.event()
+                                .id(identifiant(sequenceCourante))
+                                .name("reset")
+                                .data(sequenceCourante));
+                    }
+                    for (ChangementCatalogueDTO changement : rejeu) {
+                        emitter.send(evenementSse(changement));
+                    }
+                    abonnes.add(emitter);
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        }
+        return emitter;
+    }
+
+    /**
+     * Numérote, mémorise et diffuse chaque modification du catalogue après son commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogueEvent(CatalogueEvent event) {
+        synchronized (verrou) {
+            ChangementCatalogueDTO changement = ChangementCatalogueDTO.builder()
+                    .sequence(++sequence)
+                    .ressource(event.getRessource())
+                    .operation(event.getOperation())
+                    .id(event.getId())
+                    .donnees(event.getDonnees())
+                    .build();
+            tampon.addLast(changement);
+            while (tampon.size() > tailleTampon) {
+                tampon.pollFirst();
+            }
+
+            diffusion.execute(() -> diffuser(changement));
+        }
+    }
+
+    /**
+     * Événements du tampon postérieurs à la séquence donnée
+     */
+    public List<ChangementCatalogueDTO> changementsDepuis(long derniereSequence) {
+        synchronized (verrou) {
+            return tampon.stream()
+                    .filter(changement -> changement.getSequence() > derniereSequence)
+                    .toList();
+        }
+    }
+
+    /**
+     * Dernière séquence attribuée
+     */
+    public long sequenceCourante() {
+        synchronized (verrou) {
+            return sequence;
+        }
+    }
+
+    /**
+     * Identifiant SSE d'une séquence de cette exécution : "époque-séquence"
+     */
+    public String identifiant(long sequence) {
+        return epoque + "-" + sequence;
+    }
+
+    /**
+     * Séquence d'un Last-Event-ID émis par cette exécution ; -1 s'il vient d'une autre
+     * époque ou est illisible ; null s'il est absent
+     */
+    Long sequenceDe(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        String prefixe = epoque + "-";
+        if (!lastEventId.startsWith(prefixe)) {
+            return -1L;
+        }
+        try {
+            return Math.max(-1, Long.parseLong(lastEventId.substring(prefixe.length())));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    public int nombreAbonnes() {
+        return abonnes.size();
+    }
+
+    @PreDestroy
+    public void fermer() {
+        abonnes.forEach(SseEmitter::complete);
+        diffusion.shutdown();
+    }
+
+    private long premiereSequenceDisponible() {
+        return tampon.isEmpty() ? sequence + 1 : tampon.peekFirst().getSequence();
+    }
+
+    private void diffuser(ChangementCatalogueDTO changement) {
+        for (SseEmitter emitter : abonnes) {
+            try {
+                emitter.send(evenementSse(changement));
+            } catch (IOException | IllegalStateException e) {
+                abonnes.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder evenementSse(ChangementCatalogueDTO changement) {
+        return SseEmitter.event()
+                .id(identifiant(changement.getSequence()))
+                .name(changement.getRessource().name().toLowerCase())
+                .data(changement);
+    }
+}
@@ -0,0 +1,143 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Instantané du catalogue complet (GET /api/livres en JSON), sérialisé et compressé une fois.
+ *
+ * Tant que le catalogue ne change pas, toutes les requêtes reçoivent les mêmes octets, déjà
+ * compressés en gzip : ni la base, ni la sérialisation, ni la compression ne sont refaites.
+ * Chaque écriture validée sur les livres ou les auteurs (un auteur renommé change
+ * nomCompletAuteur) avance la génération et périme l'instantané, reconstruit à la lecture suivante.
+ * Il est construit depuis le modèle de lecture s'il est chargé, sinon depuis la base ; un
+ * instantané tiré d'un modèle est aussi périmé dès que le modèle est remplacé.
+ */
+@Service
+public class CatalogueInstantaneService {
+
+    @Autowired
+    private LivreService livreService;
+
+    @Autowired
+    private ModeleLectureService modeleLectureService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Niveau de compression gzip de l'instantané, de 1 (rapide) à 9 (compact)
+    @Value("${bibliotheque.instantane.niveau-gzip:9}")
+    private int niveauGzip;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Instantane courant;
+
+    /**
+     * Corps JSON du catalogue, sa version gzip et son ETag ; modele est le modèle de lecture
+     * dont il est tiré, null s'il a été lu en base
+     */
+    public record Instantane(long generation, ModeleLectureService.Modele modele, byte[] json, byte[] gzip,
+                             String etag) {
+
+        public String etagGzip() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    /**
+     * Renvoie l'instantané courant, reconstruit s'il a été périmé par une écriture
+     */
+    public Instantane getInstantane() {
+        Instantane instantane = courant;
+        long generationCourante = generation.get();
+        ModeleLectureService.Modele modele = modeleLectureService.getModele().orElse(null);
+        if (instantane != null && instantane.generation() == generationCourante && instantane.modele() == modele) {
+            return instantane;
+        }
+
+        // La génération est lue avant le catalogue : une écriture validée pendant la
+        // construction l'avance, et l'instantané construit sera refait à la lecture suivante.
+        // Le modèle peut n'être remplacé qu'après l'avancée de la génération : l'instantané
+        // tiré de l'ancien modèle sera alors refait dès que le nouveau sera en place.
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(modele != null ? modele.livres() : livreService.getAllLivres());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation du catalogue impossible", e);
+        }
+        instantane = new Instantane(generationCourante, modele, json, gzip(json),
+                "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        courant = instantane;
+        return instantane;
+    }
+
+    /**
+     * Périme l'instantané après le commit de toute écriture sur le catalogue
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogueEvent(CatalogueEvent event) {
+        invalider();
+    }
+
+    /**
+     * Périme l'instantané, pour une écriture faite hors des services (script, console H2...)
+     */
+    public void invalider() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Vrai si l'en-tête Accept-Encoding accepte gzip (q absent ou non nul)
+     */
+    public static boolean accepteGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codage : acceptEncoding.split(",")) {
+            String[] parties = codage.trim().split(";");
+            String nom = parties[0].trim();
+            if (!nom.equalsIgnoreCase("gzip") && !nom.equals("*")) {
+                continue;
+            }
+            boolean refuse = false;
+            for (int i = 1; i < parties.length; i++) {
+                String parametre = parties[i].trim().replace(" ", "");
+                if (parametre.matches("q=0(\\.0{0,3})?")) {
+                    refuse = true;
+                }
+            }
+            if (!refuse) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] gzip(byte[] octets) {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream(octets.length / 4);
+        try (GZIPOutputStream flux = new GZIPOutputStream(sortie) {
+            {
+                def.setLevel(Math.max(Deflater.BEST_SPEED, Math.min(niveauGzip, Deflater.BEST_COMPRESSION)));
+            }
+        }) {
+            flux.write(octets);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sortie.toByteArray();
+    }
+}
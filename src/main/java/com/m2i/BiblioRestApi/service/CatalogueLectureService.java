@@ -0,0 +1,122 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.mapper.AuteurMapper;
+import com.m2i.BiblioRestApi.mapper.LivreMapper;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lectures du catalogue pour l'API GraphQL.
+ *
+ * Les livres et les auteurs sont lus sans leurs associations ; les champs imbriqués sont
+ * ensuite résolus pour toute une liste de parents à la fois (DataLoader), en une requête IN.
+ * Chaque méthode de chargement par lot rend ses valeurs dans l'ordre des parents reçus.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CatalogueLectureService {
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreMapper livreMapper;
+
+    @Autowired
+    private AuteurMapper auteurMapper;
+
+    @Value("${bibliotheque.graphql.taille-page-max:100}")
+    private int taillePageMax;
+
+    public List<LivreDTO> getLivres(int page, int taille) {
+        return livreRepository.findAll(pagination(page, taille))
+                .map(livreMapper::toDTOSansAuteur)
+                .getContent();
+    }
+
+    public Optional<LivreDTO> getLivre(Long id) {
+        return livreRepository.findById(id).map(livreMapper::toDTOSansAuteur);
+    }
+
+    public List<AuteurDTO> getAuteurs(int page, int taille) {
+        return auteurRepository.findAll(pagination(page, taille))
+                .map(auteur -> auteurMapper.toDTO(auteur, null))
+                .getContent();
+    }
+
+    public Optional<AuteurDTO> getAuteur(Long id) {
+        return auteurRepository.findById(id).map(auteur -> auteurMapper.toDTO(auteur, null));
+    }
+
+    /**
+     * Auteur de chaque livre, en une requête pour tous les livres
+     */
+    public List<AuteurDTO> getAuteursDesLivres(List<LivreDTO> livres) {
+        Set<Long> ids = livres.stream()
+                .map(LivreDTO::getAuteurId)
+                .collect(Collectors.toSet());
+        Map<Long, AuteurDTO> auteurs = auteurRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Auteur::getId, auteur -> auteurMapper.toDTO(auteur, null)));
+        return livres.stream()
+                .map(livre -> auteurs.get(livre.getAuteurId()))
+                .toList();
+    }
+
+    /**
+     * Nombre de livres de chaque auteur, en une requête groupée pour tous les auteurs
+     */
+    public List<Integer> getNombresLivres(List<AuteurDTO> auteurs) {
+        Map<Long, Long> nombres = livreRepository.countByAuteurIdIn(ids(auteurs)).stream()
+                .collect(Collectors.toMap(ligne -> (Long) ligne[0], ligne -> (Long) ligne[1]));
+        return auteurs.stream()
+                .map(auteur -> nombres.getOrDefault(auteur.getId(), 0L).intValue())
+                .toList();
+    }
+
+    /**
+     * Livres de chaque auteur, en une requête pour tous les auteurs
+     */
+    public List<List<LivreDTO>> getLivresDesAuteurs(List<AuteurDTO> auteurs) {
+        Map<Long, List<LivreDTO>> livres = livreRepository.findByAuteurIdIn(ids(auteurs)).stream()
+                .sorted(Comparator.comparing(Livre::getId))
+                .collect(Collectors.groupingBy(livre -> livre.getAuteur().getId(),
+                        Collectors.mapping(livreMapper::toDTOSansAuteur, Collectors.toList())));
+        return auteurs.stream()
+                .map(auteur -> livres.getOrDefault(auteur.getId(), List.of()))
+                .toList();
+    }
+
+    private static Set<Long> ids(List<AuteurDTO> auteurs) {
+        return auteurs.stream().map(AuteurDTO::getId).collect(Collectors.toSet());
+    }
+
+    private Pageable pagination(int page, int taille) {
+        if (page < 0 || taille < 1 || taille > taillePageMax) {
+            throw new BusinessException(String.format(
+                    "Pagination invalide : page >= 0 et taille entre 1 et %d attendues.", taillePageMax));
+        }
+        return PageRequest.of(page, taille, Sort.by("id"));
+    }
+}
@@ -0,0 +1,771 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Magasin de lecture du catalogue hors du tas, dans des fichiers mappés en mémoire.
+ *
+ * Chaque livre est un enregistrement de taille fixe (id, ISBN compacté en long, version,
+ * auteur, année, stock et position du titre dans une zone de chaînes) rangé dans une table
+ * de hachage à adressage ouvert sur l'ID. Un second index mène de l'ISBN à l'enregistrement,
+ * une troisième table donne le nom complet de chaque auteur. GET /api/livres/{id} et
+ * /api/livres/isbn/{isbn} y lisent un livre sans requête ni entité : seul le DTO renvoyé
+ * est alloué, et le ramasse-miettes n'a aucun cache à parcourir.
+ *
+ * Le magasin suit les écritures validées des services (CatalogueEvent). Les fichiers
+ * survivent au redémarrage : ils sont repris tels quels si l'application a été arrêtée
+ * proprement et si le nombre de livres et d'auteurs et la somme de leurs (id, version)
+ * correspondent à la base, sinon reconstruits en un parcours du catalogue. Un livre absent
+ * du magasin est lu en base par l'appelant.
+ */
+@Service
+public class CatalogueMappeService {
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    // Désactivé par défaut : les écritures faites hors des services n'y seraient pas vues
+    @Value("${bibliotheque.catalogue-mappe.actif:false}")
+    private boolean actif;
+
+    @Value("${bibliotheque.catalogue-mappe.repertoire:${java.io.tmpdir}/biblio-catalogue}")
+    private Path repertoire;
+
+    // Nombre d'emplacements des tables à la création (arrondi à une puissance de 2)
+    @Value("${bibliotheque.catalogue-mappe.capacite-initiale:16384}")
+    private int capaciteInitiale;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // Null tant que le magasin n'est pas ouvert
+    private Magasin magasin;
+
+    // Pierres tombales (ID → version supprimée), sous le verrou d'écriture : l'emplacement
+    // libéré ne garde pas l'ID, et une écriture validée avant la suppression mais appliquée
+    // après elle ferait réapparaître la ressource
+    private final Map<Long, Long> livresSupprimes = new HashMap<>();
+    private final Map<Long, Long> auteursSupprimes = new HashMap<>();
+
+    /**
+     * Ouvre le magasin une fois l'application démarrée, en le reconstruisant si ses fichiers
+     * ne correspondent plus à la base
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void ouvrir() throws IOException {
+        if (!actif) {
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            Files.createDirectories(repertoire);
+            long[] empreinte = livreRepository.empreinteCatalogue();
+            Magasin existant = Magasin.ouvrir(repertoire.resolve("livres.idx"), repertoire.resolve("livres.chaines"));
+            if (existant != null && existant.correspondA(empreinte)) {
+                magasin = existant;
+            } else {
+                if (existant != null) {
+                    existant.fermer();
+                }
+                magasin = reconstruire(empreinte);
+            }
+            magasin.marquerPropre(false);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Écrit les fichiers sur le disque et les marque comme repris sans reconstruction au
+     * prochain démarrage
+     */
+    @PreDestroy
+    public void fermer() throws IOException {
+        verrou.writeLock().lock();
+        try {
+            if (magasin != null) {
+                magasin.marquerPropre(true);
+                magasin.fermer();
+                magasin = null;
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applique au magasin chaque écriture validée sur le catalogue
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogueEvent(CatalogueEvent event) {
+        if (!actif) {
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            if (magasin == null) {
+                // Écriture antérieure à l'ouverture : vue par l'empreinte au démarrage
+                return;
+            }
+            boolean suppression = event.getOperation() == CatalogueEvent.Operation.SUPPRESSION;
+            // Les commits concurrents sur une même ressource peuvent arriver dans le désordre :
+            // une écriture plus ancienne que la version stockée ou qu'une suppression est ignorée
+            if (event.getRessource() == CatalogueEvent.Ressource.LIVRE) {
+                LivreDTO livre = (LivreDTO) event.getDonnees();
+                if (suppression) {
+                    livresSupprimes.merge(event.getId(), versionSupprimee(livre != null ? livre.getVersion() : null),
+                            Math::max);
+                    magasin.supprimerLivre(event.getId());
+                } else if (!obsolete(livresSupprimes, livre.getId(), livre.getVersion(),
+                        magasin.versionLivre(livre.getId()))) {
+                    ecrireLivre(livre);
+                }
+            } else {
+                AuteurDTO auteur = (AuteurDTO) event.getDonnees();
+                if (suppression) {
+                    auteursSupprimes.merge(event.getId(), versionSupprimee(auteur != null ? auteur.getVersion() : null),
+                            Math::max);
+                    magasin.supprimerAuteur(event.getId());
+                } else if (!obsolete(auteursSupprimes, auteur.getId(), auteur.getVersion(),
+                        magasin.versionAuteur(auteur.getId()))) {
+                    magasin.ecrireAuteur(auteur.getId(), auteur.getVersion(),
+                            utf8(auteur.getPrenom() + " " + auteur.getNom()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Livre lu dans le magasin, vide s'il n'y est pas (ou si le magasin est désactivé)
+     */
+    public Optional<LivreDTO> getLivre(Long id) {
+        if (!actif || id == null) {
+            return Optional.empty();
+        }
+        verrou.readLock().lock();
+        try {
+            if (magasin == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(magasin.lireLivre(magasin.emplacementLivre(id)));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Livre portant un ISBN lu dans le magasin, vide s'il n'y est pas
+     */
+    public Optional<LivreDTO> getLivreParIsbn(String isbn) {
+        long compacte = isbnCompacte(isbn);
+        if (!actif || compacte < 0) {
+            return Optional.empty();
+        }
+        verrou.readLock().lock();
+        try {
+            if (magasin == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(magasin.lireLivre(magasin.emplacementIsbn(compacte)));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * ISBN-13 sous forme de long (13 chiffres, le premier non nul), -1 s'il ne s'y prête pas
+     */
+    static long isbnCompacte(String isbn) {
+        if (isbn == null || isbn.length() != 13 || isbn.charAt(0) == '0') {
+            return -1;
+        }
+        long valeur = 0;
+        for (int i = 0; i < isbn.length(); i++) {
+            char chiffre = isbn.charAt(i);
+            if (chiffre < '0' || chiffre > '9') {
+                return -1;
+            }
+            valeur = valeur * 10 + (chiffre - '0');
+        }
+        return valeur;
+    }
+
+    // Sans version connue, la suppression l'emporte sur toute écriture appliquée après elle
+    private static long versionSupprimee(Long version) {
+        return version != null ? version : Long.MAX_VALUE;
+    }
+
+    private static boolean obsolete(Map<Long, Long> supprimes, Long id, Long version, long versionStockee) {
+        if (version == null) {
+            return false;
+        }
+        Long versionSupprimee = supprimes.get(id);
+        return version < versionStockee || versionSupprimee != null && version <= versionSupprimee;
+    }
+
+    private void ecrireLivre(LivreDTO livre) throws IOException {
+        long isbn = isbnCompacte(livre.getIsbn());
+        if (isbn < 0 || livre.getVersion() == null) {
+            // Non représentable : le livre sera lu en base
+            magasin.supprimerLivre(livre.getId());
+            return;
+        }
+        // Auteur créé hors des services : son nom vient du livre, sa version est inconnue
+        // (l'empreinte ne correspondra plus et le magasin sera reconstruit au démarrage)
+        if (magasin.emplacementAuteur(livre.getAuteurId()) < 0 && livre.getNomCompletAuteur() != null) {
+            magasin.ecrireAuteur(livre.getAuteurId(), -1, utf8(livre.getNomCompletAuteur()));
+        }
+        magasin.ecrireLivre(livre.getId(), isbn, livre.getVersion(), livre.getAuteurId(),
+                utf8(livre.getTitre()), livre.getAnneePublication(),
+                livre.getNombreExemplaires() != null ? livre.getNombreExemplaires() : 0);
+    }
+
+    private Magasin reconstruire(long[] empreinte) throws IOException {
+        Path index = repertoire.resolve("livres.idx");
+        Path chaines = repertoire.resolve("livres.chaines");
+        Magasin nouveau = Magasin.creer(repertoire.resolve("livres.idx.tmp"),
+                repertoire.resolve("livres.chaines.tmp"),
+                capacitePour(Math.max(empreinte[0], empreinte[2]), capaciteInitiale));
+        try {
+            auteurRepository.parcourirAuteurs(ligne -> {
+                long id = ligne.getLong("id");
+                long version = ligne.getLong("version");
+                byte[] nom = utf8(ligne.getString("prenom") + " " + ligne.getString("nom"));
+                ecrire(() -> nouveau.ecrireAuteur(id, version, nom));
+            });
+            livreRepository.parcourirCatalogue(ligne -> {
+                long isbn = isbnCompacte(ligne.getString("isbn"));
+                if (isbn < 0) {
+                    return;
+                }
+                long id = ligne.getLong("id");
+                long version = ligne.getLong("version");
+                long auteurId = ligne.getLong("auteur_id");
+                byte[] titre = utf8(ligne.getString("titre"));
+                int annee = ligne.getInt("annee_publication");
+                int exemplaires = ligne.getInt("nombre_exemplaires");
+                ecrire(() -> nouveau.ecrireLivre(id, isbn, version, auteurId, titre, annee, exemplaires));
+            });
+        } catch (UncheckedIOException e) {
+            nouveau.fermer();
+            throw e.getCause();
+        }
+        nouveau.deplacer(index, chaines);
+        return nouveau;
+    }
+
+    private static void ecrire(Ecriture ecriture) {
+        try {
+            ecriture.executer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Ecriture {
+        void executer() throws IOException;
+    }
+
+    /**
+     * Plus petite puissance de 2 qui garde les tables à moitié vides au plus
+     */
+    static int capacitePour(long elements, int minimum) {
+        long capacite = Integer.highestOneBit(Math.max(minimum, 16));
+        while (capacite < Math.max(minimum, elements * 2)) {
+            capacite *= 2;
+        }
+        if (capacite > 1 << 24) {
+            throw new IllegalStateException("Catalogue trop grand pour le magasin mappé : " + elements);
+        }
+        return (int) capacite;
+    }
+
+    private static byte[] utf8(String texte) {
+        return texte.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fichiers du magasin et accès à leurs enregistrements.
+     *
+     * livres.idx : en-tête, puis les tables livres (48 octets par emplacement), index ISBN
+     * (4 octets : emplacement du livre + 1) et auteurs (24 octets). Un emplacement vide a
+     * l'ID 0, un emplacement libéré l'ID -1. livres.chaines : titres et noms en UTF-8, ajoutés
+     * à la suite ; une chaîne inchangée n'est pas réécrite, la zone est compactée quand les
+     * tables sont agrandies.
+     */
+    private static final class Magasin {
+
+        private static final int MAGIQUE = 0x4C495652;
+        private static final int FORMAT = 1;
+
+        private static final int E_MAGIQUE = 0;
+        private static final int E_FORMAT = 4;
+        private static final int E_PROPRE = 8;
+        private static final int E_CAPACITE = 12;
+        private static final int E_LIVRES = 16;
+        private static final int E_LIVRES_LIBERES = 20;
+        private static final int E_AUTEURS = 24;
+        private static final int E_AUTEURS_LIBERES = 28;
+        private static final int E_SOMME_LIVRES = 32;
+        private static final int E_SOMME_AUTEURS = 40;
+        private static final int E_FIN_CHAINES = 48;
+        private static final int TAILLE_ENTETE = 64;
+
+        // Livre : id, isbn, version, auteur_id, position et longueur du titre, année, stock
+        private static final int TAILLE_LIVRE = 48;
+        private static final int L_ISBN = 8;
+        private static final int L_VERSION = 16;
+        private static final int L_AUTEUR = 24;
+        private static final int L_TITRE = 32;
+        private static final int L_TITRE_LONGUEUR = 36;
+        private static final int L_ANNEE = 40;
+        private static final int L_EXEMPLAIRES = 44;
+
+        private static final int TAILLE_ISBN = 4;
+
+        // Auteur : id, version, position et longueur du nom complet
+        private static final int TAILLE_AUTEUR = 24;
+        private static final int A_VERSION = 8;
+        private static final int A_NOM = 16;
+        private static final int A_NOM_LONGUEUR = 20;
+
+        private static final long VIDE = 0;
+        private static final long LIBERE = -1;
+
+        // Au-delà, les tables sont agrandies : les sondages restent courts
+        private static final double CHARGE_MAX = 0.7;
+
+        private Path fichierIndex;
+        private Path fichierChaines;
+        private FileChannel canalIndex;
+        private FileChannel canalChaines;
+        private MappedByteBuffer index;
+        private MappedByteBuffer chaines;
+        private int capacite;
+        private int masque;
+        private int debutIsbn;
+        private int debutAuteurs;
+
+        static Magasin creer(Path fichierIndex, Path fichierChaines, int capacite) throws IOException {
+            Files.deleteIfExists(fichierIndex);
+            Files.deleteIfExists(fichierChaines);
+            Magasin magasin = new Magasin();
+            magasin.fichierIndex = fichierIndex;
+            magasin.fichierChaines = fichierChaines;
+            magasin.canalIndex = FileChannel.open(fichierIndex, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            magasin.canalChaines = FileChannel.open(fichierChaines, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            magasin.index = magasin.canalIndex.map(FileChannel.MapMode.READ_WRITE, 0,
+                    TAILLE_ENTETE + (long) capacite * (TAILLE_LIVRE + TAILLE_ISBN + TAILLE_AUTEUR));
+            magasin.chaines = magasin.canalChaines.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(64 * 1024, (long) capacite * 32));
+            magasin.index.putInt(E_MAGIQUE, MAGIQUE);
+            magasin.index.putInt(E_FORMAT, FORMAT);
+            magasin.index.putInt(E_CAPACITE, capacite);
+            magasin.dimensionner(capacite);
+            return magasin;
+        }
+
+        /**
+         * Fichiers existants, ou null s'ils sont absents ou d'un autre format
+         */
+        static Magasin ouvrir(Path fichierIndex, Path fichierChaines) throws IOException {
+            if (!Files.isRegularFile(fichierIndex) || !Files.isRegularFile(fichierChaines)
+                    || Files.size(fichierIndex) < TAILLE_ENTETE) {
+                return null;
+            }
+            Magasin magasin = new Magasin();
+            magasin.fichierIndex = fichierIndex;
+            magasin.fichierChaines = fichierChaines;
+            magasin.canalIndex = FileChannel.open(fichierIndex, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            magasin.canalChaines = FileChannel.open(fichierChaines, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            magasin.index = magasin.canalIndex.map(FileChannel.MapMode.READ_WRITE, 0, magasin.canalIndex.size());
+            magasin.chaines = magasin.canalChaines.map(FileChannel.MapMode.READ_WRITE, 0, magasin.canalChaines.size());
+            int capacite = magasin.index.getInt(E_CAPACITE);
+            if (magasin.index.getInt(E_MAGIQUE) != MAGIQUE || magasin.index.getInt(E_FORMAT) != FORMAT
+                    || Integer.bitCount(capacite) != 1 || magasin.index.capacity()
+                    != TAILLE_ENTETE + (long) capacite * (TAILLE_LIVRE + TAILLE_ISBN + TAILLE_AUTEUR)) {
+                magasin.fermer();
+                return null;
+            }
+            magasin.dimensionner(capacite);
+            return magasin;
+        }
+
+        private void dimensionner(int capacite) {
+            this.capacite = capacite;
+            this.masque = capacite - 1;
+            this.debutIsbn = TAILLE_ENTETE + capacite * TAILLE_LIVRE;
+            this.debutAuteurs = debutIsbn + capacite * TAILLE_ISBN;
+        }
+
+        boolean correspondA(long[] empreinte) {
+            return index.getInt(E_PROPRE) == 1
+                    && index.getInt(E_LIVRES) == empreinte[0] && index.getLong(E_SOMME_LIVRES) == empreinte[1]
+                    && index.getInt(E_AUTEURS) == empreinte[2] && index.getLong(E_SOMME_AUTEURS) == empreinte[3];
+        }
+
+        void marquerPropre(boolean propre) {
+            if (propre) {
+                chaines.force();
+                index.force();
+            }
+            index.putInt(E_PROPRE, propre ? 1 : 0);
+            index.force();
+        }
+
+        void fermer() throws IOException {
+            canalIndex.close();
+            canalChaines.close();
+        }
+
+        void deplacer(Path nouvelIndex, Path nouvellesChaines) throws IOException {
+            Files.move(fichierChaines, nouvellesChaines, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            Files.move(fichierIndex, nouvelIndex, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            fichierIndex = nouvelIndex;
+            fichierChaines = nouvellesChaines;
+        }
+
+        // --- Livres ---
+
+        int emplacementLivre(long id) {
+            for (int i = 0, e = hache(id); i < capacite; i++, e = (e + 1) & masque) {
+                long present = index.getLong(livre(e));
+                if (present == id) {
+                    return e;
+                }
+                if (present == VIDE) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        int emplacementIsbn(long isbn) {
+            for (int i = 0, e = hache(isbn); i < capacite; i++, e = (e + 1) & masque) {
+                int entree = index.getInt(debutIsbn + e * TAILLE_ISBN);
+                if (entree == VIDE) {
+                    return -1;
+                }
+                if (entree > 0 && index.getLong(livre(entree - 1) + L_ISBN) == isbn) {
+                    return entree - 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * DTO d'un livre, null si l'emplacement est vide ou si l'auteur est inconnu
+         */
+        LivreDTO lireLivre(int emplacement) {
+            if (emplacement < 0) {
+                return null;
+            }
+            int position = livre(emplacement);
+            long auteurId = index.getLong(position + L_AUTEUR);
+            int auteur = emplacementAuteur(auteurId);
+            if (auteur < 0) {
+                return null;
+            }
+            int positionAuteur = auteur(auteur);
+            return LivreDTO.builder()
+                    .id(index.getLong(position))
+                    .titre(chaine(index.getInt(position + L_TITRE), index.getInt(position + L_TITRE_LONGUEUR)))
+                    .isbn(Long.toString(index.getLong(position + L_ISBN)))
+                    .anneePublication(index.getInt(position + L_ANNEE))
+                    .nombreExemplaires(index.getInt(position + L_EXEMPLAIRES))
+                    .auteurId(auteurId)
+                    .nomCompletAuteur(chaine(index.getInt(positionAuteur + A_NOM),
+                            index.getInt(positionAuteur + A_NOM_LONGUEUR)))
+                    .version(index.getLong(position + L_VERSION))
+                    .build();
+        }
+
+        void ecrireLivre(long id, long isbn, long version, long auteurId, byte[] titre,
+                         int annee, int exemplaires) throws IOException {
+            int emplacement = emplacementLivre(id);
+            if (emplacement < 0) {
+                if (plein(E_LIVRES, E_LIVRES_LIBERES)) {
+                    agrandir();
+                }
+                emplacement = libre(hache(id), this::livre, E_LIVRES, E_LIVRES_LIBERES);
+            } else {
+                int position = livre(emplacement);
+                ajouter(E_SOMME_LIVRES, -empreinte(id, index.getLong(position + L_VERSION)));
+                long ancienIsbn = index.getLong(position + L_ISBN);
+                if (ancienIsbn != isbn) {
+                    retirerIsbn(ancienIsbn, emplacement);
+                }
+            }
+
+            int position = livre(emplacement);
+            boolean nouvelIsbn = index.getLong(position) != id || index.getLong(position + L_ISBN) != isbn;
+            if (index.getLong(position) != id
+                    || !egale(index.getInt(position + L_TITRE), index.getInt(position + L_TITRE_LONGUEUR), titre)) {
+                int debut = ajouterChaine(titre);
+                index.putInt(position + L_TITRE, debut);
+                index.putInt(position + L_TITRE_LONGUEUR, titre.length);
+            }
+            index.putLong(position + L_ISBN, isbn);
+            index.putLong(position + L_VERSION, version);
+            index.putLong(position + L_AUTEUR, auteurId);
+            index.putInt(position + L_ANNEE, annee);
+            index.putInt(position + L_EXEMPLAIRES, exemplaires);
+            // L'ID en dernier : l'emplacement n'est trouvé qu'une fois rempli
+            index.putLong(position, id);
+            if (nouvelIsbn) {
+                for (int e = hache(isbn); ; e = (e + 1) & masque) {
+                    if (index.getInt(debutIsbn + e * TAILLE_ISBN) <= 0) {
+                        index.putInt(debutIsbn + e * TAILLE_ISBN, emplacement + 1);
+                        break;
+                    }
+                }
+            }
+            ajouter(E_SOMME_LIVRES, empreinte(id, version));
+        }
+
+        /**
+         * Version stockée d'un livre, -1 s'il est absent
+         */
+        long versionLivre(long id) {
+            int emplacement = emplacementLivre(id);
+            return emplacement < 0 ? -1 : index.getLong(livre(emplacement) + L_VERSION);
+        }
+
+        void supprimerLivre(long id) {
+            int emplacement = emplacementLivre(id);
+            if (emplacement < 0) {
+                return;
+            }
+            int position = livre(emplacement);
+            retirerIsbn(index.getLong(position + L_ISBN), emplacement);
+            ajouter(E_SOMME_LIVRES, -empreinte(id, index.getLong(position + L_VERSION)));
+            index.putLong(position, LIBERE);
+            index.putInt(E_LIVRES, index.getInt(E_LIVRES) - 1);
+            index.putInt(E_LIVRES_LIBERES, index.getInt(E_LIVRES_LIBERES) + 1);
+        }
+
+        private void retirerIsbn(long isbn, int emplacement) {
+            for (int i = 0, e = hache(isbn); i < capacite; i++, e = (e + 1) & masque) {
+                int entree = index.getInt(debutIsbn + e * TAILLE_ISBN);
+                if (entree == VIDE) {
+                    return;
+                }
+                if (entree == emplacement + 1) {
+                    index.putInt(debutIsbn + e * TAILLE_ISBN, (int) LIBERE);
+                    return;
+                }
+            }
+        }
+
+        // --- Auteurs ---
+
+        int emplacementAuteur(long id) {
+            for (int i = 0, e = hache(id); i < capacite; i++, e = (e + 1) & masque) {
+                long present = index.getLong(auteur(e));
+                if (present == id) {
+                    return e;
+                }
+                if (present == VIDE) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        void ecrireAuteur(long id, long version, byte[] nom) throws IOException {
+            int emplacement = emplacementAuteur(id);
+            if (emplacement < 0) {
+                if (plein(E_AUTEURS, E_AUTEURS_LIBERES)) {
+                    agrandir();
+                }
+                emplacement = libre(hache(id), this::auteur, E_AUTEURS, E_AUTEURS_LIBERES);
+            } else {
+                ajouter(E_SOMME_AUTEURS, -empreinte(id, index.getLong(auteur(emplacement) + A_VERSION)));
+            }
+
+            int position = auteur(emplacement);
+            if (index.getLong(position) != id
+                    || !egale(index.getInt(position + A_NOM), index.getInt(position + A_NOM_LONGUEUR), nom)) {
+                int debut = ajouterChaine(nom);
+                index.putInt(position + A_NOM, debut);
+                index.putInt(position + A_NOM_LONGUEUR, nom.length);
+            }
+            index.putLong(position + A_VERSION, version);
+            index.putLong(position, id);
+            ajouter(E_SOMME_AUTEURS, empreinte(id, version));
+        }
+
+        /**
+         * Version stockée d'un auteur, -1 s'il est absent ou créé d'après un livre
+         */
+        long versionAuteur(long id) {
+            int emplacement = emplacementAuteur(id);
+            return emplacement < 0 ? -1 : index.getLong(auteur(emplacement) + A_VERSION);
+        }
+
+        void supprimerAuteur(long id) {
+            int emplacement = emplacementAuteur(id);
+            if (emplacement < 0) {
+                return;
+            }
+            int position = auteur(emplacement);
+            ajouter(E_SOMME_AUTEURS, -empreinte(id, index.getLong(position + A_VERSION)));
+            index.putLong(position, LIBERE);
+            index.putInt(E_AUTEURS, index.getInt(E_AUTEURS) - 1);
+            index.putInt(E_AUTEURS_LIBERES, index.getInt(E_AUTEURS_LIBERES) + 1);
+        }
+
+        // --- Tables ---
+
+        private int livre(int emplacement) {
+            return TAILLE_ENTETE + emplacement * TAILLE_LIVRE;
+        }
+
+        private int auteur(int emplacement) {
+            return debutAuteurs + emplacement * TAILLE_AUTEUR;
+        }
+
+        private int hache(long cle) {
+            long h = cle * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & masque;
+        }
+
+        private static long empreinte(long id, long version) {
+            return id * 31 + version;
+        }
+
+        private boolean plein(int compteur, int liberes) {
+            return index.getInt(compteur) + index.getInt(liberes) + 1 > capacite * CHARGE_MAX;
+        }
+
+        /**
+         * Premier emplacement vide ou libéré à partir de e, compté comme occupé
+         */
+        private int libre(int e, IntUnaryOperator position, int compteur, int liberes) {
+            while (true) {
+                long present = index.getLong(position.applyAsInt(e));
+                if (present == VIDE || present == LIBERE) {
+                    if (present == LIBERE) {
+                        index.putInt(liberes, index.getInt(liberes) - 1);
+                    }
+                    index.putInt(compteur, index.getInt(compteur) + 1);
+                    return e;
+                }
+                e = (e + 1) & masque;
+            }
+        }
+
+        private void ajouter(int champ, long valeur) {
+            index.putLong(champ, index.getLong(champ) + valeur);
+        }
+
+        /**
+         * Recopie les enregistrements dans des tables deux fois plus grandes (emplacements
+         * libérés et chaînes remplacées disparaissent), puis remplace les fichiers
+         */
+        private void agrandir() throws IOException {
+            int livres = index.getInt(E_LIVRES);
+            int auteurs = index.getInt(E_AUTEURS);
+            Magasin nouveau = creer(fichierIndex.resolveSibling(fichierIndex.getFileName() + ".agrandi"),
+                    fichierChaines.resolveSibling(fichierChaines.getFileName() + ".agrandi"),
+                    capacitePour(Math.max(livres, auteurs) + 1L, capacite * 2));
+            for (int e = 0; e < capacite; e++) {
+                int position = auteur(e);
+                long id = index.getLong(position);
+                if (id > 0) {
+                    nouveau.ecrireAuteur(id, index.getLong(position + A_VERSION),
+                            octets(index.getInt(position + A_NOM), index.getInt(position + A_NOM_LONGUEUR)));
+                }
+            }
+            for (int e = 0; e < capacite; e++) {
+                int position = livre(e);
+                long id = index.getLong(position);
+                if (id > 0) {
+                    nouveau.ecrireLivre(id, index.getLong(position + L_ISBN), index.getLong(position + L_VERSION),
+                            index.getLong(position + L_AUTEUR),
+                            octets(index.getInt(position + L_TITRE), index.getInt(position + L_TITRE_LONGUEUR)),
+                            index.getInt(position + L_ANNEE), index.getInt(position + L_EXEMPLAIRES));
+                }
+            }
+            nouveau.index.putInt(E_PROPRE, index.getInt(E_PROPRE));
+
+            fermer();
+            nouveau.deplacer(fichierIndex, fichierChaines);
+            canalIndex = nouveau.canalIndex;
+            canalChaines = nouveau.canalChaines;
+            index = nouveau.index;
+            chaines = nouveau.chaines;
+            dimensionner(nouveau.capacite);
+        }
+
+        // --- Chaînes ---
+
+        private int ajouterChaine(byte[] octets) throws IOException {
+            int fin = (int) index.getLong(E_FIN_CHAINES);
+            if ((long) fin + octets.length > chaines.capacity()) {
+                long taille = Math.max((long) chaines.capacity() * 2, (long) fin + octets.length);
+                if (taille > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Zone de chaînes du magasin mappé pleine");
+                }
+                chaines = canalChaines.map(FileChannel.MapMode.READ_WRITE, 0, taille);
+            }
+            chaines.put(fin, octets);
+            index.putLong(E_FIN_CHAINES, fin + octets.length);
+            return fin;
+        }
+
+        private byte[] octets(int debut, int longueur) {
+            byte[] octets = new byte[longueur];
+            chaines.get(debut, octets);
+            return octets;
+        }
+
+        private String chaine(int debut, int longueur) {
+            return new String(octets(debut, longueur), StandardCharsets.UTF_8);
+        }
+
+        private boolean egale(int debut, int longueur, byte[] octets) {
+            return longueur == octets.length && Arrays.equals(octets(debut, longueur), octets);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.ChangementsLivresDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.dto.LivreSupprimeDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.mapper.LivreMapper;
+import com.m2i.BiblioRestApi.model.ChangementLivre;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.repository.ChangementLivreRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Synchronisation incrémentale du catalogue des livres.
+ *
+ * Chaque écriture de LivreService ajoute, dans la même transaction, une ligne au journal
+ * livre_changements dont l'ID sert de séquence. Un client ne récupère ensuite que les livres
+ * touchés depuis sa dernière séquence, plus une pierre tombale pour chaque suppression.
+ *
+ * Les IDs sont tirés de livre_changements_seq à l'écriture : une transaction peut valider un
+ * ID plus petit qu'un autre déjà lu par un client, qui ne reviendrait jamais en arrière. Les
+ * IDs des transactions en cours sont donc suivis en mémoire, et un client ne reçoit que les
+ * changements situés sous le plus petit d'entre eux (hors ceux de sa propre transaction).
+ */
+@Service
+@Transactional
+public class ChangementLivreService {
+
+    @Autowired
+    private ChangementLivreRepository changementLivreRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private LivreMapper livreMapper;
+
+    @Value("${bibliotheque.changements.limite-max:1000}")
+    private int limiteMax;
+
+    // IDs tirés par les transactions pas encore terminées. Tirage et lecture du plus petit se
+    // font sous son verrou : un ID tiré ensuite est plus grand que tout ID déjà validé
+    private final NavigableSet<Long> enCours = new ConcurrentSkipListSet<>();
+
+    /**
+     * Journalise l'écriture d'un livre dans la transaction de LivreService
+     */
+    @EventListener
+    public void onCatalogueEvent(CatalogueEvent event) {
+        if (event.getRessource() != CatalogueEvent.Ressource.LIVRE) {
+            return;
+        }
+        LivreDTO livre = (LivreDTO) event.getDonnees();
+        ChangementLivre changement = ChangementLivre.builder()
+                .livreId(event.getId())
+                .operation(event.getOperation())
+                .isbn(livre != null ? livre.getIsbn() : null)
+                .dateChangement(LocalDateTime.now())
+                .build();
+
+        // L'ID est tiré au persist ; l'INSERT part avec les autres au flush
+        synchronized (enCours) {
+            changementLivreRepository.save(changement);
+            enCours.add(changement.getId());
+        }
+        suivre(changement.getId());
+    }
+
+    /**
+     * Garde l'ID parmi ceux en cours jusqu'à la fin de la transaction, validée ou annulée
+     */
+    private void suivre(Long id) {
+        @SuppressWarnings("unchecked")
+        List<Long> ids = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (ids == null) {
+            List<Long> transaction = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transaction);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangementLivreService.this);
+                    enCours.removeAll(transaction);
+                }
+            });
+            ids = transaction;
+        }
+        ids.add(id);
+    }
+
+    /**
+     * Plus grande séquence qu'un client peut recevoir : juste sous le plus petit ID d'une
+     * autre transaction en cours. Les changements de la transaction courante, qu'elle voit
+     * déjà, ne la limitent pas.
+     */
+    private long plafond() {
+        @SuppressWarnings("unchecked")
+        List<Long> propres = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        synchronized (enCours) {
+            for (Long id : enCours) {
+                if (propres == null || !propres.contains(id)) {
+                    return id - 1;
+                }
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Livres créés, modifiés ou supprimés depuis une séquence.
+     * Sans séquence, renvoie le catalogue complet et la séquence courante.
+     */
+    @Transactional(readOnly = true)
+    public ChangementsLivresDTO getChangementsDepuis(Long since, Integer limite) {
+        long plafond = plafond();
+        if (since == null) {
+            // Lire la séquence avant les livres : un changement concurrent sera renvoyé au prochain appel
+            Long sequence = Math.min(changementLivreRepository.findDerniereSequence(), plafond);
+            return ChangementsLivresDTO.builder()
+                    .depuis(since)
+                    .sequence(sequence)
+                    .incomplet(false)
+                    .livres(livreMapper.toDTOList(livreRepository.findAllWithAuteur()))
+                    .suppressions(List.of())
+                    .build();
+        }
+
+        int taillePage = limite != null ? Math.min(Math.max(limite, 1), limiteMax) : limiteMax;
+        List<ChangementLivre> changements = changementLivreRepository
+                .findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(since, plafond, Limit.of(taillePage));
+
+        // Ne garder que le dernier changement de chaque livre
+        Map<Long, ChangementLivre> derniers = new LinkedHashMap<>();
+        for (ChangementLivre changement : changements) {
+            derniers.remove(changement.getLivreId());
+            derniers.put(changement.getLivreId(), changement);
+        }
+
+        List<Long> idsModifies = new ArrayList<>();
+        List<LivreSupprimeDTO> suppressions = new ArrayList<>();
+        for (ChangementLivre changement : derniers.values()) {
+            if (changement.getOperation() == CatalogueEvent.Operation.SUPPRESSION) {
+                suppressions.add(LivreSupprimeDTO.builder()
+                        .id(changement.getLivreId())
+                        .isbn(changement.getIsbn())
+                        .sequence(changement.getId())
+                        .build());
+            } else {
+                idsModifies.add(changement.getLivreId());
+            }
+        }
+
+        // Un livre supprimé plus loin dans le journal est absent ici : sa pierre tombale suivra
+        List<Livre> livres = idsModifies.isEmpty()
+                ? List.of()
+                : livreRepository.findAllWithAuteurByIdIn(idsModifies);
+
+        long sequence = changements.isEmpty() ? since : changements.get(changements.size() - 1).getId();
+        return ChangementsLivresDTO.builder()
+                .depuis(since)
+                .sequence(sequence)
+                .incomplet(changements.size() == taillePage)
+                .livres(livreMapper.toDTOList(livres))
+                .suppressions(suppressions)
+                .build();
+    }
+}
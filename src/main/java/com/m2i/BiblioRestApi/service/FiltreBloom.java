@@ -0,0 +1,127 @@
+package com.m2i.BiblioRestApi.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtre de Bloom sur des empreintes 64 bits : « absent » est certain, « présent » n'est
+ * qu'une possibilité, à vérifier en base.
+ *
+ * Dimensionné pour un nombre d'éléments et un taux de faux positifs : m = -n·ln(p)/ln(2)² bits
+ * et k = m/n·ln(2) fonctions, obtenues par double hachage d'une seule empreinte. Les bits
+ * sont posés par OU atomique et lus en volatile : ajouts et lectures concurrents sans verrou,
+ * sans jamais perdre un bit (pas de faux négatif). Pas de suppression.
+ */
+public class FiltreBloom {
+
+    private static final VarHandle MOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] mots;
+    private final long bits;
+    private final int fonctions;
+    private final long capacite;
+    private final double tauxCible;
+    private final LongAdder elements = new LongAdder();
+
+    public FiltreBloom(long capacite, double tauxCible) {
+        if (capacite <= 0 || tauxCible <= 0 || tauxCible >= 1) {
+            throw new IllegalArgumentException("Capacité positive et taux de faux positifs dans ]0, 1[ attendus");
+        }
+        long bitsOptimaux = (long) Math.ceil(-capacite * Math.log(tauxCible) / (Math.log(2) * Math.log(2)));
+        this.mots = new long[(int) Math.max(1, (bitsOptimaux + 63) / 64)];
+        this.bits = 64L * mots.length;
+        this.fonctions = (int) Math.max(1, Math.round((double) bits / capacite * Math.log(2)));
+        this.capacite = capacite;
+        this.tauxCible = tauxCible;
+    }
+
+    public void ajouter(long empreinte) {
+        long h1 = melanger(empreinte);
+        long h2 = melanger(h1) | 1;
+        for (int i = 0; i < fonctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            MOTS.getAndBitwiseOr(mots, (int) (bit >>> 6), 1L << bit);
+        }
+        elements.increment();
+    }
+
+    /**
+     * Faux si l'empreinte n'a certainement jamais été ajoutée
+     */
+    public boolean peutContenir(long empreinte) {
+        long h1 = melanger(empreinte);
+        long h2 = melanger(h1) | 1;
+        for (int i = 0; i < fonctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if (((long) MOTS.getVolatile(mots, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Vrai une fois la capacité atteinte : au-delà, le taux de faux positifs dépasse la cible
+     */
+    public boolean sature() {
+        return elements.sum() >= capacite;
+    }
+
+    /**
+     * Taux de faux positifs estimé d'après la proportion de bits posés : (posés / m)^k
+     */
+    public double tauxEstime() {
+        long poses = 0;
+        for (int i = 0; i < mots.length; i++) {
+            poses += Long.bitCount((long) MOTS.getVolatile(mots, i));
+        }
+        return Math.pow((double) poses / bits, fonctions);
+    }
+
+    public long getElements() {
+        return elements.sum();
+    }
+
+    public long getBits() {
+        return bits;
+    }
+
+    public int getFonctions() {
+        return fonctions;
+    }
+
+    public long getCapacite() {
+        return capacite;
+    }
+
+    public double getTauxCible() {
+        return tauxCible;
+    }
+
+    public long octets() {
+        return 16 + 8L * mots.length;
+    }
+
+    /**
+     * Empreinte 64 bits d'une chaîne (FNV-1a), mélangée ensuite par le filtre
+     */
+    public static long empreinte(String valeur) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valeur.length(); i++) {
+            h ^= valeur.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Finalisation de MurmurHash3 : chaque bit d'entrée influe sur tous les bits de sortie
+    private static long melanger(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
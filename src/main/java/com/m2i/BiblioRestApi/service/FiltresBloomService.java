@@ -0,0 +1,310 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.FiltreBloomDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtres de Bloom sur les ISBN des livres et les emails des auteurs, pour éviter la requête
+ * de contrôle d'unicité quand la valeur est certainement nouvelle (imports en lot, mises à
+ * jour). Seul un doublon possible est vérifié en base ; les contraintes d'unicité restent
+ * la garantie finale.
+ *
+ * Chargés au démarrage (bibliotheque.filtres-bloom.actif), dimensionnés par la capacité et
+ * le taux de faux positifs configurés. Chaque valeur écrite par les services y est ajoutée dès
+ * la publication de l'événement, avant le commit : une transaction annulée ne laisse qu'un
+ * faux positif de plus, jamais un faux négatif. Une valeur retirée reste dans le filtre.
+ * Un rechargement reprend aussi les valeurs des transactions encore ouvertes, que le
+ * parcours de la base ne verra pas si elles valident après son passage.
+ * Un filtre saturé reçoit une nouvelle couche, deux fois plus grande et deux fois plus
+ * sélective : le taux de faux positifs reste borné sans relire la base.
+ */
+@Service
+public class FiltresBloomService {
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Value("${bibliotheque.filtres-bloom.actif:false}")
+    private boolean actif;
+
+    @Value("${bibliotheque.filtres-bloom.capacite:100000}")
+    private long capacite;
+
+    @Value("${bibliotheque.filtres-bloom.taux-faux-positifs:0.01}")
+    private double tauxFauxPositifs;
+
+    // Null tant que les filtres ne sont pas chargés : toute valeur est alors vérifiée en base
+    private volatile Chaine isbns;
+    private volatile Chaine emails;
+
+    // Filtres en cours de chargement, qui reçoivent aussi les écritures publiées pendant le parcours
+    private Chaine isbnsEnChargement;
+    private Chaine emailsEnChargement;
+
+    // Protège les quatre références : un ajout les lit ensemble, le chargement les change ensemble
+    private final Object verrou = new Object();
+
+    // Valeurs publiées par les transactions pas encore terminées (valeur → nombre de transactions).
+    // Une transaction ouverte avant le chargement peut valider après le passage du parcours :
+    // ses valeurs sont recopiées dans les filtres en chargement
+    private final Map<Long, Integer> isbnsEnCours = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> emailsEnCours = new ConcurrentHashMap<>();
+
+    /**
+     * Charge les filtres une fois l'application démarrée, en un parcours des livres et des auteurs
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void charger() {
+        if (!actif) {
+            return;
+        }
+        // Place pour deux fois le catalogue actuel avant la première saturation
+        long[] empreinte = livreRepository.empreinteCatalogue();
+        Chaine nouveauxIsbns = new Chaine(Math.max(capacite, 2 * empreinte[0]), tauxFauxPositifs);
+        Chaine nouveauxEmails = new Chaine(Math.max(capacite, 2 * empreinte[2]), tauxFauxPositifs);
+        // Les ajouts sont recueillis avant que le parcours n'ouvre son curseur
+        synchronized (verrou) {
+            isbnsEnChargement = nouveauxIsbns;
+            emailsEnChargement = nouveauxEmails;
+            isbnsEnCours.keySet().forEach(nouveauxIsbns::ajouter);
+            emailsEnCours.keySet().forEach(nouveauxEmails::ajouter);
+        }
+        try {
+            livreRepository.parcourirCatalogue(ligne -> nouveauxIsbns.ajouter(cleIsbn(ligne.getString("isbn"))));
+            auteurRepository.parcourirAuteurs(ligne -> {
+                String email = ligne.getString("email");
+                if (email != null) {
+                    nouveauxEmails.ajouter(cleEmail(email));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (verrou) {
+                isbnsEnChargement = null;
+                emailsEnChargement = null;
+            }
+            throw e;
+        }
+        // Publication et fin du chargement d'un coup : un ajout voit l'un ou l'autre des filtres
+        synchronized (verrou) {
+            isbns = nouveauxIsbns;
+            emails = nouveauxEmails;
+            isbnsEnChargement = null;
+            emailsEnChargement = null;
+        }
+    }
+
+    /**
+     * Ajoute aux filtres chaque ISBN ou email écrit, dès la publication
+     */
+    @EventListener
+    public void onCatalogueEvent(CatalogueEvent event) {
+        if (!actif || event.getOperation() == CatalogueEvent.Operation.SUPPRESSION) {
+            return;
+        }
+        if (event.getRessource() == CatalogueEvent.Ressource.LIVRE) {
+            String isbn = ((LivreDTO) event.getDonnees()).getIsbn();
+            if (isbn != null) {
+                ajouter(cleIsbn(isbn), true);
+            }
+        } else {
+            String email = ((AuteurDTO) event.getDonnees()).getEmail();
+            if (email != null) {
+                ajouter(cleEmail(email), false);
+            }
+        }
+    }
+
+    /**
+     * Vrai si aucun livre ne porte certainement cet ISBN ; faux s'il faut vérifier en base
+     */
+    public boolean isbnCertainementAbsent(String isbn) {
+        Chaine filtre = isbns;
+        return filtre != null && isbn != null && filtre.absent(cleIsbn(isbn));
+    }
+
+    /**
+     * Vrai si aucun auteur n'a certainement cet email (sans tenir compte de la casse) ;
+     * faux s'il faut vérifier en base
+     */
+    public boolean emailCertainementAbsent(String email) {
+        Chaine filtre = emails;
+        return filtre != null && email != null && filtre.absent(cleEmail(email));
+    }
+
+    /**
+     * Taille, remplissage et efficacité des filtres chargés
+     */
+    public List<FiltreBloomDTO> statistiques() {
+        List<FiltreBloomDTO> statistiques = new ArrayList<>();
+        Chaine filtreIsbns = isbns;
+        Chaine filtreEmails = emails;
+        if (filtreIsbns != null) {
+            statistiques.add(filtreIsbns.statistiques("isbns", tauxFauxPositifs));
+        }
+        if (filtreEmails != null) {
+            statistiques.add(filtreEmails.statistiques("emails", tauxFauxPositifs));
+        }
+        return statistiques;
+    }
+
+    private void ajouter(long cle, boolean isbn) {
+        // Suivie avant la lecture des filtres : un chargement qui commence après cette lecture
+        // recopie la valeur, un chargement commencé avant est vu par la lecture
+        suivre(cle, isbn);
+        Chaine filtre;
+        Chaine enChargement;
+        synchronized (verrou) {
+            filtre = isbn ? isbns : emails;
+            enChargement = isbn ? isbnsEnChargement : emailsEnChargement;
+        }
+        // Un filtre lu en chargement et publié depuis reçoit la valeur quand même
+        if (filtre != null) {
+            filtre.ajouter(cle);
+        }
+        if (enChargement != null) {
+            enChargement.ajouter(cle);
+        }
+    }
+
+    /**
+     * Garde la valeur parmi celles en cours jusqu'à la fin de la transaction qui la publie ;
+     * hors transaction, l'écriture est déjà validée et le parcours la lira
+     */
+    private void suivre(long cle, boolean isbn) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        (isbn ? isbnsEnCours : emailsEnCours).merge(cle, 1, Integer::sum);
+        Suivi suivi = (Suivi) TransactionSynchronizationManager.getResource(this);
+        if (suivi == null) {
+            Suivi nouveau = new Suivi(new ArrayList<>(), new ArrayList<>());
+            TransactionSynchronizationManager.bindResource(this, nouveau);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(FiltresBloomService.this);
+                    nouveau.isbns().forEach(valeur -> terminer(valeur, isbnsEnCours));
+                    nouveau.emails().forEach(valeur -> terminer(valeur, emailsEnCours));
+                }
+            });
+            suivi = nouveau;
+        }
+        (isbn ? suivi.isbns() : suivi.emails()).add(cle);
+    }
+
+    private static void terminer(long cle, Map<Long, Integer> enCours) {
+        enCours.computeIfPresent(cle, (valeur, transactions) -> transactions > 1 ? transactions - 1 : null);
+    }
+
+    /**
+     * Valeurs publiées par une transaction
+     */
+    private record Suivi(List<Long> isbns, List<Long> emails) {
+    }
+
+    private static long cleIsbn(String isbn) {
+        long compacte = CatalogueMappeService.isbnCompacte(isbn);
+        return compacte > 0 ? compacte : FiltreBloom.empreinte(isbn);
+    }
+
+    private static long cleEmail(String email) {
+        return FiltreBloom.empreinte(email.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Filtres chaînés : les ajouts vont à la dernière couche, une valeur est absente si
+     * aucune couche ne peut la contenir
+     */
+    private static final class Chaine {
+
+        private volatile List<FiltreBloom> couches;
+        private final LongAdder evitees = new LongAdder();
+        private final LongAdder verifiees = new LongAdder();
+
+        private Chaine(long capacite, double taux) {
+            couches = List.of(new FiltreBloom(capacite, taux));
+        }
+
+        private void ajouter(long cle) {
+            List<FiltreBloom> courantes = couches;
+            FiltreBloom derniere = courantes.get(courantes.size() - 1);
+            if (derniere.sature()) {
+                derniere = agrandir(derniere);
+            }
+            derniere.ajouter(cle);
+        }
+
+        private synchronized FiltreBloom agrandir(FiltreBloom saturee) {
+            List<FiltreBloom> courantes = couches;
+            FiltreBloom derniere = courantes.get(courantes.size() - 1);
+            if (derniere != saturee) {
+                // Un autre ajout vient d'ajouter la couche
+                return derniere;
+            }
+            FiltreBloom nouvelle = new FiltreBloom(2 * derniere.getCapacite(), derniere.getTauxCible() / 2);
+            List<FiltreBloom> suivantes = new ArrayList<>(courantes);
+            suivantes.add(nouvelle);
+            couches = List.copyOf(suivantes);
+            return nouvelle;
+        }
+
+        private boolean absent(long cle) {
+            for (FiltreBloom couche : couches) {
+                if (couche.peutContenir(cle)) {
+                    verifiees.increment();
+                    return false;
+                }
+            }
+            evitees.increment();
+            return true;
+        }
+
+        private FiltreBloomDTO statistiques(String nom, double tauxCible) {
+            List<FiltreBloom> courantes = couches;
+            double aucunFauxPositif = 1;
+            long elements = 0;
+            long bits = 0;
+            long octets = 0;
+            for (FiltreBloom couche : courantes) {
+                aucunFauxPositif *= 1 - couche.tauxEstime();
+                elements += couche.getElements();
+                bits += couche.getBits();
+                octets += couche.octets();
+            }
+            return FiltreBloomDTO.builder()
+                    .nom(nom)
+                    .couches(courantes.size())
+                    .elements(elements)
+                    .bits(bits)
+                    .octets(octets)
+                    .tauxCible(tauxCible)
+                    .tauxEstime(1 - aucunFauxPositif)
+                    .requetesEvitees(evitees.sum())
+                    .verificationsEnBase(verifiees.sum())
+                    .build();
+        }
+    }
+}
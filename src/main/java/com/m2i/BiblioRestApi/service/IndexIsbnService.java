@@ -0,0 +1,156 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Index ISBN → ID des livres en mémoire, pour répondre sans requête à « cet ISBN existe-t-il,
+ * et sur quel livre ? » (GET /api/livres/isbn/{isbn}, contrôle d'unicité de la mise à jour).
+ *
+ * Deux IndexLong, sans objet par livre : ISBN compacté (13 chiffres) → ID, et ID → ISBN
+ * compacté suivi des 19 bits de poids faible de la version, pour retirer l'ancien ISBN d'un
+ * livre modifié et ignorer une écriture plus ancienne appliquée en retard.
+ *
+ * Chargé au démarrage (bibliotheque.index-isbn.actif), tenu à jour après chaque commit des
+ * écritures de LivreService. Les lectures sont optimistes (StampedLock) : sans verrou tant
+ * qu'aucune écriture ne les croise.
+ */
+@Service
+public class IndexIsbnService {
+
+    private static final int BITS_VERSION = 19;
+    private static final long MASQUE_VERSION = (1L << BITS_VERSION) - 1;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Value("${bibliotheque.index-isbn.actif:false}")
+    private boolean actif;
+
+    @Value("${bibliotheque.index-isbn.capacite-initiale:16384}")
+    private int capaciteInitiale;
+
+    private final StampedLock verrou = new StampedLock();
+
+    // Null tant que l'index n'est pas chargé
+    private volatile IndexLong idsParIsbn;
+    private IndexLong isbnsParId;
+
+    /**
+     * Charge l'index une fois l'application démarrée, en un parcours du catalogue
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void charger() {
+        if (!actif) {
+            return;
+        }
+        long stamp = verrou.writeLock();
+        try {
+            // Une écriture validée pendant le parcours attend le verrou, puis s'applique à l'index chargé
+            IndexLong parIsbn = new IndexLong(capaciteInitiale);
+            IndexLong parId = new IndexLong(capaciteInitiale);
+            livreRepository.parcourirCatalogue(ligne -> indexer(parIsbn, parId,
+                    ligne.getLong("id"), ligne.getString("isbn"), ligne.getLong("version")));
+            idsParIsbn = parIsbn;
+            isbnsParId = parId;
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Applique à l'index chaque écriture validée sur les livres
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogueEvent(CatalogueEvent event) {
+        if (!actif || event.getRessource() != CatalogueEvent.Ressource.LIVRE) {
+            return;
+        }
+        long stamp = verrou.writeLock();
+        try {
+            if (idsParIsbn == null) {
+                // Écriture antérieure au chargement : le parcours la lira
+                return;
+            }
+            if (event.getOperation() == CatalogueEvent.Operation.SUPPRESSION) {
+                retirer(idsParIsbn, isbnsParId, event.getId());
+            } else {
+                LivreDTO livre = (LivreDTO) event.getDonnees();
+                indexer(idsParIsbn, isbnsParId, livre.getId(), livre.getIsbn(), livre.getVersion());
+            }
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Vrai si l'index peut répondre pour cet ISBN : chargé, et ISBN-13 représentable.
+     * Sinon la recherche se fait en base.
+     */
+    public boolean couvre(String isbn) {
+        return actif && idsParIsbn != null && CatalogueMappeService.isbnCompacte(isbn) > 0;
+    }
+
+    /**
+     * ID du livre portant cet ISBN, vide si aucun (à n'appeler que si couvre(isbn))
+     */
+    public Optional<Long> getId(String isbn) {
+        long cle = CatalogueMappeService.isbnCompacte(isbn);
+        long stamp = verrou.tryOptimisticRead();
+        long id = lire(cle);
+        if (!verrou.validate(stamp)) {
+            // Une écriture a croisé la lecture : relecture sous verrou partagé
+            stamp = verrou.readLock();
+            try {
+                id = lire(cle);
+            } finally {
+                verrou.unlockRead(stamp);
+            }
+        }
+        return id == IndexLong.ABSENT ? Optional.empty() : Optional.of(id);
+    }
+
+    private long lire(long cle) {
+        IndexLong index = idsParIsbn;
+        return index == null || cle <= 0 ? IndexLong.ABSENT : index.get(cle);
+    }
+
+    private static void indexer(IndexLong parIsbn, IndexLong parId, long id, String isbn, Long version) {
+        long cle = CatalogueMappeService.isbnCompacte(isbn);
+        long versionBasse = version == null ? 0 : version & MASQUE_VERSION;
+        long present = parId.get(id);
+        if (present != IndexLong.ABSENT) {
+            // Deux transactions sur un même livre peuvent s'appliquer dans le désordre
+            long ecart = (versionBasse - (present & MASQUE_VERSION)) & MASQUE_VERSION;
+            if (version != null && ecart > MASQUE_VERSION / 2) {
+                return;
+            }
+            retirer(parIsbn, parId, id);
+        }
+        if (cle > 0) {
+            parIsbn.put(cle, id);
+            parId.put(id, cle << BITS_VERSION | versionBasse);
+        }
+    }
+
+    private static void retirer(IndexLong parIsbn, IndexLong parId, long id) {
+        long present = parId.remove(id);
+        long ancienIsbn = present >>> BITS_VERSION;
+        // L'ancien ISBN a pu être repris par un autre livre, appliqué avant
+        if (present != IndexLong.ABSENT && parIsbn.get(ancienIsbn) == id) {
+            parIsbn.remove(ancienIsbn);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.m2i.BiblioRestApi.service;
+
+/**
+ * Table de hachage long → long à adressage ouvert, sans objet par entrée.
+ *
+ * Clés et valeurs sont rangées côte à côte dans un seul long[] (clé, valeur, clé, valeur...) :
+ * une recherche lit la clé et sa valeur dans la même ligne de cache. Sondage linéaire,
+ * capacité en puissance de 2, agrandissement au-delà de 70 % de remplissage ; une suppression
+ * recule les entrées suivantes de la séquence, sans marqueur de place libérée.
+ *
+ * Les clés sont strictement positives (0 marque une case vide), les valeurs positives ou nulles
+ * (ABSENT, négatif, signale une clé inconnue). Non synchronisée : une lecture concurrente d'une
+ * écriture peut rendre un résultat faux, mais ne sort jamais du tableau ni ne boucle ;
+ * l'appelant la valide (voir IndexIsbnService).
+ */
+public class IndexLong {
+
+    public static final long ABSENT = -1;
+
+    private static final long MELANGE = 0x9E3779B97F4A7C15L;
+
+    // Lu une seule fois par recherche : un agrandissement remplace le tableau d'un coup
+    private long[] table;
+
+    private int taille;
+
+    public IndexLong(int capaciteInitiale) {
+        int capacite = Integer.highestOneBit(Math.max(capaciteInitiale, 8) - 1) << 1;
+        table = new long[2 * capacite];
+    }
+
+    /**
+     * Valeur associée à une clé, ABSENT si la clé n'est pas dans la table
+     */
+    public long get(long cle) {
+        long[] cases = table;
+        int masque = cases.length / 2 - 1;
+        for (int i = emplacement(cle, masque), sondes = 0; sondes <= masque; i = (i + 1) & masque, sondes++) {
+            long presente = cases[2 * i];
+            if (presente == cle) {
+                return cases[2 * i + 1];
+            }
+            if (presente == 0) {
+                return ABSENT;
+            }
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Associe une valeur à une clé ; rend l'ancienne valeur, ABSENT si la clé était nouvelle
+     */
+    public long put(long cle, long valeur) {
+        if (cle <= 0 || valeur < 0) {
+            throw new IllegalArgumentException("Clé strictement positive et valeur positive attendues");
+        }
+        int masque = table.length / 2 - 1;
+        int i = emplacement(cle, masque);
+        while (table[2 * i] != 0) {
+            if (table[2 * i] == cle) {
+                long ancienne = table[2 * i + 1];
+                table[2 * i + 1] = valeur;
+                return ancienne;
+            }
+            i = (i + 1) & masque;
+        }
+        table[2 * i + 1] = valeur;
+        table[2 * i] = cle;
+        if (++taille * 10L > (masque + 1) * 7L) {
+            agrandir();
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Retire une clé ; rend sa valeur, ABSENT si elle n'était pas dans la table
+     */
+    public long remove(long cle) {
+        int masque = table.length / 2 - 1;
+        int i = emplacement(cle, masque);
+        while (table[2 * i] != cle) {
+            if (table[2 * i] == 0) {
+                return ABSENT;
+            }
+            i = (i + 1) & masque;
+        }
+        long ancienne = table[2 * i + 1];
+        // Recul des entrées suivantes dont la place d'origine précède le trou
+        int trou = i;
+        for (int j = (i + 1) & masque; table[2 * j] != 0; j = (j + 1) & masque) {
+            int origine = emplacement(table[2 * j], masque);
+            if (((j - origine) & masque) >= ((j - trou) & masque)) {
+                table[2 * trou] = table[2 * j];
+                table[2 * trou + 1] = table[2 * j + 1];
+                trou = j;
+            }
+        }
+        table[2 * trou] = 0;
+        table[2 * trou + 1] = 0;
+        taille--;
+        return ancienne;
+    }
+
+    public int size() {
+        return taille;
+    }
+
+    public int capacite() {
+        return table.length / 2;
+    }
+
+    /**
+     * Octets occupés sur le tas : le tableau et son en-tête, plus l'objet lui-même
+     */
+    public long octets() {
+        return 16 + 16 + 8L * table.length;
+    }
+
+    private void agrandir() {
+        long[] ancienne = table;
+        long[] nouvelle = new long[ancienne.length * 2];
+        int masque = nouvelle.length / 2 - 1;
+        for (int k = 0; k < ancienne.length; k += 2) {
+            if (ancienne[k] != 0) {
+                int i = emplacement(ancienne[k], masque);
+                while (nouvelle[2 * i] != 0) {
+                    i = (i + 1) & masque;
+                }
+                nouvelle[2 * i] = ancienne[k];
+                nouvelle[2 * i + 1] = ancienne[k + 1];
+            }
+        }
+        table = nouvelle;
+    }
+
+    private static int emplacement(long cle, int masque) {
+        // Hachage multiplicatif : les bits de poids fort mélangent toute la clé
+        return (int) ((cle * MELANGE) >>> 32) & masque;
+    }
+}
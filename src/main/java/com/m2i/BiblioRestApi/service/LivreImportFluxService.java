@@ -0,0 +1,268 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.m2i.BiblioRestApi.dto.ImportFluxResultatDTO;
+import com.m2i.BiblioRestApi.dto.ImportLigneDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.exception.ConflitVersionException;
+import com.m2i.BiblioRestApi.exception.ResourceNotFoundException;
+import com.m2i.BiblioRestApi.model.FormatImport;
+import com.m2i.BiblioRestApi.model.ImportCheckpoint;
+import com.m2i.BiblioRestApi.repository.ImportCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Import du catalogue en flux (NDJSON, CSV, ou suite d'objets CBOR ou Smile).
+ *
+ * Le corps de la requête est lu enregistrement par enregistrement avec un MappingIterator :
+ * seul le lot courant est en mémoire, quelle que soit la taille du fichier. La lecture est
+ * bloquante et ne reprend qu'une fois le lot validé, ce qui fait remonter la contre-pression
+ * jusqu'au client par TCP. Chaque lot est inséré par LivreImportService et avance le point de
+ * reprise dans la même transaction : renvoyer le même flux avec le même importId saute les
+ * enregistrements déjà traités. Deux reprises simultanées du même import ne s'appliquent pas
+ * toutes les deux : la seconde à valider un lot est refusée (409).
+ */
+@Service
+public class LivreImportFluxService {
+
+    @Autowired
+    private LivreImportService livreImportService;
+
+    @Autowired
+    private ImportCheckpointRepository importCheckpointRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReessaiOptimiste reessaiOptimiste;
+
+    @Value("${bibliotheque.import.taille-lot:500}")
+    private int tailleLot;
+
+    // Nombre maximal de rejets détaillés dans la réponse
+    @Value("${bibliotheque.import.rejets-max:1000}")
+    private int rejetsMax;
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    /**
+     * Importe un flux de livres, ou reprend un import interrompu
+     *
+     * @param flux Le corps de la requête
+     * @param format NDJSON (un objet JSON par ligne), CSV avec ligne d'en-tête,
+     *               ou objets CBOR ou Smile mis bout à bout
+     * @param importId Identifiant d'un import à reprendre (optionnel)
+     * @return L'état du point de reprise et les premiers rejets
+     */
+    public ImportFluxResultatDTO importer(InputStream flux, FormatImport format, String importId) throws IOException {
+        ImportCheckpoint checkpoint = ouvrirCheckpoint(format, importId);
+        long dejaTraites = checkpoint.getLignesTraitees();
+        List<ImportLigneDTO> rejets = new ArrayList<>();
+        Lot lot = new Lot();
+        long index = 0;
+
+        try (MappingIterator<LivreDTO> iterateur = lecteur(format).readValues(flux)) {
+            while (true) {
+                LivreDTO livre;
+                String erreurLecture = null;
+                try {
+                    if (!iterateur.hasNextValue()) {
+                        break;
+                    }
+                    livre = iterateur.nextValue();
+                } catch (JsonMappingException e) {
+                    // Enregistrement mal typé : rejeté, la lecture reprend à l'enregistrement suivant
+                    livre = null;
+                    erreurLecture = e.getOriginalMessage();
+                } catch (JsonProcessingException e) {
+                    // Flux illisible : on valide les enregistrements lus avant l'erreur
+                    checkpoint = validerLot(checkpoint, lot, rejets, false);
+                    throw new BusinessException(String.format(
+                            "Flux illisible après l'enregistrement %d (%s). Reprise possible avec importId=%s",
+                            checkpoint.getLignesTraitees(), e.getOriginalMessage(), checkpoint.getId()));
+                }
+
+                if (index++ < dejaTraites) {
+                    continue;
+                }
+                long position = index - 1;
+                if (erreurLecture != null) {
+                    lot.rejetsLecture.add(ImportLigneDTO.builder()
+                            .index(position)
+                            .statut(ImportLigneDTO.Statut.REJETE)
+                            .message(erreurLecture)
+                            .build());
+                } else {
+                    lot.livres.add(livre);
+                    lot.positions.add(position);
+                }
+                if (lot.taille() >= tailleLot) {
+                    checkpoint = validerLot(checkpoint, lot, rejets, false);
+                    lot = new Lot();
+                }
+            }
+        }
+        checkpoint = validerLot(checkpoint, lot, rejets, true);
+
+        ImportFluxResultatDTO resultat = versDTO(checkpoint);
+        resultat.setLignesReprises(Math.min(dejaTraites, index));
+        resultat.setRejets(rejets);
+        return resultat;
+    }
+
+    /**
+     * État d'un import en flux
+     */
+    public ImportFluxResultatDTO getImport(String importId) {
+        return importCheckpointRepository.findById(importId)
+                .map(this::versDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Import", "id", importId));
+    }
+
+    /**
+     * Insère un lot et avance le point de reprise dans une seule transaction.
+     * Les compteurs sont recalculés à chaque tentative depuis l'état d'avant le lot.
+     */
+    private ImportCheckpoint validerLot(ImportCheckpoint checkpoint, Lot lot,
+                                        List<ImportLigneDTO> rejets, boolean termine) {
+        if (lot.taille() == 0 && !termine) {
+            return checkpoint;
+        }
+        long lignesAvant = checkpoint.getLignesTraitees();
+        long creesAvant = checkpoint.getCrees();
+        long rejetesAvant = checkpoint.getRejetes();
+        List<ImportLigneDTO> rejetsLot = new ArrayList<>();
+
+        ImportCheckpoint enregistre = reessaiOptimiste.executer(() -> {
+            // Point de reprise verrouillé jusqu'au commit du lot : une reprise concurrente du même
+            // import, qui l'a avancé depuis sa lecture, est refusée au lieu d'appliquer le lot deux fois
+            ImportCheckpoint courant = importCheckpointRepository.findVerrouilleById(checkpoint.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Import", "id", checkpoint.getId()));
+            if (!courant.getVersion().equals(checkpoint.getVersion())) {
+                throw new ConflitVersionException("Import", checkpoint.getId(),
+                        checkpoint.getVersion(), courant.getVersion());
+            }
+
+            List<ImportLigneDTO> lignes = new ArrayList<>(lot.rejetsLecture);
+            if (!lot.livres.isEmpty()) {
+                List<ImportLigneDTO> resultatLot = livreImportService.importerLot(lot.livres, 0);
+                for (int i = 0; i < resultatLot.size(); i++) {
+                    ImportLigneDTO ligne = resultatLot.get(i);
+                    ligne.setIndex(lot.positions.get(i));
+                    lignes.add(ligne);
+                }
+            }
+
+            rejetsLot.clear();
+            long crees = 0;
+            for (ImportLigneDTO ligne : lignes) {
+                if (ligne.getStatut() == ImportLigneDTO.Statut.CREE) {
+                    crees++;
+                } else {
+                    rejetsLot.add(ligne);
+                }
+            }
+            courant.setCrees(creesAvant + crees);
+            courant.setRejetes(rejetesAvant + rejetsLot.size());
+            courant.setLignesTraitees(lignesAvant + lot.taille());
+            courant.setTermine(termine);
+            courant.setDateMiseAJour(LocalDateTime.now());
+            // Flush pour que le point de reprise renvoyé porte la version incrémentée
+            return importCheckpointRepository.saveAndFlush(courant);
+        });
+
+        for (ImportLigneDTO rejet : rejetsLot) {
+            if (rejets.size() >= rejetsMax) {
+                break;
+            }
+            rejets.add(rejet);
+        }
+        return enregistre;
+    }
+
+    private ImportCheckpoint ouvrirCheckpoint(FormatImport format, String importId) {
+        if (importId == null) {
+            return nouveauCheckpoint(UUID.randomUUID().toString(), format);
+        }
+        if (!importId.matches("[A-Za-z0-9._-]{1,64}")) {
+            throw new BusinessException(
+                    "L'importId doit contenir de 1 à 64 caractères parmi lettres, chiffres, '.', '_' et '-'.");
+        }
+
+        ImportCheckpoint checkpoint = importCheckpointRepository.findById(importId)
+                .orElseGet(() -> nouveauCheckpoint(importId, format));
+        if (checkpoint.getFormat() != format) {
+            throw new BusinessException(String.format(
+                    "L'import '%s' a été commencé au format %s.", importId, checkpoint.getFormat()));
+        }
+        return checkpoint;
+    }
+
+    private ImportCheckpoint nouveauCheckpoint(String importId, FormatImport format) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        return importCheckpointRepository.save(ImportCheckpoint.builder()
+                .id(importId)
+                .format(format)
+                .dateCreation(maintenant)
+                .dateMiseAJour(maintenant)
+                .build());
+    }
+
+    private ObjectReader lecteur(FormatImport format) {
+        return switch (format) {
+            case CSV -> csvMapper.readerFor(LivreDTO.class).with(CsvSchema.emptySchema().withHeader());
+            case CBOR -> objectMapper.copyWith(new CBORFactory()).readerFor(LivreDTO.class);
+            case SMILE -> objectMapper.copyWith(new SmileFactory()).readerFor(LivreDTO.class);
+            default -> objectMapper.readerFor(LivreDTO.class);
+        };
+    }
+
+    private ImportFluxResultatDTO versDTO(ImportCheckpoint checkpoint) {
+        return ImportFluxResultatDTO.builder()
+                .importId(checkpoint.getId())
+                .format(checkpoint.getFormat())
+                .lignesTraitees(checkpoint.getLignesTraitees())
+                .crees(checkpoint.getCrees())
+                .rejetes(checkpoint.getRejetes())
+                .termine(checkpoint.isTermine())
+                .build();
+    }
+
+    /**
+     * Enregistrements lus depuis le dernier point de reprise
+     */
+    private static class Lot {
+        private final List<LivreDTO> livres = new ArrayList<>();
+        private final List<Long> positions = new ArrayList<>();
+        private final List<ImportLigneDTO> rejetsLecture = new ArrayList<>();
+
+        private int taille() {
+            return livres.size() + rejetsLecture.size();
+        }
+    }
+}
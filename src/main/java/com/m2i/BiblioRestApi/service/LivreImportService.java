@@ -0,0 +1,200 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.ImportLigneDTO;
+import com.m2i.BiblioRestApi.dto.ImportResultatDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.mapper.LivreMapper;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de livres.
+ *
+ * Les livres sont traités par lots, chacun dans sa propre transaction : les auteurs et les
+ * ISBN déjà présents sont résolus en deux requêtes IN par lot, les INSERT partent en lots
+ * JDBC, puis le contexte de persistance est vidé pour garder une mémoire constante.
+ * Un lot en conflit de verrouillage avec une autre écriture, ou dont un ISBN a été créé par
+ * une écriture concurrente après le contrôle, est rejoué par ReessaiOptimiste.
+ * Chaque élément reçoit un compte rendu (créé ou rejeté avec son motif).
+ */
+@Service
+public class LivreImportService {
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreMapper livreMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReessaiOptimiste reessaiOptimiste;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FiltresBloomService filtresBloomService;
+
+    @Value("${bibliotheque.import.taille-lot:500}")
+    private int tailleLot;
+
+    /**
+     * Importe une liste de livres par lots de taille fixe
+     */
+    public ImportResultatDTO importerLivres(List<LivreDTO> livres) {
+        ImportResultatDTO resultat = new ImportResultatDTO();
+        for (int debut = 0; debut < livres.size(); debut += tailleLot) {
+            List<LivreDTO> lot = livres.subList(debut, Math.min(debut + tailleLot, livres.size()));
+            try {
+                importerLot(lot, debut).forEach(resultat::ajouter);
+            } catch (DataIntegrityViolationException e) {
+                // Conflit persistant après les réessais : les lots déjà validés restent rapportés
+                for (int i = 0; i < lot.size(); i++) {
+                    resultat.ajouter(ImportLigneDTO.builder()
+                            .index(debut + i)
+                            .isbn(lot.get(i).getIsbn())
+                            .statut(ImportLigneDTO.Statut.REJETE)
+                            .message("Lot non importé : conflit avec une écriture concurrente")
+                            .build());
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Importe un lot dans une transaction dédiée
+     *
+     * @param lot Les livres du lot
+     * @param indexDebut Position du premier livre du lot dans l'import complet
+     * @return Le compte rendu de chaque livre du lot
+     */
+    public List<ImportLigneDTO> importerLot(List<LivreDTO> lot, int indexDebut) {
+        return reessaiOptimiste.executer(() -> traiterLot(lot, indexDebut, true));
+    }
+
+    /**
+     * Importe un lot dont les livres ont déjà passé la validation Bean Validation en amont
+     * (l'existence des auteurs et l'unicité des ISBN restent vérifiées ici)
+     */
+    public List<ImportLigneDTO> importerLotValide(List<LivreDTO> lot, int indexDebut) {
+        return reessaiOptimiste.executer(() -> traiterLot(lot, indexDebut, false));
+    }
+
+    private List<ImportLigneDTO> traiterLot(List<LivreDTO> lot, int indexDebut, boolean validation) {
+        ImportLigneDTO[] lignes = new ImportLigneDTO[lot.size()];
+
+        // Résolution ensembliste des auteurs et des ISBN déjà présents
+        Set<Long> auteurIds = lot.stream()
+                .map(LivreDTO::getAuteurId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Auteur> auteurs = auteurRepository.findAllById(auteurIds).stream()
+                .collect(Collectors.toMap(Auteur::getId, Function.identity()));
+
+        // Un ISBN certainement nouveau d'après le filtre de Bloom n'est pas cherché en base
+        Set<String> isbns = lot.stream()
+                .map(LivreDTO::getIsbn)
+                .filter(Objects::nonNull)
+                .filter(isbn -> !filtresBloomService.isbnCertainementAbsent(isbn))
+                .collect(Collectors.toSet());
+        Set<String> isbnsPris = isbns.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(livreRepository.findIsbnsIn(isbns));
+
+        List<Livre> aCreer = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < lot.size(); i++) {
+            LivreDTO dto = lot.get(i);
+            int index = indexDebut + i;
+
+            String erreur = validation ? valider(dto) : null;
+            Auteur auteur = dto.getAuteurId() != null ? auteurs.get(dto.getAuteurId()) : null;
+            if (erreur == null && auteur == null) {
+                erreur = String.format("Auteur non trouvé(e) avec id : '%s'", dto.getAuteurId());
+            }
+            // Réserver l'ISBN : un doublon plus loin dans la requête sera rejeté
+            if (erreur == null && !isbnsPris.add(dto.getIsbn())) {
+                erreur = String.format("Livre existe déjà avec isbn : '%s'", dto.getIsbn());
+            }
+
+            if (erreur != null) {
+                lignes[i] = ImportLigneDTO.builder()
+                        .index(index)
+                        .isbn(dto.getIsbn())
+                        .statut(ImportLigneDTO.Statut.REJETE)
+                        .message(erreur)
+                        .build();
+                continue;
+            }
+
+            dto.setId(null);
+            if (dto.getNombreExemplaires() == null) {
+                dto.setNombreExemplaires(0);
+            }
+            aCreer.add(livreMapper.toEntity(dto, auteur));
+            positions.add(i);
+        }
+
+        livreRepository.saveAll(aCreer);
+        for (int j = 0; j < aCreer.size(); j++) {
+            Livre livre = aCreer.get(j);
+            int i = positions.get(j);
+            lignes[i] = ImportLigneDTO.builder()
+                    .index(indexDebut + i)
+                    .isbn(livre.getIsbn())
+                    .statut(ImportLigneDTO.Statut.CREE)
+                    .id(livre.getId())
+                    .build();
+            eventPublisher.publishEvent(
+                    CatalogueEvent.livre(CatalogueEvent.Operation.CREATION, livreMapper.toDTO(livre)));
+        }
+
+        // Un flush par lot (par le repository, pour que les violations de contrainte soient
+        // traduites et réessayées), puis on libère les entités gérées
+        livreRepository.flush();
+        entityManager.clear();
+        return Arrays.asList(lignes);
+    }
+
+    private String valider(LivreDTO dto) {
+        Set<ConstraintViolation<LivreDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
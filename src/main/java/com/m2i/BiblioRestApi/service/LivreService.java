@@ -1,18 +1,46 @@
 package com.m2i.BiblioRestApi.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedOutputStream;
+import com.m2i.BiblioRestApi.dto.ImportLigneDTO;
+import com.m2i.BiblioRestApi.dto.ImportResultatDTO;
+import com.m2i.BiblioRestApi.dto.LectureLotDTO;
 import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.exception.ConflitVersionException;
+import com.m2i.BiblioRestApi.exception.Contraintes;
 import com.m2i.BiblioRestApi.exception.DuplicateResourceException;
 import com.m2i.BiblioRestApi.exception.ResourceNotFoundException;
+import com.m2i.BiblioRestApi.mapper.CatalogueProtobuf;
 import com.m2i.BiblioRestApi.mapper.LivreMapper;
 import com.m2i.BiblioRestApi.model.Auteur;
 import com.m2i.BiblioRestApi.model.Livre;
 import com.m2i.BiblioRestApi.repository.AuteurRepository;
 import com.m2i.BiblioRestApi.repository.LivreRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -27,6 +55,33 @@ public class LivreService {
     @Autowired
     private LivreMapper livreMapper;
 
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ReessaiOptimiste reessaiOptimiste;
+
+    @Autowired
+    private MergePatch mergePatch;
+
+    @Autowired
+    private IndexIsbnService indexIsbnService;
+
+    @Autowired
+    private FiltresBloomService filtresBloomService;
+
+    @Value("${bibliotheque.import.taille-lot:500}")
+    private int tailleLot;
+
+    @Value("${bibliotheque.lecture-lot.max:200}")
+    private int lectureLotMax;
+
     /**
      * Récupère tous les livres
      */
@@ -36,6 +91,53 @@ public class LivreService {
         return livreMapper.toDTOList(livres);
     }
 
+    /**
+     * Écrit tout le catalogue en protobuf (message ListeLivres), chaque livre étant encodé
+     * dès la lecture de sa ligne
+     */
+    @Transactional(readOnly = true)
+    public void ecrireLivresProtobuf(OutputStream flux) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(flux);
+        try {
+            livreRepository.parcourirCatalogue(ligne -> {
+                try {
+                    CatalogueProtobuf.ecrireLivre(out, CatalogueProtobuf.CHAMP_LISTE,
+                            ligne.getLong("id"), ligne.getString("titre"), ligne.getString("isbn"),
+                            ligne.getInt("annee_publication"), ligne.getInt("nombre_exemplaires"),
+                            ligne.getLong("auteur_id"), ligne.getString("nom_complet_auteur"),
+                            ligne.getLong("version"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    /**
+     * Récupère les livres réduits aux champs demandés (?fields=), en ne lisant que leurs colonnes
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getLivresProjection(List<String> champs) {
+        Set<String> demandes = new LinkedHashSet<>();
+        if (champs != null) {
+            champs.stream().filter(Objects::nonNull).map(String::trim).forEach(demandes::add);
+        }
+        demandes.remove("");
+        if (demandes.isEmpty()) {
+            throw new BusinessException("Au moins un champ doit être demandé.");
+        }
+        for (String champ : demandes) {
+            if (!LivreRepository.CHAMPS_PROJECTION.contains(champ)) {
+                throw new BusinessException(String.format("Champ inconnu : '%s' (champs disponibles : %s)",
+                        champ, String.join(", ", LivreRepository.CHAMPS_PROJECTION)));
+            }
+        }
+        return livreRepository.findProjection(new ArrayList<>(demandes));
+    }
+
     /**
      * Récupère un livre par son ID
      */
@@ -51,38 +153,84 @@ public class LivreService {
      */
     @Transactional(readOnly = true)
     public LivreDTO getLivreByIsbn(String isbn) {
-        Livre livre = livreRepository.findByIsbn(isbn)
+        Livre livre = trouverParIsbn(isbn)
                 .orElseThrow(() -> new ResourceNotFoundException("Livre", "isbn", isbn));
         return livreMapper.toDTO(livre);
     }
 
+    /**
+     * Récupère plusieurs livres par ID en une requête, dans l'ordre demandé
+     */
+    @Transactional(readOnly = true)
+    public LectureLotDTO<LivreDTO, Long> getLivresByIds(List<Long> ids) {
+        Set<Long> cles = clesDemandees(ids, "ID");
+        Map<Long, LivreDTO> trouves = livreRepository.findAllWithAuteurByIdIn(cles).stream()
+                .collect(Collectors.toMap(Livre::getId, livreMapper::toDTO));
+        return LectureLotDTO.ordonner(cles, trouves);
+    }
+
+    /**
+     * Récupère plusieurs livres par ISBN en une requête, dans l'ordre demandé
+     */
+    @Transactional(readOnly = true)
+    public LectureLotDTO<LivreDTO, String> getLivresByIsbns(List<String> isbns) {
+        Set<String> cles = clesDemandees(isbns, "ISBN");
+        Map<String, LivreDTO> trouves = livreRepository.findAllWithAuteurByIsbnIn(cles).stream()
+                .collect(Collectors.toMap(Livre::getIsbn, livreMapper::toDTO));
+        return LectureLotDTO.ordonner(cles, trouves);
+    }
+
+    /**
+     * Clés distinctes dans l'ordre de la requête, en nombre borné
+     */
+    private <K> Set<K> clesDemandees(List<K> demandees, String nature) {
+        Set<K> cles = new LinkedHashSet<>();
+        if (demandees != null) {
+            demandees.stream().filter(Objects::nonNull).forEach(cles::add);
+        }
+        if (cles.isEmpty()) {
+            throw new BusinessException("Au moins un " + nature + " doit être fourni.");
+        }
+        if (cles.size() > lectureLotMax) {
+            throw new BusinessException(String.format(
+                    "%d %s demandés : %d au maximum par requête.", cles.size(), nature, lectureLotMax));
+        }
+        return cles;
+    }
+
     /**
      * Crée un nouveau livre
      */
     public LivreDTO createLivre(LivreDTO livreDTO) {
-        // Vérifier que l'ISBN n'existe pas déjà
-        if (livreRepository.existsByIsbn(livreDTO.getIsbn())) {
-            throw new DuplicateResourceException("Livre", "isbn", livreDTO.getIsbn());
+        // Pas de lecture préalable : l'unicité de l'ISBN et l'existence de l'auteur sont
+        // garanties par les contraintes, vérifiées par l'INSERT lui-même
+        Auteur auteur = auteurRepository.getReferenceById(livreDTO.getAuteurId());
+        Livre livre = livreMapper.toEntity(livreDTO, auteur);
+        Livre savedLivre;
+        try {
+            savedLivre = livreRepository.saveAndFlush(livre);
+        } catch (DataIntegrityViolationException e) {
+            throw traduire(e, livreDTO);
         }
-        // Vérifier que l'auteur existe
-        Auteur auteur = auteurRepository.findById(livreDTO.getAuteurId())
-                .orElseThrow(() -> new ResourceNotFoundException("Auteur", "id",
-                        livreDTO.getAuteurId()));
 
-        Livre livre = livreMapper.toEntity(livreDTO, auteur);
-        Livre savedLivre = livreRepository.save(livre);
-        return livreMapper.toDTO(savedLivre);
+        LivreDTO dto = livreMapper.toDTO(savedLivre);
+        eventPublisher.publishEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION, dto));
+        return dto;
     }
 
     /**
-     * Met à jour un livre existant
+     * Met à jour un livre existant.
+     * Si le DTO porte une version, elle doit être celle du livre en base (sinon 409).
      */
     public LivreDTO updateLivre(Long id, LivreDTO livreDTO) {
         Livre livre = livreRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Livre", "id", id));
+        if (livreDTO.getVersion() != null && !livreDTO.getVersion().equals(livre.getVersion())) {
+            throw new ConflitVersionException("Livre", id, livreDTO.getVersion(), livre.getVersion());
+        }
 
         // Vérifier que l'ISBN n'est pas déjà utilisé par un autre livre
-        livreRepository.findByIsbn(livreDTO.getIsbn())
+        trouverParIsbn(livreDTO.getIsbn())
                 .ifPresent(existingLivre -> {
                     if (!existingLivre.getId().equals(id)) {
                         throw new DuplicateResourceException("Livre", "isbn",
@@ -96,8 +244,160 @@ public class LivreService {
                         livreDTO.getAuteurId()));
 
         livreMapper.updateEntityFromDTO(livreDTO, livre, auteur);
+        reservationService.attribuerExemplaires(livre);
         Livre updatedLivre = livreRepository.save(livre);
-        return livreMapper.toDTO(updatedLivre);
+        // Flush pour que le DTO porte la version incrémentée ; un ISBN pris par une transaction
+        // pas encore appliquée à l'index est refusé par la contrainte
+        try {
+            livreRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw traduire(e, livreDTO);
+        }
+
+        LivreDTO dto = livreMapper.toDTO(updatedLivre);
+        eventPublisher.publishEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION, dto));
+        return dto;
+    }
+
+    /**
+     * Modifie les seuls champs présents dans un JSON Merge Patch.
+     * L'unicité de l'ISBN et l'existence de l'auteur ne sont vérifiées, par les contraintes,
+     * que si ces champs changent ; seules les colonnes modifiées sont écrites.
+     */
+    public LivreDTO patchLivre(Long id, JsonNode patch) {
+        Livre livre = livreRepository.findWithAuteurById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Livre", "id", id));
+        Long versionAttendue = mergePatch.versionAttendue(patch);
+        if (versionAttendue != null && !versionAttendue.equals(livre.getVersion())) {
+            throw new ConflitVersionException("Livre", id, versionAttendue, livre.getVersion());
+        }
+
+        LivreDTO livreDTO = mergePatch.appliquer(patch, LivreDTO.builder()
+                .titre(livre.getTitre())
+                .isbn(livre.getIsbn())
+                .anneePublication(livre.getAnneePublication())
+                .nombreExemplaires(livre.getNombreExemplaires())
+                .auteurId(livre.getAuteur().getId())
+                .build(), "nomCompletAuteur");
+
+        Auteur auteur = livreDTO.getAuteurId().equals(livre.getAuteur().getId())
+                ? livre.getAuteur()
+                : auteurRepository.getReferenceById(livreDTO.getAuteurId());
+        livreMapper.updateEntityFromDTO(livreDTO, livre, auteur);
+        reservationService.attribuerExemplaires(livre);
+
+        Long versionAvant = livre.getVersion();
+        try {
+            livreRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw traduire(e, livreDTO);
+        }
+
+        LivreDTO dto = livreMapper.toDTO(livre);
+        // Patch sans effet : rien n'a été écrit, aucun événement
+        if (!versionAvant.equals(livre.getVersion())) {
+            eventPublisher.publishEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION, dto));
+        }
+        return dto;
+    }
+
+    /**
+     * Crée ou met à jour le livre portant un ISBN, en une seule instruction MERGE
+     * appuyée sur la contrainte d'unicité de l'ISBN
+     */
+    public ResultatUpsert<LivreDTO> upsertLivre(String isbn, LivreDTO livreDTO) {
+        if (livreDTO.getIsbn() != null && !livreDTO.getIsbn().equals(isbn)) {
+            throw new BusinessException(String.format(
+                    "L'ISBN du livre (%s) ne correspond pas à celui de l'URL (%s).", livreDTO.getIsbn(), isbn));
+        }
+        livreDTO.setIsbn(isbn);
+        String erreur = valider(livreDTO);
+        if (erreur != null) {
+            throw new BusinessException(erreur);
+        }
+
+        List<LivreDTO> resultat;
+        try {
+            resultat = livreRepository.upsertParIsbn(List.of(livreDTO));
+        } catch (DataIntegrityViolationException e) {
+            if (Contraintes.concerne(e, Contraintes.LIVRES_AUTEUR)) {
+                throw new ResourceNotFoundException("Auteur", "id", livreDTO.getAuteurId());
+            }
+            throw e;
+        }
+
+        // Livre déjà à jour : rien n'a été écrit
+        if (resultat.isEmpty()) {
+            return new ResultatUpsert<>(ImportLigneDTO.Statut.INCHANGE, getLivreByIsbn(isbn));
+        }
+        LivreDTO dto = apresUpsert(resultat.get(0));
+        return new ResultatUpsert<>(statutUpsert(dto), dto);
+    }
+
+    /**
+     * Crée ou met à jour des livres par ISBN, avec une instruction MERGE par lot.
+     * Les livres invalides, en double dans la requête ou dont l'auteur n'existe pas sont rejetés.
+     */
+    public ImportResultatDTO upsertLivres(List<LivreDTO> livres) {
+        ImportResultatDTO resultat = new ImportResultatDTO();
+        Set<String> isbnsVus = new HashSet<>();
+
+        for (int debut = 0; debut < livres.size(); debut += tailleLot) {
+            List<LivreDTO> lot = livres.subList(debut, Math.min(debut + tailleLot, livres.size()));
+            ImportLigneDTO[] lignes = new ImportLigneDTO[lot.size()];
+
+            Set<Long> auteurIds = lot.stream()
+                    .map(LivreDTO::getAuteurId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<Long> auteursExistants = auteurIds.isEmpty() ? Set.of() : auteurRepository.findIdsIn(auteurIds);
+
+            List<LivreDTO> aEcrire = new ArrayList<>();
+            for (int i = 0; i < lot.size(); i++) {
+                LivreDTO dto = lot.get(i);
+                String erreur = valider(dto);
+                if (erreur == null && !auteursExistants.contains(dto.getAuteurId())) {
+                    erreur = String.format("Auteur non trouvé(e) avec id : '%s'", dto.getAuteurId());
+                }
+                if (erreur == null && !isbnsVus.add(dto.getIsbn())) {
+                    erreur = String.format("ISBN en double dans la requête : '%s'", dto.getIsbn());
+                }
+
+                if (erreur != null) {
+                    lignes[i] = ImportLigneDTO.builder()
+                            .index(debut + i)
+                            .isbn(dto.getIsbn())
+                            .statut(ImportLigneDTO.Statut.REJETE)
+                            .message(erreur)
+                            .build();
+                } else {
+                    aEcrire.add(dto);
+                }
+            }
+
+            Map<String, LivreDTO> ecrits = livreRepository.upsertParIsbn(aEcrire).stream()
+                    .collect(Collectors.toMap(LivreDTO::getIsbn, Function.identity()));
+            for (int i = 0; i < lot.size(); i++) {
+                if (lignes[i] != null) {
+                    continue;
+                }
+                LivreDTO ecrit = ecrits.get(lot.get(i).getIsbn());
+                ImportLigneDTO.ImportLigneDTOBuilder ligne = ImportLigneDTO.builder()
+                        .index(debut + i)
+                        .isbn(lot.get(i).getIsbn());
+                if (ecrit == null) {
+                    ligne.statut(ImportLigneDTO.Statut.INCHANGE);
+                } else {
+                    LivreDTO dto = apresUpsert(ecrit);
+                    ligne.statut(statutUpsert(dto)).id(dto.getId());
+                }
+                lignes[i] = ligne.build();
+            }
+            for (ImportLigneDTO ligne : lignes) {
+                resultat.ajouter(ligne);
+            }
+        }
+        return resultat;
     }
 
     /**
@@ -107,19 +407,59 @@ public class LivreService {
         Livre livre = livreRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Livre", "id", id));
 
+        reservationService.supprimerReservations(id);
         livreRepository.delete(livre);
+        eventPublisher.publishEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                CatalogueEvent.Operation.SUPPRESSION, id, livreMapper.toDTO(livre)));
     }
 
     /**
-     * Met à jour le nombre d'exemplaires d'un livre
+     * Met à jour le nombre d'exemplaires d'un livre.
+     * Les exemplaires disponibles sont d'abord attribués aux réservations en attente.
+     * Hors transaction appelante, l'écriture est réessayée en cas de modification concurrente.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public LivreDTO updateNombreExemplaires(Long id, Integer nombreExemplaires) {
-        Livre livre = livreRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Livre", "id", id));
+        return reessaiOptimiste.executer(() -> {
+            Livre livre = livreRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Livre", "id", id));
 
-        livre.setNombreExemplaires(nombreExemplaires);
+            livre.setNombreExemplaires(nombreExemplaires);
+            return enregistrerStock(livre);
+        });
+    }
+
+    /**
+     * Ajoute (variation positive) ou retire des exemplaires au stock d'un livre.
+     * La variation est appliquée au stock relu à chaque tentative : aucun ajustement
+     * concurrent n'est perdu.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public LivreDTO ajusterExemplaires(Long id, int variation) {
+        return reessaiOptimiste.executer(() -> {
+            Livre livre = livreRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Livre", "id", id));
+
+            int nombreExemplaires = livre.getNombreExemplaires() + variation;
+            if (nombreExemplaires < 0) {
+                throw new BusinessException(String.format(
+                        "Impossible de retirer %d exemplaire(s) : seuls %d sont en stock.",
+                        -variation, livre.getNombreExemplaires()));
+            }
+            livre.setNombreExemplaires(nombreExemplaires);
+            return enregistrerStock(livre);
+        });
+    }
+
+    private LivreDTO enregistrerStock(Livre livre) {
+        reservationService.attribuerExemplaires(livre);
         Livre updatedLivre = livreRepository.save(livre);
-        return livreMapper.toDTO(updatedLivre);
+        // Flush pour que le DTO porte la version incrémentée
+        livreRepository.flush();
+
+        LivreDTO dto = livreMapper.toDTO(updatedLivre);
+        eventPublisher.publishEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION, dto));
+        return dto;
     }
 
     /**
@@ -153,4 +493,72 @@ public class LivreService {
         List<Livre> livres = livreRepository.findByAnneePublicationBetween(anneeMin, anneeMax);
         return livreMapper.toDTOList(livres);
     }
-}
\ No newline at end of file
+
+    /**
+     * Attribue le stock d'un livre modifié par MERGE aux réservations en attente,
+     * puis publie l'événement de création ou de modification
+     */
+    private LivreDTO apresUpsert(LivreDTO dto) {
+        CatalogueEvent.Operation operation = dto.getVersion() == 0
+                ? CatalogueEvent.Operation.CREATION
+                : CatalogueEvent.Operation.MODIFICATION;
+
+        Long id = dto.getId();
+        if (operation == CatalogueEvent.Operation.MODIFICATION && dto.getNombreExemplaires() > 0
+                && reservationService.tailleFile(id) > 0) {
+            Livre livre = livreRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Livre", "id", id));
+            reservationService.attribuerExemplaires(livre);
+            livreRepository.flush();
+            dto = livreMapper.toDTO(livre);
+        }
+
+        eventPublisher.publishEvent(CatalogueEvent.livre(operation, dto));
+        return dto;
+    }
+
+    private ImportLigneDTO.Statut statutUpsert(LivreDTO dto) {
+        return dto.getVersion() == 0 ? ImportLigneDTO.Statut.CREE : ImportLigneDTO.Statut.MODIFIE;
+    }
+
+    /**
+     * Livre portant un ISBN. Si l'index en mémoire couvre l'ISBN, un ISBN absent ne coûte
+     * aucune requête, et un ID trouvé est relu par clé primaire puis vérifié : un index en
+     * retard sur un changement d'ISBN renvoie à la recherche en base. Sans index, le filtre
+     * de Bloom écarte de même les ISBN certainement absents.
+     */
+    private Optional<Livre> trouverParIsbn(String isbn) {
+        if (!indexIsbnService.couvre(isbn)) {
+            return filtresBloomService.isbnCertainementAbsent(isbn)
+                    ? Optional.empty()
+                    : livreRepository.findByIsbn(isbn);
+        }
+        return indexIsbnService.getId(isbn).flatMap(id -> livreRepository.findById(id)
+                .filter(livre -> isbn.equals(livre.getIsbn()))
+                .or(() -> livreRepository.findByIsbn(isbn)));
+    }
+
+    /**
+     * Traduit la violation d'une contrainte sur les livres en erreur métier
+     */
+    private RuntimeException traduire(DataIntegrityViolationException e, LivreDTO livreDTO) {
+        if (Contraintes.concerne(e, Contraintes.LIVRES_ISBN)) {
+            return new DuplicateResourceException("Livre", "isbn", livreDTO.getIsbn());
+        }
+        if (Contraintes.concerne(e, Contraintes.LIVRES_AUTEUR)) {
+            return new ResourceNotFoundException("Auteur", "id", livreDTO.getAuteurId());
+        }
+        return e;
+    }
+
+    private String valider(LivreDTO dto) {
+        Set<ConstraintViolation<LivreDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
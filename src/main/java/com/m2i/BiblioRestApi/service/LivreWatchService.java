@@ -0,0 +1,105 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Surveillance longue durée (long polling) de la disponibilité d'un livre.
+ *
+ * Chaque requête en attente est un DeferredResult enregistré pour l'ID du livre :
+ * aucun thread Tomcat n'est occupé pendant l'attente. Les surveillances sont libérées
+ * après le commit d'une modification du livre, ou à l'expiration du délai (304).
+ */
+@Service
+public class LivreWatchService {
+
+    @Autowired
+    private LivreService livreService;
+
+    @Value("${bibliotheque.watch.timeout-ms:30000}")
+    private long timeoutParDefaut;
+
+    @Value("${bibliotheque.watch.timeout-max-ms:120000}")
+    private long timeoutMax;
+
+    private final Map<Long, Set<DeferredResult<ResponseEntity<LivreDTO>>>> surveillances =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Attend que la version du livre diffère de sinceVersion.
+     * Répond immédiatement si c'est déjà le cas (ou si aucune version n'est fournie).
+     * Un délai nul ou négatif est refusé : le DeferredResult attendrait sans limite.
+     */
+    public DeferredResult<ResponseEntity<LivreDTO>> surveiller(Long id, Long sinceVersion, Long timeoutMs) {
+        if (timeoutMs != null && timeoutMs <= 0) {
+            throw new BusinessException("Le délai d'attente doit être strictement positif : " + timeoutMs);
+        }
+        long timeout = timeoutMs != null ? Math.min(timeoutMs, timeoutMax) : timeoutParDefaut;
+        DeferredResult<ResponseEntity<LivreDTO>> resultat =
+                new DeferredResult<>(timeout, () -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        // Enregistrer avant de lire l'état courant pour ne manquer aucune modification
+        Set<DeferredResult<ResponseEntity<LivreDTO>>> enAttente =
+                surveillances.computeIfAbsent(id, cle -> ConcurrentHashMap.newKeySet());
+        enAttente.add(resultat);
+        resultat.onCompletion(() -> retirer(id, resultat));
+
+        try {
+            LivreDTO livre = livreService.getLivreById(id);
+            if (sinceVersion == null || !Objects.equals(livre.getVersion(), sinceVersion)) {
+                resultat.setResult(ResponseEntity.ok(livre));
+            }
+        } catch (RuntimeException e) {
+            retirer(id, resultat);
+            throw e;
+        }
+        return resultat;
+    }
+
+    /**
+     * Libère les surveillances d'un livre après le commit de sa modification
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogueEvent(CatalogueEvent event) {
+        if (event.getRessource() != CatalogueEvent.Ressource.LIVRE) {
+            return;
+        }
+        Set<DeferredResult<ResponseEntity<LivreDTO>>> enAttente = surveillances.remove(event.getId());
+        if (enAttente == null) {
+            return;
+        }
+
+        ResponseEntity<LivreDTO> reponse = event.getOperation() == CatalogueEvent.Operation.SUPPRESSION
+                ? ResponseEntity.status(HttpStatus.GONE).build()
+                : ResponseEntity.ok((LivreDTO) event.getDonnees());
+        enAttente.forEach(resultat -> resultat.setResult(reponse));
+    }
+
+    /**
+     * Nombre de requêtes en attente sur un livre
+     */
+    public int nombreSurveillances(Long id) {
+        Set<DeferredResult<ResponseEntity<LivreDTO>>> enAttente = surveillances.get(id);
+        return enAttente != null ? enAttente.size() : 0;
+    }
+
+    private void retirer(Long id, DeferredResult<ResponseEntity<LivreDTO>> resultat) {
+        surveillances.computeIfPresent(id, (cle, enAttente) -> {
+            enAttente.remove(resultat);
+            return enAttente.isEmpty() ? null : enAttente;
+        });
+    }
+}
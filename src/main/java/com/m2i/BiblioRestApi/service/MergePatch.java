@@ -0,0 +1,79 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Application d'un JSON Merge Patch (RFC 7396) à un DTO.
+ *
+ * Seuls les champs présents dans le patch sont modifiés ; un champ à null est effacé.
+ * L'identifiant et la version ne sont jamais modifiés : la version, si elle est fournie,
+ * sert de précondition à la mise à jour.
+ */
+@Component
+public class MergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Version attendue par le client, ou null s'il n'en a pas fourni
+     */
+    public Long versionAttendue(JsonNode patch) {
+        JsonNode version = verifierObjet(patch).get("version");
+        return version == null || version.isNull() ? null : version.asLong();
+    }
+
+    /**
+     * Applique le patch au DTO puis valide le résultat
+     *
+     * @param patch Le document JSON Merge Patch
+     * @param cible Le DTO portant l'état courant de la ressource, modifié en place
+     * @param lectureSeule Champs calculés à ignorer en plus de l'identifiant et de la version
+     * @throws ConstraintViolationException si le DTO obtenu est invalide
+     */
+    public <T> T appliquer(JsonNode patch, T cible, String... lectureSeule) {
+        ObjectNode modifications = verifierObjet(patch).deepCopy();
+        modifications.remove("id");
+        modifications.remove("version");
+        for (String champ : lectureSeule) {
+            modifications.remove(champ);
+        }
+
+        try {
+            objectMapper.readerForUpdating(cible).readValue(modifications);
+        } catch (IOException e) {
+            throw new BusinessException("Patch invalide : " + (e instanceof JsonProcessingException json
+                    ? json.getOriginalMessage() : e.getMessage()));
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(cible);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return cible;
+    }
+
+    private ObjectNode verifierObjet(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new BusinessException("Le patch doit être un objet JSON.");
+        }
+        return (ObjectNode) patch;
+    }
+}
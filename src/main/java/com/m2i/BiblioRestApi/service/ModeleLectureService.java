@@ -0,0 +1,483 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Modèle de lecture du catalogue (CQRS) : livres et auteurs en mémoire, en DTO prêts à servir.
+ *
+ * Le modèle est immuable : index par ID, par ISBN et par auteur, listes complètes triées par ID.
+ * Les lectures suivent une seule référence volatile, sans verrou, sans base ni transaction.
+ * Les écritures des services (CatalogueEvent) d'une même transaction sont regroupées, puis
+ * appliquées après le commit à une copie du modèle, qui remplace l'ancien d'un coup : un
+ * lecteur voit toujours un catalogue cohérent, avant ou après la transaction. Seules les
+ * entrées écrites sont remplacées dans la copie, sans retrier ni réindexer le catalogue.
+ *
+ * Chargé au démarrage (bibliotheque.modele-lecture.actif). Une lecture absente du modèle est
+ * faite en base par l'appelant.
+ */
+@Service
+public class ModeleLectureService {
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Value("${bibliotheque.modele-lecture.actif:false}")
+    private boolean actif;
+
+    @Value("${bibliotheque.modele-lecture.duree-pierres-tombales-ms:60000}")
+    private long dureePierresTombalesMs;
+
+    // Sérialise le chargement et l'application des écritures ; les lectures ne le prennent pas
+    private final Object verrou = new Object();
+
+    // Null tant que le modèle n'est pas chargé
+    private volatile Modele modele;
+
+    // Pierres tombales (ID → version supprimée), gardées sous le verrou : une écriture validée
+    // avant la suppression mais appliquée après elle ne fait pas réapparaître la ressource.
+    // Une telle écriture arrive dans l'afterCommit de sa transaction, juste après la suppression :
+    // chaque pierre expire après bibliotheque.modele-lecture.duree-pierres-tombales-ms.
+    // Dans l'ordre d'expiration, purgées à chaque application
+    private final LinkedHashMap<Long, PierreTombale> livresSupprimes = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, PierreTombale> auteursSupprimes = new LinkedHashMap<>();
+
+    private record PierreTombale(long version, long expiration) {
+    }
+
+    /**
+     * Catalogue figé : les DTO partagés entre toutes les requêtes ne doivent pas être modifiés
+     */
+    public record Modele(Map<Long, LivreDTO> livresParId, Map<String, LivreDTO> livresParIsbn,
+                         Map<Long, List<LivreDTO>> livresParAuteur, Map<Long, AuteurDTO> auteursParId,
+                         List<LivreDTO> livres, List<AuteurDTO> auteurs) {
+    }
+
+    /**
+     * Charge le modèle une fois l'application démarrée, en un parcours des auteurs et des livres
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void charger() {
+        if (!actif) {
+            return;
+        }
+        synchronized (verrou) {
+            // Une écriture validée pendant le parcours attend le verrou, puis s'applique au modèle chargé
+            Map<Long, AuteurDTO> auteurs = new HashMap<>();
+            auteurRepository.parcourirAuteurs(ligne -> auteurs.put(ligne.getLong("id"), AuteurDTO.builder()
+                    .id(ligne.getLong("id"))
+                    .nom(ligne.getString("nom"))
+                    .prenom(ligne.getString("prenom"))
+                    .email(ligne.getString("email"))
+                    .version(ligne.getLong("version"))
+                    .build()));
+            Map<Long, LivreDTO> livres = new HashMap<>();
+            livreRepository.parcourirCatalogue(ligne -> livres.put(ligne.getLong("id"), LivreDTO.builder()
+                    .id(ligne.getLong("id"))
+                    .titre(ligne.getString("titre"))
+                    .isbn(ligne.getString("isbn"))
+                    .anneePublication(ligne.getInt("annee_publication"))
+                    .nombreExemplaires(ligne.getInt("nombre_exemplaires"))
+                    .auteurId(ligne.getLong("auteur_id"))
+                    .nomCompletAuteur(ligne.getString("nom_complet_auteur"))
+                    .version(ligne.getLong("version"))
+                    .build()));
+            modele = construire(livres, auteurs);
+        }
+    }
+
+    /**
+     * Regroupe les écritures d'une transaction, appliquées ensemble après son commit
+     */
+    @EventListener
+    public void onCatalogueEvent(CatalogueEvent event) {
+        if (!actif) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appliquer(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<CatalogueEvent> enAttente = (List<CatalogueEvent>) TransactionSynchronizationManager.getResource(this);
+        if (enAttente == null) {
+            List<CatalogueEvent> evenements = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, evenements);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appliquer(evenements);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ModeleLectureService.this);
+                }
+            });
+            enAttente = evenements;
+        }
+        enAttente.add(event);
+    }
+
+    /**
+     * Modèle courant, vide s'il est désactivé ou pas encore chargé
+     */
+    public Optional<Modele> getModele() {
+        return Optional.ofNullable(modele);
+    }
+
+    public Optional<List<LivreDTO>> getLivres() {
+        return getModele().map(Modele::livres);
+    }
+
+    public Optional<LivreDTO> getLivre(Long id) {
+        return getModele().map(m -> m.livresParId().get(id));
+    }
+
+    public Optional<LivreDTO> getLivreParIsbn(String isbn) {
+        return getModele().map(m -> m.livresParIsbn().get(isbn));
+    }
+
+    /**
+     * Livres d'un auteur, vide si l'auteur n'est pas dans le modèle
+     */
+    public Optional<List<LivreDTO>> getLivresParAuteur(Long auteurId) {
+        return getModele()
+                .filter(m -> m.auteursParId().containsKey(auteurId))
+                .map(m -> m.livresParAuteur().getOrDefault(auteurId, List.of()));
+    }
+
+    public Optional<List<AuteurDTO>> getAuteurs() {
+        return getModele().map(Modele::auteurs);
+    }
+
+    public Optional<AuteurDTO> getAuteur(Long id) {
+        return getModele().map(m -> m.auteursParId().get(id));
+    }
+
+    /**
+     * Auteur accompagné de ses livres (?expand=livres)
+     */
+    public Optional<AuteurDTO> getAuteurAvecLivres(Long id) {
+        Modele courant = modele;
+        if (courant == null || !courant.auteursParId().containsKey(id)) {
+            return Optional.empty();
+        }
+        AuteurDTO auteur = copie(courant.auteursParId().get(id), null);
+        auteur.setLivres(courant.livresParAuteur().getOrDefault(id, List.of()));
+        return Optional.of(auteur);
+    }
+
+    private void appliquer(List<CatalogueEvent> evenements) {
+        synchronized (verrou) {
+            Modele courant = modele;
+            if (courant == null) {
+                // Écritures antérieures au chargement : le parcours les lira
+                return;
+            }
+            long maintenant = System.nanoTime();
+            purger(livresSupprimes, maintenant);
+            purger(auteursSupprimes, maintenant);
+            Brouillon brouillon = new Brouillon(courant);
+            for (CatalogueEvent event : evenements) {
+                boolean suppression = event.getOperation() == CatalogueEvent.Operation.SUPPRESSION;
+                // Deux transactions sur une même ressource peuvent s'appliquer dans le désordre :
+                // une écriture est ignorée si elle précède une suppression ou la version du modèle
+                if (event.getRessource() == CatalogueEvent.Ressource.LIVRE) {
+                    LivreDTO livre = (LivreDTO) event.getDonnees();
+                    if (suppression) {
+                        enterrer(livresSupprimes, event.getId(),
+                                versionSupprimee(livre != null ? livre.getVersion() : null), maintenant);
+                        brouillon.retirerLivre(event.getId());
+                    } else if (!supprime(livresSupprimes, livre.getId(), livre.getVersion())
+                            && plusRecent(livre.getVersion(), brouillon.livresParId.get(livre.getId()),
+                                    LivreDTO::getVersion)) {
+                        brouillon.placerLivre(livre);
+                    }
+                } else {
+                    AuteurDTO auteur = (AuteurDTO) event.getDonnees();
+                    if (suppression) {
+                        enterrer(auteursSupprimes, event.getId(),
+                                versionSupprimee(auteur != null ? auteur.getVersion() : null), maintenant);
+                        brouillon.retirerAuteur(event.getId());
+                    } else if (!supprime(auteursSupprimes, auteur.getId(), auteur.getVersion())
+                            && plusRecent(auteur.getVersion(), brouillon.auteursParId.get(auteur.getId()),
+                                    AuteurDTO::getVersion)) {
+                        brouillon.placerAuteur(auteur);
+                    }
+                }
+            }
+            modele = brouillon.modele();
+        }
+    }
+
+    // Sans version connue, la suppression l'emporte sur toute écriture appliquée après elle
+    private static long versionSupprimee(Long version) {
+        return version != null ? version : Long.MAX_VALUE;
+    }
+
+    // Replacée en fin de file : les pierres restent triées par expiration
+    private void enterrer(LinkedHashMap<Long, PierreTombale> supprimes, Long id, long version, long maintenant) {
+        PierreTombale ancienne = supprimes.remove(id);
+        supprimes.put(id, new PierreTombale(ancienne != null ? Math.max(ancienne.version(), version) : version,
+                maintenant + TimeUnit.MILLISECONDS.toNanos(dureePierresTombalesMs)));
+    }
+
+    private static void purger(LinkedHashMap<Long, PierreTombale> supprimes, long maintenant) {
+        Iterator<PierreTombale> pierres = supprimes.values().iterator();
+        while (pierres.hasNext() && pierres.next().expiration() - maintenant <= 0) {
+            pierres.remove();
+        }
+    }
+
+    private static boolean supprime(Map<Long, PierreTombale> supprimes, Long id, Long version) {
+        PierreTombale pierre = supprimes.get(id);
+        return pierre != null && (version == null || version <= pierre.version());
+    }
+
+    private static <T> boolean plusRecent(Long version, T present, Function<T, Long> versionDe) {
+        return present == null || version == null || versionDe.apply(present) == null
+                || version >= versionDe.apply(present);
+    }
+
+    /**
+     * Index et listes du modèle, construits en entier au chargement. Les DTO inchangés sont
+     * repris tels quels ; un livre dont l'auteur a été renommé, ou un auteur dont le nombre de
+     * livres a changé, est recopié.
+     */
+    static Modele construire(Map<Long, LivreDTO> livresParId, Map<Long, AuteurDTO> auteursParId) {
+        Map<Long, String> noms = new HashMap<>(auteursParId.size() * 2);
+        auteursParId.values().forEach(auteur -> noms.put(auteur.getId(), nomComplet(auteur)));
+
+        List<LivreDTO> livres = new ArrayList<>(livresParId.size());
+        for (LivreDTO livre : livresParId.values()) {
+            String nom = noms.get(livre.getAuteurId());
+            livres.add(nom == null || nom.equals(livre.getNomCompletAuteur()) ? livre : copie(livre, nom));
+        }
+        livres.sort(Comparator.comparing(LivreDTO::getId));
+
+        Map<Long, LivreDTO> parId = new HashMap<>(livres.size() * 2);
+        Map<String, LivreDTO> parIsbn = new HashMap<>(livres.size() * 2);
+        Map<Long, List<LivreDTO>> parAuteur = new HashMap<>(auteursParId.size() * 2);
+        for (LivreDTO livre : livres) {
+            parId.put(livre.getId(), livre);
+            parIsbn.put(livre.getIsbn(), livre);
+            parAuteur.computeIfAbsent(livre.getAuteurId(), id -> new ArrayList<>()).add(livre);
+        }
+        parAuteur.replaceAll((id, liste) -> Collections.unmodifiableList(liste));
+
+        List<AuteurDTO> auteurs = new ArrayList<>(auteursParId.size());
+        for (AuteurDTO auteur : auteursParId.values()) {
+            int nombreLivres = parAuteur.getOrDefault(auteur.getId(), List.of()).size();
+            auteurs.add(Objects.equals(auteur.getNombreLivres(), nombreLivres) ? auteur : copie(auteur, nombreLivres));
+        }
+        auteurs.sort(Comparator.comparing(AuteurDTO::getId));
+        Map<Long, AuteurDTO> auteursIndex = new HashMap<>(auteurs.size() * 2);
+        auteurs.forEach(auteur -> auteursIndex.put(auteur.getId(), auteur));
+
+        return new Modele(Collections.unmodifiableMap(parId), Collections.unmodifiableMap(parIsbn),
+                Collections.unmodifiableMap(parAuteur), Collections.unmodifiableMap(auteursIndex),
+                Collections.unmodifiableList(livres), Collections.unmodifiableList(auteurs));
+    }
+
+    private static String nomComplet(AuteurDTO auteur) {
+        return auteur.getPrenom() + " " + auteur.getNom();
+    }
+
+    private static <T> void placer(List<T> liste, T element, Function<T, Long> idDe) {
+        int position = position(liste, idDe.apply(element), idDe);
+        if (position >= 0) {
+            liste.set(position, element);
+        } else {
+            liste.add(-position - 1, element);
+        }
+    }
+
+    private static <T> void retirer(List<T> liste, Long id, Function<T, Long> idDe) {
+        int position = position(liste, id, idDe);
+        if (position >= 0) {
+            liste.remove(position);
+        }
+    }
+
+    /**
+     * Recherche dichotomique dans une liste triée par ID, comme Collections.binarySearch
+     */
+    private static <T> int position(List<T> liste, long id, Function<T, Long> idDe) {
+        int bas = 0;
+        int haut = liste.size() - 1;
+        while (bas <= haut) {
+            int milieu = (bas + haut) >>> 1;
+            long courant = idDe.apply(liste.get(milieu));
+            if (courant < id) {
+                bas = milieu + 1;
+            } else if (courant > id) {
+                haut = milieu - 1;
+            } else {
+                return milieu;
+            }
+        }
+        return -(bas + 1);
+    }
+
+    private static LivreDTO copie(LivreDTO livre, String nomCompletAuteur) {
+        return LivreDTO.builder()
+                .id(livre.getId())
+                .titre(livre.getTitre())
+                .isbn(livre.getIsbn())
+                .anneePublication(livre.getAnneePublication())
+                .nombreExemplaires(livre.getNombreExemplaires())
+                .auteurId(livre.getAuteurId())
+                .nomCompletAuteur(nomCompletAuteur)
+                .version(livre.getVersion())
+                .build();
+    }
+
+    private static AuteurDTO copie(AuteurDTO auteur, Integer nombreLivres) {
+        return AuteurDTO.builder()
+                .id(auteur.getId())
+                .nom(auteur.getNom())
+                .prenom(auteur.getPrenom())
+                .email(auteur.getEmail())
+                .nombreLivres(nombreLivres != null ? nombreLivres : auteur.getNombreLivres())
+                .version(auteur.getVersion())
+                .build();
+    }
+
+    /**
+     * Copie modifiable d'un modèle, où s'appliquent les écritures d'une transaction : chacune ne
+     * touche que ses entrées dans les index, la liste des livres de son auteur et sa position
+     * dans les listes triées. Les listes par auteur ne sont recopiées que si elles changent.
+     */
+    private static final class Brouillon {
+
+        private final Map<Long, LivreDTO> livresParId;
+        private final Map<String, LivreDTO> livresParIsbn;
+        private final Map<Long, List<LivreDTO>> livresParAuteur;
+        private final Map<Long, AuteurDTO> auteursParId;
+        private final List<LivreDTO> livres;
+        private final List<AuteurDTO> auteurs;
+
+        // Auteurs dont la liste de livres a été recopiée, et dont le nombre de livres est à recompter
+        private final Set<Long> listesCopiees = new HashSet<>();
+        private final Set<Long> aRecompter = new HashSet<>();
+
+        private Brouillon(Modele modele) {
+            livresParId = new HashMap<>(modele.livresParId());
+            livresParIsbn = new HashMap<>(modele.livresParIsbn());
+            livresParAuteur = new HashMap<>(modele.livresParAuteur());
+            auteursParId = new HashMap<>(modele.auteursParId());
+            livres = new ArrayList<>(modele.livres());
+            auteurs = new ArrayList<>(modele.auteurs());
+        }
+
+        private void placerLivre(LivreDTO recu) {
+            AuteurDTO auteur = auteursParId.get(recu.getAuteurId());
+            LivreDTO livre = copie(recu, auteur != null ? nomComplet(auteur) : recu.getNomCompletAuteur());
+            LivreDTO ancien = livresParId.put(livre.getId(), livre);
+            if (ancien != null) {
+                livresParIsbn.remove(ancien.getIsbn(), ancien);
+                if (!ancien.getAuteurId().equals(livre.getAuteurId())) {
+                    retirer(livresDe(ancien.getAuteurId()), ancien.getId(), LivreDTO::getId);
+                    aRecompter.add(ancien.getAuteurId());
+                }
+            }
+            livresParIsbn.put(livre.getIsbn(), livre);
+            placer(livresDe(livre.getAuteurId()), livre, LivreDTO::getId);
+            placer(livres, livre, LivreDTO::getId);
+            aRecompter.add(livre.getAuteurId());
+        }
+
+        private void retirerLivre(Long id) {
+            LivreDTO ancien = livresParId.remove(id);
+            if (ancien == null) {
+                return;
+            }
+            livresParIsbn.remove(ancien.getIsbn(), ancien);
+            retirer(livresDe(ancien.getAuteurId()), id, LivreDTO::getId);
+            retirer(livres, id, LivreDTO::getId);
+            aRecompter.add(ancien.getAuteurId());
+        }
+
+        private void placerAuteur(AuteurDTO recu) {
+            AuteurDTO auteur = copie(recu, null);
+            auteursParId.put(auteur.getId(), auteur);
+            placer(auteurs, auteur, AuteurDTO::getId);
+            aRecompter.add(auteur.getId());
+
+            // Auteur renommé : seuls ses livres sont recopiés
+            String nom = nomComplet(auteur);
+            for (LivreDTO livre : List.copyOf(livresParAuteur.getOrDefault(auteur.getId(), List.of()))) {
+                if (!nom.equals(livre.getNomCompletAuteur())) {
+                    placerLivre(livre);
+                }
+            }
+        }
+
+        private void retirerAuteur(Long id) {
+            if (auteursParId.remove(id) != null) {
+                retirer(auteurs, id, AuteurDTO::getId);
+            }
+        }
+
+        private List<LivreDTO> livresDe(Long auteurId) {
+            if (listesCopiees.add(auteurId)) {
+                livresParAuteur.put(auteurId, new ArrayList<>(livresParAuteur.getOrDefault(auteurId, List.of())));
+            }
+            return livresParAuteur.get(auteurId);
+        }
+
+        private Modele modele() {
+            for (Long auteurId : aRecompter) {
+                AuteurDTO auteur = auteursParId.get(auteurId);
+                int nombreLivres = livresParAuteur.getOrDefault(auteurId, List.of()).size();
+                if (auteur != null && !Objects.equals(auteur.getNombreLivres(), nombreLivres)) {
+                    AuteurDTO recompte = copie(auteur, nombreLivres);
+                    auteursParId.put(auteurId, recompte);
+                    placer(auteurs, recompte, AuteurDTO::getId);
+                }
+            }
+            for (Long auteurId : listesCopiees) {
+                List<LivreDTO> liste = livresParAuteur.get(auteurId);
+                if (liste.isEmpty()) {
+                    livresParAuteur.remove(auteurId);
+                } else {
+                    livresParAuteur.put(auteurId, Collections.unmodifiableList(liste));
+                }
+            }
+            return new Modele(Collections.unmodifiableMap(livresParId), Collections.unmodifiableMap(livresParIsbn),
+                    Collections.unmodifiableMap(livresParAuteur), Collections.unmodifiableMap(auteursParId),
+                    Collections.unmodifiableList(livres), Collections.unmodifiableList(auteurs));
+        }
+    }
+}
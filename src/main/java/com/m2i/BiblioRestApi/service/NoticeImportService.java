@@ -0,0 +1,419 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.ImportLigneDTO;
+import com.m2i.BiblioRestApi.dto.ImportNoticesResultatDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.importer.LecteurNotices;
+import com.m2i.BiblioRestApi.importer.NoticeBrute;
+import com.m2i.BiblioRestApi.importer.NoticeValidee;
+import com.m2i.BiblioRestApi.mapper.AuteurMapper;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Import de notices bibliographiques MARCXML ou ONIX.
+ *
+ * Le fichier est lu en flux par LecteurNotices. Chaque lot de notices lues est normalisé et
+ * validé en parallèle sur un ForkJoinPool dédié pendant que le lot précédent est persisté :
+ * au plus deux lots sont en mémoire. La persistance se fait sur le thread de la requête,
+ * un lot par transaction : les auteurs sont dédoublonnés par email (à défaut par nom et
+ * prénom) puis créés par saveAll, et les livres passent par LivreImportService, qui écarte
+ * les ISBN déjà présents.
+ */
+@Service
+public class NoticeImportService {
+
+    private static final Pattern ISBN = Pattern.compile("(?<![0-9])(97[89][0-9]{10}|[0-9]{9}[0-9Xx])(?![0-9Xx])");
+    private static final Pattern ANNEE = Pattern.compile("[0-9]{4}");
+    // Ponctuation ISBD en fin de zone MARC (" /", " :", ".")
+    private static final Pattern PONCTUATION_FINALE = Pattern.compile("[\\s/:;,.=]+$");
+    private static final Pattern DATES_AUTEUR = Pattern.compile("[\\s,]*\\(?[0-9]{4}\\??-([0-9]{4})?\\??\\)?.*$");
+
+    @Autowired
+    private LivreImportService livreImportService;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private AuteurMapper auteurMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ReessaiOptimiste reessaiOptimiste;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FiltresBloomService filtresBloomService;
+
+    @Value("${bibliotheque.import.taille-lot:500}")
+    private int tailleLot;
+
+    @Value("${bibliotheque.import.rejets-max:1000}")
+    private int rejetsMax;
+
+    // Threads de normalisation et de validation (0 = nombre de processeurs)
+    @Value("${bibliotheque.import.parallelisme:0}")
+    private int parallelisme;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void demarrer() {
+        pool = new ForkJoinPool(parallelisme > 0 ? parallelisme : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void arreter() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Importe un fichier de notices MARCXML ou ONIX (format détecté d'après l'élément racine)
+     *
+     * @param flux Le corps de la requête
+     * @return Le nombre de livres et d'auteurs créés et les premiers rejets
+     */
+    public ImportNoticesResultatDTO importer(InputStream flux) {
+        try (LecteurNotices lecteur = LecteurNotices.ouvrir(flux)) {
+            ImportNoticesResultatDTO resultat = ImportNoticesResultatDTO.builder()
+                    .format(lecteur.getFormat())
+                    .build();
+            // Auteurs déjà résolus pendant cet import, par clé de dédoublonnage
+            Map<String, Long> auteursConnus = new HashMap<>();
+
+            CompletableFuture<List<NoticeValidee>> enCours = null;
+            List<NoticeBrute> lecture = new ArrayList<>(tailleLot);
+            while (lecteur.hasNext()) {
+                lecture.add(lecteur.next());
+                if (lecture.size() == tailleLot) {
+                    CompletableFuture<List<NoticeValidee>> suivant = valider(lecture);
+                    persister(attendre(enCours), resultat, auteursConnus);
+                    enCours = suivant;
+                    lecture = new ArrayList<>(tailleLot);
+                }
+            }
+            persister(attendre(enCours), resultat, auteursConnus);
+            persister(attendre(valider(lecture)), resultat, auteursConnus);
+            return resultat;
+        }
+    }
+
+    /**
+     * Normalise et valide une notice : ISBN-13 avec clé de contrôle, titre sans ponctuation
+     * finale, année, nom et prénom de l'auteur
+     */
+    public NoticeValidee normaliser(NoticeBrute notice) {
+        NoticeValidee resultat = NoticeValidee.builder().position(notice.getPosition()).build();
+
+        String isbn = normaliserIsbn(notice.getIsbn());
+        String[] nomPrenom = nomPrenom(notice);
+        AuteurDTO auteur = AuteurDTO.builder()
+                .nom(nomPrenom[0])
+                .prenom(nomPrenom[1])
+                .email(vide(notice.getAuteurEmail()) ? null : notice.getAuteurEmail().trim())
+                .build();
+        LivreDTO livre = LivreDTO.builder()
+                .titre(nettoyer(notice.getTitre()))
+                .isbn(isbn != null ? isbn : nettoyer(notice.getIsbn()))
+                .anneePublication(annee(notice.getAnnee()))
+                .nombreExemplaires(0)
+                .build();
+        resultat.setLivre(livre);
+        resultat.setAuteur(auteur);
+
+        List<String> erreurs = new ArrayList<>();
+        if (notice.getIsbn() != null && isbn == null) {
+            erreurs.add("isbn : ISBN absent ou clé de contrôle invalide (" + notice.getIsbn() + ")");
+        }
+        erreurs.addAll(violations(validator.validate(livre), "auteurId"));
+        erreurs.addAll(violations(validator.validate(auteur), null).stream()
+                .map(erreur -> "auteur." + erreur)
+                .toList());
+        if (!erreurs.isEmpty()) {
+            resultat.setErreur(erreurs.stream().sorted().collect(Collectors.joining(", ")));
+            return resultat;
+        }
+
+        resultat.setCleAuteur(cleAuteur(auteur));
+        return resultat;
+    }
+
+    private CompletableFuture<List<NoticeValidee>> valider(List<NoticeBrute> lot) {
+        return CompletableFuture.supplyAsync(
+                () -> lot.parallelStream().map(this::normaliser).toList(), pool);
+    }
+
+    private List<NoticeValidee> attendre(CompletableFuture<List<NoticeValidee>> lot) {
+        if (lot == null) {
+            return List.of();
+        }
+        try {
+            return lot.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Crée les auteurs manquants puis les livres d'un lot, dans une transaction
+     */
+    private void persister(List<NoticeValidee> lot, ImportNoticesResultatDTO resultat,
+                           Map<String, Long> auteursConnus) {
+        if (lot.isEmpty()) {
+            return;
+        }
+        resultat.setTotal(resultat.getTotal() + lot.size());
+
+        List<NoticeValidee> valides = new ArrayList<>();
+        for (NoticeValidee notice : lot) {
+            if (notice.getErreur() != null) {
+                rejeter(resultat, ImportLigneDTO.builder()
+                        .index(notice.getPosition())
+                        .isbn(notice.getLivre().getIsbn())
+                        .statut(ImportLigneDTO.Statut.REJETE)
+                        .message(notice.getErreur())
+                        .build());
+            } else {
+                valides.add(notice);
+            }
+        }
+        if (valides.isEmpty()) {
+            return;
+        }
+
+        // Les auteurs résolus ne rejoignent le cache qu'une fois le lot validé : une tentative
+        // annulée ne doit pas y laisser les identifiants d'auteurs jamais enregistrés
+        Map<String, Long> auteursLot = new HashMap<>();
+        int[] auteursCrees = new int[1];
+        List<ImportLigneDTO> lignes = reessaiOptimiste.executer(() -> {
+            auteursLot.clear();
+            auteursCrees[0] = resoudreAuteurs(valides, auteursConnus, auteursLot);
+
+            List<LivreDTO> livres = new ArrayList<>(valides.size());
+            for (NoticeValidee notice : valides) {
+                LivreDTO livre = notice.getLivre();
+                Long auteurId = auteursLot.get(notice.getCleAuteur());
+                livre.setAuteurId(auteurId != null ? auteurId : auteursConnus.get(notice.getCleAuteur()));
+                livres.add(livre);
+            }
+            return livreImportService.importerLotValide(livres, 0);
+        });
+        auteursConnus.putAll(auteursLot);
+        resultat.setAuteursCrees(resultat.getAuteursCrees() + auteursCrees[0]);
+
+        for (int i = 0; i < lignes.size(); i++) {
+            ImportLigneDTO ligne = lignes.get(i);
+            ligne.setIndex(valides.get(i).getPosition());
+            if (ligne.getStatut() == ImportLigneDTO.Statut.CREE) {
+                resultat.setLivresCrees(resultat.getLivresCrees() + 1);
+            } else {
+                rejeter(resultat, ligne);
+            }
+        }
+    }
+
+    /**
+     * Associe chaque notice à un auteur existant (par email, sinon par nom et prénom)
+     * ou nouvellement créé. Les auteurs absents du cache sont ajoutés à auteursLot.
+     *
+     * @return le nombre d'auteurs créés
+     */
+    private int resoudreAuteurs(List<NoticeValidee> lot, Map<String, Long> auteursConnus,
+                                Map<String, Long> auteursLot) {
+        Map<String, AuteurDTO> inconnus = new LinkedHashMap<>();
+        for (NoticeValidee notice : lot) {
+            if (!auteursConnus.containsKey(notice.getCleAuteur())) {
+                inconnus.putIfAbsent(notice.getCleAuteur(), notice.getAuteur());
+            }
+        }
+        if (inconnus.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> emails = inconnus.values().stream()
+                .map(AuteurDTO::getEmail)
+                .filter(email -> email != null)
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .filter(email -> !filtresBloomService.emailCertainementAbsent(email))
+                .collect(Collectors.toSet());
+        Set<String> noms = inconnus.values().stream()
+                .filter(auteur -> auteur.getEmail() == null)
+                .map(auteur -> AuteurRepository.sansAccents(auteur.getNom()))
+                .collect(Collectors.toSet());
+
+        List<Auteur> existants = new ArrayList<>();
+        if (!emails.isEmpty()) {
+            existants.addAll(auteurRepository.findByEmailMinusculeIn(emails));
+        }
+        if (!noms.isEmpty()) {
+            existants.addAll(auteurRepository.findByNomSansAccentsIn(noms));
+        }
+        for (Auteur auteur : existants) {
+            if (auteur.getEmail() != null) {
+                auteursLot.put(cleEmail(auteur.getEmail()), auteur.getId());
+            }
+            auteursLot.put(cleNom(auteur.getNom(), auteur.getPrenom()), auteur.getId());
+        }
+
+        List<Auteur> aCreer = new ArrayList<>();
+        List<String> cles = new ArrayList<>();
+        inconnus.forEach((cle, auteur) -> {
+            if (!auteursLot.containsKey(cle)) {
+                aCreer.add(auteurMapper.toEntity(auteur));
+                cles.add(cle);
+            }
+        });
+        auteurRepository.saveAll(aCreer);
+        for (int i = 0; i < aCreer.size(); i++) {
+            Auteur auteur = aCreer.get(i);
+            auteursLot.put(cles.get(i), auteur.getId());
+            eventPublisher.publishEvent(
+                    CatalogueEvent.auteur(CatalogueEvent.Operation.CREATION, auteurMapper.toDTO(auteur)));
+        }
+        return aCreer.size();
+    }
+
+    private void rejeter(ImportNoticesResultatDTO resultat, ImportLigneDTO ligne) {
+        resultat.setRejetes(resultat.getRejetes() + 1);
+        if (resultat.getRejets().size() < rejetsMax) {
+            resultat.getRejets().add(ligne);
+        }
+    }
+
+    private String normaliserIsbn(String brut) {
+        if (vide(brut)) {
+            return null;
+        }
+        Matcher matcher = ISBN.matcher(brut.replace("-", "").replace(" ", ""));
+        if (!matcher.find()) {
+            return null;
+        }
+        String isbn = matcher.group(1).toUpperCase(Locale.ROOT);
+        if (isbn.length() == 10) {
+            if (!cleIsbn10Valide(isbn)) {
+                return null;
+            }
+            String base = "978" + isbn.substring(0, 9);
+            return base + cleIsbn13(base);
+        }
+        return cleIsbn13(isbn.substring(0, 12)) == isbn.charAt(12) - '0' ? isbn : null;
+    }
+
+    private boolean cleIsbn10Valide(String isbn) {
+        int somme = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = isbn.charAt(i);
+            int valeur = c == 'X' ? 10 : c - '0';
+            if (valeur == 10 && i != 9) {
+                return false;
+            }
+            somme += valeur * (10 - i);
+        }
+        return somme % 11 == 0;
+    }
+
+    private int cleIsbn13(String douzeChiffres) {
+        int somme = 0;
+        for (int i = 0; i < 12; i++) {
+            somme += (douzeChiffres.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (10 - somme % 10) % 10;
+    }
+
+    private Integer annee(String texte) {
+        if (vide(texte)) {
+            return null;
+        }
+        Matcher matcher = ANNEE.matcher(texte);
+        return matcher.find() ? Integer.valueOf(matcher.group()) : null;
+    }
+
+    /**
+     * Nom et prénom de l'auteur, à partir des champs séparés ou d'une forme inversée ("Hugo, Victor")
+     * ou directe ("Victor Hugo")
+     */
+    private String[] nomPrenom(NoticeBrute notice) {
+        if (!vide(notice.getAuteurNom())) {
+            return new String[]{nettoyer(notice.getAuteurNom()), nettoyer(notice.getAuteurPrenom())};
+        }
+        if (vide(notice.getAuteur())) {
+            return new String[]{null, null};
+        }
+
+        String auteur = notice.getAuteur().trim();
+        int virgule = auteur.indexOf(',');
+        if (virgule >= 0) {
+            String prenom = DATES_AUTEUR.matcher(auteur.substring(virgule + 1)).replaceFirst("");
+            return new String[]{nettoyer(auteur.substring(0, virgule)), nettoyer(prenom)};
+        }
+        int espace = auteur.lastIndexOf(' ');
+        if (espace < 0) {
+            return new String[]{nettoyer(auteur), null};
+        }
+        return new String[]{nettoyer(auteur.substring(espace + 1)), nettoyer(auteur.substring(0, espace))};
+    }
+
+    private String cleAuteur(AuteurDTO auteur) {
+        return auteur.getEmail() != null
+                ? cleEmail(auteur.getEmail())
+                : cleNom(auteur.getNom(), auteur.getPrenom());
+    }
+
+    private String cleEmail(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private String cleNom(String nom, String prenom) {
+        // Même transformation que la recherche des auteurs existants en base
+        return "nom:" + AuteurRepository.sansAccents(nom) + "|" + AuteurRepository.sansAccents(prenom);
+    }
+
+    private String nettoyer(String texte) {
+        if (vide(texte)) {
+            return null;
+        }
+        String resultat = PONCTUATION_FINALE.matcher(texte.trim()).replaceFirst("");
+        return resultat.isEmpty() ? null : resultat;
+    }
+
+    private boolean vide(String texte) {
+        return texte == null || texte.isBlank();
+    }
+
+    private <T> List<String> violations(Set<ConstraintViolation<T>> violations, String ignore) {
+        return violations.stream()
+                .filter(violation -> !violation.getPropertyPath().toString().equals(ignore))
+                .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+                .toList();
+    }
+}
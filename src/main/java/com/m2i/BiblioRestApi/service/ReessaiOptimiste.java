@@ -0,0 +1,82 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.exception.Contraintes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Réessai des écritures internes (ajustements de stock, lots d'import) en cas de conflit.
+ *
+ * Chaque tentative s'exécute dans sa propre transaction et relit donc l'état courant.
+ * Une violation d'unicité (ISBN, email) est aussi réessayée : les imports contrôlent
+ * l'unicité avant d'insérer, et une écriture concurrente validée entre les deux fait échouer
+ * le lot ; la tentative suivante la voit au contrôle et rejette le seul élément en double.
+ * Entre deux tentatives, l'attente est tirée au hasard entre 0 et un plafond qui double à
+ * chaque échec, pour que les écrivains concurrents ne se retrouvent pas en phase.
+ * Les écritures des clients ne passent pas par ici : un conflit leur est renvoyé en 409.
+ */
+@Component
+public class ReessaiOptimiste {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${bibliotheque.reessai.tentatives-max:5}")
+    private int tentativesMax;
+
+    @Value("${bibliotheque.reessai.delai-base-ms:10}")
+    private long delaiBaseMs;
+
+    @Value("${bibliotheque.reessai.delai-max-ms:200}")
+    private long delaiMaxMs;
+
+    /**
+     * Exécute une écriture dans une transaction, en la réessayant après un conflit de verrouillage.
+     * Appelée dans une transaction déjà ouverte, l'écriture y participe sans réessai : seul
+     * l'appelant peut recommencer la transaction entière.
+     */
+    public <T> T executer(Supplier<T> ecriture) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return ecriture.get();
+        }
+
+        for (int tentative = 1; ; tentative++) {
+            try {
+                return transactionTemplate.execute(status -> ecriture.get());
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                if (tentative >= tentativesMax) {
+                    throw e;
+                }
+                attendre(tentative);
+            } catch (DataIntegrityViolationException e) {
+                if (tentative >= tentativesMax || !violationUnicite(e)) {
+                    throw e;
+                }
+                attendre(tentative);
+            }
+        }
+    }
+
+    private static boolean violationUnicite(DataIntegrityViolationException e) {
+        return Contraintes.concerne(e, Contraintes.LIVRES_ISBN) || Contraintes.concerne(e, Contraintes.AUTEURS_EMAIL);
+    }
+
+    private void attendre(int tentative) {
+        long plafond = Math.min(delaiMaxMs, delaiBaseMs << Math.min(tentative - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(plafond + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Réessai interrompu", e);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.ReservationDTO;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.exception.Contraintes;
+import com.m2i.BiblioRestApi.exception.DuplicateResourceException;
+import com.m2i.BiblioRestApi.exception.ResourceNotFoundException;
+import com.m2i.BiblioRestApi.mapper.ReservationMapper;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.Reservation;
+import com.m2i.BiblioRestApi.model.StatutReservation;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gestion des listes d'attente sur les livres en rupture de stock.
+ *
+ * Les réservations sont persistées en base ; un index en mémoire maintient pour chaque
+ * livre un tas binaire des réservations en attente, ce qui rend l'inscription et la
+ * promotion du prochain lecteur en O(log n). L'index est reconstruit au démarrage.
+ * Inscriptions et promotions y sont faites sous le verrou (base) du livre, et défaites si
+ * leur transaction est annulée ; annulations et suppressions n'y sont reportées qu'après le commit.
+ */
+@Service
+@Transactional
+public class ReservationService {
+
+    private static final Comparator<EntreeFile> ORDRE_FILE = Comparator
+            .comparingLong(EntreeFile::priorite)
+            .thenComparingLong(EntreeFile::reservationId);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    // Avance accordée aux administrateurs dans la file (0 = ordre d'arrivée strict)
+    @Value("${bibliotheque.reservations.avance-admin-minutes:0}")
+    private long avanceAdminMinutes;
+
+    private final Map<Long, PriorityQueue<EntreeFile>> files = new ConcurrentHashMap<>();
+
+    record EntreeFile(long reservationId, long priorite) {
+    }
+
+    /**
+     * Reconstruit l'index des files d'attente à partir des réservations persistées
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reconstruireIndex() {
+        files.clear();
+        for (Reservation reservation : reservationRepository.findByStatut(StatutReservation.EN_ATTENTE)) {
+            PriorityQueue<EntreeFile> file = fileDe(reservation.getLivre().getId());
+            synchronized (file) {
+                file.add(entreeDe(reservation));
+            }
+        }
+    }
+
+    /**
+     * Inscrit un utilisateur sur la liste d'attente d'un livre épuisé.
+     * Le livre est verrouillé jusqu'au commit : une modification concurrente du stock attend
+     * l'inscription, puis la trouve dans la file (voir attribuerExemplaires).
+     */
+    public ReservationDTO creerReservation(Long livreId, String username, boolean admin) {
+        Livre livre = livreRepository.findVerrouilleById(livreId)
+                .orElseThrow(() -> new ResourceNotFoundException("Livre", "id", livreId));
+
+        if (exemplairesDisponibles(livre) > 0) {
+            throw new BusinessException(
+                    "Le livre est disponible (" + livre.getNombreExemplaires() +
+                            " exemplaire(s)), aucune réservation n'est nécessaire.");
+        }
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        long priorite = maintenant.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (admin) {
+            priorite -= avanceAdminMinutes * 60_000L;
+        }
+
+        Reservation reservation = Reservation.builder()
+                .livre(livre)
+                .username(username)
+                .dateDemande(maintenant)
+                .priorite(priorite)
+                .statut(StatutReservation.EN_ATTENTE)
+                .build();
+        // Pas de lecture préalable : une seule réservation en attente par lecteur et par livre,
+        // garantie par la contrainte uk_reservations_attente
+        Reservation savedReservation;
+        try {
+            savedReservation = reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            if (Contraintes.concerne(e, Contraintes.RESERVATIONS_ATTENTE)) {
+                throw new DuplicateResourceException("Réservation", "livre", livreId);
+            }
+            throw e;
+        }
+
+        // Entrée ajoutée avant le commit, tant que le livre est verrouillé : celui qui attend le
+        // verrou pour changer le stock la verra ; retirée si la transaction est annulée
+        EntreeFile entree = entreeDe(savedReservation);
+        PriorityQueue<EntreeFile> file = fileDe(livreId);
+        synchronized (file) {
+            file.add(entree);
+        }
+        siAnnulation(() -> {
+            synchronized (file) {
+                file.remove(entree);
+            }
+        });
+
+        ReservationDTO dto = reservationMapper.toDTO(savedReservation);
+        dto.setPosition(positionDans(livreId, entree));
+        return dto;
+    }
+
+    /**
+     * Récupère l'état d'une réservation et, si elle est en attente, son rang dans la file
+     */
+    @Transactional(readOnly = true)
+    public ReservationDTO getReservation(Long id) {
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Réservation", "id", id));
+
+        ReservationDTO dto = reservationMapper.toDTO(reservation);
+        if (reservation.getStatut() == StatutReservation.EN_ATTENTE) {
+            dto.setPosition(positionDans(reservation.getLivre().getId(), entreeDe(reservation)));
+        }
+        return dto;
+    }
+
+    /**
+     * Annule une réservation en attente (par son titulaire ou un administrateur)
+     */
+    public ReservationDTO annulerReservation(Long id, String username, boolean admin) {
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Réservation", "id", id));
+
+        if (!admin && !reservation.getUsername().equals(username)) {
+            throw new BusinessException("Seul le titulaire de la réservation peut l'annuler.");
+        }
+        if (reservation.getStatut() != StatutReservation.EN_ATTENTE) {
+            throw new BusinessException("Seule une réservation en attente peut être annulée.");
+        }
+
+        reservation.setStatut(StatutReservation.ANNULEE);
+        Reservation savedReservation = reservationRepository.save(reservation);
+
+        Long livreId = reservation.getLivre().getId();
+        EntreeFile entree = entreeDe(reservation);
+        apresCommit(() -> {
+            PriorityQueue<EntreeFile> file = files.get(livreId);
+            if (file != null) {
+                synchronized (file) {
+                    file.remove(entree);
+                }
+            }
+        });
+
+        return reservationMapper.toDTO(savedReservation);
+    }
+
+    /**
+     * Attribue les exemplaires disponibles d'un livre aux premiers de sa liste d'attente.
+     * Chaque réservation promue consomme un exemplaire du stock. Le livre est d'abord
+     * verrouillé : une inscription en cours est validée, et dans la file, avant la lecture.
+     *
+     * @return le nombre de réservations promues
+     */
+    public int attribuerExemplaires(Livre livre) {
+        livreRepository.verrouiller(livre);
+        PriorityQueue<EntreeFile> file = files.get(livre.getId());
+        if (file == null) {
+            return 0;
+        }
+
+        List<EntreeFile> promues = new ArrayList<>();
+        LocalDateTime maintenant = LocalDateTime.now();
+        synchronized (file) {
+            while (exemplairesDisponibles(livre) > 0 && !file.isEmpty()) {
+                EntreeFile entree = file.poll();
+                Reservation reservation = reservationRepository.findById(entree.reservationId())
+                        .orElse(null);
+                if (reservation == null || reservation.getStatut() != StatutReservation.EN_ATTENTE) {
+                    continue;
+                }
+                reservation.setStatut(StatutReservation.PROMUE);
+                reservation.setDatePromotion(maintenant);
+                livre.setNombreExemplaires(livre.getNombreExemplaires() - 1);
+                promues.add(entree);
+            }
+        }
+
+        // Les entrées retirées du tas y reviennent si la transaction est annulée
+        if (!promues.isEmpty()) {
+            siAnnulation(() -> {
+                synchronized (file) {
+                    file.addAll(promues);
+                }
+            });
+        }
+        return promues.size();
+    }
+
+    /**
+     * Supprime les réservations d'un livre (avant la suppression du livre)
+     */
+    public void supprimerReservations(Long livreId) {
+        reservationRepository.deleteByLivreId(livreId);
+        apresCommit(() -> files.remove(livreId));
+    }
+
+    /**
+     * Nombre de réservations en attente pour un livre
+     */
+    public int tailleFile(Long livreId) {
+        PriorityQueue<EntreeFile> file = files.get(livreId);
+        if (file == null) {
+            return 0;
+        }
+        synchronized (file) {
+            return file.size();
+        }
+    }
+
+    private int positionDans(Long livreId, EntreeFile entree) {
+        PriorityQueue<EntreeFile> file = files.get(livreId);
+        if (file == null) {
+            return 1;
+        }
+        synchronized (file) {
+            return 1 + (int) file.stream()
+                    .filter(autre -> ORDRE_FILE.compare(autre, entree) < 0)
+                    .count();
+        }
+    }
+
+    private int exemplairesDisponibles(Livre livre) {
+        return livre.getNombreExemplaires() != null ? livre.getNombreExemplaires() : 0;
+    }
+
+    private PriorityQueue<EntreeFile> fileDe(Long livreId) {
+        return files.computeIfAbsent(livreId, id -> new PriorityQueue<>(ORDRE_FILE));
+    }
+
+    private EntreeFile entreeDe(Reservation reservation) {
+        return new EntreeFile(reservation.getId(), reservation.getPriorite());
+    }
+
+    private void apresCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void siAnnulation(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
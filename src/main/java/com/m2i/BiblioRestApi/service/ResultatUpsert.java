@@ -0,0 +1,13 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.ImportLigneDTO;
+
+/**
+ * Ressource renvoyée par un upsert, avec l'opération effectuée (CREE, MODIFIE ou INCHANGE)
+ */
+public record ResultatUpsert<T>(ImportLigneDTO.Statut statut, T donnees) {
+
+    public boolean cree() {
+        return statut == ImportLigneDTO.Statut.CREE;
+    }
+}
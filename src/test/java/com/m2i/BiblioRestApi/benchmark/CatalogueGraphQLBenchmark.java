@@ -0,0 +1,180 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.User;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Page de livres avec le nom et le nombre de livres de leur auteur : appels REST unitaires
+ * (GET /api/livres/{id} puis GET /api/auteurs/{id} par livre) contre une requête GraphQL
+ * (hors exécution normale des tests).
+ *
+ * Lancement : mvn test -Dtest=CatalogueGraphQLBenchmark -Dbenchmark.pages=50
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.com.m2i.BiblioRestApi=INFO"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Benchmark - GraphQL contre appels REST")
+class CatalogueGraphQLBenchmark {
+
+    private static final int TAILLE_PAGE = 20;
+
+    private static final String REQUETE =
+            "query($page: Int) { livres(page: $page, taille: " + TAILLE_PAGE + ") "
+                    + "{ id titre isbn auteur { nom prenom nombreLivres } } }";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void comparerRestEtGraphQL() throws Exception {
+        int pages = Integer.getInteger("benchmark.pages", 50);
+        String jeton = preparer(pages * TAILLE_PAGE);
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<List<Long>> idsParPage = new ArrayList<>();
+        List<Long> ids = livreRepository.findAll().stream().map(Livre::getId).sorted().toList();
+        for (int page = 0; page < pages; page++) {
+            idsParPage.add(ids.subList(page * TAILLE_PAGE, (page + 1) * TAILLE_PAGE));
+        }
+
+        // Échauffement hors mesure
+        for (int page = 0; page < Math.min(5, pages); page++) {
+            pageRest(idsParPage.get(page), jeton);
+            pageGraphQL(page, jeton);
+        }
+
+        statistiques.clear();
+        long debut = System.nanoTime();
+        for (int page = 0; page < pages; page++) {
+            pageRest(idsParPage.get(page), jeton);
+        }
+        afficher("REST", pages, 2 * TAILLE_PAGE, statistiques, System.nanoTime() - debut);
+
+        statistiques.clear();
+        debut = System.nanoTime();
+        for (int page = 0; page < pages; page++) {
+            pageGraphQL(page, jeton);
+        }
+        afficher("GraphQL", pages, 1, statistiques, System.nanoTime() - debut);
+    }
+
+    private void pageRest(List<Long> ids, String jeton) throws Exception {
+        for (Long id : ids) {
+            MvcResult livre = mockMvc.perform(get("/api/livres/" + id)
+                    .header("Authorization", "Bearer " + jeton)).andReturn();
+            Number auteurId = JsonPath.read(livre.getResponse().getContentAsString(), "$.auteurId");
+            mockMvc.perform(get("/api/auteurs/" + auteurId)
+                    .header("Authorization", "Bearer " + jeton)).andReturn();
+        }
+    }
+
+    private void pageGraphQL(int page, String jeton) throws Exception {
+        String corps = objectMapper.writeValueAsString(Map.of("query", REQUETE, "variables", Map.of("page", page)));
+        MvcResult resultat = mockMvc.perform(post("/api/graphql")
+                .header("Authorization", "Bearer " + jeton)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corps)).andReturn();
+        assertThat(resultat.getResponse().getContentAsString()).doesNotContain("\"errors\"");
+    }
+
+    private String preparer(int nombreLivres) {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("benchmark");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole("USER");
+        userRepository.save(user);
+
+        // Chaque page de livres porte sur TAILLE_PAGE auteurs distincts
+        List<Auteur> auteurs = new ArrayList<>();
+        for (int i = 0; i < TAILLE_PAGE * 5; i++) {
+            auteurs.add(Auteur.builder()
+                    .nom("Nom" + i)
+                    .prenom("Prenom" + i)
+                    .email("graphql" + i + "@example.com")
+                    .build());
+        }
+        auteurRepository.saveAll(auteurs);
+
+        List<Livre> livres = new ArrayList<>();
+        for (int i = 0; i < nombreLivres; i++) {
+            livres.add(Livre.builder()
+                    .titre("Livre " + i)
+                    .isbn("9780" + String.format("%09d", i))
+                    .anneePublication(2000)
+                    .nombreExemplaires(1)
+                    .auteur(auteurs.get(i % auteurs.size()))
+                    .build());
+        }
+        livreRepository.saveAll(livres);
+        return jwtService.generateToken("benchmark", "USER");
+    }
+
+    private static void afficher(String nom, int pages, int requetesParPage, Statistics statistiques, long dureeNanos) {
+        System.out.printf("BENCHMARK page de %d livres %s : %d pages, %d requêtes HTTP/page, "
+                        + "%.1f requêtes SQL/page, %.2f ms/page%n",
+                TAILLE_PAGE, nom, pages, requetesParPage,
+                (double) statistiques.getPrepareStatementCount() / pages,
+                dureeNanos / 1_000_000.0 / pages);
+    }
+}
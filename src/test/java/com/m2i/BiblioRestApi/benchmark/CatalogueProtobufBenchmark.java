@@ -0,0 +1,147 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.User;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.JwtService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Lecture du catalogue complet (GET /api/livres) en JSON contre protobuf
+ * (hors exécution normale des tests). Sans en-tête Accept, le JSON est sérialisé à chaque
+ * requête : l'instantané servi avec Accept: application/json n'est pas mesuré ici.
+ *
+ * Lancement : mvn test -Dtest=CatalogueProtobufBenchmark -Dbenchmark.livres=10000
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.com.m2i.BiblioRestApi=INFO"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Benchmark - catalogue complet en JSON contre protobuf")
+class CatalogueProtobufBenchmark {
+
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void comparerJsonEtProtobuf() throws Exception {
+        int nombreLivres = Integer.getInteger("benchmark.livres", 10_000);
+        String jeton = preparer(nombreLivres);
+
+        // Échauffement hors mesure
+        for (int i = 0; i < 5; i++) {
+            lireJson(jeton);
+            lireProtobuf(jeton);
+        }
+
+        int taille = 0;
+        long debut = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            taille = lireJson(jeton);
+        }
+        afficher("JSON", nombreLivres, taille, System.nanoTime() - debut);
+
+        debut = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            taille = lireProtobuf(jeton);
+        }
+        afficher("protobuf", nombreLivres, taille, System.nanoTime() - debut);
+    }
+
+    private int lireJson(String jeton) throws Exception {
+        MvcResult resultat = mockMvc.perform(get("/api/livres")
+                .header("Authorization", "Bearer " + jeton)).andReturn();
+        assertThat(resultat.getResponse().getStatus()).isEqualTo(200);
+        return resultat.getResponse().getContentAsByteArray().length;
+    }
+
+    private int lireProtobuf(String jeton) throws Exception {
+        MvcResult demarre = mockMvc.perform(get("/api/livres")
+                .header("Authorization", "Bearer " + jeton)
+                .accept("application/x-protobuf")).andReturn();
+        MvcResult resultat = mockMvc.perform(asyncDispatch(demarre)).andReturn();
+        assertThat(resultat.getResponse().getStatus()).isEqualTo(200);
+        return resultat.getResponse().getContentAsByteArray().length;
+    }
+
+    private String preparer(int nombreLivres) {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("benchmark");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole("USER");
+        userRepository.save(user);
+
+        List<Auteur> auteurs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            auteurs.add(Auteur.builder()
+                    .nom("Nom" + i)
+                    .prenom("Prenom" + i)
+                    .email("protobuf" + i + "@example.com")
+                    .build());
+        }
+        auteurRepository.saveAll(auteurs);
+
+        List<Livre> livres = new ArrayList<>();
+        for (int i = 0; i < nombreLivres; i++) {
+            livres.add(Livre.builder()
+                    .titre("Livre " + i)
+                    .isbn("9780" + String.format("%09d", i))
+                    .anneePublication(1900 + i % 120)
+                    .nombreExemplaires(i % 7)
+                    .auteur(auteurs.get(i % auteurs.size()))
+                    .build());
+        }
+        livreRepository.saveAll(livres);
+        return jwtService.generateToken("benchmark", "USER");
+    }
+
+    private static void afficher(String format, int nombreLivres, int taille, long dureeNanos) {
+        double ms = dureeNanos / 1_000_000.0 / ITERATIONS;
+        System.out.printf("BENCHMARK catalogue de %d livres %s : %d octets, %.2f ms/lecture, %.0f livres/s%n",
+                nombreLivres, format, taille, ms, nombreLivres / (ms / 1000));
+    }
+}
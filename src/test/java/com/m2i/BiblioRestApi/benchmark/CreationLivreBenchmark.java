@@ -0,0 +1,119 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.mapper.LivreMapper;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.service.LivreService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Création unitaire d'un livre : vérifications préalables (existsByIsbn + findById + INSERT)
+ * contre INSERT appuyé sur les contraintes (hors exécution normale des tests).
+ *
+ * Lancement : mvn test -Dtest=CreationLivreBenchmark -Dbenchmark.livres=5000
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.com.m2i.BiblioRestApi=INFO"
+})
+@ActiveProfiles("test")
+@DisplayName("Benchmark - Création de livres")
+class CreationLivreBenchmark {
+
+    @Autowired
+    private LivreService livreService;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreMapper livreMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void creerLivres() {
+        int nombre = Integer.getInteger("benchmark.livres", 5_000);
+        Auteur auteur = auteurRepository.save(Auteur.builder()
+                .nom("Benchmark")
+                .prenom("Auteur")
+                .email("creation@example.com")
+                .build());
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Chemin précédent, reconstitué avec les mêmes dépôts
+        mesurer("verifications prealables", nombre, statistiques, i ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    LivreDTO dto = livre(i, "9780", auteur.getId());
+                    assertThat(livreRepository.existsByIsbn(dto.getIsbn())).isFalse();
+                    Auteur trouve = auteurRepository.findById(dto.getAuteurId()).orElseThrow();
+                    livreMapper.toDTO(livreRepository.saveAndFlush(livreMapper.toEntity(dto, trouve)));
+                }));
+
+        // Même travail, l'INSERT seul vérifiant l'ISBN et l'auteur
+        mesurer("contraintes", nombre, statistiques, i ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    LivreDTO dto = livre(i, "9790", auteur.getId());
+                    Auteur reference = auteurRepository.getReferenceById(dto.getAuteurId());
+                    livreMapper.toDTO(livreRepository.saveAndFlush(livreMapper.toEntity(dto, reference)));
+                }));
+
+        // Chemin complet du service, journal des changements compris
+        mesurer("LivreService.createLivre", nombre, statistiques, i ->
+                livreService.createLivre(livre(i, "9781", auteur.getId())));
+    }
+
+    private void mesurer(String nom, int nombre, Statistics statistiques, IntConsumer creation) {
+        // Échauffement hors mesure
+        for (int i = 0; i < Math.min(500, nombre); i++) {
+            creation.accept(-1 - i);
+        }
+
+        statistiques.clear();
+        long debut = System.nanoTime();
+        for (int i = 0; i < nombre; i++) {
+            creation.accept(i);
+        }
+        long dureeNanos = System.nanoTime() - debut;
+
+        System.out.printf("BENCHMARK creation %s : %d livres, %.2f requêtes/livre, %.1f µs/livre%n",
+                nom, nombre, (double) statistiques.getPrepareStatementCount() / nombre,
+                dureeNanos / 1_000.0 / nombre);
+    }
+
+    private static LivreDTO livre(int i, String prefixe, Long auteurId) {
+        return LivreDTO.builder()
+                .titre("Livre " + i)
+                .isbn(prefixe + String.format("%09d", i < 0 ? 900_000_000L - i : i))
+                .anneePublication(2000)
+                .nombreExemplaires(1)
+                .auteurId(auteurId)
+                .build();
+    }
+}
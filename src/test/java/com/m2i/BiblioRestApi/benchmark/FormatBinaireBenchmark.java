@@ -0,0 +1,100 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Taille et temps d'encodage/décodage d'une liste de livres en JSON, CBOR et Smile,
+ * avec les mappers configurés de l'application (hors exécution normale des tests).
+ *
+ * Lancement : mvn test -Dtest=FormatBinaireBenchmark -Dbenchmark.livres=10000
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.m2i.BiblioRestApi=INFO"
+})
+@ActiveProfiles("test")
+@DisplayName("Benchmark - JSON contre CBOR et Smile")
+class FormatBinaireBenchmark {
+
+    private static final int ITERATIONS = 20;
+
+    private static final TypeReference<List<LivreDTO>> LISTE_LIVRES = new TypeReference<>() {
+    };
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void comparerFormats() throws Exception {
+        List<LivreDTO> livres = livres(Integer.getInteger("benchmark.livres", 10_000));
+
+        mesurer("JSON", objectMapper, livres);
+        mesurer("CBOR", cborConverter.getObjectMapper(), livres);
+        mesurer("Smile", smileConverter.getObjectMapper(), livres);
+    }
+
+    private static void mesurer(String format, ObjectMapper mapper, List<LivreDTO> livres) throws Exception {
+        // Échauffement hors mesure
+        byte[] octets = null;
+        for (int i = 0; i < 5; i++) {
+            octets = mapper.writeValueAsBytes(livres);
+            mapper.readValue(octets, LISTE_LIVRES);
+        }
+
+        long debut = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            octets = mapper.writeValueAsBytes(livres);
+        }
+        long encodage = System.nanoTime() - debut;
+
+        List<LivreDTO> relus = null;
+        debut = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            relus = mapper.readValue(octets, LISTE_LIVRES);
+        }
+        long decodage = System.nanoTime() - debut;
+
+        assertThat(relus).hasSize(livres.size());
+        System.out.printf("BENCHMARK %d livres %s : %d octets, encodage %.2f ms, décodage %.2f ms%n",
+                livres.size(), format, octets.length,
+                encodage / 1_000_000.0 / ITERATIONS, decodage / 1_000_000.0 / ITERATIONS);
+    }
+
+    private static List<LivreDTO> livres(int nombre) {
+        List<LivreDTO> livres = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            livres.add(LivreDTO.builder()
+                    .id((long) i + 1)
+                    .titre("Livre " + i)
+                    .isbn("9780" + String.format("%09d", i))
+                    .anneePublication(1900 + i % 120)
+                    .nombreExemplaires(i % 7)
+                    .auteurId((long) i % 500 + 1)
+                    .nomCompletAuteur("Prenom" + i % 500 + " Nom" + i % 500)
+                    .version(0L)
+                    .build());
+        }
+        return livres;
+    }
+}
@@ -0,0 +1,126 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.m2i.BiblioRestApi.service.IndexLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Empreinte mémoire et temps de recherche d'un index ISBN → ID : IndexLong (deux long par
+ * case, sans objet par entrée) contre HashMap&lt;String, Long&gt; (hors exécution normale des tests).
+ *
+ * L'empreinte est mesurée sur le tas après ramasse-miettes, avec les objets retenus par la
+ * structure : nœuds, String et leur byte[], Long. À lancer seul, avec un tas assez grand.
+ *
+ * Lancement : mvn test -Dtest=IndexIsbnBenchmark -Dbenchmark.livres=1000000
+ */
+@DisplayName("Benchmark - index ISBN en long contre HashMap<String, Long>")
+class IndexIsbnBenchmark {
+
+    private static final int ITERATIONS = 5;
+
+    // Objets gardés vivants jusqu'à la fin de la mesure d'empreinte
+    private Object retenu;
+
+    @Test
+    void comparerEmpreinteEtRecherche() {
+        int nombreLivres = Integer.getInteger("benchmark.livres", 1_000_000);
+        String[] isbns = new String[nombreLivres];
+        long[] cles = new long[nombreLivres];
+        String[] absents = new String[nombreLivres];
+        long[] clesAbsentes = new long[nombreLivres];
+        for (int i = 0; i < nombreLivres; i++) {
+            // ISBN dispersés, comme un vrai catalogue
+            long cle = 9780000000000L + (i * 7_919L) % 10_000_000_000L;
+            cles[i] = cle;
+            isbns[i] = Long.toString(cle);
+            clesAbsentes[i] = 9790000000000L + i;
+            absents[i] = Long.toString(clesAbsentes[i]);
+        }
+
+        long octetsHashMap = empreinte(() -> {
+            Map<String, Long> index = new HashMap<>();
+            for (int i = 0; i < nombreLivres; i++) {
+                // Copie de la chaîne : l'index retient ses propres ISBN, comme après un chargement
+                index.put(new String(isbns[i]), (long) i + 1);
+            }
+            return index;
+        });
+        long octetsIndexLong = empreinte(() -> {
+            IndexLong index = new IndexLong(16);
+            for (int i = 0; i < nombreLivres; i++) {
+                index.put(cles[i], i + 1);
+            }
+            return index;
+        });
+        System.out.printf("BENCHMARK empreinte pour %d ISBN : HashMap<String, Long> %,d octets (%.1f/entrée), "
+                        + "IndexLong %,d octets (%.1f/entrée)%n", nombreLivres,
+                octetsHashMap, (double) octetsHashMap / nombreLivres,
+                octetsIndexLong, (double) octetsIndexLong / nombreLivres);
+
+        Map<String, Long> hashMap = new HashMap<>();
+        IndexLong indexLong = new IndexLong(16);
+        for (int i = 0; i < nombreLivres; i++) {
+            hashMap.put(isbns[i], (long) i + 1);
+            indexLong.put(cles[i], i + 1);
+        }
+        System.out.printf("BENCHMARK IndexLong : %d entrées, capacité %d, %,d octets comptés%n",
+                indexLong.size(), indexLong.capacite(), indexLong.octets());
+
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            long total = 0;
+            long debut = System.nanoTime();
+            for (String isbn : isbns) {
+                total += hashMap.get(isbn);
+            }
+            long hashMapPresents = System.nanoTime() - debut;
+
+            debut = System.nanoTime();
+            for (String isbn : absents) {
+                total += hashMap.containsKey(isbn) ? 1 : 0;
+            }
+            long hashMapAbsents = System.nanoTime() - debut;
+
+            debut = System.nanoTime();
+            for (long cle : cles) {
+                total -= indexLong.get(cle);
+            }
+            long indexPresents = System.nanoTime() - debut;
+
+            debut = System.nanoTime();
+            for (long cle : clesAbsentes) {
+                total -= indexLong.get(cle) == IndexLong.ABSENT ? 0 : 1;
+            }
+            long indexAbsents = System.nanoTime() - debut;
+
+            assertThat(total).isZero();
+            System.out.printf("BENCHMARK recherche (itération %d) : HashMap %.1f ns présent / %.1f ns absent, "
+                            + "IndexLong %.1f ns présent / %.1f ns absent%n", iteration,
+                    (double) hashMapPresents / nombreLivres, (double) hashMapAbsents / nombreLivres,
+                    (double) indexPresents / nombreLivres, (double) indexAbsents / nombreLivres);
+        }
+    }
+
+    private long empreinte(Supplier<Object> construction) {
+        retenu = null;
+        long avant = tasUtilise();
+        retenu = construction.get();
+        long apres = tasUtilise();
+        long octets = apres - avant;
+        retenu = null;
+        return octets;
+    }
+
+    private static long tasUtilise() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
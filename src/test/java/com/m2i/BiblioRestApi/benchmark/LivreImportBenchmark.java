@@ -0,0 +1,85 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.m2i.BiblioRestApi.dto.ImportResultatDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.service.LivreImportService;
+import com.m2i.BiblioRestApi.service.LivreService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Débit de l'import en masse comparé à des créations unitaires (hors exécution normale des tests).
+ *
+ * Lancement : mvn test -Dtest=LivreImportBenchmark -Dbenchmark.livres=100000
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.m2i.BiblioRestApi=INFO"
+})
+@ActiveProfiles("test")
+@DisplayName("Benchmark - Import en masse")
+class LivreImportBenchmark {
+
+    @Autowired
+    private LivreImportService livreImportService;
+
+    @Autowired
+    private LivreService livreService;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Test
+    void comparerImportEtCreationsUnitaires() {
+        int nombre = Integer.getInteger("benchmark.livres", 100_000);
+        int nombreUnitaires = Math.min(nombre, 10_000);
+        Long auteurId = auteurRepository.save(Auteur.builder()
+                .nom("Benchmark")
+                .prenom("Auteur")
+                .email("import.benchmark@example.com")
+                .build()).getId();
+
+        List<LivreDTO> unitaires = genererLivres(0, nombreUnitaires, auteurId);
+        long debut = System.nanoTime();
+        unitaires.forEach(livreService::createLivre);
+        afficher("créations unitaires", nombreUnitaires, System.nanoTime() - debut);
+
+        List<LivreDTO> enMasse = genererLivres(nombreUnitaires, nombre, auteurId);
+        debut = System.nanoTime();
+        ImportResultatDTO resultat = livreImportService.importerLivres(enMasse);
+        afficher("import en masse", nombre, System.nanoTime() - debut);
+
+        assertThat(resultat.getCrees()).isEqualTo(nombre);
+    }
+
+    private List<LivreDTO> genererLivres(int premier, int nombre, Long auteurId) {
+        List<LivreDTO> livres = new ArrayList<>(nombre);
+        for (int i = premier; i < premier + nombre; i++) {
+            livres.add(LivreDTO.builder()
+                    .titre("Livre " + i)
+                    .isbn(String.format("979%010d", i))
+                    .anneePublication(1900 + i % 200)
+                    .nombreExemplaires(i % 10)
+                    .auteurId(auteurId)
+                    .build());
+        }
+        return livres;
+    }
+
+    private void afficher(String libelle, int nombre, long dureeNanos) {
+        System.out.printf("BENCHMARK %s : %d livres en %d ms, %.0f livres/s%n",
+                libelle, nombre, dureeNanos / 1_000_000, nombre / (dureeNanos / 1e9));
+    }
+}
@@ -0,0 +1,86 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mesure du débit d'insertion des livres (hors exécution normale des tests).
+ *
+ * Lancement : mvn test -Dtest=LivreInsertBenchmark -Dbenchmark.livres=100000
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.m2i.BiblioRestApi=INFO"
+})
+@ActiveProfiles("test")
+@DisplayName("Benchmark - Insertion de livres")
+class LivreInsertBenchmark {
+
+    private static final int TAILLE_LOT = 1000;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void insererLivres() {
+        int nombre = Integer.getInteger("benchmark.livres", 100_000);
+        Auteur auteur = auteurRepository.save(Auteur.builder()
+                .nom("Benchmark")
+                .prenom("Auteur")
+                .email("benchmark@example.com")
+                .build());
+        long avant = livreRepository.count();
+
+        long debut = System.nanoTime();
+        for (int lot = 0; lot < nombre; lot += TAILLE_LOT) {
+            int premier = lot;
+            int dernier = Math.min(lot + TAILLE_LOT, nombre);
+            transactionTemplate.executeWithoutResult(status -> {
+                Auteur reference = entityManager.getReference(Auteur.class, auteur.getId());
+                List<Livre> livres = new ArrayList<>(dernier - premier);
+                for (int i = premier; i < dernier; i++) {
+                    livres.add(Livre.builder()
+                            .titre("Livre " + i)
+                            .isbn(String.format("979%010d", i))
+                            .anneePublication(1900 + i % 200)
+                            .nombreExemplaires(i % 10)
+                            .auteur(reference)
+                            .build());
+                }
+                livreRepository.saveAll(livres);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        long dureeNanos = System.nanoTime() - debut;
+
+        assertThat(livreRepository.count() - avant).isEqualTo(nombre);
+        System.out.printf("BENCHMARK insertion : %d livres en %d ms, %.0f livres/s%n",
+                nombre, dureeNanos / 1_000_000, nombre / (dureeNanos / 1e9));
+    }
+}
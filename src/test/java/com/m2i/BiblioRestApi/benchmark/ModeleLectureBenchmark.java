@@ -0,0 +1,143 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.service.LivreService;
+import com.m2i.BiblioRestApi.service.ModeleLectureService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Débit des lectures d'un livre par ID selon le nombre de threads : modèle de lecture
+ * (référence volatile, sans verrou) contre LivreService (transaction et requête par lecture)
+ * (hors exécution normale des tests).
+ *
+ * Lancement : mvn test -Dtest=ModeleLectureBenchmark -Dbenchmark.livres=10000 -Dbenchmark.duree-ms=2000
+ */
+@SpringBootTest(properties = {
+        "bibliotheque.modele-lecture.actif=true",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.com.m2i.BiblioRestApi=INFO"
+})
+@ActiveProfiles("test")
+@DisplayName("Benchmark - modèle de lecture contre base, selon le nombre de threads")
+class ModeleLectureBenchmark {
+
+    @Autowired
+    private ModeleLectureService modeleLectureService;
+
+    @Autowired
+    private LivreService livreService;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Test
+    void comparerDebitSelonThreads() throws Exception {
+        int nombreLivres = Integer.getInteger("benchmark.livres", 10_000);
+        long dureeMs = Long.getLong("benchmark.duree-ms", 2_000);
+        long[] ids = preparer(nombreLivres);
+        modeleLectureService.charger();
+
+        int coeurs = Runtime.getRuntime().availableProcessors();
+        List<Integer> paliers = new ArrayList<>();
+        for (int threads = 1; threads < coeurs; threads *= 2) {
+            paliers.add(threads);
+        }
+        paliers.add(coeurs);
+
+        // Échauffement hors mesure
+        mesurer(coeurs, dureeMs / 2, ids, id -> modeleLectureService.getLivre(id).orElseThrow());
+        mesurer(coeurs, dureeMs / 2, ids, livreService::getLivreById);
+
+        for (int threads : paliers) {
+            afficher("modèle", threads, mesurer(threads, dureeMs, ids,
+                    id -> modeleLectureService.getLivre(id).orElseThrow()));
+            afficher("base", threads, mesurer(threads, dureeMs, ids, livreService::getLivreById));
+        }
+    }
+
+    private static double mesurer(int threads, long dureeMs, long[] ids, LongConsumer lecture) throws Exception {
+        ExecutorService executeur = Executors.newFixedThreadPool(threads);
+        LongAdder lectures = new LongAdder();
+        CountDownLatch depart = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executeur.execute(() -> {
+                try {
+                    depart.await();
+                    ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+                    long limite = System.nanoTime() + dureeMs * 1_000_000;
+                    long compte = 0;
+                    while (System.nanoTime() < limite) {
+                        lecture.accept(ids[aleatoire.nextInt(ids.length)]);
+                        compte++;
+                    }
+                    lectures.add(compte);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fin.countDown();
+                }
+            });
+        }
+        long debut = System.nanoTime();
+        depart.countDown();
+        fin.await();
+        long duree = System.nanoTime() - debut;
+        executeur.shutdown();
+        return lectures.sum() / (duree / 1_000_000_000.0);
+    }
+
+    private long[] preparer(int nombreLivres) {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+
+        List<Auteur> auteurs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            auteurs.add(Auteur.builder()
+                    .nom("Nom" + i)
+                    .prenom("Prenom" + i)
+                    .email("modele" + i + "@example.com")
+                    .build());
+        }
+        auteurRepository.saveAll(auteurs);
+
+        List<Livre> livres = new ArrayList<>();
+        for (int i = 0; i < nombreLivres; i++) {
+            livres.add(Livre.builder()
+                    .titre("Livre " + i)
+                    .isbn("9780" + String.format("%09d", i))
+                    .anneePublication(1900 + i % 120)
+                    .nombreExemplaires(i % 7)
+                    .auteur(auteurs.get(i % auteurs.size()))
+                    .build());
+        }
+        return livreRepository.saveAll(livres).stream().mapToLong(Livre::getId).toArray();
+    }
+
+    private static void afficher(String source, int threads, double lecturesParSeconde) {
+        System.out.printf("BENCHMARK lecture par ID %s, %d thread(s) : %.0f lectures/s%n",
+                source, threads, lecturesParSeconde);
+    }
+}
@@ -0,0 +1,144 @@
+package com.m2i.BiblioRestApi.benchmark;
+
+import com.m2i.BiblioRestApi.dto.ImportNoticesResultatDTO;
+import com.m2i.BiblioRestApi.importer.LecteurNotices;
+import com.m2i.BiblioRestApi.importer.NoticeBrute;
+import com.m2i.BiblioRestApi.service.NoticeImportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Débit de l'import MARCXML sur un fichier synthétique (hors exécution normale des tests).
+ *
+ * Mesure séparément la lecture StAX seule, la lecture avec normalisation et validation
+ * parallèles, puis l'import complet.
+ *
+ * Lancement : mvn test -Dtest=NoticeImportBenchmark -Dbenchmark.notices=1000000
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.m2i.BiblioRestApi=INFO"
+})
+@ActiveProfiles("test")
+@DisplayName("Benchmark - Import de notices MARCXML")
+class NoticeImportBenchmark {
+
+    private static final int NOMBRE_AUTEURS = 10_000;
+
+    @Autowired
+    private NoticeImportService noticeImportService;
+
+    @TempDir
+    Path dossier;
+
+    @Test
+    void importerFichierSynthetique() throws Exception {
+        int nombre = Integer.getInteger("benchmark.notices", 1_000_000);
+        Path fichier = dossier.resolve("notices.xml");
+        genererMarcXml(fichier, nombre);
+        System.out.printf("BENCHMARK fichier : %d notices, %d Mo%n", nombre, Files.size(fichier) / (1024 * 1024));
+
+        long debut = System.nanoTime();
+        int lues = 0;
+        try (InputStream flux = ouvrir(fichier); LecteurNotices lecteur = LecteurNotices.ouvrir(flux)) {
+            while (lecteur.hasNext()) {
+                lecteur.next();
+                lues++;
+            }
+        }
+        afficher("lecture StAX", lues, System.nanoTime() - debut);
+
+        debut = System.nanoTime();
+        long valides;
+        try (InputStream flux = ouvrir(fichier); LecteurNotices lecteur = LecteurNotices.ouvrir(flux)) {
+            Iterable<NoticeBrute> notices = () -> lecteur;
+            valides = StreamSupport.stream(notices.spliterator(), true)
+                    .map(noticeImportService::normaliser)
+                    .filter(notice -> notice.getErreur() == null)
+                    .count();
+        }
+        afficher("lecture et validation parallèles", lues, System.nanoTime() - debut);
+        assertThat(valides).isEqualTo(nombre);
+
+        debut = System.nanoTime();
+        ImportNoticesResultatDTO resultat;
+        try (InputStream flux = ouvrir(fichier)) {
+            resultat = noticeImportService.importer(flux);
+        }
+        afficher("import complet", nombre, System.nanoTime() - debut);
+
+        assertThat(resultat.getLivresCrees()).isEqualTo(nombre);
+        assertThat(resultat.getAuteursCrees()).isEqualTo(Math.min(nombre, NOMBRE_AUTEURS));
+    }
+
+    private InputStream ouvrir(Path fichier) throws IOException {
+        return new BufferedInputStream(Files.newInputStream(fichier), 64 * 1024);
+    }
+
+    private void genererMarcXml(Path fichier, int nombre) throws IOException, XMLStreamException {
+        try (OutputStream sortie = new BufferedOutputStream(Files.newOutputStream(fichier), 64 * 1024)) {
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(sortie, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("collection");
+            xml.writeDefaultNamespace("http://www.loc.gov/MARC21/slim");
+            for (int i = 0; i < nombre; i++) {
+                int auteur = i % NOMBRE_AUTEURS;
+                xml.writeStartElement("record");
+                zone(xml, "020", "a", isbn(i));
+                zone(xml, "100", "a", "Auteur" + auteur + ", Prénom" + auteur + ", 1900-1980.");
+                zone(xml, "245", "a", "Titre de la notice " + i + " /");
+                zone(xml, "264", "c", "impr. " + (1900 + i % 120));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        }
+    }
+
+    private void zone(XMLStreamWriter xml, String tag, String code, String valeur) throws XMLStreamException {
+        xml.writeStartElement("datafield");
+        xml.writeAttribute("tag", tag);
+        xml.writeAttribute("ind1", " ");
+        xml.writeAttribute("ind2", " ");
+        xml.writeStartElement("subfield");
+        xml.writeAttribute("code", code);
+        xml.writeCharacters(valeur);
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private String isbn(int i) {
+        String base = String.format("979%09d", i);
+        int somme = 0;
+        for (int j = 0; j < 12; j++) {
+            somme += (base.charAt(j) - '0') * (j % 2 == 0 ? 1 : 3);
+        }
+        return base + (10 - somme % 10) % 10;
+    }
+
+    private void afficher(String libelle, long nombre, long dureeNanos) {
+        System.out.printf("BENCHMARK %s : %d notices en %d ms, %.0f notices/s%n",
+                libelle, nombre, dureeNanos / 1_000_000, nombre / (dureeNanos / 1e9));
+    }
+}
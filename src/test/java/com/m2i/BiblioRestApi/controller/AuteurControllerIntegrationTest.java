@@ -21,6 +21,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -103,6 +105,77 @@ class AuteurControllerIntegrationTest {
                 .andExpect(jsonPath("$.email").value("victor.hugo@test.com"));
     }
 
+    @Test
+    @DisplayName("GET /api/auteurs?fields= - Devrait ne renvoyer que les champs demandés")
+    void getAllAuteurs_WithFields_ShouldReturnOnlyRequestedFields() throws Exception {
+        livreRepository.save(Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(1)
+                .auteur(auteur)
+                .build());
+
+        mockMvc.perform(get("/api/auteurs")
+                        .param("fields", "nom,nombreLivres")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].*", hasSize(2)))
+                .andExpect(jsonPath("$[0].nom").value("Hugo"))
+                .andExpect(jsonPath("$[0].nombreLivres").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/auteurs?ids= - Devrait retourner les auteurs demandés avec leur nombre de livres")
+    void getAuteursByIds_ShouldReturnAuthorsAndMissing() throws Exception {
+        livreRepository.save(Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(1)
+                .auteur(auteur)
+                .build());
+
+        mockMvc.perform(get("/api/auteurs")
+                        .param("ids", "999999", auteur.getId().toString())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resultats", hasSize(1)))
+                .andExpect(jsonPath("$.resultats[0].nom").value("Hugo"))
+                .andExpect(jsonPath("$.resultats[0].nombreLivres").value(1))
+                .andExpect(jsonPath("$.manquants", contains(999999)));
+    }
+
+    @Test
+    @DisplayName("GET /api/auteurs/{id}?expand=livres - Devrait inclure les livres de l'auteur")
+    void getAuteurById_WithExpandLivres_ShouldEmbedBooks() throws Exception {
+        Livre livre = Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(1)
+                .build();
+        // Même session que la requête : garder les deux côtés de l'association à jour
+        auteur.addLivre(livre);
+        livreRepository.save(livre);
+
+        mockMvc.perform(get("/api/auteurs/" + auteur.getId())
+                        .param("expand", "livres")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreLivres").value(1))
+                .andExpect(jsonPath("$.livres", hasSize(1)))
+                .andExpect(jsonPath("$.livres[0].titre").value("Les Misérables"))
+                .andExpect(jsonPath("$.livres[0].nomCompletAuteur").value("Victor Hugo"));
+
+        mockMvc.perform(get("/api/auteurs/" + auteur.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreLivres").value(1))
+                .andExpect(jsonPath("$.livres").doesNotExist());
+    }
+
     @Test
     @DisplayName("GET /api/auteurs/{id} - Devrait retourner 404 si auteur n'existe pas")
     void getAuteurById_WhenNotExists_ShouldReturn404() throws Exception {
@@ -187,6 +260,28 @@ class AuteurControllerIntegrationTest {
                 .andExpect(jsonPath("$.email").value("victor.hugo.updated@test.com"));
     }
 
+    @Test
+    @DisplayName("PATCH /api/auteurs/{id} - Devrait ne modifier que les champs fournis")
+    void patchAuteur_ShouldUpdateOnlyProvidedFields() throws Exception {
+        mockMvc.perform(patch("/api/auteurs/" + auteur.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"prenom\": \"Victor Marie\", \"email\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nom").value("Hugo"))
+                .andExpect(jsonPath("$.prenom").value("Victor Marie"))
+                .andExpect(jsonPath("$.email").doesNotExist())
+                .andExpect(jsonPath("$.version").value(auteur.getVersion()));
+
+        // Un champ obligatoire ne peut pas être effacé
+        mockMvc.perform(patch("/api/auteurs/" + auteur.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"nom\": null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.nom").exists());
+    }
+
     @Test
     @DisplayName("DELETE /api/auteurs/{id} - Devrait supprimer un auteur sans livres")
     void deleteAuteur_WithoutBooks_ShouldDeleteAuthor() throws Exception {
@@ -286,4 +381,52 @@ class AuteurControllerIntegrationTest {
                 .andExpect(jsonPath("$.prenom").value("George"))
                 .andExpect(jsonPath("$.email").doesNotExist());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("PUT /api/auteurs/email/{email} - Devrait créer puis mettre à jour l'auteur")
+    void upsertAuteur_ShouldCreateThenUpdate() throws Exception {
+        AuteurDTO zola = AuteurDTO.builder().nom("Zola").prenom("Emile").build();
+
+        mockMvc.perform(put("/api/auteurs/email/emile.zola@test.com")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(zola)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", containsString("/api/auteurs/")))
+                .andExpect(jsonPath("$.email").value("emile.zola@test.com"))
+                .andExpect(jsonPath("$.version").value(0));
+
+        zola.setPrenom("Émile");
+        mockMvc.perform(put("/api/auteurs/email/emile.zola@test.com")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(zola)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prenom").value("Émile"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/auteurs/upsert - Devrait rapporter créations, modifications et rejets")
+    void upsertAuteurs_ShouldReportEachItem() throws Exception {
+        List<AuteurDTO> auteurs = List.of(
+                AuteurDTO.builder().nom("Hugo").prenom("Victor").email("victor.hugo@test.com").build(),
+                AuteurDTO.builder().nom("Hugo").prenom("Victor-Marie").email("victor.hugo@test.com").build(),
+                AuteurDTO.builder().nom("Camus").prenom("Albert").email("albert.camus@test.com").build(),
+                AuteurDTO.builder().nom("Orwell").prenom("George").build());
+
+        mockMvc.perform(post("/api/auteurs/upsert")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(auteurs)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.inchanges").value(1))
+                .andExpect(jsonPath("$.crees").value(1))
+                .andExpect(jsonPath("$.rejetes").value(2))
+                .andExpect(jsonPath("$.lignes[0].statut").value("INCHANGE"))
+                .andExpect(jsonPath("$.lignes[1].message").value(containsString("Email en double")))
+                .andExpect(jsonPath("$.lignes[2].statut").value("CREE"))
+                .andExpect(jsonPath("$.lignes[3].message").value(containsString("email")));
+    }
+}
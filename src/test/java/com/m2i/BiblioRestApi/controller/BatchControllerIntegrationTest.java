@@ -0,0 +1,186 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.User;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pas de @Transactional ici : on vérifie que le lot est validé ou annulé par sa propre transaction.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Tests d'intégration - BatchController")
+class BatchControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String jwtToken;
+    private Auteur auteur;
+
+    @BeforeEach
+    void setUp() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole("USER");
+        userRepository.save(user);
+        jwtToken = jwtService.generateToken("testuser", "USER");
+
+        auteur = auteurRepository.save(Auteur.builder()
+                .nom("Hugo")
+                .prenom("Victor")
+                .email("victor.hugo@test.com")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Devrait exécuter les opérations en résolvant les références")
+    void executer_WithReferences_ShouldApplyAllOperations() throws Exception {
+        String lot = """
+                [
+                  {"methode": "POST", "chemin": "/api/auteurs", "ref": "zola",
+                   "corps": {"nom": "Zola", "prenom": "Émile", "email": "emile.zola@test.com"}},
+                  {"methode": "POST", "chemin": "/api/livres", "ref": "germinal",
+                   "corps": {"titre": "Germinal", "isbn": "9782070413553", "anneePublication": 1885,
+                             "nombreExemplaires": 1, "auteurId": "${zola}"}},
+                  {"methode": "PATCH", "chemin": "/api/livres/${germinal}/exemplaires",
+                   "corps": {"nombreExemplaires": 4}},
+                  {"methode": "PATCH", "chemin": "/api/auteurs/%d", "corps": {"prenom": "V."}}
+                ]
+                """.formatted(auteur.getId());
+
+        mockMvc.perform(post("/api/batch")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lot))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].statut").value(201))
+                .andExpect(jsonPath("$[0].ref").value("zola"))
+                .andExpect(jsonPath("$[1].statut").value(201))
+                .andExpect(jsonPath("$[1].corps.nomCompletAuteur").value("Émile Zola"))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].corps.nombreExemplaires").value(4))
+                .andExpect(jsonPath("$[3].corps.prenom").value("V."));
+
+        Livre germinal = livreRepository.findByIsbn("9782070413553").orElseThrow();
+        assertThat(germinal.getNombreExemplaires()).isEqualTo(4);
+        assertThat(auteurRepository.findByEmail("emile.zola@test.com")).isPresent();
+        assertThat(auteurRepository.findById(auteur.getId()).orElseThrow().getPrenom()).isEqualTo("V.");
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Devrait supprimer un livre puis son auteur")
+    void executer_DeleteLivreThenAuteur_ShouldDeleteBoth() throws Exception {
+        Livre livre = livreRepository.save(Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(1)
+                .auteur(auteur)
+                .build());
+
+        String lot = """
+                [
+                  {"methode": "DELETE", "chemin": "/api/livres/%d"},
+                  {"methode": "DELETE", "chemin": "/api/auteurs/%d"}
+                ]
+                """.formatted(livre.getId(), auteur.getId());
+
+        mockMvc.perform(post("/api/batch")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lot))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].statut", contains(204, 204)));
+
+        assertThat(livreRepository.existsById(livre.getId())).isFalse();
+        assertThat(auteurRepository.existsById(auteur.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Devrait tout annuler si une opération échoue")
+    void executer_WhenOperationFails_ShouldRollbackBatch() throws Exception {
+        String lot = """
+                [
+                  {"methode": "POST", "chemin": "/api/auteurs", "ref": "zola",
+                   "corps": {"nom": "Zola", "prenom": "Émile", "email": "emile.zola@test.com"}},
+                  {"methode": "PUT", "chemin": "/api/livres/999999",
+                   "corps": {"titre": "Germinal", "isbn": "9782070413553", "anneePublication": 1885,
+                             "nombreExemplaires": 1, "auteurId": "${zola}"}}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/batch")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lot))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Opération 1 : Livre non trouvé(e) avec id : '999999'"));
+
+        assertThat(auteurRepository.findByEmail("emile.zola@test.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("POST /api/batch - Devrait retourner 400 pour une référence inconnue")
+    void executer_WithUnknownReference_ShouldReturn400() throws Exception {
+        String lot = """
+                [{"methode": "DELETE", "chemin": "/api/livres/${inconnu}"}]
+                """;
+
+        mockMvc.perform(post("/api/batch")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lot))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Opération 0 : Référence inconnue : ${inconnu}"));
+    }
+}
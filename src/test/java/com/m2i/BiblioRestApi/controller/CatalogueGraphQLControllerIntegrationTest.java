@@ -0,0 +1,177 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.User;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("Tests d'intégration - CatalogueGraphQLController")
+class CatalogueGraphQLControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String jwtToken;
+    private Auteur hugo;
+
+    @BeforeEach
+    void setUp() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole("USER");
+        userRepository.save(user);
+        jwtToken = jwtService.generateToken("testuser", "USER");
+
+        hugo = auteurRepository.save(Auteur.builder()
+                .nom("Hugo")
+                .prenom("Victor")
+                .email("victor.hugo@test.com")
+                .build());
+        Auteur zola = auteurRepository.save(Auteur.builder()
+                .nom("Zola")
+                .prenom("Émile")
+                .email("emile.zola@test.com")
+                .build());
+        livreRepository.save(livre("Les Misérables", "9782070409227", hugo));
+        livreRepository.save(livre("Notre-Dame de Paris", "9782070413554", hugo));
+        livreRepository.save(livre("Germinal", "9782070413553", zola));
+    }
+
+    @Test
+    @DisplayName("livres - Devrait résoudre l'auteur et son nombre de livres pour chaque livre")
+    void livres_WithAuteur_ShouldResolveNestedFields() throws Exception {
+        executer("{ livres(taille: 10) { titre auteur { nom nombreLivres } } }")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").doesNotExist())
+                .andExpect(jsonPath("$.data.livres", hasSize(3)))
+                .andExpect(jsonPath("$.data.livres[*].titre",
+                        contains("Les Misérables", "Notre-Dame de Paris", "Germinal")))
+                .andExpect(jsonPath("$.data.livres[*].auteur.nom", contains("Hugo", "Hugo", "Zola")))
+                .andExpect(jsonPath("$.data.livres[*].auteur.nombreLivres", contains(2, 2, 1)));
+    }
+
+    @Test
+    @DisplayName("auteur - Devrait retourner un auteur avec ses livres")
+    void auteur_WithLivres_ShouldReturnBooks() throws Exception {
+        executer("{ auteur(id: " + hugo.getId() + ") { nom livres { titre } } }")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.auteur.nom").value("Hugo"))
+                .andExpect(jsonPath("$.data.auteur.livres[*].titre",
+                        contains("Les Misérables", "Notre-Dame de Paris")));
+    }
+
+    @Test
+    @DisplayName("auteur - Devrait retourner null si l'auteur n'existe pas")
+    void auteur_WhenNotExists_ShouldReturnNull() throws Exception {
+        executer("{ auteur(id: 999999) { nom } }")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").doesNotExist())
+                .andExpect(jsonPath("$.data.auteur").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une requête trop profonde")
+    void requete_TooDeep_ShouldBeRejected() throws Exception {
+        executer("{ livres { auteur { livres { auteur { livres { auteur { nom } } } } } } }")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors[0].message", containsString("depth")))
+                .andExpect(jsonPath("$.data").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une requête trop complexe")
+    void requete_TooComplex_ShouldBeRejected() throws Exception {
+        executer("{ livres(taille: 100) { id titre isbn anneePublication nombreExemplaires version "
+                + "auteur { id nom prenom email nombreLivres livres { titre isbn } } } }")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors[0].message", containsString("complexity")));
+    }
+
+    @Test
+    @DisplayName("Devrait retourner BAD_REQUEST pour une taille de page trop grande")
+    void livres_WithPageTooLarge_ShouldReturnError() throws Exception {
+        executer("{ livres(taille: 101) { titre } }")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors[0].extensions.classification").value("BAD_REQUEST"));
+    }
+
+    @Test
+    @DisplayName("Devrait exiger une authentification")
+    void requete_WithoutToken_ShouldBeRejected() throws Exception {
+        mockMvc.perform(post("/api/graphql")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("query", "{ livres { titre } }"))))
+                .andExpect(status().isForbidden());
+    }
+
+    private ResultActions executer(String requete) throws Exception {
+        ResultActions resultat = mockMvc.perform(post("/api/graphql")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("query", requete))));
+
+        // Réponse asynchrone seulement si l'exécution ne s'est pas terminée dans le thread de la requête
+        MvcResult mvcResult = resultat.andReturn();
+        return mvcResult.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(mvcResult)) : resultat;
+    }
+
+    private static Livre livre(String titre, String isbn, Auteur auteur) {
+        return Livre.builder()
+                .titre(titre)
+                .isbn(isbn)
+                .anneePublication(1880)
+                .nombreExemplaires(1)
+                .auteur(auteur)
+                .build();
+    }
+}
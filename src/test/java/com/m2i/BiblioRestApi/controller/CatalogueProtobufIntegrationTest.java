@@ -0,0 +1,200 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.User;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pas de @Transactional ici : les listes complètes sont écrites en flux dans un autre thread,
+ * qui ne verrait pas les données d'une transaction de test non validée.
+ * Les réponses sont décodées sans le schéma, par numéro de champ (proto/catalogue.proto).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Tests d'intégration - format protobuf du catalogue")
+class CatalogueProtobufIntegrationTest {
+
+    private static final String PROTOBUF = "application/x-protobuf";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String jwtToken;
+    private Auteur hugo;
+    private Livre miserables;
+
+    @BeforeEach
+    void setUp() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole("USER");
+        userRepository.save(user);
+        jwtToken = jwtService.generateToken("testuser", "USER");
+
+        hugo = auteurRepository.save(Auteur.builder()
+                .nom("Hugo")
+                .prenom("Victor")
+                .email("victor.hugo@test.com")
+                .build());
+        auteurRepository.save(Auteur.builder()
+                .nom("Zola")
+                .prenom("Émile")
+                .build());
+        miserables = livreRepository.save(livre("Les Misérables", "9782070409227", 1862));
+        livreRepository.save(livre("Notre-Dame de Paris", "9782070413554", 1831));
+    }
+
+    @AfterEach
+    void tearDown() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("GET /api/livres - Devrait écrire tous les livres en protobuf")
+    void getAllLivres_AcceptProtobuf_ShouldStreamListeLivres() throws Exception {
+        MvcResult demarre = mockMvc.perform(get("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(PROTOBUF))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(demarre))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PROTOBUF))
+                .andReturn();
+
+        List<ByteString> livres = decoder(result).getField(1).getLengthDelimitedList();
+        assertThat(livres).hasSize(2);
+
+        UnknownFieldSet premier = UnknownFieldSet.parseFrom(livres.get(0));
+        assertThat(premier.getField(1).getVarintList()).containsExactly(miserables.getId());
+        assertThat(texte(premier, 2)).isEqualTo("Les Misérables");
+        assertThat(texte(premier, 3)).isEqualTo("9782070409227");
+        assertThat(premier.getField(4).getVarintList()).containsExactly(1862L);
+        assertThat(premier.getField(6).getVarintList()).containsExactly(hugo.getId());
+        assertThat(texte(premier, 7)).isEqualTo("Victor Hugo");
+    }
+
+    @Test
+    @DisplayName("GET /api/auteurs - Devrait écrire tous les auteurs et leur nombre de livres en protobuf")
+    void getAllAuteurs_AcceptProtobuf_ShouldStreamListeAuteurs() throws Exception {
+        MvcResult demarre = mockMvc.perform(get("/api/auteurs")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(PROTOBUF))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(demarre))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<ByteString> auteurs = decoder(result).getField(1).getLengthDelimitedList();
+        assertThat(auteurs).hasSize(2);
+
+        UnknownFieldSet premier = UnknownFieldSet.parseFrom(auteurs.get(0));
+        assertThat(texte(premier, 2)).isEqualTo("Hugo");
+        assertThat(texte(premier, 4)).isEqualTo("victor.hugo@test.com");
+        assertThat(premier.getField(5).getVarintList()).containsExactly(2L);
+
+        // Email absent : le champ n'est pas écrit
+        UnknownFieldSet second = UnknownFieldSet.parseFrom(auteurs.get(1));
+        assertThat(second.hasField(4)).isFalse();
+        assertThat(second.getField(5).getVarintList()).containsExactly(0L);
+    }
+
+    @Test
+    @DisplayName("GET /api/livres?ids= - Devrait écrire la lecture par lot en protobuf")
+    void getLivresByIds_AcceptProtobuf_ShouldReturnLectureLot() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/livres")
+                        .param("ids", miserables.getId() + ",999999")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PROTOBUF))
+                .andReturn();
+
+        UnknownFieldSet lecture = decoder(result);
+        assertThat(lecture.getField(1).getLengthDelimitedList()).hasSize(1);
+        assertThat(texte(UnknownFieldSet.parseFrom(lecture.getField(1).getLengthDelimitedList().get(0)), 2))
+                .isEqualTo("Les Misérables");
+        assertThat(lecture.getField(2).getVarintList()).containsExactly(999999L);
+    }
+
+    @Test
+    @DisplayName("GET /api/livres/changes - Devrait écrire les changements en protobuf")
+    void getChangements_AcceptProtobuf_ShouldReturnChangementsLivres() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/livres/changes")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PROTOBUF))
+                .andReturn();
+
+        UnknownFieldSet changements = decoder(result);
+        assertThat(changements.getField(4).getLengthDelimitedList()).hasSize(2);
+        assertThat(changements.hasField(1)).isFalse();
+        assertThat(changements.hasField(5)).isFalse();
+    }
+
+    private static UnknownFieldSet decoder(MvcResult result) throws Exception {
+        return UnknownFieldSet.parseFrom(result.getResponse().getContentAsByteArray());
+    }
+
+    private static String texte(UnknownFieldSet message, int champ) {
+        return message.getField(champ).getLengthDelimitedList().get(0).toStringUtf8();
+    }
+
+    private Livre livre(String titre, String isbn, int annee) {
+        return Livre.builder()
+                .titre(titre)
+                .isbn(isbn)
+                .anneePublication(annee)
+                .nombreExemplaires(1)
+                .auteur(hugo)
+                .build();
+    }
+}
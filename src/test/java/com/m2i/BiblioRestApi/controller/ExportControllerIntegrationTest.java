@@ -0,0 +1,234 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.User;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Tests d'intégration - ExportController")
+class ExportControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${bibliotheque.export.repertoire}")
+    private Path repertoire;
+
+    private String jetonUser;
+    private String jetonAdmin;
+
+    @BeforeEach
+    void setUp() {
+        FileSystemUtils.deleteRecursively(repertoire.toFile());
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+
+        jetonUser = jeton("testuser", "USER");
+        jetonAdmin = jeton("admin", "ADMIN");
+
+        Auteur hugo = auteurRepository.save(Auteur.builder()
+                .nom("Hugo")
+                .prenom("Victor")
+                .email("victor.hugo@test.com")
+                .build());
+        livreRepository.save(Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(5)
+                .auteur(hugo)
+                .build());
+        livreRepository.save(Livre.builder()
+                .titre("Notre-Dame de Paris")
+                .isbn("9782070413554")
+                .anneePublication(1831)
+                .nombreExemplaires(3)
+                .auteur(hugo)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        FileSystemUtils.deleteRecursively(repertoire.toFile());
+    }
+
+    @Test
+    @DisplayName("GET /api/export/catalogue - Devrait renvoyer 404 tant qu'aucun export n'existe")
+    void telechargerCatalogue_SansExport_ShouldReturn404() throws Exception {
+        mockMvc.perform(get("/api/export/catalogue")
+                        .header("Authorization", "Bearer " + jetonUser))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/export/catalogue - Devrait être réservé aux administrateurs")
+    void exporterCatalogue_AsUser_ShouldReturn403() throws Exception {
+        mockMvc.perform(post("/api/export/catalogue")
+                        .header("Authorization", "Bearer " + jetonUser))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("GET /api/export/catalogue - Devrait servir le dernier export en NDJSON gzip")
+    void telechargerCatalogue_ShouldServeNdjsonGzip() throws Exception {
+        String empreinte = exporter();
+
+        MvcResult result = mockMvc.perform(get("/api/export/catalogue")
+                        .header("Authorization", "Bearer " + jetonUser))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("ETag", "\"" + empreinte + "\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+
+        String[] lignes = gunzip(result.getResponse().getContentAsByteArray()).split("\n");
+        assertThat(lignes).hasSize(3);
+        JsonNode auteur = objectMapper.readTree(lignes[0]);
+        assertThat(auteur.get("type").asText()).isEqualTo("auteur");
+        assertThat(auteur.get("nom").asText()).isEqualTo("Hugo");
+        assertThat(auteur.get("nombreLivres").asInt()).isEqualTo(2);
+        JsonNode livre = objectMapper.readTree(lignes[1]);
+        assertThat(livre.get("type").asText()).isEqualTo("livre");
+        assertThat(livre.get("titre").asText()).isEqualTo("Les Misérables");
+        assertThat(livre.get("nomCompletAuteur").asText()).isEqualTo("Victor Hugo");
+    }
+
+    @Test
+    @DisplayName("POST /api/export/catalogue - Devrait réutiliser le dernier export si le catalogue n'a pas changé")
+    void exporterCatalogue_SansChangement_ShouldKeepFile() throws Exception {
+        String premiere = exporter();
+        String seconde = exporter();
+        assertThat(seconde).isEqualTo(premiere);
+
+        livreRepository.save(Livre.builder()
+                .titre("Germinal")
+                .isbn("9782070360420")
+                .anneePublication(1885)
+                .nombreExemplaires(1)
+                .auteur(auteurRepository.findAll().get(0))
+                .build());
+        assertThat(exporter()).isNotEqualTo(premiere);
+    }
+
+    @Test
+    @DisplayName("GET /api/export/catalogue - Devrait renvoyer 304 si l'ETag correspond")
+    void telechargerCatalogue_IfNoneMatch_ShouldReturn304() throws Exception {
+        String empreinte = exporter();
+
+        mockMvc.perform(get("/api/export/catalogue")
+                        .header("Authorization", "Bearer " + jetonUser)
+                        .header("If-None-Match", "\"" + empreinte + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /api/export/catalogue - Devrait servir une plage d'octets (206)")
+    void telechargerCatalogue_Range_ShouldReturnPartialContent() throws Exception {
+        exporter();
+        byte[] complet = mockMvc.perform(get("/api/export/catalogue")
+                        .header("Authorization", "Bearer " + jetonUser))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult result = mockMvc.perform(get("/api/export/catalogue")
+                        .header("Authorization", "Bearer " + jetonUser)
+                        .header("Range", "bytes=10-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range",
+                        "bytes 10-" + (complet.length - 1) + "/" + complet.length))
+                .andReturn();
+
+        assertThat(result.getResponse().getContentAsByteArray())
+                .isEqualTo(Arrays.copyOfRange(complet, 10, complet.length));
+    }
+
+    @Test
+    @DisplayName("GET /api/export/catalogue - Devrait renvoyer 416 pour une plage hors du fichier")
+    void telechargerCatalogue_RangeHorsFichier_ShouldReturn416() throws Exception {
+        exporter();
+
+        mockMvc.perform(get("/api/export/catalogue")
+                        .header("Authorization", "Bearer " + jetonUser)
+                        .header("Range", "bytes=1000000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range",
+                        startsWith("bytes */")));
+    }
+
+    private String exporter() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/export/catalogue")
+                        .header("Authorization", "Bearer " + jetonAdmin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nomFichier").exists())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("empreinte").asText();
+    }
+
+    private String jeton(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole(role);
+        userRepository.save(user);
+        return jwtService.generateToken(username, role);
+    }
+
+    private static String gunzip(byte[] octets) throws Exception {
+        try (GZIPInputStream flux = new GZIPInputStream(new ByteArrayInputStream(octets))) {
+            return new String(flux.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
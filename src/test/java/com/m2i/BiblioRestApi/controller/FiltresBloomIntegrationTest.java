@@ -0,0 +1,143 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.User;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.FiltresBloomService;
+import com.m2i.BiblioRestApi.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "bibliotheque.filtres-bloom.actif=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Tests d'intégration - filtres de Bloom des contrôles d'unicité")
+class FiltresBloomIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FiltresBloomService filtresBloomService;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String jetonUser;
+    private String jetonAdmin;
+    private Auteur hugo;
+
+    @BeforeEach
+    void setUp() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+
+        jetonUser = jeton("testuser", "USER");
+        jetonAdmin = jeton("admin", "ADMIN");
+
+        hugo = auteurRepository.save(Auteur.builder()
+                .nom("Hugo")
+                .prenom("Victor")
+                .email("victor.hugo@test.com")
+                .build());
+        livreRepository.save(Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(5)
+                .auteur(hugo)
+                .build());
+        // Données écrites par les repositories : les filtres sont rechargés comme au démarrage
+        filtresBloomService.charger();
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/bulk - Devrait éviter la requête pour les ISBN nouveaux et rejeter les doublons")
+    void importerLivres_ShouldSkipLookupForNewIsbns() throws Exception {
+        List<LivreDTO> livres = List.of(livre("Notre-Dame de Paris", "9782070413554"), livre("Doublon", "9782070409227"));
+
+        mockMvc.perform(post("/api/livres/bulk")
+                        .header("Authorization", "Bearer " + jetonUser)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(livres)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.crees", is(1)))
+                .andExpect(jsonPath("$.rejetes", is(1)));
+
+        mockMvc.perform(get("/api/catalogue/filtres")
+                        .header("Authorization", "Bearer " + jetonAdmin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].nom", is("isbns")))
+                .andExpect(jsonPath("$[0].elements", is(2)))
+                .andExpect(jsonPath("$[0].requetesEvitees", is(1)))
+                .andExpect(jsonPath("$[0].verificationsEnBase", is(1)))
+                .andExpect(jsonPath("$[1].nom", is("emails")))
+                .andExpect(jsonPath("$[1].tauxCible", is(0.01)));
+    }
+
+    @Test
+    @DisplayName("GET /api/catalogue/filtres - Devrait être réservé aux administrateurs")
+    void getFiltres_AsUser_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/api/catalogue/filtres")
+                        .header("Authorization", "Bearer " + jetonUser))
+                .andExpect(status().isForbidden());
+    }
+
+    private LivreDTO livre(String titre, String isbn) {
+        return LivreDTO.builder()
+                .titre(titre)
+                .isbn(isbn)
+                .anneePublication(1831)
+                .nombreExemplaires(1)
+                .auteurId(hugo.getId())
+                .build();
+    }
+
+    private String jeton(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole(role);
+        userRepository.save(user);
+        return jwtService.generateToken(username, role);
+    }
+}
@@ -1,6 +1,9 @@
 package com.m2i.BiblioRestApi.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.m2i.BiblioRestApi.dto.LivreDTO;
 import com.m2i.BiblioRestApi.model.Auteur;
 import com.m2i.BiblioRestApi.model.Livre;
@@ -8,6 +11,7 @@ import com.m2i.BiblioRestApi.model.User;
 import com.m2i.BiblioRestApi.repository.AuteurRepository;
 import com.m2i.BiblioRestApi.repository.LivreRepository;
 import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.CatalogueInstantaneService;
 import com.m2i.BiblioRestApi.service.JwtService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,8 +23,15 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -53,6 +64,9 @@ class LivreControllerIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CatalogueInstantaneService catalogueInstantaneService;
+
     private String jwtToken;
     private Auteur auteur;
     private Livre livre;
@@ -103,6 +117,89 @@ class LivreControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].isbn").value("9782070409227"));
     }
 
+    @Test
+    @DisplayName("GET /api/livres - Devrait servir l'instantané JSON déjà compressé et son ETag")
+    void getAllLivres_AcceptJsonGzip_ShouldServePrecompressedSnapshot() throws Exception {
+        // Les livres du setUp sont écrits sans passer par les services
+        catalogueInstantaneService.invalider();
+
+        MvcResult result = mockMvc.perform(get("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Accept-Encoding", "gzip, deflate, br")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+
+        try (GZIPInputStream flux = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            JsonNode livres = objectMapper.readTree(flux.readAllBytes());
+            assertThat(livres).hasSize(1);
+            assertThat(livres.get(0).get("titre").asText()).isEqualTo("Les Misérables");
+        }
+
+        mockMvc.perform(get("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", result.getResponse().getHeader("ETag"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        // Sans gzip, la représentation non compressée a son propre ETag
+        mockMvc.perform(get("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", result.getResponse().getHeader("ETag"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$[0].isbn").value("9782070409227"));
+    }
+
+    @Test
+    @DisplayName("GET /api/livres - Devrait encoder la liste en CBOR si le client l'accepte")
+    void getAllLivres_AcceptCbor_ShouldReturnCbor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode livres = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(livres).hasSize(1);
+        assertThat(livres.get(0).get("titre").asText()).isEqualTo("Les Misérables");
+        assertThat(livres.get(0).get("auteurId").asLong()).isEqualTo(auteur.getId());
+    }
+
+    @Test
+    @DisplayName("POST /api/livres - Devrait accepter et renvoyer du Smile")
+    void createLivre_Smile_ShouldReturnSmile() throws Exception {
+        SmileMapper smileMapper = new SmileMapper();
+        LivreDTO nouveau = LivreDTO.builder()
+                .titre("Notre-Dame de Paris")
+                .isbn("9782070413089")
+                .anneePublication(1831)
+                .nombreExemplaires(2)
+                .auteurId(auteur.getId())
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(smileMapper.writeValueAsBytes(nouveau)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        LivreDTO cree = smileMapper.readValue(result.getResponse().getContentAsByteArray(), LivreDTO.class);
+        assertThat(cree.getId()).isNotNull();
+        assertThat(cree.getNomCompletAuteur()).isEqualTo("Victor Hugo");
+    }
+
     @Test
     @DisplayName("GET /api/livres/{id} - Devrait retourner un livre par ID")
     void getLivreById_ShouldReturnBook() throws Exception {
@@ -122,6 +219,71 @@ class LivreControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Livre non trouvé(e) avec id : '999'"));
     }
 
+    @Test
+    @DisplayName("GET /api/livres?fields= - Devrait ne renvoyer que les champs demandés")
+    void getAllLivres_WithFields_ShouldReturnOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/api/livres")
+                        .param("fields", "id,titre,isbn")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].*", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(livre.getId()))
+                .andExpect(jsonPath("$[0].titre").value("Les Misérables"))
+                .andExpect(jsonPath("$[0].isbn").value("9782070409227"));
+
+        mockMvc.perform(get("/api/livres")
+                        .param("fields", "titre", "nomCompletAuteur", "auteurId")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nomCompletAuteur").value("Victor Hugo"))
+                .andExpect(jsonPath("$[0].auteurId").value(auteur.getId()))
+                .andExpect(jsonPath("$[0].isbn").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/livres?fields= - Devrait retourner 400 pour un champ inconnu")
+    void getAllLivres_WithUnknownField_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/livres")
+                        .param("fields", "titre,prix")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", startsWith("Champ inconnu : 'prix'")));
+    }
+
+    @Test
+    @DisplayName("GET /api/livres?ids= - Devrait retourner les livres dans l'ordre demandé et les ID manquants")
+    void getLivresByIds_ShouldPreserveOrderAndReportMissing() throws Exception {
+        Livre autre = livreRepository.save(Livre.builder()
+                .titre("Notre-Dame de Paris")
+                .isbn("9782070413554")
+                .anneePublication(1831)
+                .nombreExemplaires(2)
+                .auteur(auteur)
+                .build());
+
+        mockMvc.perform(get("/api/livres")
+                        .param("ids", autre.getId() + ",999999," + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resultats[*].titre", contains("Notre-Dame de Paris", "Les Misérables")))
+                .andExpect(jsonPath("$.resultats[0].nomCompletAuteur").value("Victor Hugo"))
+                .andExpect(jsonPath("$.manquants", contains(999999)));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/isbn/lookup - Devrait retourner les livres par ISBN et les ISBN manquants")
+    void getLivresByIsbns_ShouldReturnFoundAndMissing() throws Exception {
+        mockMvc.perform(post("/api/livres/isbn/lookup")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbns\": [\"9780000000000\", \"9782070409227\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resultats", hasSize(1)))
+                .andExpect(jsonPath("$.resultats[0].id").value(livre.getId()))
+                .andExpect(jsonPath("$.manquants", contains("9780000000000")));
+    }
+
     @Test
     @DisplayName("GET /api/livres/isbn/{isbn} - Devrait retourner un livre par ISBN")
     void getLivreByIsbn_ShouldReturnBook() throws Exception {
@@ -189,6 +351,25 @@ class LivreControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value(containsString("Livre existe déjà avec isbn")));
     }
 
+    @Test
+    @DisplayName("POST /api/livres - Devrait retourner 404 si l'auteur n'existe pas")
+    void createLivre_WithUnknownAuthor_ShouldReturn404() throws Exception {
+        LivreDTO livreDTO = LivreDTO.builder()
+                .titre("Livre orphelin")
+                .isbn("9782070413997")
+                .anneePublication(2000)
+                .nombreExemplaires(1)
+                .auteurId(999_999L)
+                .build();
+
+        mockMvc.perform(post("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(livreDTO)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Auteur non trouvé(e) avec id : '999999'"));
+    }
+
     @Test
     @DisplayName("PUT /api/livres/{id} - Devrait mettre à jour un livre")
     void updateLivre_WithValidData_ShouldUpdateBook() throws Exception {
@@ -222,6 +403,104 @@ class LivreControllerIntegrationTest {
                 .andExpect(jsonPath("$.nombreExemplaires").value(15));
     }
 
+    @Test
+    @DisplayName("PUT /api/livres/{id} - Devrait retourner 409 si la version envoyée est périmée")
+    void updateLivre_WithStaleVersion_ShouldReturn409() throws Exception {
+        long version = livre.getVersion();
+        LivreDTO updateDTO = LivreDTO.builder()
+                .titre("Les Misérables - Édition complète")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(10)
+                .auteurId(auteur.getId())
+                .version(version + 1)
+                .build();
+
+        mockMvc.perform(put("/api/livres/" + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Version Conflict"));
+
+        // Avec la version courante, la mise à jour passe et incrémente la version
+        updateDTO.setVersion(version);
+        mockMvc.perform(put("/api/livres/" + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(version + 1));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/livres/{id} - Devrait ne modifier que les champs fournis")
+    void patchLivre_ShouldUpdateOnlyProvidedFields() throws Exception {
+        mockMvc.perform(patch("/api/livres/" + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"titre\": \"Les Misérables (intégrale)\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre").value("Les Misérables (intégrale)"))
+                .andExpect(jsonPath("$.isbn").value("9782070409227"))
+                .andExpect(jsonPath("$.nombreExemplaires").value(5))
+                .andExpect(jsonPath("$.nomCompletAuteur").value("Victor Hugo"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/livres/{id} - Devrait retourner 400 si invalide, 409 si l'ISBN est pris")
+    void patchLivre_WithInvalidChanges_ShouldBeRejected() throws Exception {
+        livreRepository.save(Livre.builder()
+                .titre("Les Contemplations")
+                .isbn("9782070413555")
+                .anneePublication(1856)
+                .nombreExemplaires(1)
+                .auteur(auteur)
+                .build());
+
+        mockMvc.perform(patch("/api/livres/" + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"anneePublication\": 3000}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.anneePublication").exists());
+
+        mockMvc.perform(patch("/api/livres/" + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"isbn\": \"9782070413555\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(containsString("Livre existe déjà avec isbn")));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/livres/{id} - Devrait retourner 404 si le nouvel auteur n'existe pas")
+    void patchLivre_WithUnknownAuthor_ShouldReturn404() throws Exception {
+        mockMvc.perform(patch("/api/livres/" + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"auteurId\": 999999}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Auteur non trouvé(e) avec id : '999999'"));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/{id}/exemplaires/ajustement - Devrait ajuster le stock")
+    void ajusterExemplaires_ShouldApplyVariation() throws Exception {
+        mockMvc.perform(post("/api/livres/" + livre.getId() + "/exemplaires/ajustement")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"variation\": -2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreExemplaires").value(3));
+
+        mockMvc.perform(post("/api/livres/" + livre.getId() + "/exemplaires/ajustement")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"variation\": -4}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("DELETE /api/livres/{id} - Devrait supprimer un livre")
     void deleteLivre_ShouldDeleteBook() throws Exception {
@@ -273,4 +552,515 @@ class LivreControllerIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].auteurId").value(auteur.getId()));
     }
+
+    @Test
+    @DisplayName("GET /api/livres/{id}/watch - Devrait répondre immédiatement si la version est périmée")
+    void watchLivre_WithStaleVersion_ShouldReturnBook() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/livres/" + livre.getId() + "/watch")
+                        .param("sinceVersion", "-1")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre").value("Les Misérables"))
+                .andExpect(jsonPath("$.version").value(livre.getVersion()));
+    }
+
+    @Test
+    @DisplayName("GET /api/livres/{id}/watch - Devrait retourner 400 pour un délai d'attente nul")
+    void watchLivre_WithZeroTimeout_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/livres/" + livre.getId() + "/watch")
+                        .param("sinceVersion", String.valueOf(livre.getVersion()))
+                        .param("timeout", "0")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/livres/changes - Devrait renvoyer le catalogue complet sans since")
+    void getChangements_WithoutSince_ShouldReturnFullCatalogue() throws Exception {
+        mockMvc.perform(get("/api/livres/changes")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.livres", hasSize(1)))
+                .andExpect(jsonPath("$.suppressions", hasSize(0)))
+                .andExpect(jsonPath("$.sequence").isNumber());
+    }
+
+    @Test
+    @DisplayName("GET /api/livres/changes - Devrait renvoyer les créations et les suppressions depuis une séquence")
+    void getChangements_SinceSequence_ShouldReturnDeltaWithTombstones() throws Exception {
+        MvcResult initial = mockMvc.perform(get("/api/livres/changes")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andReturn();
+        long sequence = objectMapper.readTree(initial.getResponse().getContentAsString())
+                .get("sequence").asLong();
+
+        LivreDTO newLivreDTO = LivreDTO.builder()
+                .titre("Notre-Dame de Paris")
+                .isbn("9782070413089")
+                .anneePublication(1831)
+                .nombreExemplaires(3)
+                .auteurId(auteur.getId())
+                .build();
+        mockMvc.perform(post("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newLivreDTO)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/api/livres/" + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        MvcResult delta = mockMvc.perform(get("/api/livres/changes")
+                        .param("since", String.valueOf(sequence))
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.depuis").value(sequence))
+                .andExpect(jsonPath("$.livres", hasSize(1)))
+                .andExpect(jsonPath("$.livres[0].isbn").value("9782070413089"))
+                .andExpect(jsonPath("$.suppressions", hasSize(1)))
+                .andExpect(jsonPath("$.suppressions[0].id").value(livre.getId()))
+                .andExpect(jsonPath("$.suppressions[0].isbn").value("9782070409227"))
+                .andReturn();
+        long nouvelleSequence = objectMapper.readTree(delta.getResponse().getContentAsString())
+                .get("sequence").asLong();
+
+        // Reprise à la séquence renvoyée : plus rien à synchroniser
+        mockMvc.perform(get("/api/livres/changes")
+                        .param("since", String.valueOf(nouvelleSequence))
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.livres", hasSize(0)))
+                .andExpect(jsonPath("$.suppressions", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/bulk - Devrait créer les livres valides et rapporter les rejets")
+    void importerLivres_ShouldReportEachItem() throws Exception {
+        List<LivreDTO> livres = List.of(
+                LivreDTO.builder().titre("Notre-Dame de Paris").isbn("9782070413089")
+                        .anneePublication(1831).nombreExemplaires(3).auteurId(auteur.getId()).build(),
+                LivreDTO.builder().titre("Doublon en base").isbn("9782070409227")
+                        .anneePublication(1862).auteurId(auteur.getId()).build(),
+                LivreDTO.builder().titre("Auteur inconnu").isbn("9782070360024")
+                        .anneePublication(1942).auteurId(999999L).build(),
+                LivreDTO.builder().titre("").isbn("invalide")
+                        .anneePublication(1942).auteurId(auteur.getId()).build(),
+                LivreDTO.builder().titre("Doublon dans la requête").isbn("9782070413089")
+                        .anneePublication(1831).auteurId(auteur.getId()).build());
+
+        mockMvc.perform(post("/api/livres/bulk")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(livres)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.crees").value(1))
+                .andExpect(jsonPath("$.rejetes").value(4))
+                .andExpect(jsonPath("$.lignes[0].statut").value("CREE"))
+                .andExpect(jsonPath("$.lignes[0].id").isNumber())
+                .andExpect(jsonPath("$.lignes[1].message").value(containsString("Livre existe déjà avec isbn")))
+                .andExpect(jsonPath("$.lignes[2].message").value(containsString("Auteur non trouvé(e)")))
+                .andExpect(jsonPath("$.lignes[3].statut").value("REJETE"))
+                .andExpect(jsonPath("$.lignes[4].message").value(containsString("Livre existe déjà avec isbn")));
+
+        mockMvc.perform(get("/api/livres/isbn/9782070413089")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre").value("Notre-Dame de Paris"));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/import - Devrait importer un flux NDJSON et rejeter les lignes mal typées")
+    void importerFlux_Ndjson_ShouldImportRecordByRecord() throws Exception {
+        String ndjson = """
+                {"titre":"Notre-Dame de Paris","isbn":"9782070413089","anneePublication":1831,"auteurId":%d}
+                {"titre":"Année invalide","isbn":"9782070360024","anneePublication":"mille","auteurId":%d}
+                {"titre":"Les Contemplations","isbn":"9782070386994","anneePublication":1856,"auteurId":%d}
+                """.formatted(auteur.getId(), auteur.getId(), auteur.getId());
+
+        mockMvc.perform(post("/api/livres/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importId").isNotEmpty())
+                .andExpect(jsonPath("$.format").value("NDJSON"))
+                .andExpect(jsonPath("$.lignesTraitees").value(3))
+                .andExpect(jsonPath("$.crees").value(2))
+                .andExpect(jsonPath("$.rejetes").value(1))
+                .andExpect(jsonPath("$.termine").value(true))
+                .andExpect(jsonPath("$.rejets[0].index").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/import - Devrait importer une suite d'objets CBOR")
+    void importerFlux_Cbor_ShouldImportRecordByRecord() throws Exception {
+        CBORMapper cborMapper = new CBORMapper();
+        ByteArrayOutputStream flux = new ByteArrayOutputStream();
+        flux.write(cborMapper.writeValueAsBytes(LivreDTO.builder().titre("Notre-Dame de Paris")
+                .isbn("9782070413089").anneePublication(1831).auteurId(auteur.getId()).build()));
+        flux.write(cborMapper.writeValueAsBytes(LivreDTO.builder().titre("Les Contemplations")
+                .isbn("9782070386994").anneePublication(1856).auteurId(auteur.getId()).build()));
+
+        mockMvc.perform(post("/api/livres/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(flux.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("CBOR"))
+                .andExpect(jsonPath("$.crees").value(2))
+                .andExpect(jsonPath("$.rejetes").value(0))
+                .andExpect(jsonPath("$.termine").value(true));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/import - Devrait reprendre un import CSV au dernier point de reprise")
+    void importerFlux_Csv_ShouldResumeFromCheckpoint() throws Exception {
+        String entete = "titre,isbn,anneePublication,nombreExemplaires,auteurId\n";
+        String premiere = "Notre-Dame de Paris,9782070413089,1831,2," + auteur.getId() + "\n";
+        String seconde = "Les Contemplations,9782070386994,1856,," + auteur.getId() + "\n";
+
+        mockMvc.perform(post("/api/livres/import")
+                        .param("importId", "catalogue-2024")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("text/csv")
+                        .content(entete + premiere))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.crees").value(1));
+
+        // Le même flux, complété, ne réimporte pas la première ligne
+        mockMvc.perform(post("/api/livres/import")
+                        .param("importId", "catalogue-2024")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("text/csv")
+                        .content(entete + premiere + seconde))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lignesReprises").value(1))
+                .andExpect(jsonPath("$.lignesTraitees").value(2))
+                .andExpect(jsonPath("$.crees").value(2))
+                .andExpect(jsonPath("$.rejetes").value(0));
+
+        mockMvc.perform(get("/api/livres/import/catalogue-2024")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("CSV"))
+                .andExpect(jsonPath("$.termine").value(true));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/import - Devrait rejeter un flux illisible en gardant la progression")
+    void importerFlux_WhenMalformed_ShouldReturnBadRequest() throws Exception {
+        String ndjson = """
+                {"titre":"Notre-Dame de Paris","isbn":"9782070413089","anneePublication":1831,"auteurId":%d}
+                {"titre": oups
+                """.formatted(auteur.getId());
+
+        mockMvc.perform(post("/api/livres/import")
+                        .param("importId", "flux-casse")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("importId=flux-casse")));
+
+        mockMvc.perform(get("/api/livres/import/flux-casse")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lignesTraitees").value(1))
+                .andExpect(jsonPath("$.termine").value(false));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/import/notices - Devrait importer des notices MARCXML et dédoublonner les auteurs")
+    void importerNotices_MarcXml_ShouldCreateBooksAndAuthors() throws Exception {
+        String marcxml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <collection xmlns="http://www.loc.gov/MARC21/slim">
+                  <record>
+                    <datafield tag="020" ind1=" " ind2=" "><subfield code="a">978-2-07-041308-9 (broché)</subfield></datafield>
+                    <datafield tag="100" ind1="1" ind2=" "><subfield code="a">Hugo, Victor, 1802-1885.</subfield></datafield>
+                    <datafield tag="245" ind1="1" ind2="0"><subfield code="a">Notre-Dame de Paris /</subfield></datafield>
+                    <datafield tag="264" ind1=" " ind2="1"><subfield code="c">impr. 1831</subfield></datafield>
+                  </record>
+                  <record>
+                    <controlfield tag="008">850101s1885    fr            000 1 fre d</controlfield>
+                    <datafield tag="020" ind1=" " ind2=" "><subfield code="a">2253004227</subfield></datafield>
+                    <datafield tag="100" ind1="1" ind2=" "><subfield code="a">Zola, Émile</subfield></datafield>
+                    <datafield tag="245" ind1="1" ind2="0"><subfield code="a">Germinal.</subfield></datafield>
+                  </record>
+                  <record>
+                    <datafield tag="020" ind1=" " ind2=" "><subfield code="a">9782070360025</subfield></datafield>
+                    <datafield tag="100" ind1="1" ind2=" "><subfield code="a">Camus, Albert</subfield></datafield>
+                    <datafield tag="245" ind1="1" ind2="0"><subfield code="a">L'Étranger</subfield></datafield>
+                    <datafield tag="264" ind1=" " ind2="1"><subfield code="c">1942</subfield></datafield>
+                  </record>
+                </collection>
+                """;
+
+        mockMvc.perform(post("/api/livres/import/notices")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content(marcxml))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("MARCXML"))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.livresCrees").value(2))
+                .andExpect(jsonPath("$.auteursCrees").value(1))
+                .andExpect(jsonPath("$.rejetes").value(1))
+                .andExpect(jsonPath("$.rejets[0].index").value(2))
+                .andExpect(jsonPath("$.rejets[0].message").value(containsString("clé de contrôle")));
+
+        mockMvc.perform(get("/api/livres/isbn/9782070413089")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre").value("Notre-Dame de Paris"))
+                .andExpect(jsonPath("$.anneePublication").value(1831))
+                .andExpect(jsonPath("$.auteurId").value(auteur.getId()));
+
+        mockMvc.perform(get("/api/livres/isbn/9782253004226")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre").value("Germinal"))
+                .andExpect(jsonPath("$.anneePublication").value(1885))
+                .andExpect(jsonPath("$.nomCompletAuteur").value("Émile Zola"));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/import/notices - Devrait importer des produits ONIX et rejeter les ISBN en double")
+    void importerNotices_Onix_ShouldRejectDuplicateIsbn() throws Exception {
+        String produit = """
+                  <Product>
+                    <RecordReference>ref-%d</RecordReference>
+                    <ProductIdentifier><ProductIDType>15</ProductIDType><IDValue>9782070386994</IDValue></ProductIdentifier>
+                    <DescriptiveDetail>
+                      <TitleDetail><TitleType>01</TitleType><TitleElement><TitleText>Les Contemplations</TitleText></TitleElement></TitleDetail>
+                      <Contributor><ContributorRole>A01</ContributorRole><NamesBeforeKey>Victor</NamesBeforeKey><KeyNames>Hugo</KeyNames></Contributor>
+                    </DescriptiveDetail>
+                    <PublishingDetail><PublishingDate><PublishingDateRole>01</PublishingDateRole><Date>18560423</Date></PublishingDate></PublishingDetail>
+                  </Product>
+                """;
+        String onix = "<ONIXMessage release=\"3.0\" xmlns=\"http://ns.editeur.org/onix/3.0/reference\">"
+                + produit.formatted(1) + produit.formatted(2) + "</ONIXMessage>";
+
+        mockMvc.perform(post("/api/livres/import/notices")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.TEXT_XML)
+                        .content(onix))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("ONIX"))
+                .andExpect(jsonPath("$.livresCrees").value(1))
+                .andExpect(jsonPath("$.auteursCrees").value(0))
+                .andExpect(jsonPath("$.rejetes").value(1))
+                .andExpect(jsonPath("$.rejets[0].message").value(containsString("Livre existe déjà avec isbn")));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/import/notices - Devrait lire titre et date du produit, pas ceux de sa collection ou de ses contributeurs")
+    void importerNotices_Onix_ShouldIgnoreCollectionAndContributorDates() throws Exception {
+        String onix30 = """
+                <ONIXMessage release="3.0" xmlns="http://ns.editeur.org/onix/3.0/reference">
+                  <Product>
+                    <RecordReference>ref-1</RecordReference>
+                    <ProductIdentifier><ProductIDType>15</ProductIDType><IDValue>9782070360024</IDValue></ProductIdentifier>
+                    <DescriptiveDetail>
+                      <Collection>
+                        <CollectionType>10</CollectionType>
+                        <TitleDetail><TitleType>01</TitleType><TitleElement><TitleText>Folio</TitleText></TitleElement></TitleDetail>
+                        <Contributor><ContributorRole>B01</ContributorRole><NamesBeforeKey>Jean</NamesBeforeKey><KeyNames>Directeur</KeyNames></Contributor>
+                      </Collection>
+                      <TitleDetail><TitleType>05</TitleType><TitleElement><TitleText>Bovary</TitleText></TitleElement></TitleDetail>
+                      <TitleDetail><TitleType>01</TitleType><TitleElement><TitleText>Madame Bovary</TitleText></TitleElement></TitleDetail>
+                      <Contributor>
+                        <ContributorRole>A01</ContributorRole><NamesBeforeKey>Gustave</NamesBeforeKey><KeyNames>Flaubert</KeyNames>
+                        <ContributorDate><ContributorDateRole>50</ContributorDateRole><Date>18211212</Date></ContributorDate>
+                      </Contributor>
+                    </DescriptiveDetail>
+                    <PublishingDetail>
+                      <PublishingDate><PublishingDateRole>02</PublishingDateRole><Date>20000101</Date></PublishingDate>
+                      <PublishingDate><PublishingDateRole>01</PublishingDateRole><Date>18570415</Date></PublishingDate>
+                    </PublishingDetail>
+                    <RelatedMaterial>
+                      <RelatedProduct><ProductRelationCode>06</ProductRelationCode>
+                        <ProductIdentifier><ProductIDType>15</ProductIDType><IDValue>9782253004868</IDValue></ProductIdentifier>
+                      </RelatedProduct>
+                    </RelatedMaterial>
+                  </Product>
+                </ONIXMessage>
+                """;
+        String onix21 = """
+                <ONIXMessage release="2.1">
+                  <Product>
+                    <RecordReference>ref-2</RecordReference>
+                    <ProductIdentifier><ProductIDType>15</ProductIDType><IDValue>9782070413119</IDValue></ProductIdentifier>
+                    <Series><Title><TitleType>01</TitleType><TitleText>Les Rougon-Macquart</TitleText></Title></Series>
+                    <Title><TitleType>01</TitleType><TitleText>Germinal</TitleText></Title>
+                    <Contributor><ContributorRole>A01</ContributorRole><PersonNameInverted>Zola, Émile</PersonNameInverted></Contributor>
+                    <PublicationDate>1885</PublicationDate>
+                  </Product>
+                </ONIXMessage>
+                """;
+
+        for (String onix : List.of(onix30, onix21)) {
+            mockMvc.perform(post("/api/livres/import/notices")
+                            .header("Authorization", "Bearer " + jwtToken)
+                            .contentType(MediaType.TEXT_XML)
+                            .content(onix))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.livresCrees").value(1))
+                    .andExpect(jsonPath("$.rejetes").value(0));
+        }
+
+        mockMvc.perform(get("/api/livres/isbn/9782070360024")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre").value("Madame Bovary"))
+                .andExpect(jsonPath("$.anneePublication").value(1857))
+                .andExpect(jsonPath("$.nomCompletAuteur").value("Gustave Flaubert"));
+        mockMvc.perform(get("/api/livres/isbn/9782070413119")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre").value("Germinal"))
+                .andExpect(jsonPath("$.anneePublication").value(1885));
+        mockMvc.perform(get("/api/livres/isbn/9782253004868")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/import/notices - Devrait retrouver les auteurs sans tenir compte de la casse de l'email ni des accents du nom")
+    void importerNotices_ShouldMatchAuthorsIgnoringCaseAndAccents() throws Exception {
+        Auteur zola = auteurRepository.save(Auteur.builder()
+                .nom("Zola")
+                .prenom("Émile")
+                .email("Emile.Zola@Test.com")
+                .build());
+        Auteur merimee = auteurRepository.save(Auteur.builder()
+                .nom("Mérimée")
+                .prenom("Prosper")
+                .build());
+        String produit = """
+                  <Product>
+                    <RecordReference>%s</RecordReference>
+                    <ProductIdentifier><ProductIDType>15</ProductIDType><IDValue>%s</IDValue></ProductIdentifier>
+                    <DescriptiveDetail>
+                      <TitleDetail><TitleType>01</TitleType><TitleElement><TitleText>%s</TitleText></TitleElement></TitleDetail>
+                      <Contributor><ContributorRole>A01</ContributorRole><NamesBeforeKey>%s</NamesBeforeKey><KeyNames>%s</KeyNames>%s</Contributor>
+                    </DescriptiveDetail>
+                    <PublishingDetail><PublishingDate><PublishingDateRole>01</PublishingDateRole><Date>18770101</Date></PublishingDate></PublishingDetail>
+                  </Product>
+                """;
+        String onix = "<ONIXMessage release=\"3.0\" xmlns=\"http://ns.editeur.org/onix/3.0/reference\">"
+                + produit.formatted("ref-1", "9782070368228", "L'Assommoir", "Emile", "Zola",
+                        "<EmailAddress>emile.zola@test.com</EmailAddress>")
+                + produit.formatted("ref-2", "9782070411191", "Carmen", "Prosper", "Merimee", "")
+                + "</ONIXMessage>";
+
+        mockMvc.perform(post("/api/livres/import/notices")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.TEXT_XML)
+                        .content(onix))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.livresCrees").value(2))
+                .andExpect(jsonPath("$.auteursCrees").value(0))
+                .andExpect(jsonPath("$.rejetes").value(0));
+
+        mockMvc.perform(get("/api/livres/isbn/9782070368228")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.auteurId").value(zola.getId()));
+        mockMvc.perform(get("/api/livres/isbn/9782070411191")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.auteurId").value(merimee.getId()));
+    }
+
+    @Test
+    @DisplayName("PUT /api/livres/isbn/{isbn} - Devrait créer, modifier puis laisser inchangé le livre")
+    void upsertLivre_ShouldCreateUpdateAndSkipUnchanged() throws Exception {
+        LivreDTO livreDTO = LivreDTO.builder()
+                .titre("Notre-Dame de Paris")
+                .anneePublication(1831)
+                .nombreExemplaires(2)
+                .auteurId(auteur.getId())
+                .build();
+
+        mockMvc.perform(put("/api/livres/isbn/9782070413089")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(livreDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.isbn").value("9782070413089"))
+                .andExpect(jsonPath("$.nomCompletAuteur").value("Victor Hugo"))
+                .andExpect(jsonPath("$.version").value(0));
+
+        livreDTO.setNombreExemplaires(4);
+        mockMvc.perform(put("/api/livres/isbn/9782070413089")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(livreDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreExemplaires").value(4))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(put("/api/livres/isbn/9782070413089")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(livreDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    @DisplayName("PUT /api/livres/isbn/{isbn} - Devrait retourner 404 si l'auteur n'existe pas")
+    void upsertLivre_WhenAuthorMissing_ShouldReturnNotFound() throws Exception {
+        LivreDTO livreDTO = LivreDTO.builder()
+                .titre("Notre-Dame de Paris")
+                .anneePublication(1831)
+                .auteurId(999999L)
+                .build();
+
+        mockMvc.perform(put("/api/livres/isbn/9782070413089")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(livreDTO)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("Auteur non trouvé(e)")));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres/upsert - Devrait rapporter créations, modifications et rejets")
+    void upsertLivres_ShouldReportEachItem() throws Exception {
+        List<LivreDTO> livres = List.of(
+                LivreDTO.builder().titre("Les Misérables (édition intégrale)").isbn("9782070409227")
+                        .anneePublication(1862).nombreExemplaires(5).auteurId(auteur.getId()).build(),
+                LivreDTO.builder().titre("Notre-Dame de Paris").isbn("9782070413089")
+                        .anneePublication(1831).auteurId(auteur.getId()).build(),
+                LivreDTO.builder().titre("Doublon").isbn("9782070413089")
+                        .anneePublication(1831).auteurId(auteur.getId()).build(),
+                LivreDTO.builder().titre("Auteur inconnu").isbn("9782070360024")
+                        .anneePublication(1942).auteurId(999999L).build());
+
+        mockMvc.perform(post("/api/livres/upsert")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(livres)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.modifies").value(1))
+                .andExpect(jsonPath("$.crees").value(1))
+                .andExpect(jsonPath("$.rejetes").value(2))
+                .andExpect(jsonPath("$.lignes[0].statut").value("MODIFIE"))
+                .andExpect(jsonPath("$.lignes[0].id").value(livre.getId()))
+                .andExpect(jsonPath("$.lignes[1].statut").value("CREE"))
+                .andExpect(jsonPath("$.lignes[2].message").value(containsString("ISBN en double")))
+                .andExpect(jsonPath("$.lignes[3].message").value(containsString("Auteur non trouvé(e)")));
+
+        mockMvc.perform(get("/api/livres/" + livre.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre").value("Les Misérables (édition intégrale)"));
+    }
 }
@@ -0,0 +1,294 @@
+package com.m2i.BiblioRestApi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.User;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.UserRepository;
+import com.m2i.BiblioRestApi.service.JwtService;
+import com.m2i.BiblioRestApi.service.ModeleLectureService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pas de @Transactional ici : le modèle de lecture n'applique que les écritures validées.
+ */
+@SpringBootTest(properties = "bibliotheque.modele-lecture.actif=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Tests d'intégration - modèle de lecture du catalogue")
+class ModeleLectureIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ModeleLectureService modeleLectureService;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String jwtToken;
+    private Auteur hugo;
+    private Livre miserables;
+
+    @BeforeEach
+    void setUp() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setRole("USER");
+        userRepository.save(user);
+        jwtToken = jwtService.generateToken("testuser", "USER");
+
+        hugo = auteurRepository.save(Auteur.builder()
+                .nom("Hugo")
+                .prenom("Victor")
+                .email("victor.hugo@test.com")
+                .build());
+        miserables = livreRepository.save(Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(5)
+                .auteur(hugo)
+                .build());
+        // Données écrites par les repositories : le modèle est rechargé comme au démarrage
+        modeleLectureService.charger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+        userRepository.deleteAll();
+        modeleLectureService.charger();
+    }
+
+    @Test
+    @DisplayName("GET /api/livres/{id} - Devrait être servi par le modèle, sans lire la base")
+    void getLivreById_ShouldNotReadDatabase() throws Exception {
+        // Suppression hors des services : seul le modèle connaît encore le livre
+        jdbcTemplate.update("delete from livres where id = ?", miserables.getId());
+
+        mockMvc.perform(get("/api/livres/{id}", miserables.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre", is("Les Misérables")))
+                .andExpect(jsonPath("$.nomCompletAuteur", is("Victor Hugo")));
+        mockMvc.perform(get("/api/livres/isbn/{isbn}", "9782070409227")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("POST /api/livres - Devrait être visible dans le modèle dès la réponse")
+    void createLivre_ShouldApplyAfterCommit() throws Exception {
+        LivreDTO nouveau = LivreDTO.builder()
+                .titre("Notre-Dame de Paris")
+                .isbn("9782070413554")
+                .anneePublication(1831)
+                .nombreExemplaires(3)
+                .auteurId(hugo.getId())
+                .build();
+        mockMvc.perform(post("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(nouveau)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/livres/isbn/{isbn}", "9782070413554")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nomCompletAuteur", is("Victor Hugo")));
+        mockMvc.perform(get("/api/auteurs/{id}", hugo.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreLivres", is(2)));
+        mockMvc.perform(get("/api/auteurs/{id}/livres", hugo.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("POST /api/livres - Une écriture refusée ne devrait pas toucher le modèle")
+    void createLivre_Rejected_ShouldNotChangeModel() throws Exception {
+        LivreDTO doublon = LivreDTO.builder()
+                .titre("Doublon")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(1)
+                .auteurId(hugo.getId())
+                .build();
+        mockMvc.perform(post("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(doublon)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].titre", is("Les Misérables")));
+    }
+
+    @Test
+    @DisplayName("PUT /api/livres/{id} - Devrait être visible dans le modèle et l'instantané dès la réponse")
+    void updateLivre_ShouldApplyAfterCommit() throws Exception {
+        LivreDTO modifie = LivreDTO.builder()
+                .titre("Les Misérables - Édition complète")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(10)
+                .auteurId(hugo.getId())
+                .build();
+        mockMvc.perform(put("/api/livres/{id}", miserables.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(modifie)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/livres/{id}", miserables.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titre", is("Les Misérables - Édition complète")))
+                .andExpect(jsonPath("$.nombreExemplaires", is(10)))
+                .andExpect(jsonPath("$.version", is((int) (miserables.getVersion() + 1))));
+        mockMvc.perform(get("/api/auteurs/{id}/livres", hugo.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].titre", is("Les Misérables - Édition complète")));
+        mockMvc.perform(get("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].titre", is("Les Misérables - Édition complète")));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/livres/{id} - Devrait retirer le livre de tous les index du modèle")
+    void deleteLivre_ShouldRemoveFromModel() throws Exception {
+        mockMvc.perform(delete("/api/livres/{id}", miserables.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/livres/{id}", miserables.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/livres/isbn/{isbn}", "9782070409227")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/livres")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/auteurs/{id}", hugo.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreLivres", is(0)));
+    }
+
+    @Test
+    @DisplayName("PUT /api/auteurs/{id} - Devrait renommer l'auteur dans ses livres")
+    void updateAuteur_ShouldRenameInLivres() throws Exception {
+        AuteurDTO renomme = AuteurDTO.builder()
+                .nom("Hugo")
+                .prenom("Victor Marie")
+                .email("victor.hugo@test.com")
+                .build();
+        mockMvc.perform(put("/api/auteurs/{id}", hugo.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(renomme)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/livres/{id}", miserables.getId())
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nomCompletAuteur", is("Victor Marie Hugo")));
+        mockMvc.perform(get("/api/auteurs/{id}", hugo.getId())
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("expand", "livres"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prenom", is("Victor Marie")))
+                .andExpect(jsonPath("$.livres", hasSize(1)))
+                .andExpect(jsonPath("$.livres[0].nomCompletAuteur", is("Victor Marie Hugo")));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/auteurs/{id} - Devrait retirer l'auteur du modèle")
+    void deleteAuteur_ShouldRemoveFromModel() throws Exception {
+        AuteurDTO zola = AuteurDTO.builder()
+                .nom("Zola")
+                .prenom("Émile")
+                .email("emile.zola@test.com")
+                .build();
+        String reponse = mockMvc.perform(post("/api/auteurs")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(zola)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long zolaId = objectMapper.readValue(reponse, AuteurDTO.class).getId();
+        mockMvc.perform(get("/api/auteurs")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(delete("/api/auteurs/{id}", zolaId)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/auteurs/{id}", zolaId)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/auteurs")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nom", is("Hugo")));
+    }
+}
@@ -2,18 +2,23 @@ package com.m2i.BiblioRestApi.repository;
 
 import com.m2i.BiblioRestApi.model.Auteur;
 import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.Reservation;
+import com.m2i.BiblioRestApi.model.StatutReservation;
 import com.m2i.BiblioRestApi.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -29,6 +34,9 @@ class RepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ReservationRepository reservationRepository;
+
     private Auteur auteur;
 
     @BeforeEach
@@ -293,4 +301,40 @@ class RepositoryTest {
     }
 
      */
+
+    // Tests ReservationRepository
+    @Test
+    @DisplayName("ReservationRepository - une seule réservation en attente par lecteur et par livre")
+    void reservationRepository_SecondWaitingReservation_ShouldViolateConstraint() {
+        // Given
+        Livre livre = livreRepository.save(Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409228")
+                .anneePublication(1862)
+                .nombreExemplaires(0)
+                .auteur(auteur)
+                .build());
+        Reservation annulee = reservationRepository.saveAndFlush(reservation(livre, "alice"));
+        annulee.setStatut(StatutReservation.ANNULEE);
+        reservationRepository.saveAndFlush(annulee);
+
+        // When : une nouvelle attente après une annulation est admise, pas une seconde attente
+        reservationRepository.saveAndFlush(reservation(livre, "alice"));
+        reservationRepository.saveAndFlush(reservation(livre, "bob"));
+
+        // Then
+        assertThatThrownBy(() -> reservationRepository.saveAndFlush(reservation(livre, "alice")))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("UK_RESERVATIONS_ATTENTE");
+    }
+
+    private Reservation reservation(Livre livre, String username) {
+        return Reservation.builder()
+                .livre(livre)
+                .username(username)
+                .dateDemande(LocalDateTime.now())
+                .priorite(System.currentTimeMillis())
+                .statut(StatutReservation.EN_ATTENTE)
+                .build();
+    }
 }
@@ -0,0 +1,125 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.ChangementCatalogueDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests unitaires - CatalogueFeedService")
+class CatalogueFeedServiceTest {
+
+    private CatalogueFeedService catalogueFeedService;
+
+    @BeforeEach
+    void setUp() {
+        catalogueFeedService = new CatalogueFeedService();
+        ReflectionTestUtils.setField(catalogueFeedService, "tailleTampon", 3);
+        ReflectionTestUtils.setField(catalogueFeedService, "timeout", 1000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogueFeedService.fermer();
+    }
+
+    @Test
+    @DisplayName("Devrait numéroter les événements par séquence croissante")
+    void onCatalogueEvent_ShouldAssignIncreasingSequence() {
+        // When
+        publierLivre(CatalogueEvent.Operation.CREATION, 1L);
+        publierAuteur(CatalogueEvent.Operation.MODIFICATION, 7L);
+
+        // Then
+        List<ChangementCatalogueDTO> changements = catalogueFeedService.changementsDepuis(0);
+        assertThat(changements).extracting(ChangementCatalogueDTO::getSequence).containsExactly(1L, 2L);
+        assertThat(changements.get(0).getRessource()).isEqualTo(CatalogueEvent.Ressource.LIVRE);
+        assertThat(changements.get(1).getRessource()).isEqualTo(CatalogueEvent.Ressource.AUTEUR);
+        assertThat(changements.get(1).getId()).isEqualTo(7L);
+        assertThat(catalogueFeedService.sequenceCourante()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Devrait ne rejouer que les événements postérieurs à Last-Event-ID")
+    void changementsDepuis_ShouldReturnOnlyNewerEvents() {
+        // Given
+        publierLivre(CatalogueEvent.Operation.CREATION, 1L);
+        publierLivre(CatalogueEvent.Operation.MODIFICATION, 1L);
+        publierLivre(CatalogueEvent.Operation.SUPPRESSION, 1L);
+
+        // When
+        List<ChangementCatalogueDTO> changements = catalogueFeedService.changementsDepuis(1);
+
+        // Then
+        assertThat(changements).extracting(ChangementCatalogueDTO::getOperation)
+                .containsExactly(CatalogueEvent.Operation.MODIFICATION, CatalogueEvent.Operation.SUPPRESSION);
+    }
+
+    @Test
+    @DisplayName("Devrait borner le tampon de rejeu")
+    void onCatalogueEvent_ShouldBoundReplayBuffer() {
+        // When
+        for (long id = 1; id <= 5; id++) {
+            publierLivre(CatalogueEvent.Operation.CREATION, id);
+        }
+
+        // Then
+        assertThat(catalogueFeedService.changementsDepuis(0))
+                .extracting(ChangementCatalogueDTO::getSequence)
+                .containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Devrait enregistrer l'abonné après le rejeu")
+    void abonner_ShouldRegisterSubscriber() throws Exception {
+        // Given
+        publierLivre(CatalogueEvent.Operation.CREATION, 1L);
+
+        // When
+        SseEmitter emitter = catalogueFeedService.abonner(catalogueFeedService.identifiant(0));
+
+        // Then
+        assertThat(emitter).isNotNull();
+        for (int i = 0; i < 50 && catalogueFeedService.nombreAbonnes() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(catalogueFeedService.nombreAbonnes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un Last-Event-ID d'avant un redémarrage, même dans la plage des séquences")
+    void sequenceDe_FromPreviousStart_ShouldRequireReset() {
+        // Given : le serveur redémarré a déjà émis plus d'événements que l'ancien identifiant
+        CatalogueFeedService avantRedemarrage = new CatalogueFeedService();
+        String ancienId = avantRedemarrage.identifiant(2);
+        for (long id = 1; id <= 5; id++) {
+            publierLivre(CatalogueEvent.Operation.CREATION, id);
+        }
+
+        // Then
+        assertThat(catalogueFeedService.sequenceDe(ancienId)).isEqualTo(-1L);
+        assertThat(catalogueFeedService.sequenceDe("2")).isEqualTo(-1L);
+        assertThat(catalogueFeedService.sequenceDe(catalogueFeedService.identifiant(4))).isEqualTo(4L);
+        assertThat(catalogueFeedService.sequenceDe(null)).isNull();
+        avantRedemarrage.fermer();
+    }
+
+    private void publierLivre(CatalogueEvent.Operation operation, Long id) {
+        catalogueFeedService.onCatalogueEvent(CatalogueEvent.livre(operation,
+                LivreDTO.builder().id(id).titre("Livre " + id).build()));
+    }
+
+    private void publierAuteur(CatalogueEvent.Operation operation, Long id) {
+        catalogueFeedService.onCatalogueEvent(CatalogueEvent.auteur(operation,
+                AuteurDTO.builder().id(id).nom("Nom").prenom("Prénom").build()));
+    }
+}
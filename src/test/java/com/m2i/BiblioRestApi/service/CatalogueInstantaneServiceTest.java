@@ -0,0 +1,139 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires - CatalogueInstantaneService")
+class CatalogueInstantaneServiceTest {
+
+    @Mock
+    private LivreService livreService;
+
+    @Mock
+    private ModeleLectureService modeleLectureService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CatalogueInstantaneService catalogueInstantaneService;
+
+    private LivreDTO livreDTO;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogueInstantaneService, "niveauGzip", 9);
+
+        livreDTO = LivreDTO.builder()
+                .id(1L)
+                .titre("Les Misérables")
+                .isbn("9782070409228")
+                .anneePublication(1862)
+                .nombreExemplaires(5)
+                .auteurId(1L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Devrait sérialiser et compresser le catalogue une seule fois tant qu'il ne change pas")
+    void getInstantane_WhenUnchanged_ShouldReuseBytes() throws Exception {
+        when(livreService.getAllLivres()).thenReturn(List.of(livreDTO));
+
+        CatalogueInstantaneService.Instantane premier = catalogueInstantaneService.getInstantane();
+        CatalogueInstantaneService.Instantane second = catalogueInstantaneService.getInstantane();
+
+        assertThat(second).isSameAs(premier);
+        verify(livreService, times(1)).getAllLivres();
+        try (GZIPInputStream flux = new GZIPInputStream(new ByteArrayInputStream(premier.gzip()))) {
+            assertThat(flux.readAllBytes()).isEqualTo(premier.json());
+        }
+        assertThat(premier.etag()).startsWith("\"").endsWith("\"");
+        assertThat(premier.etagGzip()).isNotEqualTo(premier.etag());
+    }
+
+    @Test
+    @DisplayName("Devrait reconstruire l'instantané après une écriture sur le catalogue")
+    void getInstantane_AfterCatalogueEvent_ShouldRebuild() {
+        LivreDTO modifie = LivreDTO.builder()
+                .id(1L)
+                .titre("Les Misérables (édition intégrale)")
+                .isbn("9782070409228")
+                .anneePublication(1862)
+                .nombreExemplaires(5)
+                .auteurId(1L)
+                .build();
+        when(livreService.getAllLivres()).thenReturn(List.of(livreDTO)).thenReturn(List.of(modifie));
+
+        CatalogueInstantaneService.Instantane avant = catalogueInstantaneService.getInstantane();
+        catalogueInstantaneService.onCatalogueEvent(
+                CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION, modifie));
+        CatalogueInstantaneService.Instantane apres = catalogueInstantaneService.getInstantane();
+
+        verify(livreService, times(2)).getAllLivres();
+        assertThat(apres.etag()).isNotEqualTo(avant.etag());
+        assertThat(new String(apres.json())).contains("édition intégrale");
+    }
+
+    @Test
+    @DisplayName("Devrait servir le modèle de lecture chargé, et se reconstruire quand il est remplacé")
+    void getInstantane_WithReadModel_ShouldFollowModel() {
+        LivreDTO modifie = LivreDTO.builder()
+                .id(1L)
+                .titre("Les Misérables (édition intégrale)")
+                .isbn("9782070409228")
+                .anneePublication(1862)
+                .nombreExemplaires(5)
+                .auteurId(1L)
+                .build();
+        when(modeleLectureService.getModele()).thenReturn(Optional.of(modele(livreDTO)));
+
+        CatalogueInstantaneService.Instantane avant = catalogueInstantaneService.getInstantane();
+        // Génération avancée avant que le modèle ne soit remplacé : l'instantané refait reste l'ancien
+        catalogueInstantaneService.onCatalogueEvent(
+                CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION, modifie));
+        assertThat(new String(catalogueInstantaneService.getInstantane().json())).doesNotContain("édition intégrale");
+        when(modeleLectureService.getModele()).thenReturn(Optional.of(modele(modifie)));
+        CatalogueInstantaneService.Instantane apres = catalogueInstantaneService.getInstantane();
+
+        verifyNoInteractions(livreService);
+        assertThat(new String(avant.json())).contains("Les Misérables");
+        assertThat(new String(apres.json())).contains("édition intégrale");
+        assertThat(catalogueInstantaneService.getInstantane()).isSameAs(apres);
+    }
+
+    @Test
+    @DisplayName("Devrait reconnaître gzip dans Accept-Encoding, sauf avec q=0")
+    void accepteGzip_ShouldHonourQualityValues() {
+        assertThat(CatalogueInstantaneService.accepteGzip("gzip, deflate, br")).isTrue();
+        assertThat(CatalogueInstantaneService.accepteGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(CatalogueInstantaneService.accepteGzip("*")).isTrue();
+        assertThat(CatalogueInstantaneService.accepteGzip("gzip;q=0")).isFalse();
+        assertThat(CatalogueInstantaneService.accepteGzip("identity")).isFalse();
+        assertThat(CatalogueInstantaneService.accepteGzip(null)).isFalse();
+    }
+
+    private static ModeleLectureService.Modele modele(LivreDTO livre) {
+        return new ModeleLectureService.Modele(Map.of(livre.getId(), livre), Map.of(livre.getIsbn(), livre),
+                Map.of(livre.getAuteurId(), List.of(livre)), Map.of(), List.of(livre), List.of());
+    }
+}
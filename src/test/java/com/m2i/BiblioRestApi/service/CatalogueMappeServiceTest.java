@@ -0,0 +1,229 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires - CatalogueMappeService")
+class CatalogueMappeServiceTest {
+
+    @Mock
+    private LivreRepository livreRepository;
+
+    @Mock
+    private AuteurRepository auteurRepository;
+
+    @InjectMocks
+    private CatalogueMappeService catalogueMappeService;
+
+    @TempDir
+    private Path repertoire;
+
+    private AuteurDTO hugo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        configurer(catalogueMappeService);
+        when(livreRepository.empreinteCatalogue()).thenReturn(new long[]{0, 0, 0, 0});
+        catalogueMappeService.ouvrir();
+
+        hugo = AuteurDTO.builder().id(1L).nom("Hugo").prenom("Victor").version(0L).build();
+        catalogueMappeService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.CREATION, hugo));
+    }
+
+    @Test
+    @DisplayName("Devrait servir un livre créé par ID et par ISBN")
+    void getLivre_AfterCreation_ShouldReadRecord() {
+        catalogueMappeService.onCatalogueEvent(
+                CatalogueEvent.livre(CatalogueEvent.Operation.CREATION, livre(10L, "Les Misérables", "9782070409228", 0L)));
+
+        LivreDTO parId = catalogueMappeService.getLivre(10L).orElseThrow();
+        assertThat(parId.getTitre()).isEqualTo("Les Misérables");
+        assertThat(parId.getIsbn()).isEqualTo("9782070409228");
+        assertThat(parId.getAnneePublication()).isEqualTo(1862);
+        assertThat(parId.getNombreExemplaires()).isEqualTo(5);
+        assertThat(parId.getAuteurId()).isEqualTo(1L);
+        assertThat(parId.getNomCompletAuteur()).isEqualTo("Victor Hugo");
+        assertThat(parId.getVersion()).isZero();
+
+        assertThat(catalogueMappeService.getLivreParIsbn("9782070409228")).get()
+                .extracting(LivreDTO::getId).isEqualTo(10L);
+        assertThat(catalogueMappeService.getLivre(11L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait suivre les modifications, les changements d'ISBN et les suppressions")
+    void onCatalogueEvent_ShouldKeepRecordsInSync() {
+        catalogueMappeService.onCatalogueEvent(
+                CatalogueEvent.livre(CatalogueEvent.Operation.CREATION, livre(10L, "Les Misérables", "9782070409228", 0L)));
+        catalogueMappeService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "Les Misérables (intégrale)", "9782253096344", 1L)));
+
+        assertThat(catalogueMappeService.getLivreParIsbn("9782070409228")).isEmpty();
+        LivreDTO modifie = catalogueMappeService.getLivreParIsbn("9782253096344").orElseThrow();
+        assertThat(modifie.getTitre()).isEqualTo("Les Misérables (intégrale)");
+        assertThat(modifie.getVersion()).isEqualTo(1L);
+
+        catalogueMappeService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION,
+                AuteurDTO.builder().id(1L).nom("Hugo").prenom("V.").version(1L).build()));
+        assertThat(catalogueMappeService.getLivre(10L)).get()
+                .extracting(LivreDTO::getNomCompletAuteur).isEqualTo("V. Hugo");
+
+        catalogueMappeService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                CatalogueEvent.Operation.SUPPRESSION, 10L, modifie));
+        assertThat(catalogueMappeService.getLivre(10L)).isEmpty();
+        assertThat(catalogueMappeService.getLivreParIsbn("9782253096344")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer une écriture plus ancienne que la version stockée ou qu'une suppression")
+    void onCatalogueEvent_StaleWrites_ShouldBeIgnored() {
+        catalogueMappeService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "Les Misérables (v2)", "9782070409228", 2L)));
+        catalogueMappeService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "Les Misérables (v1)", "9782070409228", 1L)));
+        assertThat(catalogueMappeService.getLivre(10L)).get()
+                .extracting(LivreDTO::getTitre).isEqualTo("Les Misérables (v2)");
+
+        catalogueMappeService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                CatalogueEvent.Operation.SUPPRESSION, 10L, livre(10L, "Les Misérables (v3)", "9782070409228", 3L)));
+        // Validée avant la suppression, appliquée après elle
+        catalogueMappeService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "Les Misérables (v3)", "9782070409228", 3L)));
+        assertThat(catalogueMappeService.getLivre(10L)).isEmpty();
+        assertThat(catalogueMappeService.getLivreParIsbn("9782070409228")).isEmpty();
+
+        catalogueMappeService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION,
+                AuteurDTO.builder().id(1L).nom("Hugo").prenom("V.").version(2L).build()));
+        catalogueMappeService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION,
+                AuteurDTO.builder().id(1L).nom("Hugo").prenom("Victor Marie").version(1L).build()));
+        catalogueMappeService.onCatalogueEvent(
+                CatalogueEvent.livre(CatalogueEvent.Operation.CREATION, livre(11L, "Les Contemplations", "9782070413554", 0L)));
+        assertThat(catalogueMappeService.getLivre(11L)).get()
+                .extracting(LivreDTO::getNomCompletAuteur).isEqualTo("V. Hugo");
+    }
+
+    @Test
+    @DisplayName("Devrait agrandir les tables au-delà de leur capacité initiale")
+    void onCatalogueEvent_BeyondCapacity_ShouldGrowTables() {
+        for (long id = 1; id <= 500; id++) {
+            catalogueMappeService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                    livre(id, "Livre " + id, "9780" + String.format("%09d", id), 0L)));
+        }
+        for (long id = 1; id <= 500; id += 2) {
+            catalogueMappeService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                    CatalogueEvent.Operation.SUPPRESSION, id, null));
+        }
+
+        assertThat(catalogueMappeService.getLivre(1L)).isEmpty();
+        assertThat(catalogueMappeService.getLivre(500L)).get()
+                .extracting(LivreDTO::getTitre).isEqualTo("Livre 500");
+        assertThat(catalogueMappeService.getLivreParIsbn("9780000000250")).get()
+                .extracting(LivreDTO::getId).isEqualTo(250L);
+    }
+
+    @Test
+    @DisplayName("Devrait reprendre les fichiers au redémarrage si l'empreinte de la base correspond")
+    void ouvrir_WhenFingerprintMatches_ShouldReuseFiles() throws Exception {
+        catalogueMappeService.onCatalogueEvent(
+                CatalogueEvent.livre(CatalogueEvent.Operation.CREATION, livre(10L, "Les Misérables", "9782070409228", 2L)));
+        catalogueMappeService.fermer();
+
+        CatalogueMappeService redemarre = new CatalogueMappeService();
+        ReflectionTestUtils.setField(redemarre, "livreRepository", livreRepository);
+        ReflectionTestUtils.setField(redemarre, "auteurRepository", auteurRepository);
+        configurer(redemarre);
+        when(livreRepository.empreinteCatalogue()).thenReturn(new long[]{1, 10 * 31 + 2, 1, 31});
+        redemarre.ouvrir();
+
+        assertThat(redemarre.getLivre(10L)).get()
+                .extracting(LivreDTO::getNomCompletAuteur).isEqualTo("Victor Hugo");
+        // Reconstruction seulement à la première ouverture
+        verify(livreRepository, times(1)).parcourirCatalogue(any());
+        redemarre.fermer();
+    }
+
+    @Test
+    @DisplayName("Devrait reconstruire le magasin depuis la base si l'empreinte ne correspond plus")
+    void ouvrir_WhenFingerprintDiffers_ShouldRebuild() throws Exception {
+        catalogueMappeService.fermer();
+
+        doAnswer(invocation -> {
+            ResultSet ligne = mock(ResultSet.class);
+            when(ligne.getLong("id")).thenReturn(1L);
+            when(ligne.getLong("version")).thenReturn(3L);
+            when(ligne.getString("prenom")).thenReturn("Émile");
+            when(ligne.getString("nom")).thenReturn("Zola");
+            invocation.<RowCallbackHandler>getArgument(0).processRow(ligne);
+            return null;
+        }).when(auteurRepository).parcourirAuteurs(any());
+        doAnswer(invocation -> {
+            ResultSet ligne = mock(ResultSet.class);
+            when(ligne.getString("isbn")).thenReturn("9782070360420");
+            when(ligne.getLong("id")).thenReturn(7L);
+            when(ligne.getLong("version")).thenReturn(4L);
+            when(ligne.getLong("auteur_id")).thenReturn(1L);
+            when(ligne.getString("titre")).thenReturn("Germinal");
+            when(ligne.getInt("annee_publication")).thenReturn(1885);
+            when(ligne.getInt("nombre_exemplaires")).thenReturn(2);
+            invocation.<RowCallbackHandler>getArgument(0).processRow(ligne);
+            return null;
+        }).when(livreRepository).parcourirCatalogue(any());
+        when(livreRepository.empreinteCatalogue()).thenReturn(new long[]{1, 7 * 31 + 4, 1, 31 + 3});
+        catalogueMappeService.ouvrir();
+
+        LivreDTO germinal = catalogueMappeService.getLivreParIsbn("9782070360420").orElseThrow();
+        assertThat(germinal.getId()).isEqualTo(7L);
+        assertThat(germinal.getNomCompletAuteur()).isEqualTo("Émile Zola");
+        assertThat(catalogueMappeService.getLivre(10L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait compacter un ISBN-13 en long et refuser les autres formes")
+    void isbnCompacte_ShouldPackThirteenDigits() {
+        assertThat(CatalogueMappeService.isbnCompacte("9782070409228")).isEqualTo(9782070409228L);
+        assertThat(CatalogueMappeService.isbnCompacte("978207040922")).isEqualTo(-1);
+        assertThat(CatalogueMappeService.isbnCompacte("978207040922X")).isEqualTo(-1);
+        assertThat(CatalogueMappeService.isbnCompacte("0782070409228")).isEqualTo(-1);
+        assertThat(CatalogueMappeService.isbnCompacte(null)).isEqualTo(-1);
+    }
+
+    private void configurer(CatalogueMappeService service) {
+        ReflectionTestUtils.setField(service, "actif", true);
+        ReflectionTestUtils.setField(service, "repertoire", repertoire);
+        ReflectionTestUtils.setField(service, "capaciteInitiale", 16);
+    }
+
+    private static LivreDTO livre(Long id, String titre, String isbn, Long version) {
+        return LivreDTO.builder()
+                .id(id)
+                .titre(titre)
+                .isbn(isbn)
+                .anneePublication(1862)
+                .nombreExemplaires(5)
+                .auteurId(1L)
+                .nomCompletAuteur("Victor Hugo")
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.m2i.BiblioRestApi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests unitaires - FiltreBloom")
+class FiltreBloomTest {
+
+    @Test
+    @DisplayName("Devrait dimensionner le filtre d'après la capacité et le taux visé")
+    void constructeur_ShouldSizeFromCapacityAndRate() {
+        FiltreBloom filtre = new FiltreBloom(10_000, 0.01);
+
+        // m = -n·ln(p)/ln(2)² ≈ 9,59 bits par élément, k ≈ 7
+        assertThat(filtre.getBits()).isBetween(95_851L, 95_851L + 64);
+        assertThat(filtre.getFonctions()).isEqualTo(7);
+        assertThatThrownBy(() -> new FiltreBloom(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Ne devrait jamais répondre absent pour une valeur ajoutée")
+    void peutContenir_AddedValues_ShouldNeverBeFalseNegative() {
+        FiltreBloom filtre = new FiltreBloom(10_000, 0.01);
+        for (long isbn = 9780000000000L; isbn < 9780000010000L; isbn++) {
+            filtre.ajouter(isbn);
+        }
+
+        for (long isbn = 9780000000000L; isbn < 9780000010000L; isbn++) {
+            assertThat(filtre.peutContenir(isbn)).isTrue();
+        }
+        assertThat(filtre.getElements()).isEqualTo(10_000);
+        assertThat(filtre.sature()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Devrait rester proche du taux de faux positifs visé à pleine capacité")
+    void peutContenir_UnknownValues_ShouldMatchTargetRate() {
+        FiltreBloom filtre = new FiltreBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtre.ajouter(FiltreBloom.empreinte("auteur" + i + "@example.com"));
+        }
+
+        int fauxPositifs = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtre.peutContenir(FiltreBloom.empreinte("inconnu" + i + "@example.com"))) {
+                fauxPositifs++;
+            }
+        }
+        assertThat(fauxPositifs / 100_000.0).isLessThan(0.02);
+        assertThat(filtre.tauxEstime()).isBetween(0.005, 0.02);
+    }
+}
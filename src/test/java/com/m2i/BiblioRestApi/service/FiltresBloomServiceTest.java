@@ -0,0 +1,139 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.FiltreBloomDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires - FiltresBloomService")
+class FiltresBloomServiceTest {
+
+    @Mock
+    private LivreRepository livreRepository;
+
+    @Mock
+    private AuteurRepository auteurRepository;
+
+    @InjectMocks
+    private FiltresBloomService filtresBloomService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filtresBloomService, "actif", true);
+        ReflectionTestUtils.setField(filtresBloomService, "capacite", 100L);
+        ReflectionTestUtils.setField(filtresBloomService, "tauxFauxPositifs", 0.01);
+
+        when(livreRepository.empreinteCatalogue()).thenReturn(new long[]{1, 0, 1, 0});
+        doAnswer(invocation -> {
+            ResultSet ligne = mock(ResultSet.class);
+            when(ligne.getString("isbn")).thenReturn("9782070409228");
+            invocation.<RowCallbackHandler>getArgument(0).processRow(ligne);
+            return null;
+        }).when(livreRepository).parcourirCatalogue(any());
+        doAnswer(invocation -> {
+            ResultSet ligne = mock(ResultSet.class);
+            when(ligne.getString("email")).thenReturn("Victor.Hugo@example.com");
+            invocation.<RowCallbackHandler>getArgument(0).processRow(ligne);
+            return null;
+        }).when(auteurRepository).parcourirAuteurs(any());
+
+        filtresBloomService.charger();
+    }
+
+    @Test
+    @DisplayName("Devrait écarter les valeurs absentes du catalogue chargé, et elles seules")
+    void charger_ShouldRejectUnknownValues() {
+        assertThat(filtresBloomService.isbnCertainementAbsent("9782070409228")).isFalse();
+        assertThat(filtresBloomService.isbnCertainementAbsent("9782070413554")).isTrue();
+        // Emails comparés sans tenir compte de la casse
+        assertThat(filtresBloomService.emailCertainementAbsent("victor.hugo@example.com")).isFalse();
+        assertThat(filtresBloomService.emailCertainementAbsent("emile.zola@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Devrait ajouter les ISBN et emails écrits, et garder ceux supprimés")
+    void onCatalogueEvent_ShouldAddWrittenValues() {
+        filtresBloomService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                LivreDTO.builder().id(11L).isbn("9782070413554").build()));
+        filtresBloomService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION,
+                AuteurDTO.builder().id(2L).email("emile.zola@example.com").build()));
+        filtresBloomService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                CatalogueEvent.Operation.SUPPRESSION, 10L, LivreDTO.builder().id(10L).isbn("9782070409228").build()));
+
+        assertThat(filtresBloomService.isbnCertainementAbsent("9782070413554")).isFalse();
+        assertThat(filtresBloomService.emailCertainementAbsent("emile.zola@example.com")).isFalse();
+        assertThat(filtresBloomService.isbnCertainementAbsent("9782070409228")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Devrait ajouter une couche à saturation, sans perdre aucune valeur")
+    void onCatalogueEvent_BeyondCapacity_ShouldAddLayer() {
+        for (long id = 1; id <= 500; id++) {
+            filtresBloomService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                    LivreDTO.builder().id(id).isbn("9780" + String.format("%09d", id)).build()));
+        }
+
+        for (long id = 1; id <= 500; id++) {
+            assertThat(filtresBloomService.isbnCertainementAbsent("9780" + String.format("%09d", id))).isFalse();
+        }
+        FiltreBloomDTO isbns = filtresBloomService.statistiques().get(0);
+        assertThat(isbns.getNom()).isEqualTo("isbns");
+        assertThat(isbns.getCouches()).isEqualTo(3);
+        assertThat(isbns.getElements()).isEqualTo(501);
+        assertThat(isbns.getTauxEstime()).isLessThan(2 * isbns.getTauxCible());
+        assertThat(isbns.getVerificationsEnBase()).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("Devrait garder l'ISBN d'une transaction ouverte avant un rechargement et validée après le parcours")
+    void charger_WithTransactionInProgress_ShouldKeepPendingValues() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Publié avant le rechargement, validé après le passage du parcours : absent de la base lue
+            filtresBloomService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                    LivreDTO.builder().id(11L).isbn("9782070413554").build()));
+            filtresBloomService.charger();
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronisation -> synchronisation.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(filtresBloomService.isbnCertainementAbsent("9782070413554")).isFalse();
+
+        // Transaction terminée : un rechargement suivant ne reprend que la base
+        filtresBloomService.charger();
+        assertThat(filtresBloomService.isbnCertainementAbsent("9782070413554")).isTrue();
+        assertThat(filtresBloomService.isbnCertainementAbsent("9782070409228")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Ne devrait rien écarter tant qu'il n'est pas chargé")
+    void isbnCertainementAbsent_WhenNotLoaded_ShouldBeFalse() {
+        FiltresBloomService nonCharge = new FiltresBloomService();
+
+        assertThat(nonCharge.isbnCertainementAbsent("9782070413554")).isFalse();
+        assertThat(nonCharge.emailCertainementAbsent("emile.zola@example.com")).isFalse();
+        assertThat(nonCharge.statistiques()).isEqualTo(List.of());
+    }
+}
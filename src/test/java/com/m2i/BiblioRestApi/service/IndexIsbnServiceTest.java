@@ -0,0 +1,121 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires - IndexIsbnService")
+class IndexIsbnServiceTest {
+
+    @Mock
+    private LivreRepository livreRepository;
+
+    @InjectMocks
+    private IndexIsbnService indexIsbnService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(indexIsbnService, "actif", true);
+        ReflectionTestUtils.setField(indexIsbnService, "capaciteInitiale", 16);
+
+        doAnswer(invocation -> {
+            ResultSet ligne = mock(ResultSet.class);
+            when(ligne.getLong("id")).thenReturn(10L);
+            when(ligne.getString("isbn")).thenReturn("9782070409228");
+            when(ligne.getLong("version")).thenReturn(0L);
+            invocation.<RowCallbackHandler>getArgument(0).processRow(ligne);
+            return null;
+        }).when(livreRepository).parcourirCatalogue(any());
+
+        indexIsbnService.charger();
+    }
+
+    @Test
+    @DisplayName("Devrait indexer le catalogue chargé au démarrage")
+    void charger_ShouldIndexIsbns() {
+        assertThat(indexIsbnService.couvre("9782070409228")).isTrue();
+        assertThat(indexIsbnService.getId("9782070409228")).contains(10L);
+        assertThat(indexIsbnService.getId("9782070413554")).isEmpty();
+        // ISBN non représentable : la recherche se fait en base
+        assertThat(indexIsbnService.couvre("978207040922")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Devrait suivre les créations, les changements d'ISBN et les suppressions")
+    void onCatalogueEvent_ShouldKeepIndexInSync() {
+        indexIsbnService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                livre(11L, "9782070413554", 0L)));
+        indexIsbnService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "9782253096344", 1L)));
+
+        assertThat(indexIsbnService.getId("9782070413554")).contains(11L);
+        assertThat(indexIsbnService.getId("9782253096344")).contains(10L);
+        assertThat(indexIsbnService.getId("9782070409228")).isEmpty();
+
+        indexIsbnService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                CatalogueEvent.Operation.SUPPRESSION, 10L, null));
+        assertThat(indexIsbnService.getId("9782253096344")).isEmpty();
+        assertThat(indexIsbnService.getId("9782070413554")).contains(11L);
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer une écriture plus ancienne que l'état de l'index")
+    void onCatalogueEvent_OlderVersion_ShouldBeIgnored() {
+        indexIsbnService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "9782253096344", 2L)));
+        indexIsbnService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "9782070413554", 1L)));
+
+        assertThat(indexIsbnService.getId("9782253096344")).contains(10L);
+        assertThat(indexIsbnService.getId("9782070413554")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas retirer un ISBN déjà repris par un autre livre")
+    void onCatalogueEvent_IsbnTakenOver_ShouldKeepNewOwner() {
+        // Le livre 11 reprend l'ISBN du livre 10 ; son écriture est appliquée la première
+        indexIsbnService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                livre(11L, "9782070409228", 0L)));
+        indexIsbnService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "9782253096344", 1L)));
+
+        assertThat(indexIsbnService.getId("9782070409228")).contains(11L);
+        assertThat(indexIsbnService.getId("9782253096344")).contains(10L);
+    }
+
+    @Test
+    @DisplayName("Ne devrait rien couvrir tant qu'il est désactivé")
+    void couvre_WhenInactive_ShouldBeFalse() {
+        ReflectionTestUtils.setField(indexIsbnService, "actif", false);
+
+        assertThat(indexIsbnService.couvre("9782070409228")).isFalse();
+    }
+
+    private static LivreDTO livre(Long id, String isbn, Long version) {
+        return LivreDTO.builder()
+                .id(id)
+                .titre("Livre " + id)
+                .isbn(isbn)
+                .anneePublication(1862)
+                .nombreExemplaires(1)
+                .auteurId(1L)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.m2i.BiblioRestApi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests unitaires - IndexLong")
+class IndexLongTest {
+
+    @Test
+    @DisplayName("Devrait associer, remplacer et retirer des valeurs")
+    void putGetRemove_ShouldBehaveLikeMap() {
+        IndexLong index = new IndexLong(8);
+
+        assertThat(index.put(9782070409228L, 10)).isEqualTo(IndexLong.ABSENT);
+        assertThat(index.put(9782070409228L, 11)).isEqualTo(10);
+        assertThat(index.get(9782070409228L)).isEqualTo(11);
+        assertThat(index.get(9782070413554L)).isEqualTo(IndexLong.ABSENT);
+        assertThat(index.size()).isEqualTo(1);
+
+        assertThat(index.remove(9782070409228L)).isEqualTo(11);
+        assertThat(index.remove(9782070409228L)).isEqualTo(IndexLong.ABSENT);
+        assertThat(index.get(9782070409228L)).isEqualTo(IndexLong.ABSENT);
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une clé nulle ou une valeur négative")
+    void put_InvalidEntry_ShouldThrow() {
+        IndexLong index = new IndexLong(8);
+
+        assertThatThrownBy(() -> index.put(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.put(1, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Devrait rester conforme à une HashMap après agrandissements et suppressions")
+    void randomOperations_ShouldMatchHashMap() {
+        IndexLong index = new IndexLong(8);
+        Map<Long, Long> reference = new HashMap<>();
+        Random aleatoire = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            // Peu de clés distinctes : beaucoup de collisions, de remplacements et de reculs
+            long cle = 9780000000000L + aleatoire.nextInt(5_000);
+            if (aleatoire.nextInt(3) == 0) {
+                Long attendue = reference.remove(cle);
+                assertThat(index.remove(cle)).isEqualTo(attendue == null ? IndexLong.ABSENT : attendue);
+            } else {
+                Long attendue = reference.put(cle, (long) i);
+                assertThat(index.put(cle, i)).isEqualTo(attendue == null ? IndexLong.ABSENT : attendue);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(reference.size());
+        assertThat(index.capacite()).isGreaterThan(8);
+        for (long cle = 9780000000000L; cle < 9780000005000L; cle++) {
+            assertThat(index.get(cle)).isEqualTo(reference.getOrDefault(cle, IndexLong.ABSENT));
+        }
+    }
+}
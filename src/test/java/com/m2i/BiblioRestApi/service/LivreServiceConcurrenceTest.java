@@ -0,0 +1,302 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.ChangementsLivresDTO;
+import com.m2i.BiblioRestApi.dto.ImportFluxResultatDTO;
+import com.m2i.BiblioRestApi.dto.ImportLigneDTO;
+import com.m2i.BiblioRestApi.dto.ImportResultatDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.exception.ConflitVersionException;
+import com.m2i.BiblioRestApi.model.Auteur;
+import com.m2i.BiblioRestApi.model.FormatImport;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.ImportCheckpointRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Écritures concurrentes sur un même livre, chacune dans sa propre transaction
+ * (pas de @Transactional ici : les threads doivent voir les commits des autres).
+ * Les threads enchaînent leurs écritures sans pause : le dernier gagnant repart aussitôt
+ * et un perdant peut échouer plusieurs fois de suite, d'où un nombre de tentatives relevé.
+ */
+@SpringBootTest(properties = "bibliotheque.reessai.tentatives-max=50")
+@ActiveProfiles("test")
+@DisplayName("Tests de concurrence - LivreService")
+class LivreServiceConcurrenceTest {
+
+    private static final int THREADS = 4;
+
+    @Autowired
+    private LivreService livreService;
+
+    @Autowired
+    private ChangementLivreService changementLivreService;
+
+    @Autowired
+    private LivreImportService livreImportService;
+
+    @Autowired
+    private LivreImportFluxService livreImportFluxService;
+
+    @Autowired
+    private ImportCheckpointRepository importCheckpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LivreRepository livreRepository;
+
+    @Autowired
+    private AuteurRepository auteurRepository;
+
+    private Livre livre;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+
+        Auteur auteur = auteurRepository.save(Auteur.builder()
+                .nom("Hugo")
+                .prenom("Victor")
+                .email("victor.hugo@test.com")
+                .build());
+        livre = livreRepository.save(Livre.builder()
+                .titre("Les Misérables")
+                .isbn("9782070409227")
+                .anneePublication(1862)
+                .nombreExemplaires(0)
+                .auteur(auteur)
+                .build());
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        importCheckpointRepository.deleteAll();
+        livreRepository.deleteAll();
+        auteurRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Les ajustements de stock concurrents sont réessayés sans perte")
+    void ajusterExemplaires_EnParallele_NePerdAucunAjustement() throws Exception {
+        int ajustementsParThread = 10;
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Callable<Void>> taches = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            taches.add(() -> {
+                depart.await();
+                for (int i = 0; i < ajustementsParThread; i++) {
+                    livreService.ajusterExemplaires(livre.getId(), 1);
+                }
+                return null;
+            });
+        }
+
+        List<Future<Void>> resultats = new ArrayList<>();
+        for (Callable<Void> tache : taches) {
+            resultats.add(executor.submit(tache));
+        }
+        depart.countDown();
+        for (Future<Void> resultat : resultats) {
+            resultat.get(60, TimeUnit.SECONDS);
+        }
+
+        Livre relu = livreRepository.findById(livre.getId()).orElseThrow();
+        assertThat(relu.getNombreExemplaires()).isEqualTo(THREADS * ajustementsParThread);
+        assertThat(relu.getVersion()).isEqualTo(livre.getVersion() + THREADS * ajustementsParThread);
+    }
+
+    @Test
+    @DisplayName("Des mises à jour concurrentes d'une même version : une seule l'emporte, les autres sont en conflit")
+    void updateLivre_EnParalleleAvecLaMemeVersion_UnSeulGagnant() throws Exception {
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Boolean>> resultats = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            LivreDTO modification = LivreDTO.builder()
+                    .titre("Les Misérables - révision " + t)
+                    .isbn(livre.getIsbn())
+                    .anneePublication(1862)
+                    .nombreExemplaires(0)
+                    .auteurId(livre.getAuteur().getId())
+                    .version(livre.getVersion())
+                    .build();
+            resultats.add(executor.submit(() -> {
+                depart.await();
+                try {
+                    livreService.updateLivre(livre.getId(), modification);
+                    return true;
+                } catch (ConflitVersionException | OptimisticLockingFailureException e) {
+                    return false;
+                }
+            }));
+        }
+        depart.countDown();
+
+        int gagnants = 0;
+        for (Future<Boolean> resultat : resultats) {
+            if (resultat.get(60, TimeUnit.SECONDS)) {
+                gagnants++;
+            }
+        }
+
+        assertThat(gagnants).isEqualTo(1);
+        assertThat(livreRepository.findById(livre.getId()).orElseThrow().getVersion())
+                .isEqualTo(livre.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Deux transactions entrelacées : aucun changement validé après une séquence déjà lue n'est perdu")
+    void journal_TransactionsEntrelacees_AucunChangementPerdu() throws Exception {
+        Livre autre = livreRepository.save(Livre.builder()
+                .titre("Notre-Dame de Paris")
+                .isbn("9782070413089")
+                .anneePublication(1831)
+                .nombreExemplaires(0)
+                .auteur(livre.getAuteur())
+                .build());
+        long depuis = changementLivreService.getChangementsDepuis(null, null).getSequence();
+
+        CountDownLatch premiereEcriture = new CountDownLatch(1);
+        CountDownLatch commitPremiere = new CountDownLatch(1);
+        // A écrit la première mais valide la dernière
+        Future<?> premiere = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            livreService.ajusterExemplaires(livre.getId(), 1);
+            premiereEcriture.countDown();
+            try {
+                commitPremiere.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(premiereEcriture.await(10, TimeUnit.SECONDS)).isTrue();
+        // B écrit après A, sans l'attendre, et valide la première
+        livreService.ajusterExemplaires(autre.getId(), 1);
+
+        // Le changement validé de B est retenu tant que A, de séquence plus petite, est en cours
+        ChangementsLivresDTO pendant = changementLivreService.getChangementsDepuis(depuis, null);
+        assertThat(pendant.getLivres()).isEmpty();
+        assertThat(pendant.getSequence()).isEqualTo(depuis);
+        assertThat(changementLivreService.getChangementsDepuis(null, null).getSequence()).isEqualTo(depuis);
+
+        commitPremiere.countDown();
+        premiere.get(10, TimeUnit.SECONDS);
+
+        // Le client reprend à la séquence lue pendant la transaction de A : rien n'est perdu
+        ChangementsLivresDTO apres = changementLivreService.getChangementsDepuis(pendant.getSequence(), null);
+        assertThat(apres.getLivres()).extracting(LivreDTO::getId).containsExactlyInAnyOrder(livre.getId(), autre.getId());
+        assertThat(changementLivreService.getChangementsDepuis(apres.getSequence(), null).getLivres()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Import concurrent d'un ISBN créé entre le contrôle et l'insertion : rejeté, le reste du lot créé")
+    void importerLivres_IsbnCreeEnConcurrence_RejetteSeulementLeDoublon() throws Exception {
+        LivreDTO concurrent = LivreDTO.builder()
+                .titre("Notre-Dame de Paris")
+                .isbn("9782070413089")
+                .anneePublication(1831)
+                .nombreExemplaires(1)
+                .auteurId(livre.getAuteur().getId())
+                .build();
+        List<LivreDTO> lot = List.of(
+                LivreDTO.builder().titre("Notre-Dame de Paris (import)").isbn("9782070413089")
+                        .anneePublication(1831).nombreExemplaires(1).auteurId(livre.getAuteur().getId()).build(),
+                LivreDTO.builder().titre("Les Contemplations").isbn("9782070413554")
+                        .anneePublication(1856).nombreExemplaires(1).auteurId(livre.getAuteur().getId()).build());
+
+        CountDownLatch creation = new CountDownLatch(1);
+        CountDownLatch commitCreation = new CountDownLatch(1);
+        // L'ISBN est créé sans être validé : le contrôle de l'import ne le voit pas
+        Future<?> ecrivain = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            livreService.createLivre(concurrent);
+            creation.countDown();
+            try {
+                commitCreation.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(creation.await(10, TimeUnit.SECONDS)).isTrue();
+        Future<ImportResultatDTO> import_ = executor.submit(() -> livreImportService.importerLivres(lot));
+
+        Thread.sleep(300);
+        commitCreation.countDown();
+        ecrivain.get(10, TimeUnit.SECONDS);
+        ImportResultatDTO resultat = import_.get(10, TimeUnit.SECONDS);
+
+        assertThat(resultat.getCrees()).isEqualTo(1);
+        assertThat(resultat.getRejetes()).isEqualTo(1);
+        assertThat(resultat.getLignes()).extracting(ImportLigneDTO::getStatut)
+                .containsExactly(ImportLigneDTO.Statut.REJETE, ImportLigneDTO.Statut.CREE);
+        assertThat(livreRepository.findByIsbn("9782070413089")).get()
+                .extracting(Livre::getTitre).isEqualTo("Notre-Dame de Paris");
+    }
+
+    @Test
+    @DisplayName("Deux reprises simultanées d'un même import ne s'appliquent pas toutes les deux")
+    void importerFlux_ReprisesConcurrentes_UneSeuleAppliquee() throws Exception {
+        String ndjson = """
+                {"titre":"Germinal","isbn":"9782070413119","anneePublication":1885,"auteurId":%d}
+                {"titre":"Madame Bovary","isbn":"9782070360024","anneePublication":1857,"auteurId":%d}
+                """.formatted(livre.getAuteur().getId(), livre.getAuteur().getId());
+
+        // Première reprise : point de reprise lu, puis bloquée sur un flux qui n'arrive pas encore
+        PipedOutputStream envoi = new PipedOutputStream();
+        PipedInputStream recu = new PipedInputStream(envoi);
+        Future<ImportFluxResultatDTO> lente = executor.submit(() ->
+                livreImportFluxService.importer(recu, FormatImport.NDJSON, "reprise-concurrente"));
+        for (int i = 0; i < 100 && !importCheckpointRepository.existsById("reprise-concurrente"); i++) {
+            Thread.sleep(50);
+        }
+
+        // Seconde reprise du même import, validée pendant ce temps
+        ImportFluxResultatDTO rapide = livreImportFluxService.importer(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), FormatImport.NDJSON,
+                "reprise-concurrente");
+        assertThat(rapide.getCrees()).isEqualTo(2);
+
+        envoi.write(ndjson.getBytes(StandardCharsets.UTF_8));
+        envoi.close();
+        assertThatThrownBy(() -> lente.get(30, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ConflitVersionException.class);
+
+        ImportFluxResultatDTO etat = livreImportFluxService.getImport("reprise-concurrente");
+        assertThat(etat.getLignesTraitees()).isEqualTo(2);
+        assertThat(etat.getCrees()).isEqualTo(2);
+        assertThat(etat.getRejetes()).isZero();
+        assertThat(livreRepository.count()).isEqualTo(3);
+    }
+}
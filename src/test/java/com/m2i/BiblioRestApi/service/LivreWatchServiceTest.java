@@ -0,0 +1,142 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires - LivreWatchService")
+class LivreWatchServiceTest {
+
+    @Mock
+    private LivreService livreService;
+
+    @InjectMocks
+    private LivreWatchService livreWatchService;
+
+    private LivreDTO livreDTO;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(livreWatchService, "timeoutParDefaut", 30000L);
+        ReflectionTestUtils.setField(livreWatchService, "timeoutMax", 120000L);
+
+        livreDTO = LivreDTO.builder()
+                .id(1L)
+                .titre("Les Misérables")
+                .isbn("9782070409228")
+                .anneePublication(1862)
+                .nombreExemplaires(0)
+                .auteurId(1L)
+                .version(3L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Devrait répondre immédiatement si la version du client est périmée")
+    void surveiller_WhenVersionIsStale_ShouldRespondImmediately() {
+        // Given
+        when(livreService.getLivreById(1L)).thenReturn(livreDTO);
+
+        // When
+        DeferredResult<ResponseEntity<LivreDTO>> resultat = livreWatchService.surveiller(1L, 2L, null);
+
+        // Then
+        assertThat(resultat.hasResult()).isTrue();
+        ResponseEntity<?> reponse = (ResponseEntity<?>) resultat.getResult();
+        assertThat(reponse.getBody()).isSameAs(livreDTO);
+    }
+
+    @Test
+    @DisplayName("Devrait attendre puis répondre après une modification du livre")
+    void surveiller_WhenVersionIsCurrent_ShouldWaitForChange() {
+        // Given
+        when(livreService.getLivreById(1L)).thenReturn(livreDTO);
+        DeferredResult<ResponseEntity<LivreDTO>> resultat = livreWatchService.surveiller(1L, 3L, 5000L);
+        assertThat(resultat.hasResult()).isFalse();
+        assertThat(livreWatchService.nombreSurveillances(1L)).isEqualTo(1);
+
+        LivreDTO modifie = LivreDTO.builder().id(1L).nombreExemplaires(2).version(4L).build();
+
+        // When
+        livreWatchService.onCatalogueEvent(
+                CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION, modifie));
+
+        // Then
+        assertThat(resultat.hasResult()).isTrue();
+        ResponseEntity<?> reponse = (ResponseEntity<?>) resultat.getResult();
+        assertThat(reponse.getBody()).isSameAs(modifie);
+        assertThat(livreWatchService.nombreSurveillances(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les modifications des autres livres")
+    void onCatalogueEvent_ForAnotherBook_ShouldKeepWaiting() {
+        // Given
+        when(livreService.getLivreById(1L)).thenReturn(livreDTO);
+        DeferredResult<ResponseEntity<LivreDTO>> resultat = livreWatchService.surveiller(1L, 3L, null);
+
+        // When
+        livreWatchService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                LivreDTO.builder().id(2L).version(1L).build()));
+
+        // Then
+        assertThat(resultat.hasResult()).isFalse();
+        assertThat(livreWatchService.nombreSurveillances(1L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait répondre 410 si le livre surveillé est supprimé")
+    void onCatalogueEvent_WhenBookDeleted_ShouldRespondGone() {
+        // Given
+        when(livreService.getLivreById(1L)).thenReturn(livreDTO);
+        DeferredResult<ResponseEntity<LivreDTO>> resultat = livreWatchService.surveiller(1L, 3L, null);
+
+        // When
+        livreWatchService.onCatalogueEvent(
+                CatalogueEvent.livre(CatalogueEvent.Operation.SUPPRESSION, livreDTO));
+
+        // Then
+        ResponseEntity<?> reponse = (ResponseEntity<?>) resultat.getResult();
+        assertThat(reponse.getStatusCode()).isEqualTo(HttpStatus.GONE);
+    }
+
+    @Test
+    @DisplayName("Devrait propager l'absence du livre sans laisser de surveillance")
+    void surveiller_WhenBookNotExists_ShouldThrowException() {
+        // Given
+        when(livreService.getLivreById(999L)).thenThrow(new ResourceNotFoundException("Livre", "id", 999L));
+
+        // When & Then
+        assertThatThrownBy(() -> livreWatchService.surveiller(999L, 1L, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(livreWatchService.nombreSurveillances(999L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un délai d'attente nul ou négatif sans enregistrer de surveillance")
+    void surveiller_WithNonPositiveTimeout_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> livreWatchService.surveiller(1L, 3L, 0L))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> livreWatchService.surveiller(1L, 3L, -1L))
+                .isInstanceOf(BusinessException.class);
+        assertThat(livreWatchService.nombreSurveillances(1L)).isZero();
+        verifyNoInteractions(livreService);
+    }
+}
@@ -0,0 +1,232 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.AuteurDTO;
+import com.m2i.BiblioRestApi.dto.LivreDTO;
+import com.m2i.BiblioRestApi.event.CatalogueEvent;
+import com.m2i.BiblioRestApi.repository.AuteurRepository;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires - ModeleLectureService")
+class ModeleLectureServiceTest {
+
+    @Mock
+    private LivreRepository livreRepository;
+
+    @Mock
+    private AuteurRepository auteurRepository;
+
+    @InjectMocks
+    private ModeleLectureService modeleLectureService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(modeleLectureService, "actif", true);
+        ReflectionTestUtils.setField(modeleLectureService, "dureePierresTombalesMs", 60_000L);
+
+        doAnswer(invocation -> {
+            ResultSet ligne = mock(ResultSet.class);
+            when(ligne.getLong("id")).thenReturn(1L);
+            when(ligne.getString("nom")).thenReturn("Hugo");
+            when(ligne.getString("prenom")).thenReturn("Victor");
+            when(ligne.getLong("version")).thenReturn(0L);
+            invocation.<RowCallbackHandler>getArgument(0).processRow(ligne);
+            return null;
+        }).when(auteurRepository).parcourirAuteurs(any());
+        doAnswer(invocation -> {
+            ResultSet ligne = mock(ResultSet.class);
+            when(ligne.getLong("id")).thenReturn(10L);
+            when(ligne.getString("titre")).thenReturn("Les Misérables");
+            when(ligne.getString("isbn")).thenReturn("9782070409228");
+            when(ligne.getInt("annee_publication")).thenReturn(1862);
+            when(ligne.getInt("nombre_exemplaires")).thenReturn(5);
+            when(ligne.getLong("auteur_id")).thenReturn(1L);
+            when(ligne.getString("nom_complet_auteur")).thenReturn("Victor Hugo");
+            when(ligne.getLong("version")).thenReturn(0L);
+            invocation.<RowCallbackHandler>getArgument(0).processRow(ligne);
+            return null;
+        }).when(livreRepository).parcourirCatalogue(any());
+
+        modeleLectureService.charger();
+    }
+
+    @Test
+    @DisplayName("Devrait charger les livres et les auteurs avec leurs index")
+    void charger_ShouldIndexCatalogue() {
+        assertThat(modeleLectureService.getLivre(10L)).get()
+                .extracting(LivreDTO::getTitre).isEqualTo("Les Misérables");
+        assertThat(modeleLectureService.getLivreParIsbn("9782070409228")).get()
+                .extracting(LivreDTO::getId).isEqualTo(10L);
+        assertThat(modeleLectureService.getLivresParAuteur(1L)).get()
+                .satisfies(livres -> assertThat(livres).extracting(LivreDTO::getId).containsExactly(10L));
+        assertThat(modeleLectureService.getAuteur(1L)).get()
+                .extracting(AuteurDTO::getNombreLivres).isEqualTo(1);
+        assertThat(modeleLectureService.getLivre(11L)).isEmpty();
+        assertThat(modeleLectureService.getLivresParAuteur(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait remplacer le modèle par une copie, sans modifier l'ancien")
+    void onCatalogueEvent_ShouldSwapNewModel() {
+        ModeleLectureService.Modele avant = modeleLectureService.getModele().orElseThrow();
+
+        modeleLectureService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                livre(11L, "Notre-Dame de Paris", "9782070413554", 0L)));
+
+        ModeleLectureService.Modele apres = modeleLectureService.getModele().orElseThrow();
+        assertThat(apres).isNotSameAs(avant);
+        assertThat(avant.livres()).hasSize(1);
+        assertThat(apres.livres()).extracting(LivreDTO::getId).containsExactly(10L, 11L);
+        assertThat(apres.auteursParId().get(1L).getNombreLivres()).isEqualTo(2);
+        // Le livre inchangé est partagé entre les deux modèles
+        assertThat(apres.livresParId().get(10L)).isSameAs(avant.livresParId().get(10L));
+    }
+
+    @Test
+    @DisplayName("Devrait recopier les livres d'un auteur renommé")
+    void onCatalogueEvent_AuteurRenomme_ShouldUpdateNomCompletAuteur() {
+        modeleLectureService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION,
+                AuteurDTO.builder().id(1L).nom("Hugo").prenom("V.").version(1L).build()));
+
+        assertThat(modeleLectureService.getLivre(10L)).get()
+                .extracting(LivreDTO::getNomCompletAuteur).isEqualTo("V. Hugo");
+        assertThat(modeleLectureService.getAuteur(1L)).get()
+                .extracting(AuteurDTO::getNombreLivres).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer une écriture plus ancienne que l'état du modèle")
+    void onCatalogueEvent_OlderVersion_ShouldBeIgnored() {
+        modeleLectureService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "Les Misérables (v2)", "9782070409228", 2L)));
+        modeleLectureService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "Les Misérables (v1)", "9782070409228", 1L)));
+
+        assertThat(modeleLectureService.getLivre(10L)).get()
+                .extracting(LivreDTO::getTitre).isEqualTo("Les Misérables (v2)");
+    }
+
+    @Test
+    @DisplayName("Devrait retirer un livre supprimé de tous les index")
+    void onCatalogueEvent_Suppression_ShouldRemoveLivre() {
+        modeleLectureService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                CatalogueEvent.Operation.SUPPRESSION, 10L, null));
+
+        assertThat(modeleLectureService.getLivre(10L)).isEmpty();
+        assertThat(modeleLectureService.getLivreParIsbn("9782070409228")).isEmpty();
+        assertThat(modeleLectureService.getLivresParAuteur(1L)).get()
+                .satisfies(livres -> assertThat(livres).isEmpty());
+        assertThat(modeleLectureService.getAuteur(1L)).get()
+                .extracting(AuteurDTO::getNombreLivres).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas faire réapparaître un livre supprimé par une écriture plus ancienne")
+    void onCatalogueEvent_StaleWriteAfterDeletion_ShouldBeIgnored() {
+        modeleLectureService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                CatalogueEvent.Operation.SUPPRESSION, 10L, livre(10L, "Les Misérables", "9782070409228", 1L)));
+        // Validée avant la suppression, appliquée après elle
+        modeleLectureService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                livre(10L, "Les Misérables (v1)", "9782070409228", 1L)));
+        modeleLectureService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.AUTEUR,
+                CatalogueEvent.Operation.SUPPRESSION, 1L, null));
+        modeleLectureService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION,
+                AuteurDTO.builder().id(1L).nom("Hugo").prenom("V.").version(3L).build()));
+
+        assertThat(modeleLectureService.getLivre(10L)).isEmpty();
+        assertThat(modeleLectureService.getLivreParIsbn("9782070409228")).isEmpty();
+        assertThat(modeleLectureService.getAuteur(1L)).isEmpty();
+        assertThat(modeleLectureService.getModele().orElseThrow().livres()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait purger les pierres tombales expirées")
+    void onCatalogueEvent_ExpiredTombstones_ShouldBePurged() {
+        ReflectionTestUtils.setField(modeleLectureService, "dureePierresTombalesMs", 0L);
+        modeleLectureService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                CatalogueEvent.Operation.SUPPRESSION, 10L, livre(10L, "Les Misérables", "9782070409228", 1L)));
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(modeleLectureService, "livresSupprimes")).hasSize(1);
+        modeleLectureService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.AUTEUR,
+                CatalogueEvent.Operation.SUPPRESSION, 1L, null));
+
+        // Toute écriture appliquée ensuite purge les pierres expirées
+        modeleLectureService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.CREATION,
+                AuteurDTO.builder().id(2L).nom("Zola").prenom("Émile").version(0L).build()));
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(modeleLectureService, "livresSupprimes")).isEmpty();
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(modeleLectureService, "auteursSupprimes")).isEmpty();
+        assertThat(modeleLectureService.getLivre(10L)).isEmpty();
+        assertThat(modeleLectureService.getAuteur(2L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Devrait obtenir par deltas le même modèle qu'une reconstruction complète")
+    void onCatalogueEvent_Deltas_ShouldMatchFullRebuild() {
+        ModeleLectureService.Modele avant = modeleLectureService.getModele().orElseThrow();
+        LivreDTO changeDAuteur = livre(12L, "Les Contemplations", "9782070413089", 0L);
+        changeDAuteur.setAuteurId(2L);
+
+        // Une seule transaction : livres créés, déplacés, supprimés, auteurs créés et renommés
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            modeleLectureService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.CREATION,
+                    AuteurDTO.builder().id(2L).nom("Zola").prenom("Émile").version(0L).build()));
+            modeleLectureService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                    livre(12L, "Les Contemplations", "9782070413089", 0L)));
+            modeleLectureService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.CREATION,
+                    livre(11L, "Notre-Dame de Paris", "9782070413554", 0L)));
+            modeleLectureService.onCatalogueEvent(CatalogueEvent.livre(CatalogueEvent.Operation.MODIFICATION,
+                    changeDAuteur));
+            modeleLectureService.onCatalogueEvent(CatalogueEvent.auteur(CatalogueEvent.Operation.MODIFICATION,
+                    AuteurDTO.builder().id(1L).nom("Hugo").prenom("V.").version(1L).build()));
+            modeleLectureService.onCatalogueEvent(new CatalogueEvent(CatalogueEvent.Ressource.LIVRE,
+                    CatalogueEvent.Operation.SUPPRESSION, 10L, null));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronisation -> synchronisation.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ModeleLectureService.Modele apres = modeleLectureService.getModele().orElseThrow();
+        assertThat(apres).isEqualTo(ModeleLectureService.construire(apres.livresParId(), apres.auteursParId()));
+        assertThat(apres.livres()).extracting(LivreDTO::getId).containsExactly(11L, 12L);
+        assertThat(apres.livresParId().get(11L).getNomCompletAuteur()).isEqualTo("V. Hugo");
+        assertThat(apres.livresParId().get(12L).getNomCompletAuteur()).isEqualTo("Émile Zola");
+        assertThat(apres.auteurs()).extracting(AuteurDTO::getNombreLivres).containsExactly(1, 1);
+        // L'ancien modèle reste intact
+        assertThat(avant.livres()).extracting(LivreDTO::getId).containsExactly(10L);
+        assertThat(avant.livresParAuteur().get(1L)).extracting(LivreDTO::getId).containsExactly(10L);
+    }
+
+    private static LivreDTO livre(Long id, String titre, String isbn, Long version) {
+        return LivreDTO.builder()
+                .id(id)
+                .titre(titre)
+                .isbn(isbn)
+                .anneePublication(1831)
+                .nombreExemplaires(3)
+                .auteurId(1L)
+                .nomCompletAuteur("Victor Hugo")
+                .version(version)
+                .build();
+    }
+}
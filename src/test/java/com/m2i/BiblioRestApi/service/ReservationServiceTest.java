@@ -0,0 +1,213 @@
+package com.m2i.BiblioRestApi.service;
+
+import com.m2i.BiblioRestApi.dto.ReservationDTO;
+import com.m2i.BiblioRestApi.exception.BusinessException;
+import com.m2i.BiblioRestApi.exception.DuplicateResourceException;
+import com.m2i.BiblioRestApi.mapper.ReservationMapper;
+import com.m2i.BiblioRestApi.model.Livre;
+import com.m2i.BiblioRestApi.model.Reservation;
+import com.m2i.BiblioRestApi.model.StatutReservation;
+import com.m2i.BiblioRestApi.repository.LivreRepository;
+import com.m2i.BiblioRestApi.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests unitaires - ReservationService")
+class ReservationServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private LivreRepository livreRepository;
+
+    @Spy
+    private ReservationMapper reservationMapper;
+
+    @InjectMocks
+    private ReservationService reservationService;
+
+    private Livre livre;
+    private final Map<Long, Reservation> reservations = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        livre = Livre.builder()
+                .id(1L)
+                .titre("Les Misérables")
+                .isbn("9782070409228")
+                .anneePublication(1862)
+                .nombreExemplaires(0)
+                .build();
+
+        lenient().when(livreRepository.findVerrouilleById(1L)).thenReturn(Optional.of(livre));
+        Answer<Reservation> enregistrer = invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            if (reservation.getId() == null) {
+                reservation.setId(sequence.incrementAndGet());
+            }
+            reservations.put(reservation.getId(), reservation);
+            return reservation;
+        };
+        lenient().when(reservationRepository.save(any(Reservation.class))).thenAnswer(enregistrer);
+        lenient().when(reservationRepository.saveAndFlush(any(Reservation.class))).thenAnswer(enregistrer);
+        lenient().when(reservationRepository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(reservations.get(invocation.<Long>getArgument(0))));
+    }
+
+    @Test
+    @DisplayName("Devrait inscrire les lecteurs dans l'ordre d'arrivée")
+    void creerReservation_ShouldQueueInArrivalOrder() {
+        // When
+        ReservationDTO premiere = reservationService.creerReservation(1L, "alice", false);
+        ReservationDTO seconde = reservationService.creerReservation(1L, "bob", false);
+
+        // Then
+        assertThat(premiere.getStatut()).isEqualTo(StatutReservation.EN_ATTENTE);
+        assertThat(premiere.getPosition()).isEqualTo(1);
+        assertThat(seconde.getPosition()).isEqualTo(2);
+        assertThat(reservationService.tailleFile(1L)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Devrait accorder une avance aux administrateurs quand elle est configurée")
+    void creerReservation_WhenAdminAdvance_ShouldJumpQueue() {
+        // Given
+        ReflectionTestUtils.setField(reservationService, "avanceAdminMinutes", 60L);
+        reservationService.creerReservation(1L, "alice", false);
+
+        // When
+        ReservationDTO admin = reservationService.creerReservation(1L, "admin", true);
+
+        // Then
+        assertThat(admin.getPosition()).isEqualTo(1);
+        assertThat(reservationService.getReservation(admin.getId()).getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une réservation si le livre est disponible")
+    void creerReservation_WhenBookAvailable_ShouldThrowException() {
+        // Given
+        livre.setNombreExemplaires(2);
+
+        // When & Then
+        assertThatThrownBy(() -> reservationService.creerReservation(1L, "alice", false))
+                .isInstanceOf(BusinessException.class);
+        verify(reservationRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une seconde réservation en attente du même lecteur")
+    void creerReservation_WhenAlreadyWaiting_ShouldThrowException() {
+        // Given
+        when(reservationRepository.saveAndFlush(any(Reservation.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("Unique index or primary key violation: "
+                + "\"PUBLIC.UK_RESERVATIONS_ATTENTE_INDEX_2 ON PUBLIC.RESERVATIONS(LIVRE_ID, USERNAME, EN_ATTENTE)\"")));
+
+        // When & Then
+        assertThatThrownBy(() -> reservationService.creerReservation(1L, "alice", false))
+                .isInstanceOf(DuplicateResourceException.class);
+        assertThat(reservationService.tailleFile(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait promouvoir les premiers de la file quand le stock augmente")
+    void attribuerExemplaires_ShouldPromoteHeadOfQueue() {
+        // Given
+        ReservationDTO alice = reservationService.creerReservation(1L, "alice", false);
+        ReservationDTO bob = reservationService.creerReservation(1L, "bob", false);
+        ReservationDTO carol = reservationService.creerReservation(1L, "carol", false);
+        livre.setNombreExemplaires(2);
+
+        // When
+        int promues = reservationService.attribuerExemplaires(livre);
+
+        // Then
+        verify(livreRepository).verrouiller(livre);
+        assertThat(promues).isEqualTo(2);
+        assertThat(livre.getNombreExemplaires()).isZero();
+        assertThat(reservations.get(alice.getId()).getStatut()).isEqualTo(StatutReservation.PROMUE);
+        assertThat(reservations.get(bob.getId()).getStatut()).isEqualTo(StatutReservation.PROMUE);
+        assertThat(reservations.get(carol.getId()).getStatut()).isEqualTo(StatutReservation.EN_ATTENTE);
+        assertThat(reservationService.getReservation(carol.getId()).getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les réservations annulées lors de la promotion")
+    void attribuerExemplaires_ShouldSkipCancelledReservations() {
+        // Given
+        ReservationDTO alice = reservationService.creerReservation(1L, "alice", false);
+        ReservationDTO bob = reservationService.creerReservation(1L, "bob", false);
+        reservationService.annulerReservation(alice.getId(), "alice", false);
+        livre.setNombreExemplaires(1);
+
+        // When
+        int promues = reservationService.attribuerExemplaires(livre);
+
+        // Then
+        assertThat(promues).isEqualTo(1);
+        assertThat(reservations.get(bob.getId()).getStatut()).isEqualTo(StatutReservation.PROMUE);
+        assertThat(reservationService.tailleFile(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait refuser l'annulation par un autre lecteur")
+    void annulerReservation_WhenNotOwner_ShouldThrowException() {
+        // Given
+        ReservationDTO alice = reservationService.creerReservation(1L, "alice", false);
+
+        // When & Then
+        assertThatThrownBy(() -> reservationService.annulerReservation(alice.getId(), "bob", false))
+                .isInstanceOf(BusinessException.class);
+        assertThat(reservations.get(alice.getId()).getStatut()).isEqualTo(StatutReservation.EN_ATTENTE);
+    }
+
+    @Test
+    @DisplayName("Devrait reconstruire l'index à partir des réservations persistées")
+    void reconstruireIndex_ShouldRestoreQueueOrder() {
+        // Given
+        Reservation ancienne = Reservation.builder()
+                .id(10L).livre(livre).username("alice")
+                .dateDemande(LocalDateTime.now().minusHours(2)).priorite(100L)
+                .statut(StatutReservation.EN_ATTENTE).build();
+        Reservation recente = Reservation.builder()
+                .id(11L).livre(livre).username("bob")
+                .dateDemande(LocalDateTime.now()).priorite(200L)
+                .statut(StatutReservation.EN_ATTENTE).build();
+        reservations.put(10L, ancienne);
+        reservations.put(11L, recente);
+        when(reservationRepository.findByStatut(StatutReservation.EN_ATTENTE))
+                .thenReturn(List.of(recente, ancienne));
+
+        // When
+        reservationService.reconstruireIndex();
+
+        // Then
+        assertThat(reservationService.tailleFile(1L)).isEqualTo(2);
+        assertThat(reservationService.getReservation(10L).getPosition()).isEqualTo(1);
+        assertThat(reservationService.getReservation(11L).getPosition()).isEqualTo(2);
+    }
+}